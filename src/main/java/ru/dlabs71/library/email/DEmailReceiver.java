@@ -2,18 +2,32 @@ package ru.dlabs71.library.email;
 
 import static ru.dlabs71.library.email.client.receiver.IMAPDClient.DEFAULT_INBOX_FOLDER_NAME;
 
+import jakarta.mail.Flags;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import ru.dlabs71.library.email.client.receiver.FolderEventListener;
+import ru.dlabs71.library.email.client.receiver.FolderSubscription;
 import ru.dlabs71.library.email.client.receiver.IMAPDClient;
+import ru.dlabs71.library.email.client.receiver.MessageIterator;
+import ru.dlabs71.library.email.client.receiver.POP3DClient;
 import ru.dlabs71.library.email.client.receiver.ReceiverDClient;
+import ru.dlabs71.library.email.client.receiver.SyncCheckpointStore;
 import ru.dlabs71.library.email.dto.message.common.EmailParticipant;
 import ru.dlabs71.library.email.dto.message.incoming.IncomingMessage;
 import ru.dlabs71.library.email.dto.message.incoming.MessageView;
+import ru.dlabs71.library.email.dto.pageable.CursorPageRequest;
+import ru.dlabs71.library.email.dto.pageable.CursorPageResponse;
 import ru.dlabs71.library.email.dto.pageable.PageRequest;
 import ru.dlabs71.library.email.dto.pageable.PageResponse;
+import ru.dlabs71.library.email.dto.search.EmailSearchQuery;
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+import ru.dlabs71.library.email.dto.sync.SyncResult;
 import ru.dlabs71.library.email.property.ImapProperties;
+import ru.dlabs71.library.email.property.Pop3Properties;
 import ru.dlabs71.library.email.util.JavaCoreUtils;
 
 /**
@@ -25,6 +39,8 @@ import ru.dlabs71.library.email.util.JavaCoreUtils;
  * <p>Checking and reading emails executes as pageable. By the default page has the size = 50 elements
  * and start index is 0. You can use a customize page request by using the methods supports pageable requests
  * (e.g. {@link DEmailReceiver#readEmail(PageRequest)} or {@link DEmailReceiver#checkEmail(PageRequest)}).
+ * Page requests use message numbers, which shift when messages are deleted. For stable pagination over a folder
+ * being modified, use the cursor page requests ({@link CursorPageRequest}) based on UIDs of messages.
  * <p>
  * <div><strong>Project name:</strong> d-email</div>
  * <div><strong>Creation date:</strong> 2023-09-02</div>
@@ -32,7 +48,7 @@ import ru.dlabs71.library.email.util.JavaCoreUtils;
  * @author Ivanov Danila
  * @since 1.0.0
  */
-public final class DEmailReceiver {
+public final class DEmailReceiver implements AutoCloseable {
 
     /** Default page request. **/
     public static final PageRequest DEFAULT_PAGE_REQUEST = PageRequest.of(0, 50);
@@ -52,6 +68,25 @@ public final class DEmailReceiver {
         this.receiverClient = new IMAPDClient(properties);
     }
 
+    /**
+     * The constructor of the class.
+     *
+     * @param properties properties for connecting to an email server by POP3 protocol
+     */
+    public DEmailReceiver(Pop3Properties properties) {
+        this.receiverClient = new POP3DClient(properties);
+    }
+
+    /**
+     * The constructor of the class with the given receiver client.
+     *
+     * @param receiverClient the client for receiving messages
+     */
+    DEmailReceiver(ReceiverDClient receiverClient) {
+        JavaCoreUtils.notNullArgument(receiverClient, "receiverClient");
+        this.receiverClient = receiverClient;
+    }
+
     /**
      * Creates instance of the {@link DEmailReceiver} class.
      *
@@ -63,6 +98,17 @@ public final class DEmailReceiver {
         return new DEmailReceiver(properties);
     }
 
+    /**
+     * Creates instance of the {@link DEmailReceiver} class.
+     *
+     * @param properties properties for connecting to an email server by POP3 protocol
+     *
+     * @return instance of the {@link DEmailReceiver} class
+     */
+    public static DEmailReceiver of(Pop3Properties properties) {
+        return new DEmailReceiver(properties);
+    }
+
     /**
      * Changes folder for reading messages.
      *
@@ -124,6 +170,26 @@ public final class DEmailReceiver {
         return PageResponse.of(messageViews, totalCount, metadata);
     }
 
+    /**
+     * Checks email using the UIDs of messages. Returns only common information about messages.
+     * The messages won't have a read flag. Pages don't shift when messages are deleted from the folder.
+     *
+     * <p>Start with {@code CursorPageRequest.of(length)} and then use the request from
+     * the {@link CursorPageResponse#getNextPageRequest()} method.
+     *
+     * @param pageRequest the cursor page request
+     *
+     * @return object of class {@link CursorPageResponse}. Elements in the list of data have the type
+     *     {@link MessageView}.
+     *
+     * @throws ru.dlabs71.library.email.exception.UidValidityException if the UIDVALIDITY of the folder has changed
+     */
+    public CursorPageResponse<MessageView> checkEmail(CursorPageRequest pageRequest) {
+        String currentFolderName = folderName;
+        Map<String, Object> metadata = JavaCoreUtils.makeMap(FOLDER_NAME_KEY_METADATA, currentFolderName);
+        return this.receiverClient.checkEmailMessages(currentFolderName, pageRequest).withMetadata(metadata);
+    }
+
     /**
      * Reads email (first 50 messages). Returns full information about messages (with a content and attachment).
      * The read flag will be set up in every message.
@@ -158,6 +224,37 @@ public final class DEmailReceiver {
         return PageResponse.of(messages, totalCount, metadata);
     }
 
+    /**
+     * Reads email using the UIDs of messages. Returns full information about messages (with a content and attachment).
+     * The read flag will be set up in every message. Pages don't shift when messages are deleted from the folder.
+     *
+     * @param pageRequest the cursor page request
+     *
+     * @return object of class {@link CursorPageResponse}. Elements in the list of data have the type
+     *     {@link IncomingMessage}.
+     *
+     * @throws ru.dlabs71.library.email.exception.UidValidityException if the UIDVALIDITY of the folder has changed
+     */
+    public CursorPageResponse<IncomingMessage> readEmail(CursorPageRequest pageRequest) {
+        String currentFolderName = folderName;
+        Map<String, Object> metadata = JavaCoreUtils.makeMap(FOLDER_NAME_KEY_METADATA, currentFolderName);
+        return this.receiverClient.readMessages(currentFolderName, pageRequest).withMetadata(metadata);
+    }
+
+    /**
+     * Reads one email message by its UID.
+     *
+     * @param uid the UID of a message
+     *
+     * @return object of the class {@link IncomingMessage} or null if there is no message with the UID
+     */
+    public IncomingMessage readMessageByUid(Long uid) {
+        if (uid == null) {
+            return null;
+        }
+        return this.receiverClient.readMessageByUid(folderName, uid);
+    }
+
     /**
      * Reads one email message by its identifier.
      *
@@ -172,6 +269,130 @@ public final class DEmailReceiver {
         return this.receiverClient.readMessageById(folderName, id);
     }
 
+    /**
+     * Returns the iterator over all the messages in the current folder. Messages are read by pages of the default
+     * size while iterating. Messages will be marked as read.
+     * Use the method {@link DEmailReceiver#folder(String folderName)} to change folder. By default, it's "INBOX".
+     *
+     * @return the iterator of {@link IncomingMessage}. It must be closed if it isn't iterated to the end.
+     */
+    public MessageIterator<IncomingMessage> iterator() {
+        return this.iterator(DEFAULT_PAGE_REQUEST.getLength());
+    }
+
+    /**
+     * Returns the iterator over all the messages in the current folder. Messages are read by pages while iterating:
+     * the next page is read in the background while the current one is processed, so at most two pages are kept
+     * in memory whatever the folder size. Messages will be marked as read.
+     *
+     * @param pageSize the number of messages in a page
+     *
+     * @return the iterator of {@link IncomingMessage}. It must be closed if it isn't iterated to the end.
+     */
+    public MessageIterator<IncomingMessage> iterator(int pageSize) {
+        return this.receiverClient.iterator(folderName, pageSize);
+    }
+
+    /**
+     * Returns the stream of all the messages in the current folder. See the {@link #iterator()} method.
+     * The stream should be used in a try-with-resources statement, since closing the stream releases the folder.
+     *
+     * @return the stream of {@link IncomingMessage}
+     */
+    public Stream<IncomingMessage> stream() {
+        return this.iterator().stream();
+    }
+
+    /**
+     * Returns the stream of all the messages in the current folder. See the {@link #iterator(int)} method.
+     * The stream should be used in a try-with-resources statement, since closing the stream releases the folder.
+     *
+     * @param pageSize the number of messages in a page
+     *
+     * @return the stream of {@link IncomingMessage}
+     */
+    public Stream<IncomingMessage> stream(int pageSize) {
+        return this.iterator(pageSize).stream();
+    }
+
+    /**
+     * Synchronizes the current folder incrementally by steps of the default size. See the
+     * {@link #sync(SyncCheckpointStore, int, Consumer)} method.
+     *
+     * @param store   the storage of checkpoints
+     * @param handler the handler of synchronization steps
+     *
+     * @return the last saved checkpoint
+     */
+    public SyncCheckpoint sync(SyncCheckpointStore store, Consumer<SyncResult> handler) {
+        return this.sync(store, DEFAULT_PAGE_REQUEST.getLength(), handler);
+    }
+
+    /**
+     * Synchronizes the current folder incrementally. The synchronization starts from the checkpoint saved
+     * in the store, so only new messages and changes since the previous synchronization are transferred.
+     * Every step is passed to the handler, and then it's committed and its checkpoint is saved. If the handler throws
+     * an exception, then the step isn't committed and its checkpoint isn't saved, so the step will be repeated by
+     * the next synchronization. New messages of an IMAP folder aren't marked as read, and new messages of a POP3
+     * mailbox are remembered as read when the step is committed.
+     * Use the method {@link DEmailReceiver#folder(String folderName)} to change folder. By default, it's "INBOX".
+     *
+     * @param store     the storage of checkpoints
+     * @param batchSize the maximum number of new messages in one step
+     * @param handler   the handler of synchronization steps
+     *
+     * @return the last saved checkpoint
+     */
+    public SyncCheckpoint sync(SyncCheckpointStore store, int batchSize, Consumer<SyncResult> handler) {
+        JavaCoreUtils.notNullArgument(store, "store");
+        JavaCoreUtils.notNullArgument(handler, "handler");
+        String currentFolderName = this.folderName;
+        String account = this.receiver().getEmail();
+        SyncCheckpoint checkpoint = store.load(account, currentFolderName);
+        SyncResult result;
+        do {
+            result = this.receiverClient.sync(currentFolderName, checkpoint, batchSize);
+            handler.accept(result);
+            this.receiverClient.commitSync(result);
+            checkpoint = result.getCheckpoint();
+            store.save(account, currentFolderName, checkpoint);
+        } while (result.isHasMore());
+        return checkpoint;
+    }
+
+    /**
+     * Searches messages in the current folder on the server. The messages are filtered by the server,
+     * and only the UIDs of the matched messages are transferred.
+     * Use the method {@link DEmailReceiver#folder(String folderName)} to change folder. By default, it's "INBOX".
+     *
+     * @param query the search criteria. If it's null or empty, then all the messages match.
+     *
+     * @return the sorted list of UIDs of the matched messages
+     */
+    public List<Long> search(EmailSearchQuery query) {
+        return this.receiverClient.search(folderName, query);
+    }
+
+    /**
+     * Searches messages in the current folder on the server and returns short information about a page
+     * of the matched messages. Only the messages of the page are fetched. Messages won't be marked as read.
+     *
+     * @param query       the search criteria. If it's null or empty, then all the messages match.
+     * @param pageRequest the page of the matched messages sorted by UIDs
+     *
+     * @return the page of {@link MessageView} and the total count of the matched messages
+     */
+    public PageResponse<MessageView> search(EmailSearchQuery query, PageRequest pageRequest) {
+        String currentFolderName = this.folderName;
+        Map<String, Object> metadata = JavaCoreUtils.makeMap(FOLDER_NAME_KEY_METADATA, currentFolderName);
+        PageResponse<MessageView> response = this.receiverClient.searchEmailMessages(
+            currentFolderName,
+            query,
+            pageRequest
+        );
+        return PageResponse.of(response.getData(), response.getTotalCount(), metadata);
+    }
+
     /**
      * Delete all messages in the current folder.
      * Use the method {@link DEmailReceiver#folder(String folderName)} to change folder. By default, it's "INBOX".
@@ -193,6 +414,17 @@ public final class DEmailReceiver {
         return this.receiverClient.deleteMessages(folderName, ids);
     }
 
+    /**
+     * Delete several messages by their UIDs.
+     *
+     * @param uids the list of message UIDs
+     *
+     * @return a map with a key is a message UID, and a value is the result of deletion (true or false).
+     */
+    public Map<Long, Boolean> deleteMessagesByUid(Collection<Long> uids) {
+        return this.receiverClient.deleteMessagesByUid(folderName, uids);
+    }
+
     /**
      * Delete one message by the identifier.
      *
@@ -203,4 +435,63 @@ public final class DEmailReceiver {
     public boolean deleteMessageById(Integer id) {
         return this.receiverClient.deleteMessage(folderName, id);
     }
+
+    /**
+     * Sets or clears the flags of several messages by their identifiers. All the messages are changed by one request.
+     *
+     * @param ids   the list of message identifiers
+     * @param flags the flags (For example: {@code new Flags(Flags.Flag.SEEN)})
+     * @param value true for setting the flags, false for clearing them
+     *
+     * @return a map with a key is a message ID, and a value is the result of the operation (true or false).
+     */
+    public Map<Integer, Boolean> setFlags(Collection<Integer> ids, Flags flags, boolean value) {
+        return this.receiverClient.setFlags(folderName, ids, flags, value);
+    }
+
+    /**
+     * Sets or clears the flags of several messages by their UIDs. All the messages are changed by one request.
+     *
+     * @param uids  the list of message UIDs
+     * @param flags the flags (For example: {@code new Flags(Flags.Flag.SEEN)})
+     * @param value true for setting the flags, false for clearing them
+     *
+     * @return a map with a key is a message UID, and a value is the result of the operation (true or false).
+     */
+    public Map<Long, Boolean> setFlagsByUid(Collection<Long> uids, Flags flags, boolean value) {
+        return this.receiverClient.setFlagsByUid(folderName, uids, flags, value);
+    }
+
+    /**
+     * Marks several messages as read by their UIDs. All the messages are changed by one request.
+     * Use it for messages read in the peek mode (see {@link ImapProperties#isPeekRead()}).
+     *
+     * @param uids the list of message UIDs
+     *
+     * @return a map with a key is a message UID, and a value is the result of the operation (true or false).
+     */
+    public Map<Long, Boolean> markAsSeen(Collection<Long> uids) {
+        return this.receiverClient.markAsSeen(folderName, uids);
+    }
+
+    /**
+     * Subscribes to events of the current folder: new messages, expunged messages and changes of flags.
+     * Events are pushed by the server using the IMAP IDLE command, so polling by the {@link #checkEmail()} method
+     * isn't needed. The subscription uses a dedicated connection and reconnects automatically.
+     *
+     * @param listener the callback for events of the folder
+     *
+     * @return the active subscription. It must be closed when it isn't needed anymore.
+     */
+    public FolderSubscription subscribe(FolderEventListener listener) {
+        return this.receiverClient.subscribe(folderName, listener);
+    }
+
+    /**
+     * Closes the receiver client with all its opened folders and connections.
+     */
+    @Override
+    public void close() {
+        this.receiverClient.close();
+    }
 }
@@ -0,0 +1,400 @@
+package ru.dlabs71.library.email;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.client.receiver.IMAPDClient;
+import ru.dlabs71.library.email.client.receiver.MemorySyncCheckpointStore;
+import ru.dlabs71.library.email.client.receiver.ReceiverDClient;
+import ru.dlabs71.library.email.client.receiver.SyncCheckpointStore;
+import ru.dlabs71.library.email.dto.sync.SyncResult;
+import ru.dlabs71.library.email.property.ImapProperties;
+import ru.dlabs71.library.email.property.ReceiverManagerProperties;
+import ru.dlabs71.library.email.util.ConcurrentUtils;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The class polls many mailboxes by a small shared pool of threads. Every registered mailbox is synchronized
+ * incrementally (see the {@link DEmailReceiver#sync(SyncCheckpointStore, int, Consumer)} method), and the results
+ * are passed to the handler of the mailbox.
+ *
+ * <p>The poll interval of every mailbox adapts to its activity: it's reset to the minimum interval when the mailbox
+ * has new messages, and it's doubled up to the maximum interval otherwise. Flag changes and expunged messages
+ * aren't counted as activity, since they are usually made by the handler itself. The first polls are spread
+ * randomly over the minimum interval.
+ *
+ * <p>Connections are opened by polls only. A mailbox stays connected between polls only if it's polled often,
+ * and the number of connected mailboxes of one host is limited. Mailboxes waiting for a connection of a busy host
+ * are queued in the FIFO order, and the first of them is polled as soon as a connection is freed. So the numbers
+ * of threads and connections don't grow with the number of mailboxes.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public final class DEmailReceiverManager implements AutoCloseable {
+
+    private static final long EXECUTOR_TERMINATION_TIMEOUT_MINUTES = 1;
+
+    private final ReceiverManagerProperties properties;
+    private final Function<ImapProperties, ReceiverDClient> clientFactory;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, HostPermits> hostPermits = new ConcurrentHashMap<>();
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed = false;
+
+    /**
+     * The constructor of the class.
+     *
+     * @param properties properties of the manager
+     */
+    public DEmailReceiverManager(ReceiverManagerProperties properties) {
+        this(properties, IMAPDClient::new);
+    }
+
+    /**
+     * The constructor of the class with the custom factory of receiver clients.
+     *
+     * @param properties    properties of the manager
+     * @param clientFactory the factory creating a connected client by properties of a mailbox
+     */
+    public DEmailReceiverManager(
+        ReceiverManagerProperties properties,
+        Function<ImapProperties, ReceiverDClient> clientFactory
+    ) {
+        JavaCoreUtils.notNullArgument(properties, "properties");
+        JavaCoreUtils.notNullArgument(clientFactory, "clientFactory");
+        if (properties.getMinPollInterval() <= 0 || properties.getMaxPollInterval() < properties.getMinPollInterval()) {
+            throw new IllegalArgumentException("The poll intervals must be positive, and the minimum interval "
+                                                   + "mustn't be greater than the maximum one");
+        }
+        this.properties = properties;
+        this.clientFactory = clientFactory;
+        this.scheduler = new ScheduledThreadPoolExecutor(
+            Math.max(1, properties.getThreadPoolSize()),
+            ConcurrentUtils.namedThreadFactory("d-email-poll")
+        );
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Registers the mailbox folder for polling. Checkpoints are kept in the memory, so the first poll after
+     * a restart synchronizes the folder from the beginning.
+     *
+     * @param imapProperties properties for connecting to the mailbox
+     * @param folderName     the folder name in the mailbox
+     * @param handler        the handler of synchronization steps. It's called by threads of the manager.
+     *
+     * @return the registration. Closing of the registration stops polling of the folder.
+     */
+    public Registration register(ImapProperties imapProperties, String folderName, Consumer<SyncResult> handler) {
+        return this.register(imapProperties, folderName, new MemorySyncCheckpointStore(), handler);
+    }
+
+    /**
+     * Registers the mailbox folder for polling.
+     *
+     * @param imapProperties properties for connecting to the mailbox
+     * @param folderName     the folder name in the mailbox
+     * @param store          the storage of checkpoints of the folder
+     * @param handler        the handler of synchronization steps. It's called by threads of the manager.
+     *                       If it throws an exception, then the step is repeated by the next poll.
+     *
+     * @return the registration. Closing of the registration stops polling of the folder.
+     */
+    public Registration register(
+        ImapProperties imapProperties,
+        String folderName,
+        SyncCheckpointStore store,
+        Consumer<SyncResult> handler
+    ) {
+        JavaCoreUtils.notNullArgument(imapProperties, "imapProperties");
+        JavaCoreUtils.notNullArgument(store, "store");
+        JavaCoreUtils.notNullArgument(handler, "handler");
+        if (closed) {
+            throw new IllegalStateException("The manager is closed");
+        }
+        Registration registration = new Registration(
+            imapProperties,
+            folderName == null ? IMAPDClient.DEFAULT_INBOX_FOLDER_NAME : folderName,
+            store,
+            handler
+        );
+        registrations.add(registration);
+        long initialDelay = ThreadLocalRandom.current().nextLong(properties.getMinPollInterval());
+        registration.schedule(initialDelay);
+        log.debug("The folder {} of the mailbox {} was registered", registration.folderName, registration.email);
+        return registration;
+    }
+
+    /**
+     * Returns the number of the registered folders.
+     */
+    public int getRegistrationCount() {
+        return registrations.size();
+    }
+
+    /**
+     * Stops polling of all the folders and closes all the connections. It waits for the running polls.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        try {
+            if (!scheduler.awaitTermination(EXECUTOR_TERMINATION_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                log.warn("The polling threads of the manager weren't terminated in time");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        registrations.forEach(Registration::close);
+    }
+
+    private HostPermits getHostPermits(String host) {
+        String key = host == null ? "" : host.toLowerCase(Locale.ROOT);
+        int maxConnections = Math.max(1, properties.getMaxConnectionsPerHost());
+        return hostPermits.computeIfAbsent(key, k -> new HostPermits(maxConnections));
+    }
+
+    /**
+     * The connection permits of one host with the FIFO queue of the registrations waiting for a permit.
+     * A released permit is handed over to the first waiting registration directly, so the waiting registrations
+     * don't poll the permits.
+     */
+    private static final class HostPermits {
+
+        private final Deque<Registration> waiting = new ArrayDeque<>();
+        private int available;
+
+        HostPermits(int permits) {
+            this.available = permits;
+        }
+
+        /**
+         * Takes a free permit or puts the registration at the end of the queue.
+         *
+         * @return true if the permit was taken
+         */
+        synchronized boolean acquireOrEnqueue(Registration registration) {
+            if (available > 0) {
+                available--;
+                return true;
+            }
+            if (!waiting.contains(registration)) {
+                waiting.addLast(registration);
+            }
+            return false;
+        }
+
+        /**
+         * Hands over the permit to the first active waiting registration or returns it to the free permits.
+         */
+        void release() {
+            Registration next;
+            synchronized (this) {
+                do {
+                    next = waiting.pollFirst();
+                } while (next != null && !next.isActive());
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            next.grantPermit();
+        }
+
+        synchronized void remove(Registration registration) {
+            waiting.remove(registration);
+        }
+
+        synchronized boolean hasWaiting() {
+            return !waiting.isEmpty();
+        }
+    }
+
+    /**
+     * The registered folder of a mailbox.
+     */
+    public final class Registration implements AutoCloseable {
+
+        private final ImapProperties imapProperties;
+        @Getter
+        private final String email;
+        @Getter
+        private final String folderName;
+        private final SyncCheckpointStore store;
+        private final Consumer<SyncResult> handler;
+        private final HostPermits permits;
+        private final AtomicBoolean active = new AtomicBoolean(true);
+        private final AtomicBoolean grantedPermit = new AtomicBoolean(false);
+
+        /**
+         * The current poll interval in milliseconds.
+         */
+        @Getter
+        private volatile long pollInterval;
+        private DEmailReceiver receiver;
+        private boolean holdsPermit = false;
+        private ScheduledFuture<?> nextPoll;
+
+        private Registration(
+            ImapProperties imapProperties,
+            String folderName,
+            SyncCheckpointStore store,
+            Consumer<SyncResult> handler
+        ) {
+            this.imapProperties = imapProperties;
+            this.email = imapProperties.getEmail();
+            this.folderName = folderName;
+            this.store = store;
+            this.handler = handler;
+            this.permits = getHostPermits(imapProperties.getHost());
+            this.pollInterval = properties.getMinPollInterval();
+        }
+
+        /**
+         * Returns true if the folder is polled.
+         */
+        public boolean isActive() {
+            return active.get();
+        }
+
+        /**
+         * Returns true if the mailbox is connected between polls.
+         */
+        public synchronized boolean isConnected() {
+            return receiver != null;
+        }
+
+        /**
+         * Stops polling of the folder and closes the connection. It waits for the running poll.
+         */
+        @Override
+        public void close() {
+            if (!active.compareAndSet(true, false)) {
+                return;
+            }
+            registrations.remove(this);
+            permits.remove(this);
+            synchronized (this) {
+                if (nextPoll != null) {
+                    nextPoll.cancel(false);
+                }
+                this.disconnect();
+                this.returnGrantedPermit();
+            }
+            log.debug("The folder {} of the mailbox {} was unregistered", folderName, email);
+        }
+
+        private synchronized void schedule(long delay) {
+            if (!active.get() || scheduler.isShutdown()) {
+                return;
+            }
+            nextPoll = scheduler.schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Takes the permit released by another registration and polls the folder at once.
+         */
+        private void grantPermit() {
+            grantedPermit.set(true);
+            if (!active.get()) {
+                this.returnGrantedPermit();
+                return;
+            }
+            this.schedule(0);
+        }
+
+        private void returnGrantedPermit() {
+            if (grantedPermit.compareAndSet(true, false)) {
+                permits.release();
+            }
+        }
+
+        private void poll() {
+            long delay;
+            synchronized (this) {
+                if (!active.get()) {
+                    this.returnGrantedPermit();
+                    return;
+                }
+                if (!holdsPermit) {
+                    holdsPermit = grantedPermit.getAndSet(false) || permits.acquireOrEnqueue(this);
+                }
+                if (!holdsPermit) {
+                    // the registration is queued and will be polled when a permit is handed over to it
+                    log.debug("The connection limit of the host of the mailbox {} is reached", email);
+                    return;
+                }
+                delay = this.syncFolder();
+                if (delay > properties.getKeepConnectedInterval() || permits.hasWaiting()) {
+                    this.disconnect();
+                }
+            }
+            this.schedule(delay);
+        }
+
+        /**
+         * Synchronizes the folder and returns the delay of the next poll. Only new messages are counted as activity,
+         * since flag changes and expunged messages are usually made by the handler and would be reported by every
+         * next poll.
+         */
+        private long syncFolder() {
+            boolean changed = false;
+            try {
+                if (receiver == null) {
+                    receiver = new DEmailReceiver(clientFactory.apply(imapProperties));
+                }
+                receiver.folder(folderName);
+                AtomicBoolean hasNewMessages = new AtomicBoolean(false);
+                receiver.sync(store, properties.getBatchSize(), result -> {
+                    if (!result.getNewMessages().isEmpty()) {
+                        hasNewMessages.set(true);
+                    }
+                    handler.accept(result);
+                });
+                changed = hasNewMessages.get();
+            } catch (RuntimeException e) {
+                log.warn("The folder " + folderName + " of the mailbox " + email
+                             + " couldn't be synchronized because of the following error: " + e.getMessage());
+                this.disconnect();
+            }
+            pollInterval = changed
+                ? properties.getMinPollInterval()
+                : Math.min(properties.getMaxPollInterval(), pollInterval * 2);
+            log.debug("The mailbox {} was polled. The next poll is in {} ms", email, pollInterval);
+            return pollInterval;
+        }
+
+        private void disconnect() {
+            if (receiver != null) {
+                try {
+                    receiver.close();
+                } catch (RuntimeException e) {
+                    log.debug("The mailbox {} wasn't disconnected properly: {}", email, e.getMessage());
+                }
+                receiver = null;
+            }
+            if (holdsPermit) {
+                holdsPermit = false;
+                permits.release();
+            }
+        }
+    }
+}
@@ -5,10 +5,19 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 import ru.dlabs71.library.email.client.sender.SMTPDClient;
 import ru.dlabs71.library.email.client.sender.SenderDClient;
 import ru.dlabs71.library.email.dto.message.common.EmailAttachment;
@@ -22,10 +31,19 @@ import ru.dlabs71.library.email.property.SmtpProperties;
 import ru.dlabs71.library.email.type.ContentMessageType;
 import ru.dlabs71.library.email.type.SendingStatus;
 import ru.dlabs71.library.email.util.AttachmentUtils;
+import ru.dlabs71.library.email.util.ConcurrentUtils;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
 
 /**
  * This class implements the Facade pattern for sending email messages.
  * This class use the SMTP protocol.
+ *
+ * <p>Every sending method has an asynchronous variant (e.g. {@link #sendAsync(OutgoingMessage)}), which returns
+ * a {@link CompletableFuture} and sends a message by a bounded executor. You can set your own executor using
+ * the {@link #of(SmtpProperties, Executor)} method. Otherwise, the executor will be created by the first asynchronous
+ * sending (see {@link SmtpProperties#getAsyncThreadPoolSize()} and {@link SmtpProperties#getAsyncQueueCapacity()}).
+ * Close the sender using the {@link #close()} method. It waits for all the in-flight messages to be sent and
+ * releases all the connections.
  * <p>
  * <div><strong>Project name:</strong> d-email</div>
  * <div><strong>Creation date:</strong> 2023-09-18</div>
@@ -33,18 +51,32 @@ import ru.dlabs71.library.email.util.AttachmentUtils;
  * @author Ivanov Danila
  * @since 1.0.0
  */
-public final class DEmailSender {
+@Slf4j
+public final class DEmailSender implements AutoCloseable {
+
+    private static final long EXECUTOR_TERMINATION_TIMEOUT_MINUTES = 1;
 
     private final SenderDClient senderClient;
     private final Charset defaultCharset;
+    private final int asyncThreadPoolSize;
+    private final int asyncQueueCapacity;
+    private final Set<CompletableFuture<SendingStatus>> inFlightSends = ConcurrentHashMap.newKeySet();
+    private volatile Executor executor;
+    private volatile boolean ownExecutor = false;
+    private volatile boolean closed = false;
 
     /**
      * Constructor of the class.
      *
      * @param smtpProperties properties for connecting to an email server by the SMTP protocol ({@link SmtpProperties})
+     * @param executor       an executor for asynchronous sending. If it is null, then the default executor
+     *                       will be created.
      */
-    private DEmailSender(SmtpProperties smtpProperties) {
+    private DEmailSender(SmtpProperties smtpProperties, Executor executor) {
         this.defaultCharset = smtpProperties.getCharset();
+        this.asyncThreadPoolSize = smtpProperties.getAsyncThreadPoolSize();
+        this.asyncQueueCapacity = smtpProperties.getAsyncQueueCapacity();
+        this.executor = executor;
         this.senderClient = new SMTPDClient(smtpProperties);
     }
 
@@ -56,7 +88,21 @@ public final class DEmailSender {
      * @return object of the class {@link DEmailSender}
      */
     public static DEmailSender of(SmtpProperties properties) {
-        return new DEmailSender(properties);
+        return new DEmailSender(properties, null);
+    }
+
+    /**
+     * Creates instance of the {@link DEmailSender} class with a custom executor for asynchronous sending.
+     * The executor isn't shut down by the {@link #close()} method. You manage its lifecycle yourself.
+     *
+     * @param properties properties for connecting to an email server by the SMTP protocol ({@link SmtpProperties})
+     * @param executor   an executor for asynchronous sending
+     *
+     * @return object of the class {@link DEmailSender}
+     */
+    public static DEmailSender of(SmtpProperties properties, Executor executor) {
+        JavaCoreUtils.notNullArgument(executor, "executor");
+        return new DEmailSender(properties, executor);
     }
 
     /**
@@ -863,4 +909,272 @@ public final class DEmailSender {
     public SendingStatus send(OutgoingMessage message) {
         return this.senderClient.send(message);
     }
+
+    /**
+     * The method for sending {@link OutgoingMessage} messages through the durable outbound spool. The message is
+     * written to the journal of the spool and is sent by a background thread with retries, so it isn't lost when
+     * the SMTP server is unavailable or the application is restarted. The method returns as soon as the message
+     * is written to the disk.
+     *
+     * <p>The spool is enabled by the {@link SmtpProperties#getSpoolDirectory()} property. If the spool is
+     * disabled, then the message is sent at once.
+     *
+     * @param message an outgoing message
+     *
+     * @return the status {@link SendingStatus#SUCCESS} if the message was spooled,
+     *     {@link SendingStatus#ERROR_IN_MESSAGE} if the message is incorrect
+     */
+    public SendingStatus enqueue(OutgoingMessage message) {
+        return this.senderClient.enqueue(message);
+    }
+
+    /**
+     * The method for sending a batch of {@link OutgoingMessage} messages. All the messages are sent by one
+     * connection. A failed message doesn't abort sending other messages.
+     *
+     * @param messages a collection of outgoing messages
+     *
+     * @return a map of the messages and their sending statuses {@link SendingStatus} in the order of sending
+     */
+    public Map<OutgoingMessage, SendingStatus> sendAll(Collection<? extends OutgoingMessage> messages) {
+        JavaCoreUtils.notNullArgument(messages, "messages");
+        return this.senderClient.sendAll(messages);
+    }
+
+    /**
+     * The method for sending a batch of {@link OutgoingMessage} messages. All the messages are sent by one
+     * connection. A failed message doesn't abort sending other messages.
+     *
+     * @param messages an iterator of outgoing messages. The messages are read lazily
+     *
+     * @return a map of the messages and their sending statuses {@link SendingStatus} in the order of sending
+     */
+    public Map<OutgoingMessage, SendingStatus> sendAll(Iterator<? extends OutgoingMessage> messages) {
+        JavaCoreUtils.notNullArgument(messages, "messages");
+        return this.senderClient.sendAll(messages);
+    }
+
+    /**
+     * The method is sending a message asynchronously.
+     *
+     * <p>A message body has a content type of text/plain.
+     *
+     * @param email   a recipient email address. For example: example@mail.com
+     * @param subject a subject of a message
+     * @param content a message body
+     *
+     * @return a future of a sending status {@link SendingStatus}
+     *
+     * @see #sendText(String, String, String)
+     */
+    public CompletableFuture<SendingStatus> sendTextAsync(String email, String subject, String content) {
+        return this.submitAsync(() -> this.sendText(email, subject, content));
+    }
+
+    /**
+     * The method is sending a message asynchronously.
+     *
+     * <p>A message body has a content type of text/html.
+     *
+     * @param email   a recipient email address. For example: example@mail.com
+     * @param subject a subject of a message
+     * @param content a message body
+     *
+     * @return a future of a sending status {@link SendingStatus}
+     *
+     * @see #sendHtml(String, String, String)
+     */
+    public CompletableFuture<SendingStatus> sendHtmlAsync(String email, String subject, String content) {
+        return this.submitAsync(() -> this.sendHtml(email, subject, content));
+    }
+
+    /**
+     * The method is sending a message asynchronously.
+     *
+     * <p>A message body has a content type of text/html and it is created using the Apache Velocity Template engine.
+     *
+     * @param email          a recipient email address. For example: example@mail.com
+     * @param subject        a subject of a message
+     * @param pathToTemplate a path to template
+     * @param params         parameters for the template
+     *
+     * @return a future of a sending status {@link SendingStatus}
+     *
+     * @see #sendHtmlTemplated(String, String, String, Map)
+     */
+    public CompletableFuture<SendingStatus> sendHtmlTemplatedAsync(
+        String email,
+        String subject,
+        String pathToTemplate,
+        Map<String, Object> params
+    ) {
+        return this.submitAsync(() -> this.sendHtmlTemplated(email, subject, pathToTemplate, params));
+    }
+
+    /**
+     * The method is sending a message asynchronously.
+     *
+     * <p>A message body has a content type of text/plain and it is created using the Apache Velocity Template engine.
+     *
+     * @param email          a recipient email address. For example: example@mail.com
+     * @param subject        a subject of a message
+     * @param pathToTemplate a path to template
+     * @param params         parameters for the template
+     *
+     * @return a future of a sending status {@link SendingStatus}
+     *
+     * @see #sendTextTemplated(String, String, String, Map)
+     */
+    public CompletableFuture<SendingStatus> sendTextTemplatedAsync(
+        String email,
+        String subject,
+        String pathToTemplate,
+        Map<String, Object> params
+    ) {
+        return this.submitAsync(() -> this.sendTextTemplated(email, subject, pathToTemplate, params));
+    }
+
+    /**
+     * The common method is sending a templated message asynchronously.
+     *
+     * @param recipients     the set of information about recipients ({@link EmailParticipant})
+     * @param subject        a subject of a message
+     * @param pathToTemplate a path to template
+     * @param params         parameters for the template
+     * @param contentType    the content type of content
+     * @param charsetContent the encoding of content
+     * @param attachments    a list of attachments ({@link EmailAttachment})
+     *
+     * @return a future of a sending status {@link SendingStatus}
+     *
+     * @see #sendTemplatedMessage(Set, String, String, Map, ContentMessageType, Charset, List)
+     */
+    public CompletableFuture<SendingStatus> sendTemplatedMessageAsync(
+        Set<EmailParticipant> recipients,
+        String subject,
+        String pathToTemplate,
+        Map<String, Object> params,
+        ContentMessageType contentType,
+        Charset charsetContent,
+        List<EmailAttachment> attachments
+    ) {
+        return this.submitAsync(() -> this.sendTemplatedMessage(
+            recipients,
+            subject,
+            pathToTemplate,
+            params,
+            contentType,
+            charsetContent,
+            attachments
+        ));
+    }
+
+    /**
+     * The common method is sending a message asynchronously.
+     *
+     * @param recipients     the set of recipients
+     * @param subject        the message subject
+     * @param content        the message body
+     * @param contentType    the content type of content
+     * @param charsetContent the encoding of content
+     * @param attachments    a list of attachments
+     *
+     * @return a future of a sending status {@link SendingStatus}
+     *
+     * @see #send(Set, String, String, ContentMessageType, Charset, List)
+     */
+    public CompletableFuture<SendingStatus> sendAsync(
+        Set<EmailParticipant> recipients,
+        String subject,
+        String content,
+        ContentMessageType contentType,
+        Charset charsetContent,
+        List<EmailAttachment> attachments
+    ) {
+        return this.submitAsync(() -> this.send(
+            recipients,
+            subject,
+            content,
+            contentType,
+            charsetContent,
+            attachments
+        ));
+    }
+
+    /**
+     * The common method for sending {@link OutgoingMessage} messages asynchronously.
+     *
+     * <p>The returned future is completed exceptionally if the message is invalid or the sender is closed.
+     * When the queue of the executor is full, the message is sent by the calling thread.
+     *
+     * @param message an outgoing message
+     *
+     * @return a future of a sending status {@link SendingStatus}
+     */
+    public CompletableFuture<SendingStatus> sendAsync(OutgoingMessage message) {
+        return this.submitAsync(() -> this.send(message));
+    }
+
+    /**
+     * Closes the sender. It waits for all the in-flight asynchronous messages to be sent, shuts down the default
+     * executor (a custom executor isn't shut down) and closes all the connections to the SMTP server.
+     * New asynchronous messages will be rejected after calling this method.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        log.debug("Closes the sender. There are {} in-flight messages", inFlightSends.size());
+        CompletableFuture<?>[] futures = inFlightSends.toArray(new CompletableFuture<?>[0]);
+        CompletableFuture.allOf(futures).exceptionally(ex -> null).join();
+
+        if (ownExecutor) {
+            ExecutorService executorService = (ExecutorService) executor;
+            executorService.shutdown();
+            try {
+                if (!executorService.awaitTermination(EXECUTOR_TERMINATION_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                    log.warn("The executor of the sender wasn't terminated in time");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.senderClient.close();
+    }
+
+    private CompletableFuture<SendingStatus> submitAsync(Supplier<SendingStatus> task) {
+        if (closed) {
+            return failedFuture(new IllegalStateException("The sender is closed"));
+        }
+        CompletableFuture<SendingStatus> future;
+        try {
+            future = CompletableFuture.supplyAsync(task, this.getExecutor());
+        } catch (RejectedExecutionException ex) {
+            return failedFuture(ex);
+        }
+        inFlightSends.add(future);
+        future.whenComplete((status, ex) -> inFlightSends.remove(future));
+        return future;
+    }
+
+    private Executor getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = ConcurrentUtils.newBoundedExecutor(
+                        "d-email-sender",
+                        asyncThreadPoolSize,
+                        asyncQueueCapacity
+                    );
+                    ownExecutor = true;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable ex) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
+    }
 }
@@ -0,0 +1,132 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+import ru.dlabs71.library.email.exception.SyncCheckpointException;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The {@link SyncCheckpointStore}, which keeps checkpoints of all the folders in one properties file.
+ * The file is rewritten atomically: the new content is written to a temporary file, which replaces the file,
+ * so the file isn't corrupted if the process stops during saving.
+ *
+ * <p>The file must be used by one instance of the class only.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class FileSyncCheckpointStore implements SyncCheckpointStore {
+
+    private static final String KEY_DELIMITER = "/";
+    private static final String VALUE_DELIMITER = ",";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    @Getter
+    private final Path file;
+    private Properties checkpoints;
+
+    /**
+     * The constructor of this class. The file is created by the first saving.
+     *
+     * @param file the path to the file of checkpoints
+     */
+    public FileSyncCheckpointStore(Path file) {
+        JavaCoreUtils.notNullArgument(file, "file");
+        this.file = file.toAbsolutePath();
+    }
+
+    @Override
+    public synchronized SyncCheckpoint load(String account, String folderName) {
+        String value = this.getCheckpoints().getProperty(toKey(account, folderName));
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(VALUE_DELIMITER);
+        if (parts.length != 3) {
+            throw new SyncCheckpointException("The checkpoint " + value + " has wrong format");
+        }
+        try {
+            return SyncCheckpoint.of(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new SyncCheckpointException("The checkpoint " + value + " has wrong format", e);
+        }
+    }
+
+    @Override
+    public synchronized void save(String account, String folderName, SyncCheckpoint checkpoint) {
+        JavaCoreUtils.notNullArgument(checkpoint, "checkpoint");
+        String value = checkpoint.getUidValidity() + VALUE_DELIMITER
+            + checkpoint.getLastUid() + VALUE_DELIMITER
+            + checkpoint.getHighestModSeq();
+        this.getCheckpoints().setProperty(toKey(account, folderName), value);
+        this.write();
+        log.debug("The checkpoint {} of the folder {} was saved", checkpoint, folderName);
+    }
+
+    @Override
+    public synchronized void remove(String account, String folderName) {
+        if (this.getCheckpoints().remove(toKey(account, folderName)) != null) {
+            this.write();
+        }
+    }
+
+    private Properties getCheckpoints() {
+        if (checkpoints != null) {
+            return checkpoints;
+        }
+        Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                properties.load(inputStream);
+            } catch (IOException e) {
+                throw new SyncCheckpointException(
+                    "The checkpoints couldn't be read from the file " + file + ": " + e.getMessage(),
+                    e
+                );
+            }
+        }
+        checkpoints = properties;
+        return checkpoints;
+    }
+
+    private void write() {
+        Path tempFile = file.resolveSibling(file.getFileName() + TEMP_FILE_SUFFIX);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                checkpoints.store(outputStream, "Checkpoints of d-email folder synchronization");
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new SyncCheckpointException(
+                "The checkpoints couldn't be written to the file " + file + ": " + e.getMessage(),
+                e
+            );
+        }
+    }
+
+    private static String toKey(String account, String folderName) {
+        JavaCoreUtils.notNullArgument(account, "account");
+        JavaCoreUtils.notNullArgument(folderName, "folderName");
+        return account + KEY_DELIMITER + folderName;
+    }
+}
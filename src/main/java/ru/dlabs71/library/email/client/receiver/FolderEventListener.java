@@ -0,0 +1,24 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import ru.dlabs71.library.email.dto.event.FolderEvent;
+
+/**
+ * The callback for events of a mail folder. Events are delivered by one thread in the order they were received
+ * from the server, so the implementation should return quickly.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface FolderEventListener {
+
+    /**
+     * Handles the event of a mail folder.
+     *
+     * @param event the event
+     */
+    void onEvent(FolderEvent event);
+}
@@ -0,0 +1,30 @@
+package ru.dlabs71.library.email.client.receiver;
+
+/**
+ * The subscription to events of a mail folder. It keeps a dedicated connection to the server
+ * until it is closed.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public interface FolderSubscription extends AutoCloseable {
+
+    /**
+     * Returns the name of the folder.
+     */
+    String getFolderName();
+
+    /**
+     * Returns true if the subscription isn't closed. A subscription is active while it reconnects to the server.
+     */
+    boolean isActive();
+
+    /**
+     * Stops receiving events and closes the connection.
+     */
+    @Override
+    void close();
+}
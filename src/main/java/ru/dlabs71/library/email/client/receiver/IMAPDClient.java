@@ -1,33 +1,66 @@
 package ru.dlabs71.library.email.client.receiver;
 
+import jakarta.mail.FetchProfile;
 import jakarta.mail.Flags;
 import jakarta.mail.Folder;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Session;
+import jakarta.mail.UIDFolder;
+import jakarta.mail.event.MailEvent;
+import jakarta.mail.event.MessageChangedEvent;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.SharedFileInputStream;
+import jakarta.mail.search.SearchTerm;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.imap.IMAPFolder;
 import org.eclipse.angus.mail.imap.IMAPStore;
+import org.eclipse.angus.mail.imap.MessageVanishedEvent;
+import org.eclipse.angus.mail.imap.ResyncData;
 import ru.dlabs71.library.email.converter.incoming.BaseMessageConverter;
 import ru.dlabs71.library.email.converter.incoming.MessageViewConverter;
 import ru.dlabs71.library.email.dto.message.common.EmailParticipant;
 import ru.dlabs71.library.email.dto.message.incoming.IncomingMessage;
 import ru.dlabs71.library.email.dto.message.incoming.MessageView;
+import ru.dlabs71.library.email.dto.pageable.CursorPageRequest;
+import ru.dlabs71.library.email.dto.pageable.CursorPageResponse;
 import ru.dlabs71.library.email.dto.pageable.PageRequest;
+import ru.dlabs71.library.email.dto.pageable.PageResponse;
+import ru.dlabs71.library.email.dto.search.EmailSearchQuery;
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+import ru.dlabs71.library.email.dto.sync.SyncResult;
 import ru.dlabs71.library.email.exception.FolderOperationException;
 import ru.dlabs71.library.email.exception.SessionException;
+import ru.dlabs71.library.email.exception.UidValidityException;
 import ru.dlabs71.library.email.property.ImapProperties;
 import ru.dlabs71.library.email.property.SessionPropertyCollector;
 import ru.dlabs71.library.email.type.Protocol;
+import ru.dlabs71.library.email.util.ConcurrentUtils;
 import ru.dlabs71.library.email.util.JavaCoreUtils;
+import ru.dlabs71.library.email.util.ProtocolUtils;
+import ru.dlabs71.library.email.util.RetryPolicy;
 import ru.dlabs71.library.email.util.RetryableUtils;
 
 /**
@@ -37,6 +70,15 @@ import ru.dlabs71.library.email.util.RetryableUtils;
  * work with only one account at one time.
  *
  * <p>You should use the instance of the {@link ImapProperties} class, for configure this class.
+ *
+ * <p>Opened folders are kept in the cache ({@link IMAPFolderCache}), so repeated operations with the same folder
+ * don't open (select) it again. Use the {@link ImapProperties#getFolderCacheSize()} and
+ * {@link ImapProperties#getFolderCacheIdleTimeout()} properties for configuring the cache. Call the {@link #close()}
+ * method to close all the cached folders when the client isn't needed anymore.
+ *
+ * <p>If the {@link ImapProperties#isPeekRead()} property is true, then messages are read over folders opened only
+ * for read, their contents are fetched by the BODY.PEEK command, and reading doesn't mark them as read.
+ * Use the {@link #markAsSeen(String, Collection)} method to mark them as read by one command.
  * <p>
  * <div><strong>Project name:</strong> d-email</div>
  * <div><strong>Creation date:</strong> 2023-10-25</div>
@@ -56,13 +98,44 @@ public class IMAPDClient implements ReceiverDClient {
     /** The default name of the outbox mail folder. **/
     public static final String DEFAULT_OUTBOX_FOLDER_NAME = "OUTBOX";
 
+    /**
+     * The fetch profile with all the data needed for the {@link MessageView}. The data of all the messages
+     * of a page is fetched by one request instead of separate requests for every message field.
+     */
+    static final FetchProfile MESSAGE_VIEW_FETCH_PROFILE = createMessageViewFetchProfile();
+
+    /**
+     * The fetch profile with the data of the {@link MessageView} and the structure (BODYSTRUCTURE) of messages.
+     * The structure is needed for reading contents and attachments of the messages.
+     */
+    private static final FetchProfile MESSAGE_READ_FETCH_PROFILE = createMessageReadFetchProfile();
+
+    /**
+     * The fetch profile with UIDs of messages only.
+     */
+    private static final FetchProfile UID_FETCH_PROFILE = createUidFetchProfile();
+
+    private static final String UIDPLUS_CAPABILITY = "UIDPLUS";
+    private static final String CONDSTORE_CAPABILITY = "CONDSTORE";
+    private static final String QRESYNC_CAPABILITY = "QRESYNC";
+    private static final String READ_THREAD_NAME_PREFIX = "d-email-read";
+    private static final int MIN_READ_PART_SIZE = 4;
 
     private final Session session;
+    private final ImapProperties imapProperties;
     private final Properties properties;
     private final IMAPStore store;
+    private final IMAPFolderCache folderCache;
     private final EmailParticipant principal;
-    private final int maxAttemptsOfRequest;
-    private final int attemptDelayOfRequest;
+    private final RetryPolicy retryPolicy;
+    private final boolean lazyMessageContent;
+    private final long attachmentSpillThreshold;
+    private final Path attachmentSpillDirectory;
+    private final ThreadPoolExecutor readExecutor;
+    private final MessageDiskCache messageCache;
+    private final int readThreads;
+    private final boolean peekRead;
+    private final int readFolderMode;
 
     /**
      * Constructor of the class.
@@ -73,9 +146,31 @@ public class IMAPDClient implements ReceiverDClient {
      */
     public IMAPDClient(ImapProperties imapProperties) {
         JavaCoreUtils.notNullArgument(imapProperties, "imapProperties");
+        this.imapProperties = imapProperties;
         this.principal = EmailParticipant.of(imapProperties.getEmail());
-        this.maxAttemptsOfRequest = imapProperties.getMaxAttemptsOfRequest();
-        this.attemptDelayOfRequest = imapProperties.getAttemptDelayOfRequest();
+        this.retryPolicy = RetryPolicy.of(imapProperties);
+        this.lazyMessageContent = imapProperties.isLazyMessageContent() && imapProperties.getFolderCacheSize() > 0;
+        if (imapProperties.isLazyMessageContent() && !this.lazyMessageContent) {
+            log.warn("The lazy message content requires the folder cache. Message contents will be loaded at once");
+        }
+        this.attachmentSpillThreshold = imapProperties.getAttachmentSpillThreshold();
+        this.attachmentSpillDirectory = imapProperties.getAttachmentSpillDirectory() == null
+            ? null
+            : Paths.get(imapProperties.getAttachmentSpillDirectory());
+        // every part of a page holds its own folder, so only the folders kept by the cache are used for reading
+        this.readThreads = Math.max(
+            1,
+            Math.min(imapProperties.getConnectionPoolSize(), imapProperties.getFolderCacheSize())
+        );
+        this.peekRead = imapProperties.isPeekRead();
+        this.readFolderMode = peekRead ? Folder.READ_ONLY : Folder.READ_WRITE;
+        this.readExecutor = this.createReadExecutor(imapProperties);
+        this.messageCache = imapProperties.getMessageCacheDirectory() == null
+            ? null
+            : new MessageDiskCache(
+                Paths.get(imapProperties.getMessageCacheDirectory()).resolve(imapProperties.getEmail()),
+                imapProperties.getMessageCacheMaxSize()
+            );
         log.debug("Principal object were created. {}", this.principal);
 
         this.properties = this.collectProperties(imapProperties);
@@ -85,7 +180,34 @@ public class IMAPDClient implements ReceiverDClient {
         log.debug("Session was created");
 
         this.store = createStore(this.session, imapProperties.getEmail(), imapProperties.getPassword());
-        log.debug("Store was created. Client is ready to receiving messages!");
+        log.debug("Store was created");
+
+        this.folderCache = this.createFolderCache(imapProperties);
+        log.debug("Folder cache was created. Client is ready to receiving messages!");
+    }
+
+    private ThreadPoolExecutor createReadExecutor(ImapProperties imapProperties) {
+        if (imapProperties.isParallelRead() && imapProperties.getFolderCacheSize() <= 0) {
+            log.warn("Parallel reading of messages requires the folder cache. Messages will be read by one thread");
+        }
+        if (!imapProperties.isParallelRead() || lazyMessageContent || readThreads < 2) {
+            log.debug("Parallel reading of messages is disabled");
+            return null;
+        }
+        log.debug("Messages will be read by {} threads", readThreads);
+        return ConcurrentUtils.newBoundedExecutor(READ_THREAD_NAME_PREFIX, readThreads - 1, readThreads);
+    }
+
+    private IMAPFolderCache createFolderCache(ImapProperties imapProperties) {
+        if (imapProperties.getFolderCacheSize() <= 0) {
+            log.debug("Folder caching is disabled");
+            return null;
+        }
+        return new IMAPFolderCache(
+            this::openFolder,
+            imapProperties.getFolderCacheSize(),
+            imapProperties.getFolderCacheIdleTimeout()
+        );
     }
 
     private Properties collectProperties(ImapProperties imapProperties) {
@@ -102,6 +224,7 @@ public class IMAPDClient implements ReceiverDClient {
         props.put("mail.imap.appendbuffersize", imapProperties.getAppendBufferSize());
         props.put("mail.imap.connectionpoolsize", imapProperties.getConnectionPoolSize());
         props.put("mail.imap.connectionpooltimeout", imapProperties.getConnectionPoolTimeout());
+        props.put("mail.imap.peek", imapProperties.isPeekRead());
         return props;
     }
 
@@ -167,11 +290,11 @@ public class IMAPDClient implements ReceiverDClient {
      */
     @Override
     public Integer getTotalCount(String folderName) {
-        Folder folder = this.openFolderForRead(folderName);
+        Folder folder = this.acquireFolder(folderName, Folder.READ_ONLY);
         try {
             return this.getTotalCount(folder);
         } finally {
-            closeFolder(folder);
+            this.releaseFolder(folderName, folder);
         }
     }
 
@@ -200,15 +323,46 @@ public class IMAPDClient implements ReceiverDClient {
     @Override
     public List<MessageView> checkEmailMessages(String folderName, PageRequest pageRequest) {
         log.debug("Checks email messages from the folder {} and page request is {}", folderName, pageRequest);
-        Folder folder = this.openFolderForRead(folderName);
-        Stream<Message> messages = this.getMessages(folder, pageRequest);
+        Folder folder = this.acquireFolder(folderName, Folder.READ_ONLY);
+        Message[] messages = this.getMessages(folder, pageRequest);
+        this.fetch(folder, messages, MESSAGE_VIEW_FETCH_PROFILE);
 
-        List<MessageView> result = messages.map(MessageViewConverter::convert).collect(Collectors.toList());
+        List<MessageView> result = Arrays.stream(messages)
+            .map(MessageViewConverter::convert)
+            .collect(Collectors.toList());
         log.debug(result.size() + " email messages was got");
-        closeFolder(folder);
+        this.releaseFolder(folderName, folder);
         return result;
     }
 
+    /**
+     * Returns short information about messages selected by UIDs. Messages won't be marked as read.
+     * Pages don't shift when messages are deleted from the folder.
+     *
+     * @param folderName  the folder name in you account
+     * @param pageRequest the cursor page request
+     *
+     * @return the page of {@link MessageView} and the request of the next page
+     *
+     * @throws UidValidityException if the UIDVALIDITY of the folder has changed
+     */
+    @Override
+    public CursorPageResponse<MessageView> checkEmailMessages(String folderName, CursorPageRequest pageRequest) {
+        log.debug("Checks email messages from the folder {} and page request is {}", folderName, pageRequest);
+        Folder folder = this.acquireFolder(folderName, Folder.READ_ONLY);
+        try {
+            UidPage page = this.getMessagesByUid(folder, pageRequest);
+            this.fetch(folder, page.getMessages(), MESSAGE_VIEW_FETCH_PROFILE);
+            List<MessageView> result = Arrays.stream(page.getMessages())
+                .map(MessageViewConverter::convert)
+                .collect(Collectors.toList());
+            log.debug(result.size() + " email messages was got");
+            return page.toResponse(result);
+        } finally {
+            this.releaseFolder(folderName, folder);
+        }
+    }
+
     /**
      * Return full information about messages. Use it when you "read" an email.
      * Messages will be marked as read.
@@ -221,16 +375,204 @@ public class IMAPDClient implements ReceiverDClient {
     @Override
     public List<IncomingMessage> readMessages(String folderName, PageRequest pageRequest) {
         log.debug("Reads email messages from the folder {} and page request is {}", folderName, pageRequest);
-        Folder folder = this.openFolderForWrite(folderName);
-        Stream<Message> messages = this.getMessages(folder, pageRequest);
-
-        List<IncomingMessage> result = messages.map(BaseMessageConverter::convertToIncomingMessage)
-            .collect(Collectors.toList());
+        Folder folder = this.acquireFolder(folderName, readFolderMode);
+        Message[] messages = this.getMessages(folder, pageRequest);
+        List<IncomingMessage> result = this.readIncomingMessages(folderName, folder, messages);
         log.debug(result.size() + " email messages was got");
-        closeFolder(folder);
+        this.releaseFolder(folderName, folder);
         return result;
     }
 
+    /**
+     * Return full information about messages selected by UIDs. Messages will be marked as read.
+     * Pages don't shift when messages are deleted from the folder.
+     *
+     * @param folderName  the folder name in you account
+     * @param pageRequest the cursor page request
+     *
+     * @return the page of {@link IncomingMessage} and the request of the next page
+     *
+     * @throws UidValidityException if the UIDVALIDITY of the folder has changed
+     */
+    @Override
+    public CursorPageResponse<IncomingMessage> readMessages(String folderName, CursorPageRequest pageRequest) {
+        log.debug("Reads email messages from the folder {} and page request is {}", folderName, pageRequest);
+        Folder folder = this.acquireFolder(folderName, readFolderMode);
+        try {
+            UidPage page = this.getMessagesByUid(folder, pageRequest);
+            List<IncomingMessage> result = this.readIncomingMessages(folderName, folder, page.getMessages());
+            log.debug(result.size() + " email messages was got");
+            return page.toResponse(result);
+        } finally {
+            this.releaseFolder(folderName, folder);
+        }
+    }
+
+    /**
+     * Returns the iterator over all the messages of the folder. Messages are read by pages selected by UIDs
+     * over one opened folder, and the next page is read in the background while the current one is iterated.
+     * Messages will be marked as read.
+     *
+     * @param folderName the folder name in you account
+     * @param pageSize   the number of messages in a page
+     *
+     * @return the iterator of {@link IncomingMessage}. It must be closed if it isn't iterated to the end.
+     */
+    @Override
+    public MessageIterator<IncomingMessage> iterator(String folderName, int pageSize) {
+        log.debug("Iterates email messages from the folder {} by pages of {} messages", folderName, pageSize);
+        Folder folder = this.acquireFolder(folderName, readFolderMode);
+        return new PrefetchingMessageIterator<>(
+            pageRequest -> {
+                UidPage page = this.getMessagesByUid(folder, pageRequest);
+                return page.toResponse(this.readIncomingMessages(folderName, folder, page.getMessages()));
+            },
+            CursorPageRequest.of(pageSize),
+            () -> this.releaseFolder(folderName, folder)
+        );
+    }
+
+    /**
+     * Executes one step of the incremental synchronization of the folder. The step reads up to {@code batchSize}
+     * new messages after the last UID of the checkpoint and collects changes of the messages synchronized before:
+     * <ul>
+     *     <li>if the server supports QRESYNC, then flag changes and UIDs of expunged messages are returned by
+     *     the SELECT command itself;</li>
+     *     <li>if the server supports only CONDSTORE, then flag changes are requested by one
+     *     {@code UID FETCH (CHANGEDSINCE)} command;</li>
+     *     <li>otherwise, only new messages are returned.</li>
+     * </ul>
+     * So the cost of the step depends on the number of changes, not on the size of the folder. New messages are read
+     * in the peek mode and the folder is opened only for read, so reading doesn't mark them as read, and the next step
+     * doesn't report it as a flag change. If no resync data is needed (the server supports neither CONDSTORE nor
+     * QRESYNC), then a folder opened only for read is taken from the folder cache. A cached folder opened for read
+     * and write isn't used, since the server would mark the new messages as read.
+     *
+     * @param folderName the folder name in you account
+     * @param checkpoint the checkpoint of the previous step or null for the first synchronization
+     * @param batchSize  the maximum number of new messages in the result
+     *
+     * @return the changes and the new checkpoint
+     */
+    @Override
+    public SyncResult sync(String folderName, SyncCheckpoint checkpoint, int batchSize) {
+        final String name = folderName == null ? DEFAULT_INBOX_FOLDER_NAME : folderName;
+        log.debug("Synchronizes the folder {} from the checkpoint {}", name, checkpoint);
+        boolean incremental = checkpoint != null && checkpoint.getLastUid() > 0 && checkpoint.isModSeqKnown();
+        boolean condstore;
+        boolean qresync;
+        IMAPFolder folder;
+        List<MailEvent> events;
+        try {
+            condstore = store.hasCapability(CONDSTORE_CAPABILITY) || store.hasCapability(QRESYNC_CAPABILITY);
+            qresync = incremental && store.hasCapability(QRESYNC_CAPABILITY);
+            ResyncData resyncData = qresync
+                ? new ResyncData(checkpoint.getUidValidity(), checkpoint.getHighestModSeq())
+                : condstore ? ResyncData.CONDSTORE : null;
+            if (resyncData == null) {
+                folder = asImapFolder(this.acquireFolder(name, Folder.READ_ONLY, true));
+                events = Collections.emptyList();
+            } else {
+                folder = asImapFolder(RetryableUtils.retry(
+                    retryPolicy,
+                    () -> store.getFolder(name)
+                ));
+                events = RetryableUtils.retry(
+                    retryPolicy,
+                    () -> folder.open(Folder.READ_ONLY, resyncData)
+                );
+            }
+        } catch (MessagingException e) {
+            throw new FolderOperationException(
+                "The folder with the name " + name + " couldn't be opened because of the following error: "
+                    + e.getMessage(), e);
+        }
+
+        try {
+            long uidValidity = folder.getUIDValidity();
+            long highestModSeq = condstore ? folder.getHighestModSeq() : SyncCheckpoint.UNKNOWN_MOD_SEQ;
+            boolean reset = checkpoint != null && checkpoint.getUidValidity() != uidValidity;
+            long lastUid = checkpoint == null || reset ? 0 : checkpoint.getLastUid();
+
+            Map<Long, Flags> changedFlags = new TreeMap<>();
+            List<Long> vanishedUids = new ArrayList<>();
+            if (incremental && !reset) {
+                if (qresync) {
+                    this.collectResyncEvents(folder, events, lastUid, changedFlags, vanishedUids);
+                } else if (condstore) {
+                    Message[] changed = RetryableUtils.retry(
+                        retryPolicy,
+                        () -> folder.getMessagesByUIDChangedSince(1, lastUid, checkpoint.getHighestModSeq())
+                    );
+                    for (Message message : changed) {
+                        changedFlags.put(folder.getUID(message), message.getFlags());
+                    }
+                }
+            }
+
+            UidPage page = this.getMessagesByUid(folder, CursorPageRequest.of(uidValidity, lastUid, batchSize));
+            List<IncomingMessage> newMessages = this.readIncomingMessages(name, folder, page.getMessages(), true);
+            SyncCheckpoint nextCheckpoint = SyncCheckpoint.of(
+                uidValidity,
+                page.getNextPageRequest().getLastUid(),
+                highestModSeq
+            );
+            log.debug(
+                "The folder {} was synchronized: {} new messages, {} changed messages, {} expunged messages",
+                name,
+                newMessages.size(),
+                changedFlags.size(),
+                vanishedUids.size()
+            );
+            return new SyncResult(
+                name,
+                nextCheckpoint,
+                reset,
+                newMessages,
+                changedFlags,
+                vanishedUids,
+                page.isHasMore()
+            );
+        } catch (MessagingException e) {
+            throw new FolderOperationException(
+                "The synchronization of the folder " + name + " has failed: " + e.getMessage(), e);
+        } finally {
+            this.releaseFolder(name, folder);
+        }
+    }
+
+    /**
+     * Reads message by its UID. Message will be marked as read.
+     *
+     * @param folderName the folder name in you account
+     * @param uid        the UID of a message within the folder
+     *
+     * @return object of a class {@link IncomingMessage} or null if there is no message with the UID
+     */
+    @Override
+    public IncomingMessage readMessageByUid(String folderName, long uid) {
+        log.debug("Reads one message by uid = {} and folder name = {}", uid, folderName);
+        Folder folder = this.acquireFolder(folderName, readFolderMode);
+        try {
+            UIDFolder uidFolder = asUidFolder(folder);
+            Message message = RetryableUtils.retry(
+                retryPolicy,
+                () -> uidFolder.getMessageByUID(uid)
+            );
+            if (message == null) {
+                log.debug("There is no message with uid = {} in the folder {}", uid, folderName);
+                return null;
+            }
+            return this.convertToIncomingMessages(folder, new Message[]{message}).get(0);
+        } catch (MessagingException e) {
+            throw new FolderOperationException(
+                "Reading the message with uid=" + uid + " in the folder with name " + folderName
+                    + " finished the error: " + e.getMessage(), e);
+        } finally {
+            this.releaseFolder(folderName, folder);
+        }
+    }
+
     /**
      * Reads message by its ID (number message).
      * Message will be marked as read.
@@ -243,13 +585,12 @@ public class IMAPDClient implements ReceiverDClient {
     @Override
     public IncomingMessage readMessageById(String folderName, int id) {
         log.debug("Reads one message by id = {} and folder name = {}", id, folderName);
-        Folder folder = this.openFolderForWrite(folderName);
+        Folder folder = this.acquireFolder(folderName, readFolderMode);
 
         Message message;
         try {
             message = RetryableUtils.retry(
-                maxAttemptsOfRequest,
-                attemptDelayOfRequest,
+                retryPolicy,
                 () -> folder.getMessage(id)
             );
         } catch (MessagingException e) {
@@ -258,11 +599,112 @@ public class IMAPDClient implements ReceiverDClient {
                     + " finished the error: " + e.getMessage(), e);
         }
 
-        IncomingMessage incomingMessage = BaseMessageConverter.convertToIncomingMessage(message);
-        closeFolder(folder);
+        IncomingMessage incomingMessage = this.convertToIncomingMessages(folder, new Message[]{message}).get(0);
+        this.releaseFolder(folderName, folder);
         return incomingMessage;
     }
 
+    /**
+     * Searches messages on the server by the IMAP UID SEARCH command. Only the UIDs of the matched messages
+     * are transferred. If the server supports the ESEARCH extension, then the UIDs are returned in the compact form.
+     *
+     * @param folderName the folder name in you account
+     * @param query      the search criteria. If it's null or empty, then all the messages match.
+     *
+     * @return the sorted list of UIDs of the matched messages
+     */
+    @Override
+    public List<Long> search(String folderName, EmailSearchQuery query) {
+        log.debug("Searches messages in the folder {} by the query {}", folderName, query);
+        Folder folder = this.acquireFolder(folderName, Folder.READ_ONLY);
+        try {
+            return this.search(folder, query);
+        } finally {
+            this.releaseFolder(folderName, folder);
+        }
+    }
+
+    /**
+     * Searches messages on the server and returns short information about a page of the matched messages.
+     * Only the messages of the page are fetched. Messages won't be marked as read.
+     *
+     * @param folderName  the folder name in you account
+     * @param query       the search criteria. If it's null or empty, then all the messages match.
+     * @param pageRequest the page of the matched messages sorted by UIDs
+     *
+     * @return the page of {@link MessageView} and the total count of the matched messages
+     */
+    @Override
+    public PageResponse<MessageView> searchEmailMessages(
+        String folderName,
+        EmailSearchQuery query,
+        PageRequest pageRequest
+    ) {
+        log.debug("Searches messages in the folder {} by the query {} and page {}", folderName, query, pageRequest);
+        Folder folder = this.acquireFolder(folderName, Folder.READ_ONLY);
+        try {
+            List<Long> uids = this.search(folder, query);
+            int start = Math.min(pageRequest.getStart(), uids.size());
+            int end = Math.min(pageRequest.getEnd() + 1, uids.size());
+            long[] pageUids = uids.subList(start, end).stream().mapToLong(Long::longValue).toArray();
+            if (pageUids.length == 0) {
+                return PageResponse.of(new ArrayList<>(), uids.size());
+            }
+
+            UIDFolder uidFolder = asUidFolder(folder);
+            Message[] messages;
+            try {
+                messages = RetryableUtils.retry(
+                    retryPolicy,
+                    () -> uidFolder.getMessagesByUID(pageUids)
+                );
+            } catch (MessagingException e) {
+                throw new FolderOperationException(
+                    "Getting messages by uids in the folder with the name " + folderName
+                        + " finished with the error: " + e.getMessage(), e);
+            }
+            Message[] existing = Arrays.stream(messages).filter(Objects::nonNull).toArray(Message[]::new);
+            this.fetch(folder, existing, MESSAGE_VIEW_FETCH_PROFILE);
+            List<MessageView> result = Arrays.stream(existing)
+                .map(MessageViewConverter::convert)
+                .collect(Collectors.toList());
+            log.debug("{} of {} found email messages were got", result.size(), uids.size());
+            return PageResponse.of(result, uids.size());
+        } finally {
+            this.releaseFolder(folderName, folder);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> search(Folder folder, EmailSearchQuery query) {
+        SearchTerm term = query == null ? null : query.toSearchTerm();
+        try {
+            if (folder instanceof IMAPFolder) {
+                return (List<Long>) RetryableUtils.retry(
+                    retryPolicy,
+                    () -> ((IMAPFolder) folder).doCommand(new IMAPSearchCommand(term))
+                );
+            }
+
+            UIDFolder uidFolder = asUidFolder(folder);
+            Message[] messages = RetryableUtils.retry(
+                retryPolicy,
+                () -> term == null ? folder.getMessages() : folder.search(term)
+            );
+            this.fetch(folder, messages, UID_FETCH_PROFILE);
+            List<Long> uids = new ArrayList<>(messages.length);
+            for (Message message : messages) {
+                uids.add(uidFolder.getUID(message));
+            }
+            Collections.sort(uids);
+            return uids;
+        } catch (MessagingException e) {
+            throw new FolderOperationException(
+                "The search in the folder with the name " + folder.getName()
+                    + " finished with the error: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Opens the folder for only read. Changes are forbidden.
      * If you even read the message, it won't be marked as read.
@@ -303,11 +745,10 @@ public class IMAPDClient implements ReceiverDClient {
         Folder folder;
         try {
             folder = RetryableUtils.retry(
-                maxAttemptsOfRequest,
-                attemptDelayOfRequest,
+                retryPolicy,
                 () -> store.getFolder(folderName)
             );
-            RetryableUtils.retry(maxAttemptsOfRequest, attemptDelayOfRequest, () -> folder.open(mode));
+            RetryableUtils.retry(retryPolicy, () -> folder.open(mode));
             log.debug("Folder is opened");
         } catch (MessagingException e) {
             throw new FolderOperationException(
@@ -317,6 +758,39 @@ public class IMAPDClient implements ReceiverDClient {
         return folder;
     }
 
+    /**
+     * Returns an opened folder from the cache, or opens the folder if caching is disabled.
+     */
+    private Folder acquireFolder(String folderName, int mode) {
+        return this.acquireFolder(folderName, mode, false);
+    }
+
+    /**
+     * Returns an opened folder like the {@link #acquireFolder(String, int)} method.
+     *
+     * @param exactMode true if a cached folder opened for read and write mustn't be returned for the read-only mode
+     */
+    private Folder acquireFolder(String folderName, int mode, boolean exactMode) {
+        if (folderName == null) {
+            folderName = DEFAULT_INBOX_FOLDER_NAME;
+        }
+        if (folderCache == null) {
+            return this.openFolder(folderName, mode);
+        }
+        return folderCache.acquire(folderName, mode, exactMode);
+    }
+
+    /**
+     * Returns the folder to the cache, or closes the folder if caching is disabled.
+     */
+    private void releaseFolder(String folderName, Folder folder) {
+        if (folderCache == null) {
+            this.closeFolder(folder);
+            return;
+        }
+        folderCache.release(folderName == null ? DEFAULT_INBOX_FOLDER_NAME : folderName, folder);
+    }
+
     /**
      * Closes the opened folder.
      *
@@ -329,7 +803,7 @@ public class IMAPDClient implements ReceiverDClient {
             return;
         }
         try {
-            RetryableUtils.retry(maxAttemptsOfRequest, attemptDelayOfRequest, () -> folder.close());
+            RetryableUtils.retry(retryPolicy, () -> folder.close());
             log.debug("Folder is closed.");
         } catch (MessagingException e) {
             log.warn("The folder with the name " + folder.getName()
@@ -348,114 +822,329 @@ public class IMAPDClient implements ReceiverDClient {
     @Override
     public boolean deleteMessage(String folderName, int id) {
         log.debug("Deletes one message by id = {} and folder name = {}", id, folderName);
-        Folder folder = this.openFolderForWrite(folderName);
+        return this.deleteMessages(folderName, Collections.singletonList(id)).get(id);
+    }
 
-        try {
-            RetryableUtils.retry(maxAttemptsOfRequest, attemptDelayOfRequest, () -> {
-                Message message = folder.getMessage(id);
-                message.setFlag(Flags.Flag.DELETED, true);
-            });
-        } catch (MessagingException e) {
-            log.warn(
-                "The message with id={} wasn't marked as deleted because of the following error: {}",
-                id,
-                e.getMessage()
-            );
-            this.closeFolder(folder);
-            return false;
-        }
+    /**
+     * Deletes several messages in a folder by their IDs. All the messages are marked as deleted by one STORE command
+     * and expunged by one command. If the server supports the UIDPLUS extension, then only these messages are
+     * expunged (UID EXPUNGE), otherwise all the messages marked as deleted in the folder are expunged.
+     *
+     * @param folderName the folder name in you account
+     * @param ids        unique identifiers of messages within the folder
+     *
+     * @return a map with a key is a message ID, and a value is the result of deletion (true or false).
+     */
+    @Override
+    public Map<Integer, Boolean> deleteMessages(String folderName, Collection<Integer> ids) {
+        log.debug("Deletes messages from the folder {} by the message ids = {}", folderName, ids);
+        return this.storeFlagsById(folderName, ids, new Flags(Flags.Flag.DELETED), true, true);
+    }
+
+    /**
+     * Deletes several messages in a folder by their UIDs. All the messages are marked as deleted by one STORE command
+     * and expunged by one command (see {@link #deleteMessages(String, Collection)}).
+     *
+     * @param folderName the folder name in you account
+     * @param uids       UIDs of messages within the folder
+     *
+     * @return a map with a key is a message UID, and a value is the result of deletion (true or false).
+     */
+    @Override
+    public Map<Long, Boolean> deleteMessagesByUid(String folderName, Collection<Long> uids) {
+        log.debug("Deletes messages from the folder {} by the message uids = {}", folderName, uids);
+        return this.storeFlagsByUid(folderName, uids, new Flags(Flags.Flag.DELETED), true, true);
+    }
 
+    /**
+     * Deletes all messages in a folder. The messages are marked as deleted by one STORE command for the whole range
+     * of message numbers without loading the messages.
+     *
+     * @param folderName the folder name in you account
+     *
+     * @return a map with a key is a message ID, and a value is the result of deletion (true or false).
+     */
+    @Override
+    public Map<Integer, Boolean> deleteAllMessages(String folderName) {
+        log.debug("Deletes all the messages from the folder {}", folderName);
+        Folder folder = this.acquireFolder(folderName, Folder.READ_WRITE);
+        Map<Integer, Boolean> result = new HashMap<>();
         try {
-            folder.expunge();
-        } catch (MessagingException e) {
-            throw new FolderOperationException(
-                "The folder with the name " + folder.getName()
-                    + " couldn't be expunge because of the following error: " + e.getMessage());
+            int count = this.getTotalCount(folder);
+            if (count <= 0) {
+                return result;
+            }
+            boolean stored = this.storeFlags(folder, 1, count, new Flags(Flags.Flag.DELETED), true);
+            for (int id = 1; id <= count; id++) {
+                result.put(id, stored);
+            }
+            if (stored) {
+                this.expunge(folder, null);
+            }
         } finally {
-            this.closeFolder(folder);
+            this.releaseFolder(folderName, folder);
         }
-        return true;
+        return result;
     }
 
     /**
-     * Deletes several messages in a folder by their IDs.
+     * Sets or clears the flags of several messages in a folder by their IDs. All the messages are changed
+     * by one STORE command.
      *
      * @param folderName the folder name in you account
      * @param ids        unique identifiers of messages within the folder
+     * @param flags      the flags (For example: {@code new Flags(Flags.Flag.SEEN)})
+     * @param value      true for setting the flags, false for clearing them
      *
-     * @return a map with a key is a message ID, and a value is the result of deletion (true or false).
+     * @return a map with a key is a message ID, and a value is the result of the operation (true or false).
      */
     @Override
-    public Map<Integer, Boolean> deleteMessages(String folderName, Collection<Integer> ids) {
-        log.debug("Deletes one message from the folder {} by the message ids = {}", folderName, ids);
-        Folder folder = this.openFolderForWrite(folderName);
-        Map<Integer, Boolean> result = new HashMap<>();
-        ids.forEach(id -> {
+    public Map<Integer, Boolean> setFlags(String folderName, Collection<Integer> ids, Flags flags, boolean value) {
+        log.debug(
+            "Sets the flags {} to {} for the messages from the folder {} by ids = {}",
+            flags,
+            value,
+            folderName,
+            ids
+        );
+        return this.storeFlagsById(folderName, ids, flags, value, false);
+    }
+
+    /**
+     * Sets or clears the flags of several messages in a folder by their UIDs. All the messages are changed
+     * by one STORE command.
+     *
+     * @param folderName the folder name in you account
+     * @param uids       UIDs of messages within the folder
+     * @param flags      the flags (For example: {@code new Flags(Flags.Flag.SEEN)})
+     * @param value      true for setting the flags, false for clearing them
+     *
+     * @return a map with a key is a message UID, and a value is the result of the operation (true or false).
+     */
+    @Override
+    public Map<Long, Boolean> setFlagsByUid(String folderName, Collection<Long> uids, Flags flags, boolean value) {
+        log.debug(
+            "Sets the flags {} to {} for the messages from the folder {} by uids = {}",
+            flags,
+            value,
+            folderName,
+            uids
+        );
+        return this.storeFlagsByUid(folderName, uids, flags, value, false);
+    }
+
+    private Map<Integer, Boolean> storeFlagsById(
+        String folderName,
+        Collection<Integer> ids,
+        Flags flags,
+        boolean value,
+        boolean expunge
+    ) {
+        Map<Integer, Boolean> result = new LinkedHashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        Folder folder = this.acquireFolder(folderName, Folder.READ_WRITE);
+        try {
+            int count = this.getTotalCount(folder);
+            List<Message> messages = new ArrayList<>(ids.size());
+            for (Integer id : new LinkedHashSet<>(ids)) {
+                if (id == null || id < 1 || id > count) {
+                    log.warn("The message with id=" + id + " doesn't exist");
+                    result.put(id, false);
+                    continue;
+                }
+                try {
+                    messages.add(folder.getMessage(id));
+                    result.put(id, true);
+                } catch (MessagingException e) {
+                    log.warn("The message with id=" + id + " couldn't be got because of the following error: "
+                                 + e.getMessage());
+                    result.put(id, false);
+                }
+            }
+            Message[] messageArray = messages.toArray(new Message[0]);
+            if (!this.storeFlags(folder, messageArray, flags, value)) {
+                messages.forEach(message -> result.put(message.getMessageNumber(), false));
+            } else if (expunge) {
+                this.expunge(folder, messageArray);
+            }
+        } finally {
+            this.releaseFolder(folderName, folder);
+        }
+        return result;
+    }
+
+    private Map<Long, Boolean> storeFlagsByUid(
+        String folderName,
+        Collection<Long> uids,
+        Flags flags,
+        boolean value,
+        boolean expunge
+    ) {
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        if (uids == null || uids.isEmpty()) {
+            return result;
+        }
+        Folder folder = this.acquireFolder(folderName, Folder.READ_WRITE);
+        try {
+            UIDFolder uidFolder = asUidFolder(folder);
+            long[] uidArray = uids.stream().mapToLong(Long::longValue).distinct().toArray();
+            Message[] found;
             try {
-                RetryableUtils.retry(maxAttemptsOfRequest, attemptDelayOfRequest, () -> {
-                    Message message = folder.getMessage(id);
-                    message.setFlag(Flags.Flag.DELETED, true);
-                });
-                result.put(id, true);
+                found = RetryableUtils.retry(
+                    retryPolicy,
+                    () -> uidFolder.getMessagesByUID(uidArray)
+                );
             } catch (MessagingException e) {
-                log.warn("The message with id=" + id + " wasn't marked as deleted because of the following error: "
-                             + e.getMessage());
-                result.put(id, false);
+                throw new FolderOperationException(
+                    "Getting messages by uids in the folder with the name " + folderName
+                        + " finished with the error: " + e.getMessage(), e);
             }
-        });
 
+            List<Message> messages = new ArrayList<>(uidArray.length);
+            for (int i = 0; i < uidArray.length; i++) {
+                if (found[i] == null) {
+                    log.warn("The message with uid=" + uidArray[i] + " doesn't exist");
+                    result.put(uidArray[i], false);
+                    continue;
+                }
+                messages.add(found[i]);
+                result.put(uidArray[i], true);
+            }
+            Message[] messageArray = messages.toArray(new Message[0]);
+            if (!this.storeFlags(folder, messageArray, flags, value)) {
+                result.replaceAll((uid, stored) -> false);
+            } else if (expunge) {
+                this.expunge(folder, messageArray);
+            }
+        } finally {
+            this.releaseFolder(folderName, folder);
+        }
+        return result;
+    }
+
+    /**
+     * Changes the flags of the messages by one STORE command. Sequence numbers of the messages are collapsed
+     * into ranges, so the command is short even for a lot of messages.
+     *
+     * @return false if the command has failed
+     */
+    private boolean storeFlags(Folder folder, Message[] messages, Flags flags, boolean value) {
+        if (messages.length == 0) {
+            return true;
+        }
+        try {
+            RetryableUtils.retry(
+                retryPolicy,
+                () -> folder.setFlags(messages, flags, value)
+            );
+            return true;
+        } catch (MessagingException e) {
+            log.warn("The flags of " + messages.length + " messages weren't changed because of the following error: "
+                         + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Changes the flags of the messages with numbers from the start to the end (inclusive) by one STORE command.
+     * Unlike the {@link Folder#setFlags(int, int, Flags, boolean)} method, it doesn't create objects
+     * for the messages.
+     *
+     * @return false if the command has failed
+     */
+    private boolean storeFlags(Folder folder, int start, int end, Flags flags, boolean value) {
         try {
-            RetryableUtils.retry(maxAttemptsOfRequest, attemptDelayOfRequest, folder::expunge);
+            RetryableUtils.retry(retryPolicy, () -> {
+                if (folder instanceof IMAPFolder) {
+                    ((IMAPFolder) folder).doCommand(protocol -> {
+                        protocol.storeFlags(start, end, flags, value);
+                        return null;
+                    });
+                } else {
+                    folder.setFlags(start, end, flags, value);
+                }
+            });
+            return true;
+        } catch (MessagingException e) {
+            log.warn("The flags of the messages " + start + ":" + end
+                         + " weren't changed because of the following error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Expunges the messages marked as deleted. If the messages are specified and the server supports the UIDPLUS
+     * extension, then only these messages are expunged by the UID EXPUNGE command. Otherwise, all the messages
+     * marked as deleted in the folder are expunged.
+     *
+     * @param folder   the folder opened for read and write
+     * @param messages the messages to expunge or null for all the deleted messages
+     */
+    private void expunge(Folder folder, Message[] messages) {
+        try {
+            if (messages != null && folder instanceof IMAPFolder && store.hasCapability(UIDPLUS_CAPABILITY)) {
+                RetryableUtils.retry(
+                    retryPolicy,
+                    () -> ((IMAPFolder) folder).expunge(messages)
+                );
+            } else {
+                RetryableUtils.retry(retryPolicy, folder::expunge);
+            }
         } catch (MessagingException e) {
             throw new FolderOperationException(
                 "The folder with the name " + folder.getName()
                     + " couldn't be expunge because of the following error: "
-                    + e.getMessage());
+                    + e.getMessage(), e);
         }
-
-        this.closeFolder(folder);
-        return result;
     }
 
     /**
-     * Deletes all messages in a folder.
+     * Subscribes to events of the folder: new messages, expunged messages and changes of flags.
+     * The subscription uses a dedicated connection and the IDLE command. If the server doesn't support
+     * the IDLE command, then the folder is polled by the NOOP command.
      *
      * @param folderName the folder name in you account
+     * @param listener   the callback for events of the folder
      *
-     * @return a map with a key is a message ID, and a value is the result of deletion (true or false).
+     * @return the active subscription. It must be closed when it isn't needed anymore.
      */
     @Override
-    public Map<Integer, Boolean> deleteAllMessages(String folderName) {
-        log.debug("Deletes all the messages from the folder {}", folderName);
-        Folder folder = this.openFolderForWrite(folderName);
-        Map<Integer, Boolean> result = new HashMap<>();
-        this.getMessages(folder, PageRequest.of(0, Integer.MAX_VALUE)).forEach(message -> {
-            try {
-                RetryableUtils.retry(maxAttemptsOfRequest, attemptDelayOfRequest, () -> {
-                    message.setFlag(Flags.Flag.DELETED, true);
-                });
-                result.put(message.getMessageNumber(), true);
-            } catch (MessagingException e) {
-                log.warn("The message with id=" + message.getMessageNumber()
-                             + " wasn't marked as deleted because of the following error: " + e.getMessage());
-                result.put(message.getMessageNumber(), false);
-            }
-        });
+    public FolderSubscription subscribe(String folderName, FolderEventListener listener) {
+        if (folderName == null) {
+            folderName = DEFAULT_INBOX_FOLDER_NAME;
+        }
+        log.debug("Subscribes to events of the folder {}", folderName);
+        IMAPFolderSubscription subscription = new IMAPFolderSubscription(
+            session,
+            imapProperties,
+            folderName,
+            listener
+        );
+        subscription.start();
+        return subscription;
+    }
 
+    /**
+     * Closes all the cached folders and the connection to the store.
+     */
+    @Override
+    public void close() {
+        if (readExecutor != null) {
+            readExecutor.shutdownNow();
+        }
+        if (folderCache != null) {
+            folderCache.close();
+        }
         try {
-            RetryableUtils.retry(maxAttemptsOfRequest, attemptDelayOfRequest, folder::expunge);
+            store.close();
         } catch (MessagingException e) {
-            throw new FolderOperationException(
-                "The folder with the name " + folder.getName()
-                    + " couldn't be expunge because of the following error: "
-                    + e.getMessage());
+            log.warn("The store couldn't be closed because of the following error: " + e.getMessage());
         }
-
-        this.closeFolder(folder);
-        return result;
     }
 
-    private Stream<Message> getMessages(Folder folder, PageRequest pageRequest) {
+    private Message[] getMessages(Folder folder, PageRequest pageRequest) {
         final int totalCount = this.getTotalCount(folder);
         final int end = Math.min(totalCount, (pageRequest.getEnd() + 1));
         log.debug(
@@ -466,12 +1155,396 @@ public class IMAPDClient implements ReceiverDClient {
         );
         try {
             return RetryableUtils.retry(
-                maxAttemptsOfRequest,
-                attemptDelayOfRequest,
-                () -> Arrays.stream(folder.getMessages(pageRequest.getStart() + 1, end))
+                retryPolicy,
+                () -> folder.getMessages(pageRequest.getStart() + 1, end)
             );
         } catch (MessagingException e) {
             throw new FolderOperationException("The get list message operation has failed: " + e.getMessage());
         }
     }
+
+    /**
+     * Reads the messages of the page. If parallel reading is enabled, then the page is split into parts by the number
+     * of the read threads, but a part has at least {@link #MIN_READ_PART_SIZE} messages. The first part is read by
+     * the calling thread over the given folder, the other parts are read by the read executor: every part over its own
+     * folder taken from the folder cache, so contents of messages are fetched by separate connections, and folders
+     * aren't selected again for every page. The parts are joined in the original order.
+     *
+     * @param folderName the folder name in you account
+     * @param folder     the opened folder
+     * @param messages   the messages of the folder
+     *
+     * @return the messages in the same order
+     */
+    private List<IncomingMessage> readIncomingMessages(String folderName, Folder folder, Message[] messages) {
+        return this.readIncomingMessages(folderName, folder, messages, peekRead);
+    }
+
+    /**
+     * Reads the messages of the page like the {@link #readIncomingMessages(String, Folder, Message[])} method.
+     *
+     * @param peek true if the messages must not be marked as read regardless of the peek mode of the client
+     */
+    private List<IncomingMessage> readIncomingMessages(
+        String folderName,
+        Folder folder,
+        Message[] messages,
+        boolean peek
+    ) {
+        int partSize = Math.max(MIN_READ_PART_SIZE, (messages.length + readThreads - 1) / readThreads);
+        if (readExecutor == null || messages.length <= partSize || !(folder instanceof UIDFolder)) {
+            return this.convertToIncomingMessages(folder, messages, peek);
+        }
+        this.fetch(folder, messages, UID_FETCH_PROFILE);
+        UIDFolder uidFolder = (UIDFolder) folder;
+        List<Future<List<IncomingMessage>>> parts = new ArrayList<>();
+        try {
+            for (int start = partSize; start < messages.length; start += partSize) {
+                int end = Math.min(messages.length, start + partSize);
+                long[] uids = new long[end - start];
+                for (int i = start; i < end; i++) {
+                    uids[i - start] = uidFolder.getUID(messages[i]);
+                }
+                parts.add(readExecutor.submit(() -> this.readIncomingMessagesByUid(folderName, uids, peek)));
+            }
+            log.debug("{} messages are read by {} threads", messages.length, parts.size() + 1);
+
+            List<IncomingMessage> result = new ArrayList<>(messages.length);
+            result.addAll(this.convertToIncomingMessages(folder, Arrays.copyOfRange(messages, 0, partSize), peek));
+            for (Future<List<IncomingMessage>> part : parts) {
+                result.addAll(part.get());
+            }
+            return result;
+        } catch (MessagingException e) {
+            throw new FolderOperationException("The read messages operation has failed: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FolderOperationException(
+                "The read messages operation has failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FolderOperationException("The read messages operation was interrupted", e);
+        } finally {
+            parts.forEach(part -> part.cancel(false));
+        }
+    }
+
+    /**
+     * Reads the messages by UIDs over a separately acquired folder. Messages, which were deleted after
+     * the page was selected, are skipped.
+     */
+    private List<IncomingMessage> readIncomingMessagesByUid(String folderName, long[] uids, boolean peek)
+        throws MessagingException {
+        Folder folder = peek
+            ? this.acquireFolder(folderName, Folder.READ_ONLY, true)
+            : this.acquireFolder(folderName, readFolderMode);
+        try {
+            UIDFolder uidFolder = asUidFolder(folder);
+            Message[] messages = RetryableUtils.retry(
+                retryPolicy,
+                () -> uidFolder.getMessagesByUID(uids)
+            );
+            return this.convertToIncomingMessages(
+                folder,
+                Arrays.stream(messages).filter(Objects::nonNull).toArray(Message[]::new),
+                peek
+            );
+        } finally {
+            this.releaseFolder(folderName, folder);
+        }
+    }
+
+    /**
+     * Prefetches the envelopes and the structures of the messages by one request and converts the messages.
+     * If the lazy message content is enabled, then the messages are marked as read by one request (unless the peek
+     * mode is enabled), and their contents and attachments are loaded when they are accessed. The folder is pinned
+     * in the folder cache, so it stays open for the lazy contents.
+     *
+     * @param folder   the opened folder
+     * @param messages the messages of the folder
+     *
+     * @return list of a {@link IncomingMessage}
+     */
+    private List<IncomingMessage> convertToIncomingMessages(Folder folder, Message[] messages) {
+        return this.convertToIncomingMessages(folder, messages, peekRead);
+    }
+
+    /**
+     * Converts the messages like the {@link #convertToIncomingMessages(Folder, Message[])} method. If the messages
+     * must not be marked as read regardless of the peek mode of the client, then the folder must be opened only
+     * for read: the server doesn't set the \Seen flag when the contents are loaded from such folder.
+     *
+     * @param peek true if the messages must not be marked as read regardless of the peek mode of the client
+     */
+    private List<IncomingMessage> convertToIncomingMessages(Folder folder, Message[] messages, boolean peek) {
+        this.fetch(folder, messages, MESSAGE_READ_FETCH_PROFILE);
+        if (!lazyMessageContent && messageCache != null) {
+            return this.convertToIncomingMessagesWithCache(folder, messages, peek);
+        }
+        if (!lazyMessageContent) {
+            return Arrays.stream(messages)
+                .map(message -> BaseMessageConverter.convertToIncomingMessage(
+                    message,
+                    attachmentSpillThreshold,
+                    attachmentSpillDirectory
+                ))
+                .collect(Collectors.toList());
+        }
+        if (messages.length > 0 && !peek) {
+            try {
+                RetryableUtils.retry(
+                    retryPolicy,
+                    () -> folder.setFlags(messages, new Flags(Flags.Flag.SEEN), true)
+                );
+            } catch (MessagingException e) {
+                log.warn("The messages weren't marked as read because of the following error: " + e.getMessage());
+            }
+        }
+        // the lazy contents refer to the folder, so it mustn't be closed or reopened by the following operations
+        folderCache.pin(folder);
+        return Arrays.stream(messages)
+            .map(BaseMessageConverter::convertToIncomingMessageLazily)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Converts the messages using the persistent cache. A cached message is parsed from its file, and a message
+     * missing in the cache is downloaded to the cache at first. The envelope data is always taken from the fetched
+     * messages, since flags may be changed. Cached messages are marked as read by one request, since they aren't
+     * downloaded, unless the peek mode is enabled.
+     *
+     * @param folder   the opened folder
+     * @param messages the messages of the folder
+     *
+     * @return the converted messages in the same order
+     */
+    private List<IncomingMessage> convertToIncomingMessagesWithCache(Folder folder, Message[] messages, boolean peek) {
+        UIDFolder uidFolder = asUidFolder(folder);
+        String folderName = folder.getFullName();
+        List<IncomingMessage> result = new ArrayList<>(messages.length);
+        List<Message> unseenCachedMessages = new ArrayList<>();
+        int cachedCount = 0;
+        try {
+            long uidValidity = uidFolder.getUIDValidity();
+            messageCache.invalidate(folderName, uidValidity);
+            for (Message message : messages) {
+                long uid = uidFolder.getUID(message);
+                Path file = messageCache.get(folderName, uidValidity, uid);
+                if (file == null) {
+                    file = messageCache.put(folderName, uidValidity, uid, message::writeTo);
+                } else {
+                    cachedCount++;
+                    if (!peek && !message.isSet(Flags.Flag.SEEN)) {
+                        unseenCachedMessages.add(message);
+                    }
+                }
+                result.add(this.convertCachedMessage(message, file));
+            }
+        } catch (MessagingException e) {
+            throw new FolderOperationException("The read messages operation has failed: " + e.getMessage(), e);
+        }
+
+        if (!unseenCachedMessages.isEmpty()) {
+            Message[] unseen = unseenCachedMessages.toArray(new Message[0]);
+            try {
+                RetryableUtils.retry(
+                    retryPolicy,
+                    () -> folder.setFlags(unseen, new Flags(Flags.Flag.SEEN), true)
+                );
+            } catch (MessagingException e) {
+                log.warn("The messages weren't marked as read because of the following error: " + e.getMessage());
+            }
+        }
+        log.debug("{} of {} messages were read from the cache", cachedCount, messages.length);
+        return result;
+    }
+
+    /**
+     * Converts the message with the contents and attachments parsed from the cached file. If the file is null
+     * or can't be read, then the contents and attachments are fetched from the server.
+     */
+    private IncomingMessage convertCachedMessage(Message message, Path file) {
+        if (file != null) {
+            try (SharedFileInputStream inputStream = new SharedFileInputStream(file.toFile())) {
+                MimeMessage source = new MimeMessage(session, inputStream);
+                return BaseMessageConverter.convertToIncomingMessage(
+                    message,
+                    source,
+                    attachmentSpillThreshold,
+                    attachmentSpillDirectory
+                );
+            } catch (IOException | MessagingException e) {
+                log.warn("The cached message " + file + " couldn't be read because of the following error: "
+                             + e.getMessage());
+            }
+        }
+        return BaseMessageConverter.convertToIncomingMessage(
+            message,
+            attachmentSpillThreshold,
+            attachmentSpillDirectory
+        );
+    }
+
+    /**
+     * Prefetches the data of the messages by one request. If prefetching fails, then the data will be loaded
+     * lazily by the messages themselves.
+     *
+     * @param folder   the opened folder
+     * @param messages the messages of the folder
+     * @param profile  the data for fetching
+     */
+    private void fetch(Folder folder, Message[] messages, FetchProfile profile) {
+        if (messages.length == 0) {
+            return;
+        }
+        log.debug("Fetches the data of {} messages from the folder {}", messages.length, folder);
+        try {
+            RetryableUtils.retry(retryPolicy, () -> folder.fetch(messages, profile));
+        } catch (MessagingException e) {
+            log.warn("The messages data couldn't be prefetched because of the following error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Selects messages with UIDs greater than the last UID of the page request. The messages are selected by one
+     * ranged UID FETCH request {@code n:*} without requesting the count of messages or the UIDNEXT value, so new
+     * messages are found even if the folder has been kept open by the folder cache since they arrived. The server
+     * returns the UIDs of all the messages after the last UID, and the page is trimmed on the client.
+     *
+     * @param folder      the opened folder
+     * @param pageRequest the cursor page request
+     *
+     * @return the selected messages and the request of the next page
+     *
+     * @throws UidValidityException if the UIDVALIDITY of the folder has changed
+     */
+    private UidPage getMessagesByUid(Folder folder, CursorPageRequest pageRequest) {
+        UIDFolder uidFolder = asUidFolder(folder);
+        try {
+            long uidValidity = uidFolder.getUIDValidity();
+            if (pageRequest.isUidValidityKnown() && pageRequest.getUidValidity() != uidValidity) {
+                throw new UidValidityException(folder.getFullName(), pageRequest.getUidValidity(), uidValidity);
+            }
+            int length = pageRequest.getLength();
+            long start = pageRequest.getLastUid() + 1;
+            Message[] found = RetryableUtils.retry(
+                retryPolicy,
+                () -> uidFolder.getMessagesByUID(start, UIDFolder.LASTUID)
+            );
+            List<Message> messages = new ArrayList<>();
+            for (Message message : found) {
+                // A server returns the last message for the range 'n:*' even if its UID is less than n
+                if (message != null && uidFolder.getUID(message) >= start) {
+                    messages.add(message);
+                }
+            }
+
+            boolean hasMore = messages.size() > length;
+            List<Message> pageMessages = hasMore ? messages.subList(0, length) : messages;
+            long lastUid = pageMessages.isEmpty()
+                ? pageRequest.getLastUid()
+                : uidFolder.getUID(pageMessages.get(pageMessages.size() - 1));
+            log.debug(
+                "{} messages were selected by uids from the folder {}. The last uid is {}",
+                pageMessages.size(),
+                folder,
+                lastUid
+            );
+            return new UidPage(
+                pageMessages.toArray(new Message[0]),
+                CursorPageRequest.of(uidValidity, lastUid, length),
+                hasMore
+            );
+        } catch (MessagingException e) {
+            throw new FolderOperationException(
+                "The get list message by uids operation has failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Collects flag changes and UIDs of expunged messages from the responses to the SELECT (QRESYNC) command.
+     * Only messages with UIDs not greater than the last synchronized UID are taken.
+     */
+    private void collectResyncEvents(
+        IMAPFolder folder,
+        List<MailEvent> events,
+        long lastUid,
+        Map<Long, Flags> changedFlags,
+        List<Long> vanishedUids
+    ) throws MessagingException {
+        if (events == null) {
+            return;
+        }
+        for (MailEvent event : events) {
+            if (event instanceof MessageVanishedEvent) {
+                for (long uid : ((MessageVanishedEvent) event).getUIDs()) {
+                    if (uid <= lastUid) {
+                        vanishedUids.add(uid);
+                    }
+                }
+            } else if (event instanceof MessageChangedEvent) {
+                Message message = ((MessageChangedEvent) event).getMessage();
+                long uid = folder.getUID(message);
+                if (uid > 0 && uid <= lastUid) {
+                    changedFlags.put(uid, message.getFlags());
+                }
+            }
+        }
+        Collections.sort(vanishedUids);
+    }
+
+    private static IMAPFolder asImapFolder(Folder folder) {
+        if (!(folder instanceof IMAPFolder)) {
+            throw new FolderOperationException("The folder " + folder.getName() + " isn't an IMAP folder");
+        }
+        return (IMAPFolder) folder;
+    }
+
+    private static UIDFolder asUidFolder(Folder folder) {
+        if (!(folder instanceof UIDFolder)) {
+            throw new FolderOperationException("The folder " + folder.getName() + " doesn't support UIDs");
+        }
+        return (UIDFolder) folder;
+    }
+
+    private static FetchProfile createUidFetchProfile() {
+        FetchProfile profile = new FetchProfile();
+        profile.add(UIDFolder.FetchProfileItem.UID);
+        return profile;
+    }
+
+    private static FetchProfile createMessageReadFetchProfile() {
+        FetchProfile profile = createMessageViewFetchProfile();
+        profile.add(FetchProfile.Item.CONTENT_INFO);
+        return profile;
+    }
+
+    private static FetchProfile createMessageViewFetchProfile() {
+        FetchProfile profile = new FetchProfile();
+        profile.add(UIDFolder.FetchProfileItem.UID);
+        profile.add(FetchProfile.Item.ENVELOPE);
+        profile.add(FetchProfile.Item.FLAGS);
+        profile.add(FetchProfile.Item.SIZE);
+        profile.add(IMAPFolder.FetchProfileItem.INTERNALDATE);
+        profile.add(ProtocolUtils.CONTENT_TRANSFER_ENCODING_HDR);
+        return profile;
+    }
+
+    /**
+     * The messages of the cursor page and the request of the next page.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class UidPage {
+
+        private final Message[] messages;
+        private final CursorPageRequest nextPageRequest;
+        private final boolean hasMore;
+
+        <T> CursorPageResponse<T> toResponse(List<T> data) {
+            return CursorPageResponse.of(data, nextPageRequest, hasMore);
+        }
+    }
 }
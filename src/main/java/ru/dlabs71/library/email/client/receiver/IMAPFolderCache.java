@@ -0,0 +1,302 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import jakarta.mail.Folder;
+import jakarta.mail.MessagingException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The cache of opened (selected) folders. Opening a folder requires several requests to the server, so the folders
+ * are kept open between operations and repeated operations with the same folder reuse one selected connection.
+ *
+ * <p>The cache works as follows:
+ * <ul>
+ *     <li>an opened folder is used by one operation at the same time. If all the cached folders with the name
+ *     are used, then a new one will be opened;</li>
+ *     <li>a folder opened only for read is reopened for read and write if it's required by the operation
+ *     (mode upgrade). A folder opened for read and write is used for reading as well, unless the operation
+ *     requires exactly the read-only mode (for example, reading without setting the \Seen flag);</li>
+ *     <li>a folder is validated when it's acquired. The validation is made by the {@link Folder#isOpen()} method,
+ *     which sends the NOOP command to the server if the folder has been idle for more than a second.
+ *     The NOOP command also updates the count of messages and their flags;</li>
+ *     <li>folders, which have been idle for longer than the idle timeout, are closed and evicted;</li>
+ *     <li>a folder can be pinned (see {@link #pin(Folder)}) if objects loading data later, such as lazily loaded
+ *     message contents, refer to it. A pinned folder is still reused, but it's neither reopened for read and write
+ *     nor evicted because of the size of the cache, so the cache may hold more than the maximum number of idle
+ *     folders for a while. The pin expires after the idle timeout, and all the folders are closed by
+ *     the {@link #close()} method.</li>
+ * </ul>
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class IMAPFolderCache implements AutoCloseable {
+
+    private final FolderOpener opener;
+    @Getter
+    private final int maxSize;
+    @Getter
+    private final long idleTimeout;
+
+    /** Idle folders. The most recently used folder is the first. Guarded by {@code this}. **/
+    private final Deque<CachedFolder> idleFolders = new ArrayDeque<>();
+    /** The pinned folders with the times when the pins expire. Guarded by {@code this}. **/
+    private final Map<Folder, Long> pinnedFolders = new IdentityHashMap<>();
+    private volatile boolean closed = false;
+
+    /**
+     * The constructor of this class.
+     *
+     * @param opener      the function opening a folder, which is absent in the cache
+     * @param maxSize     the maximum number of idle folders
+     * @param idleTimeout time in milliseconds after which an idle folder will be closed
+     */
+    public IMAPFolderCache(FolderOpener opener, int maxSize, long idleTimeout) {
+        JavaCoreUtils.notNullArgument(opener, "opener");
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The size of the folder cache must be greater than 0");
+        }
+        this.opener = opener;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Returns an opened folder from the cache. If there are no idle folders with the name, then a new one will be
+     * opened. Each acquired folder must be returned by the {@link #release(String, Folder)} method.
+     *
+     * @param folderName the folder name (For example: INBOX, OUTBOX, etc.)
+     * @param mode       the required access mode: {@link Folder#READ_ONLY} or {@link Folder#READ_WRITE}
+     *
+     * @return an opened folder
+     */
+    public Folder acquire(String folderName, int mode) {
+        return this.acquire(folderName, mode, false);
+    }
+
+    /**
+     * Returns an opened folder from the cache like the {@link #acquire(String, int)} method.
+     *
+     * @param folderName the folder name (For example: INBOX, OUTBOX, etc.)
+     * @param mode       the required access mode: {@link Folder#READ_ONLY} or {@link Folder#READ_WRITE}
+     * @param exactMode  true if the folder must be opened exactly with the mode. For example, a folder opened
+     *                   for read and write isn't returned for the read-only mode, since the server marks messages
+     *                   read from such folder as read.
+     *
+     * @return an opened folder
+     */
+    public Folder acquire(String folderName, int mode, boolean exactMode) {
+        CachedFolder cached;
+        while (!closed && (cached = this.pollIdle(folderName, mode, exactMode)) != null) {
+            Folder folder = cached.getFolder();
+            if (cached.isExpired(System.currentTimeMillis(), idleTimeout)) {
+                log.debug("The idle folder {} is expired. It'll be closed", folder);
+                this.closeAndUnpin(folder);
+                continue;
+            }
+            if (!isOpenQuietly(folder)) {
+                log.debug("The idle folder {} is broken. It'll be closed", folder);
+                this.closeAndUnpin(folder);
+                continue;
+            }
+            if (folder.getMode() < mode) {
+                log.debug("The idle folder {} is opened only for read. It'll be reopened for read and write", folder);
+                this.closeAndUnpin(folder);
+                break;
+            }
+            log.debug("The idle folder {} is reused", folder);
+            return folder;
+        }
+        return opener.open(folderName, mode);
+    }
+
+    /**
+     * Returns the acquired folder to the cache. If the folder was closed during the operation, then it's discarded.
+     *
+     * @param folderName the folder name, which was used for acquiring
+     * @param folder     the acquired folder
+     */
+    public void release(String folderName, Folder folder) {
+        if (folder == null) {
+            return;
+        }
+        if (closed || !isOpenQuietly(folder)) {
+            log.debug("The folder {} is discarded", folder);
+            this.closeAndUnpin(folder);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Folder> evicted = new ArrayList<>();
+        synchronized (this) {
+            idleFolders.addFirst(new CachedFolder(folderName, folder, now));
+            Iterator<CachedFolder> iterator = idleFolders.descendingIterator();
+            int size = idleFolders.size();
+            while (size > maxSize && iterator.hasNext()) {
+                Folder candidate = iterator.next().getFolder();
+                if (!this.isPinned(candidate, now)) {
+                    iterator.remove();
+                    evicted.add(candidate);
+                    size--;
+                }
+            }
+        }
+        evicted.forEach(this::closeAndUnpin);
+        this.evictIdle();
+    }
+
+    /**
+     * Pins the folder, so it won't be closed by reopening for read and write or by evicting because of the size
+     * of the cache until the idle timeout expires. If the idle timeout is disabled, then the folder is pinned until
+     * the cache is closed. Repeated pinning extends the pin.
+     *
+     * @param folder the folder acquired from this cache
+     */
+    public synchronized void pin(Folder folder) {
+        long now = System.currentTimeMillis();
+        pinnedFolders.values().removeIf(expirationTime -> expirationTime < now);
+        pinnedFolders.put(folder, idleTimeout > 0 ? now + idleTimeout : Long.MAX_VALUE);
+    }
+
+    /**
+     * Closes all the idle folders, which have been idle for longer than the idle timeout.
+     */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<Folder> expired = new ArrayList<>();
+        synchronized (this) {
+            while (!idleFolders.isEmpty() && idleFolders.peekLast().isExpired(now, idleTimeout)) {
+                expired.add(idleFolders.pollLast().getFolder());
+            }
+        }
+        expired.forEach(this::closeAndUnpin);
+        if (!expired.isEmpty()) {
+            log.debug("{} idle folders were evicted", expired.size());
+        }
+    }
+
+    /**
+     * Returns the number of idle folders in the cache.
+     */
+    public synchronized int getIdleCount() {
+        return idleFolders.size();
+    }
+
+    /**
+     * Closes all the idle folders. Folders, which are acquired now, will be closed after returning.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        List<Folder> folders = new ArrayList<>();
+        synchronized (this) {
+            idleFolders.forEach(item -> folders.add(item.getFolder()));
+            idleFolders.clear();
+            pinnedFolders.clear();
+        }
+        folders.forEach(IMAPFolderCache::closeQuietly);
+        log.debug("The folder cache is closed");
+    }
+
+    /**
+     * Removes and returns the most recently used idle folder with the name. The folder opened with the required mode
+     * is preferred. If the exact mode is required, then folders opened with another mode are skipped. Pinned folders
+     * opened only for read are skipped if the read and write mode is required, since they mustn't be reopened.
+     */
+    private synchronized CachedFolder pollIdle(String folderName, int mode, boolean exactMode) {
+        long now = System.currentTimeMillis();
+        CachedFolder candidate = null;
+        for (CachedFolder cached : idleFolders) {
+            if (!cached.getFolderName().equals(folderName)) {
+                continue;
+            }
+            if (cached.getMode() < mode && this.isPinned(cached.getFolder(), now)) {
+                continue;
+            }
+            if (cached.getMode() == mode) {
+                candidate = cached;
+                break;
+            }
+            if (candidate == null && !exactMode) {
+                candidate = cached;
+            }
+        }
+        if (candidate != null) {
+            idleFolders.remove(candidate);
+        }
+        return candidate;
+    }
+
+    private boolean isPinned(Folder folder, long now) {
+        Long expirationTime = pinnedFolders.get(folder);
+        return expirationTime != null && expirationTime >= now;
+    }
+
+    private void closeAndUnpin(Folder folder) {
+        synchronized (this) {
+            pinnedFolders.remove(folder);
+        }
+        closeQuietly(folder);
+    }
+
+    private static boolean isOpenQuietly(Folder folder) {
+        try {
+            return folder.isOpen();
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Folder folder) {
+        try {
+            if (folder.isOpen()) {
+                folder.close(false);
+            }
+        } catch (MessagingException | RuntimeException ex) {
+            log.warn("The folder {} couldn't be closed because of the following error: {}", folder, ex.getMessage());
+        }
+    }
+
+    /**
+     * Functional interface for opening a folder, which is absent in the {@linkplain IMAPFolderCache}.
+     */
+    @FunctionalInterface
+    public interface FolderOpener {
+
+        Folder open(String folderName, int mode);
+    }
+
+    /**
+     * The idle folder with the time of its last using.
+     */
+    @Getter
+    private static class CachedFolder {
+
+        private final String folderName;
+        private final Folder folder;
+        private final int mode;
+        private final long lastUsedTime;
+
+        CachedFolder(String folderName, Folder folder, long lastUsedTime) {
+            this.folderName = folderName;
+            this.folder = folder;
+            this.mode = folder.getMode();
+            this.lastUsedTime = lastUsedTime;
+        }
+
+        boolean isExpired(long now, long idleTimeout) {
+            return idleTimeout > 0 && now - lastUsedTime > idleTimeout;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import jakarta.mail.Folder;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.event.MessageChangedEvent;
+import jakarta.mail.event.MessageChangedListener;
+import jakarta.mail.event.MessageCountEvent;
+import jakarta.mail.event.MessageCountListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.imap.IMAPFolder;
+import org.eclipse.angus.mail.imap.IMAPStore;
+import ru.dlabs71.library.email.converter.incoming.MessagePartConverter;
+import ru.dlabs71.library.email.converter.incoming.MessageViewConverter;
+import ru.dlabs71.library.email.dto.event.FolderEvent;
+import ru.dlabs71.library.email.dto.message.incoming.MessageView;
+import ru.dlabs71.library.email.property.ImapProperties;
+import ru.dlabs71.library.email.type.FolderEventType;
+import ru.dlabs71.library.email.type.Protocol;
+import ru.dlabs71.library.email.util.ConcurrentUtils;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The subscription to events of an IMAP folder. It uses a dedicated connection, which is kept open
+ * by a separate thread until the subscription is closed.
+ *
+ * <p>The subscription works as follows:
+ * <ul>
+ *     <li>the folder is opened only for read and the IDLE command is issued. The server pushes changes
+ *     of the folder while the command is running;</li>
+ *     <li>the IDLE command is re-issued every {@link ImapProperties#getIdleRefreshInterval()} milliseconds,
+ *     since servers drop the IDLE connections after 30 minutes of inactivity;</li>
+ *     <li>if the server doesn't support the IDLE command, then the folder is polled by the NOOP command every
+ *     {@link ImapProperties#getIdlePollInterval()} milliseconds;</li>
+ *     <li>if the connection is lost, then the subscription reconnects with an exponential delay between
+ *     {@link ImapProperties#getIdleReconnectDelay()} and {@link ImapProperties#getIdleMaxReconnectDelay()}.</li>
+ * </ul>
+ *
+ * <p>Events are delivered to the listener by the event thread of the folder. New and changed messages are fetched
+ * by one request per event before delivering. Events, which happened while the subscription was reconnecting,
+ * are not delivered.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class IMAPFolderSubscription implements FolderSubscription {
+
+    private static final String IDLE_CAPABILITY = "IDLE";
+
+    /** The scheduler, which re-issues the IDLE commands of all the subscriptions. **/
+    private static final ScheduledExecutorService REFRESH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+        ConcurrentUtils.namedThreadFactory("d-email-idle-refresh")
+    );
+
+    private final Session session;
+    private final String email;
+    private final String password;
+    @Getter
+    private final String folderName;
+    private final FolderEventListener listener;
+    private final long refreshInterval;
+    private final long pollInterval;
+    private final long reconnectDelay;
+    private final long maxReconnectDelay;
+    private final Thread thread;
+
+    private volatile boolean active = true;
+
+    /** The current connection. Guarded by {@code this}. **/
+    private IMAPStore store;
+    private IMAPFolder folder;
+
+    /**
+     * The constructor of this class. The subscription starts by the {@link #start()} method.
+     *
+     * @param session        has already configured session
+     * @param imapProperties properties with the credentials and the settings of the subscription
+     * @param folderName     the folder name (For example: INBOX, OUTBOX, etc.)
+     * @param listener       the callback for events of the folder
+     */
+    IMAPFolderSubscription(
+        Session session,
+        ImapProperties imapProperties,
+        String folderName,
+        FolderEventListener listener
+    ) {
+        JavaCoreUtils.notNullArgument(session, "session");
+        JavaCoreUtils.notNullArgument(imapProperties, "imapProperties");
+        JavaCoreUtils.notNullArgument(folderName, "folderName");
+        JavaCoreUtils.notNullArgument(listener, "listener");
+        this.session = session;
+        this.email = imapProperties.getEmail();
+        this.password = imapProperties.getPassword();
+        this.folderName = folderName;
+        this.listener = listener;
+        this.refreshInterval = imapProperties.getIdleRefreshInterval();
+        this.pollInterval = Math.max(imapProperties.getIdlePollInterval(), 1);
+        this.reconnectDelay = Math.max(imapProperties.getIdleReconnectDelay(), 1);
+        this.maxReconnectDelay = Math.max(imapProperties.getIdleMaxReconnectDelay(), this.reconnectDelay);
+        this.thread = ConcurrentUtils.namedThreadFactory("d-email-idle-" + folderName).newThread(this::run);
+    }
+
+    /**
+     * Starts the thread of the subscription.
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Returns true if the subscription isn't closed. A subscription is active while it reconnects to the server.
+     */
+    @Override
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Stops receiving events and closes the connection. The running IDLE command is aborted.
+     */
+    @Override
+    public void close() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        this.disconnect();
+        thread.interrupt();
+        log.debug("The subscription to the folder {} is closed", folderName);
+    }
+
+    private void run() {
+        long delay = reconnectDelay;
+        while (active) {
+            try {
+                IMAPFolder openedFolder = this.connect();
+                delay = reconnectDelay;
+                this.listen(openedFolder);
+                if (active) {
+                    log.warn("The folder {} was closed by the server. Reconnect in {} ms", folderName, delay);
+                }
+            } catch (MessagingException | RuntimeException e) {
+                if (active) {
+                    log.warn(
+                        "The subscription to the folder {} has failed because of the following error: {}. "
+                            + "Reconnect in {} ms",
+                        folderName,
+                        e.getMessage(),
+                        delay
+                    );
+                }
+            } finally {
+                this.disconnect();
+            }
+            if (active && !sleep(delay)) {
+                break;
+            }
+            delay = Math.min(delay * 2, maxReconnectDelay);
+        }
+        log.debug("The thread of the subscription to the folder {} is stopped", folderName);
+    }
+
+    private IMAPFolder connect() throws MessagingException {
+        IMAPStore newStore = (IMAPStore) session.getStore(Protocol.IMAP.getProtocolName());
+        synchronized (this) {
+            if (!active) {
+                throw new MessagingException("The subscription is closed");
+            }
+            this.store = newStore;
+        }
+        newStore.connect(email, password);
+        IMAPFolder newFolder = (IMAPFolder) newStore.getFolder(folderName);
+        EventHandler handler = new EventHandler(newFolder);
+        newFolder.addMessageCountListener(handler);
+        newFolder.addMessageChangedListener(handler);
+        newFolder.open(Folder.READ_ONLY);
+        synchronized (this) {
+            this.folder = newFolder;
+        }
+        log.debug("The subscription to the folder {} is connected", folderName);
+        return newFolder;
+    }
+
+    /**
+     * Waits for changes of the folder until the subscription is closed or the connection is lost.
+     */
+    private void listen(IMAPFolder openedFolder) throws MessagingException {
+        boolean idleSupported = ((IMAPStore) openedFolder.getStore()).hasCapability(IDLE_CAPABILITY);
+        if (!idleSupported) {
+            log.info(
+                "The server doesn't support the IDLE command. The folder {} will be polled every {} ms",
+                folderName,
+                pollInterval
+            );
+            while (active && openedFolder.isOpen()) {
+                if (!sleep(pollInterval)) {
+                    return;
+                }
+                noop(openedFolder);
+            }
+            return;
+        }
+
+        // Any command issued by another thread aborts the running IDLE command, and the loop re-issues it
+        ScheduledFuture<?> refreshing = null;
+        if (refreshInterval > 0) {
+            refreshing = REFRESH_SCHEDULER.scheduleWithFixedDelay(
+                () -> this.refresh(openedFolder),
+                refreshInterval,
+                refreshInterval,
+                TimeUnit.MILLISECONDS
+            );
+        }
+        try {
+            while (active && openedFolder.isOpen()) {
+                openedFolder.idle();
+            }
+        } finally {
+            if (refreshing != null) {
+                refreshing.cancel(false);
+            }
+        }
+    }
+
+    private void refresh(IMAPFolder openedFolder) {
+        try {
+            log.debug("The IDLE command of the folder {} is re-issued", folderName);
+            noop(openedFolder);
+        } catch (MessagingException | RuntimeException e) {
+            log.debug("The NOOP command for the folder {} has failed: {}", folderName, e.getMessage());
+        }
+    }
+
+    private void disconnect() {
+        IMAPFolder currentFolder;
+        IMAPStore currentStore;
+        synchronized (this) {
+            currentFolder = this.folder;
+            currentStore = this.store;
+            this.folder = null;
+            this.store = null;
+        }
+        if (currentFolder != null && currentFolder.isOpen()) {
+            try {
+                currentFolder.close(false);
+            } catch (MessagingException | RuntimeException e) {
+                log.debug("The folder {} couldn't be closed: {}", folderName, e.getMessage());
+            }
+        }
+        if (currentStore != null) {
+            try {
+                currentStore.close();
+            } catch (MessagingException | RuntimeException e) {
+                log.debug("The store of the subscription couldn't be closed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void noop(IMAPFolder openedFolder) throws MessagingException {
+        openedFolder.doCommand(protocol -> {
+            protocol.noop();
+            return null;
+        });
+    }
+
+    /**
+     * Sleeps the thread of the subscription.
+     *
+     * @return false if the thread was interrupted
+     */
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Converts the events of the folder and delivers them to the listener.
+     */
+    private class EventHandler implements MessageCountListener, MessageChangedListener {
+
+        private final IMAPFolder eventFolder;
+
+        EventHandler(IMAPFolder eventFolder) {
+            this.eventFolder = eventFolder;
+        }
+
+        @Override
+        public void messagesAdded(MessageCountEvent event) {
+            this.deliver(FolderEventType.MESSAGES_ADDED, event.getMessages());
+        }
+
+        @Override
+        public void messagesRemoved(MessageCountEvent event) {
+            this.deliver(FolderEventType.MESSAGES_REMOVED, event.getMessages());
+        }
+
+        @Override
+        public void messageChanged(MessageChangedEvent event) {
+            if (event.getMessageChangeType() == MessageChangedEvent.FLAGS_CHANGED) {
+                this.deliver(FolderEventType.FLAGS_CHANGED, new Message[]{event.getMessage()});
+            }
+        }
+
+        private void deliver(FolderEventType type, Message[] messages) {
+            if (!active) {
+                return;
+            }
+            try {
+                List<MessageView> views = type == FolderEventType.MESSAGES_REMOVED
+                    ? convertRemoved(messages)
+                    : convert(messages);
+                FolderEvent folderEvent = new FolderEvent(type, folderName, views);
+                log.debug("The event {} of the folder {} is delivered", type, folderName);
+                listener.onEvent(folderEvent);
+            } catch (RuntimeException e) {
+                log.warn(
+                    "The event {} of the folder {} couldn't be handled because of the following error: {}",
+                    type,
+                    folderName,
+                    e.getMessage()
+                );
+            }
+        }
+
+        private List<MessageView> convert(Message[] messages) {
+            try {
+                eventFolder.fetch(messages, IMAPDClient.MESSAGE_VIEW_FETCH_PROFILE);
+            } catch (MessagingException e) {
+                log.warn("The messages data couldn't be prefetched because of the following error: "
+                             + e.getMessage());
+            }
+            List<MessageView> views = new ArrayList<>(messages.length);
+            for (Message message : messages) {
+                views.add(MessageViewConverter.convert(message));
+            }
+            return views;
+        }
+
+        private List<MessageView> convertRemoved(Message[] messages) {
+            List<MessageView> views = new ArrayList<>(messages.length);
+            for (Message message : messages) {
+                views.add(MessageView.builder()
+                              .id(message.getMessageNumber())
+                              .uid(MessagePartConverter.getUid(message))
+                              .build());
+            }
+            return views;
+        }
+    }
+}
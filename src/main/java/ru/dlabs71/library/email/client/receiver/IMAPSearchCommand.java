@@ -0,0 +1,138 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import jakarta.mail.search.SearchException;
+import jakarta.mail.search.SearchTerm;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.iap.Argument;
+import org.eclipse.angus.mail.iap.ProtocolException;
+import org.eclipse.angus.mail.iap.Response;
+import org.eclipse.angus.mail.imap.IMAPFolder;
+import org.eclipse.angus.mail.imap.protocol.IMAPProtocol;
+import org.eclipse.angus.mail.imap.protocol.IMAPResponse;
+import org.eclipse.angus.mail.imap.protocol.SearchSequence;
+
+/**
+ * The UID SEARCH command. It returns UIDs of the matched messages instead of their sequence numbers, so the messages
+ * don't have to be fetched for getting their UIDs.
+ *
+ * <p>If the server supports the ESEARCH extension (RFC 4731), then the command requests the result in the compact
+ * form {@code RETURN (ALL)}: ranges of adjacent UIDs are sent as one item (For example: {@code 1:5000}) instead of
+ * every UID.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+final class IMAPSearchCommand implements IMAPFolder.ProtocolCommand {
+
+    private static final String ESEARCH_CAPABILITY = "ESEARCH";
+    private static final String SEARCH_RESPONSE = "SEARCH";
+    private static final String ESEARCH_RESPONSE = "ESEARCH";
+    private static final String ALL_ITEM = "ALL";
+
+    private final SearchTerm term;
+
+    /**
+     * The constructor of this class.
+     *
+     * @param term the search criteria or null for all the messages
+     */
+    IMAPSearchCommand(SearchTerm term) {
+        this.term = term;
+    }
+
+    /**
+     * Executes the command.
+     *
+     * @return sorted list of UIDs of the matched messages
+     */
+    @Override
+    public List<Long> doCommand(IMAPProtocol protocol) throws ProtocolException {
+        boolean esearch = protocol.hasCapability(ESEARCH_CAPABILITY);
+        Argument args = new Argument();
+        if (esearch) {
+            args.writeAtom("RETURN");
+            args.writeArgument(new Argument().writeAtom(ALL_ITEM));
+        }
+        if (term == null) {
+            args.writeAtom(ALL_ITEM);
+        } else {
+            String charset = SearchSequence.isAscii(term) ? null : StandardCharsets.UTF_8.name();
+            if (charset != null) {
+                args.writeAtom("CHARSET");
+                args.writeAtom(charset);
+            }
+            try {
+                args.append(new SearchSequence(protocol).generateSequence(term, charset));
+            } catch (SearchException | IOException e) {
+                throw new ProtocolException("The search criteria couldn't be converted: " + e.getMessage(), e);
+            }
+        }
+        log.debug("Searches messages by the criteria {}. ESEARCH is supported: {}", term, esearch);
+
+        Response[] responses = protocol.command("UID SEARCH", args);
+        Response response = responses[responses.length - 1];
+        List<Long> uids = new ArrayList<>();
+        if (response.isOK()) {
+            for (int i = 0; i < responses.length; i++) {
+                if (!(responses[i] instanceof IMAPResponse)) {
+                    continue;
+                }
+                IMAPResponse imapResponse = (IMAPResponse) responses[i];
+                if (imapResponse.keyEquals(ESEARCH_RESPONSE)) {
+                    parseEsearchResponse(imapResponse.getRest(), uids);
+                    responses[i] = null;
+                } else if (imapResponse.keyEquals(SEARCH_RESPONSE)) {
+                    long uid;
+                    while ((uid = imapResponse.readLong()) != -1) {
+                        uids.add(uid);
+                    }
+                    responses[i] = null;
+                }
+            }
+        }
+        protocol.notifyResponseHandlers(responses);
+        protocol.handleResult(response);
+        Collections.sort(uids);
+        return uids;
+    }
+
+    /**
+     * Parses the ESEARCH response. For example: {@code (TAG "A5") UID ALL 4:19,21,28}.
+     */
+    private static void parseEsearchResponse(String response, List<Long> uids) {
+        String[] tokens = response.trim().split("\\s+");
+        for (int i = 0; i < tokens.length - 1; i++) {
+            if (ALL_ITEM.equalsIgnoreCase(tokens[i])) {
+                parseSequenceSet(tokens[i + 1], uids);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Parses the sequence set. For example: {@code 4:19,21,28}.
+     */
+    private static void parseSequenceSet(String sequenceSet, List<Long> uids) {
+        for (String item : sequenceSet.split(",")) {
+            int delimiter = item.indexOf(':');
+            if (delimiter < 0) {
+                uids.add(Long.parseLong(item));
+                continue;
+            }
+            long first = Long.parseLong(item.substring(0, delimiter));
+            long last = Long.parseLong(item.substring(delimiter + 1));
+            for (long uid = Math.min(first, last); uid <= Math.max(first, last); uid++) {
+                uids.add(uid);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The {@link SyncCheckpointStore}, which keeps checkpoints in the memory. The checkpoints are lost after a restart,
+ * so the first synchronization after a restart starts from the beginning of folders.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public class MemorySyncCheckpointStore implements SyncCheckpointStore {
+
+    private final Map<String, SyncCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public SyncCheckpoint load(String account, String folderName) {
+        return checkpoints.get(toKey(account, folderName));
+    }
+
+    @Override
+    public void save(String account, String folderName, SyncCheckpoint checkpoint) {
+        JavaCoreUtils.notNullArgument(checkpoint, "checkpoint");
+        checkpoints.put(toKey(account, folderName), checkpoint);
+    }
+
+    @Override
+    public void remove(String account, String folderName) {
+        checkpoints.remove(toKey(account, folderName));
+    }
+
+    private static String toKey(String account, String folderName) {
+        JavaCoreUtils.notNullArgument(account, "account");
+        JavaCoreUtils.notNullArgument(folderName, "folderName");
+        return account + "/" + folderName;
+    }
+}
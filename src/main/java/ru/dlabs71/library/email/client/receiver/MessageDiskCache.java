@@ -0,0 +1,304 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import jakarta.mail.MessagingException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The persistent cache of raw (RFC 822) messages. Every message is kept in its own file, and the files are grouped
+ * by segment directories of folders and their UIDVALIDITY values: {@code <folder>/<uidValidity>/<uid>.eml}.
+ * So when the UIDVALIDITY of a folder changes, the whole segment of the previous value is deleted at once.
+ *
+ * <p>The total size of the files is bounded. If it exceeds the maximum size, then the least recently used messages
+ * are deleted. The order of usage is kept by the modification time of the files, so it survives restarts.
+ *
+ * <p>The class is thread-safe. The directory must be used by one instance of the class only.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class MessageDiskCache {
+
+    private static final String MESSAGE_FILE_SUFFIX = ".eml";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxSize;
+
+    /**
+     * The sizes of the cached files in the order of usage: the least recently used file is the first.
+     */
+    private final LinkedHashMap<Path, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> uidValidities = new HashMap<>();
+    private long size = 0;
+
+    /**
+     * The constructor of this class. Messages cached before are loaded from the directory.
+     *
+     * @param directory the directory of the cache. It's created if it doesn't exist.
+     * @param maxSize   the maximum total size of the cached messages in bytes
+     */
+    public MessageDiskCache(Path directory, long maxSize) {
+        JavaCoreUtils.notNullArgument(directory, "directory");
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of the cache must be greater than 0");
+        }
+        this.directory = directory.toAbsolutePath();
+        this.maxSize = maxSize;
+        this.load();
+    }
+
+    /**
+     * Returns the file of the cached message and marks the message as recently used.
+     *
+     * @param folderName  the full name of the folder
+     * @param uidValidity the UIDVALIDITY value of the folder
+     * @param uid         the UID of the message
+     *
+     * @return the file with the raw message or null if the message isn't cached
+     */
+    public synchronized Path get(String folderName, long uidValidity, long uid) {
+        Path file = this.resolve(folderName, uidValidity, uid);
+        if (entries.get(file) == null) {
+            return null;
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("The cached message {} was removed outside the cache", file);
+            this.remove(file);
+            return null;
+        }
+        return file;
+    }
+
+    /**
+     * Writes the message to the cache. The message is written to a temporary file at first, so the cache doesn't
+     * contain partially written messages. Then the least recently used messages are deleted if the cache is full.
+     *
+     * @param folderName  the full name of the folder
+     * @param uidValidity the UIDVALIDITY value of the folder
+     * @param uid         the UID of the message
+     * @param writer      the function writing the raw message. For example: {@link jakarta.mail.Message#writeTo}.
+     *
+     * @return the file with the raw message or null if the message couldn't be cached
+     */
+    public Path put(String folderName, long uidValidity, long uid, MessageWriter writer) {
+        Path file = this.resolve(folderName, uidValidity, uid);
+        Path tempFile = file.resolveSibling(uid + "-" + Thread.currentThread().getId() + TEMP_FILE_SUFFIX);
+        long fileSize;
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                writer.writeTo(outputStream);
+            }
+            fileSize = Files.size(tempFile);
+            if (fileSize > maxSize) {
+                log.debug("The message {} is larger than the cache. It won't be cached", uid);
+                Files.deleteIfExists(tempFile);
+                return null;
+            }
+        } catch (IOException | MessagingException e) {
+            log.warn("The message " + uid + " couldn't be cached because of the following error: " + e.getMessage());
+            deleteQuietly(tempFile);
+            return null;
+        }
+
+        synchronized (this) {
+            try {
+                moveAtomically(tempFile, file);
+            } catch (IOException e) {
+                log.warn("The message " + uid + " couldn't be cached because of the following error: "
+                             + e.getMessage());
+                deleteQuietly(tempFile);
+                return null;
+            }
+            Long previousSize = entries.put(file, fileSize);
+            size += fileSize - (previousSize == null ? 0 : previousSize);
+            this.evict(file);
+        }
+        log.debug("The message {} of the folder {} was cached to the file {}", uid, folderName, file);
+        return file;
+    }
+
+    /**
+     * Deletes the cached messages of the folder, which have a UIDVALIDITY value other than the given one.
+     * The check is made once per a UIDVALIDITY value, so the method is cheap to call before every use of the folder.
+     *
+     * @param folderName  the full name of the folder
+     * @param uidValidity the current UIDVALIDITY value of the folder
+     */
+    public synchronized void invalidate(String folderName, long uidValidity) {
+        Long knownUidValidity = uidValidities.put(folderName, uidValidity);
+        if (knownUidValidity != null && knownUidValidity == uidValidity) {
+            return;
+        }
+        Path folderDirectory = directory.resolve(encode(folderName));
+        String currentSegment = String.valueOf(uidValidity);
+        List<Path> obsolete = new ArrayList<>();
+        for (Path file : entries.keySet()) {
+            Path segment = file.getParent();
+            if (folderDirectory.equals(segment.getParent())
+                && !currentSegment.equals(segment.getFileName().toString())) {
+                obsolete.add(file);
+            }
+        }
+        if (obsolete.isEmpty()) {
+            return;
+        }
+        log.debug(
+            "UIDVALIDITY of the folder {} has changed. {} cached messages are deleted",
+            folderName,
+            obsolete.size()
+        );
+        obsolete.forEach(this::remove);
+    }
+
+    /**
+     * Returns the total size of the cached messages in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of the cached messages.
+     */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    private void evict(Path keptFile) {
+        Iterator<Map.Entry<Path, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<Path, Long> entry = iterator.next();
+            if (entry.getKey().equals(keptFile)) {
+                continue;
+            }
+            size -= entry.getValue();
+            iterator.remove();
+            deleteQuietly(entry.getKey());
+            log.debug("The cached message {} was evicted", entry.getKey());
+        }
+    }
+
+    private void remove(Path file) {
+        Long fileSize = entries.remove(file);
+        if (fileSize != null) {
+            size -= fileSize;
+        }
+        deleteQuietly(file);
+    }
+
+    /**
+     * Loads the files cached before in the order of their modification time and deletes unfinished temporary files.
+     */
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory, 3)) {
+            files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("The cache directory " + directory + " couldn't be read: " + e.getMessage());
+            return;
+        }
+
+        Map<Path, BasicFileAttributes> attributes = new HashMap<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(TEMP_FILE_SUFFIX)) {
+                deleteQuietly(file);
+                continue;
+            }
+            if (!file.getFileName().toString().endsWith(MESSAGE_FILE_SUFFIX)) {
+                continue;
+            }
+            try {
+                attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+            } catch (IOException e) {
+                log.debug("The cached file {} is skipped: {}", file, e.getMessage());
+            }
+        }
+        attributes.entrySet().stream()
+            .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+            .forEach(entry -> {
+                entries.put(entry.getKey(), entry.getValue().size());
+                size += entry.getValue().size();
+            });
+        this.evict(null);
+        log.debug("{} cached messages with the total size {} were loaded from {}", entries.size(), size, directory);
+    }
+
+    private Path resolve(String folderName, long uidValidity, long uid) {
+        return directory.resolve(encode(folderName))
+            .resolve(String.valueOf(uidValidity))
+            .resolve(uid + MESSAGE_FILE_SUFFIX);
+    }
+
+    /**
+     * Encodes a folder name to a safe file name: folder names may contain characters, which aren't allowed
+     * in file names, and hierarchy delimiters.
+     */
+    private static String encode(String folderName) {
+        StringBuilder builder = new StringBuilder();
+        for (byte value : folderName.getBytes(StandardCharsets.UTF_8)) {
+            builder.append(String.format("%02x", value));
+        }
+        return builder.toString();
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("The cached file {} couldn't be deleted: {}", file, e.getMessage());
+            return;
+        }
+        try {
+            // The empty segment of the folder is deleted too
+            Files.deleteIfExists(file.getParent());
+        } catch (IOException e) {
+            // The segment isn't empty
+        }
+    }
+
+    /**
+     * Functional interface for writing a raw message to the cache.
+     */
+    @FunctionalInterface
+    public interface MessageWriter {
+
+        void writeTo(OutputStream outputStream) throws IOException, MessagingException;
+    }
+}
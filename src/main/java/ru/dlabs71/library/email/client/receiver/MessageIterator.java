@@ -0,0 +1,39 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The iterator over all the messages of a mail folder. Messages are loaded by pages while iterating, so only
+ * a few pages are kept in memory whatever the folder size. The iterator holds an opened folder, so it must be closed
+ * if it isn't iterated to the end. It's closed automatically when the last message has been returned.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @param <T> a type of messages
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public interface MessageIterator<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * Stops loading of messages and releases the opened folder.
+     */
+    @Override
+    void close();
+
+    /**
+     * Returns a sequential stream over the rest messages of the iterator. Closing the stream closes the iterator.
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+            false
+        ).onClose(this::close);
+    }
+}
@@ -0,0 +1,842 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import jakarta.mail.FetchProfile;
+import jakarta.mail.Flags;
+import jakarta.mail.Folder;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.UIDFolder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.pop3.POP3Folder;
+import org.eclipse.angus.mail.pop3.POP3Store;
+import ru.dlabs71.library.email.converter.incoming.BaseMessageConverter;
+import ru.dlabs71.library.email.converter.incoming.MessageViewConverter;
+import ru.dlabs71.library.email.dto.message.common.EmailParticipant;
+import ru.dlabs71.library.email.dto.message.incoming.IncomingMessage;
+import ru.dlabs71.library.email.dto.message.incoming.MessageView;
+import ru.dlabs71.library.email.dto.pageable.CursorPageRequest;
+import ru.dlabs71.library.email.dto.pageable.CursorPageResponse;
+import ru.dlabs71.library.email.dto.pageable.PageRequest;
+import ru.dlabs71.library.email.dto.pageable.PageResponse;
+import ru.dlabs71.library.email.dto.search.EmailSearchQuery;
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+import ru.dlabs71.library.email.dto.sync.SyncResult;
+import ru.dlabs71.library.email.exception.FolderOperationException;
+import ru.dlabs71.library.email.exception.SessionException;
+import ru.dlabs71.library.email.property.Pop3Properties;
+import ru.dlabs71.library.email.property.SessionPropertyCollector;
+import ru.dlabs71.library.email.type.Protocol;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+import ru.dlabs71.library.email.util.RetryPolicy;
+import ru.dlabs71.library.email.util.RetryableUtils;
+
+/**
+ * This class is an implementation of the interface {@link ReceiverDClient}.
+ * It provides opportunities for reading messages from email using the POP3 protocol.
+ *
+ * <p>POP3 has only one folder (INBOX), no flags and no numeric UIDs of messages. So the client works as follows:
+ * <ul>
+ *     <li>messages are identified by their UIDLs. The UIDLs of all the messages are requested by one UIDL command;
+ *     </li>
+ *     <li>the read state of messages is kept by the client in the {@link POP3UidlStore}: reading marks messages
+ *     as read, and the {@link #sync(String, SyncCheckpoint, int)} method reads only the messages with unknown UIDLs
+ *     and marks them as read when the step is committed.
+ *     Use the {@link Pop3Properties#getUidlStoreFile()} property for keeping the state between restarts;</li>
+ *     <li>checking of messages downloads only their headers by the TOP command;</li>
+ *     <li>if the server announces the PIPELINING capability, then commands are pipelined by Angus Mail
+ *     (For example: the LIST and RETR commands of a message are sent together);</li>
+ *     <li>deleted messages are removed when the folder is closed (the QUIT command).</li>
+ * </ul>
+ *
+ * <p>The methods based on UIDs of messages, the search and the subscription aren't supported by POP3
+ * and throw {@link UnsupportedOperationException}. Every operation opens a new POP3 session, since POP3 shows
+ * the state of the mailbox at the moment of the login only.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class POP3DClient implements ReceiverDClient {
+
+    /** The using protocol in this class. **/
+    private static final Protocol PROTOCOL = Protocol.POP3;
+
+    /**
+     * The fetch profile with UIDLs of messages only. UIDLs of all the messages are fetched by one UIDL command.
+     */
+    private static final FetchProfile UIDL_FETCH_PROFILE = createUidlFetchProfile();
+
+    /**
+     * The fetch profile with headers and sizes of messages. Headers are fetched by the TOP command,
+     * so contents of messages aren't downloaded.
+     */
+    private static final FetchProfile MESSAGE_VIEW_FETCH_PROFILE = createMessageViewFetchProfile();
+
+    /**
+     * POP3 has neither UIDVALIDITY nor numeric UIDs, so the checkpoint is always the same.
+     * The synchronization state is kept by the {@link POP3UidlStore}.
+     */
+    private static final SyncCheckpoint POP3_CHECKPOINT = SyncCheckpoint.of(0, 0, SyncCheckpoint.UNKNOWN_MOD_SEQ);
+
+    private static final String PIPELINING_CAPABILITY = "PIPELINING";
+
+    private final Session session;
+    private final Properties properties;
+    private final POP3Store store;
+    private final EmailParticipant principal;
+    private final RetryPolicy retryPolicy;
+    private final long attachmentSpillThreshold;
+    private final Path attachmentSpillDirectory;
+
+    /**
+     * The UIDLs of the read messages.
+     */
+    @Getter
+    private final POP3UidlStore uidlStore;
+
+    /**
+     * True if the server supports pipelining of commands.
+     */
+    @Getter
+    private final boolean pipelining;
+
+    /**
+     * Constructor of the class.
+     *
+     * <p>A POP3 connection and store will be created with the class at once.
+     *
+     * @param pop3Properties properties for creating a POP3 connection
+     */
+    public POP3DClient(Pop3Properties pop3Properties) {
+        JavaCoreUtils.notNullArgument(pop3Properties, "pop3Properties");
+        this.principal = EmailParticipant.of(pop3Properties.getEmail());
+        this.retryPolicy = RetryPolicy.of(pop3Properties);
+        this.attachmentSpillThreshold = pop3Properties.getAttachmentSpillThreshold();
+        this.attachmentSpillDirectory = pop3Properties.getAttachmentSpillDirectory() == null
+            ? null
+            : Paths.get(pop3Properties.getAttachmentSpillDirectory());
+        this.uidlStore = new POP3UidlStore(
+            pop3Properties.getUidlStoreFile() == null ? null : Paths.get(pop3Properties.getUidlStoreFile())
+        );
+        log.debug("Principal object were created. {}", this.principal);
+
+        this.properties = this.collectProperties(pop3Properties);
+        log.debug("Configuration properties were created");
+
+        this.session = this.connect();
+        log.debug("Session was created");
+
+        this.store = createStore(this.session, pop3Properties.getEmail(), pop3Properties.getPassword());
+        this.pipelining = this.detectPipelining();
+        log.debug("Store was created. Pipelining of commands is {}", pipelining ? "supported" : "not supported");
+    }
+
+    private Properties collectProperties(Pop3Properties pop3Properties) {
+        try {
+            return SessionPropertyCollector.createCommonProperties(pop3Properties, PROTOCOL);
+        } catch (GeneralSecurityException e) {
+            throw new SessionException(
+                "The creation of a connection failed because of the following error: " + e.getMessage());
+        }
+    }
+
+    private boolean detectPipelining() {
+        try {
+            Map<String, String> capabilities = store.capabilities();
+            return capabilities != null && capabilities.containsKey(PIPELINING_CAPABILITY);
+        } catch (MessagingException e) {
+            log.debug("The capabilities of the server couldn't be got: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Connects to the email server using the POP3 protocol.
+     *
+     * @return {@link Session} object
+     *
+     * @throws SessionException The connection to the server has failed. The properties are broken.
+     */
+    @Override
+    public Session connect() throws SessionException {
+        try {
+            return Session.getInstance(this.properties);
+        } catch (Exception e) {
+            throw new SessionException(
+                "The creation of a connection failed because of the following error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a using protocol name.
+     */
+    @Override
+    public final String getProtocolName() {
+        return PROTOCOL.getProtocolName();
+    }
+
+    /**
+     * Returns name and email address used for connection.
+     */
+    @Override
+    public final EmailParticipant getPrincipal() {
+        return principal;
+    }
+
+    /**
+     * Create and connect to store (email account).
+     *
+     * @param session  has already configured session
+     * @param email    an email address of the mailbox
+     * @param password a password of the mailbox
+     *
+     * @return an instance of the {@link POP3Store} class
+     */
+    private static POP3Store createStore(Session session, String email, String password) {
+        try {
+            log.info("Connect to mailbox: " + email);
+            POP3Store store = (POP3Store) session.getStore(PROTOCOL.getProtocolName());
+            store.connect(email, password);
+            return store;
+        } catch (MessagingException e) {
+            throw new SessionException("Creating session finished with the error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the total count of email messages in the folder.
+     *
+     * @param folderName the folder name (For example: INBOX)
+     *
+     * @return total count of messages
+     */
+    @Override
+    public Integer getTotalCount(String folderName) {
+        POP3Folder folder = this.openFolder(folderName, Folder.READ_ONLY);
+        try {
+            return this.getTotalCount(folder);
+        } finally {
+            this.closeFolder(folder, false);
+        }
+    }
+
+    private int getTotalCount(Folder folder) {
+        try {
+            return folder.getMessageCount();
+        } catch (MessagingException e) {
+            throw new FolderOperationException(
+                "Getting a count of messages in the folder with the name "
+                    + folder.getName()
+                    + " finished with the error: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns short information about messages. without content. Use it when you "check" an email.
+     * Only headers of the messages are downloaded by the TOP command. Messages won't be marked as read.
+     *
+     * @param folderName  the folder name in you account
+     * @param pageRequest selection size information
+     *
+     * @return list of a {@link MessageView}
+     */
+    @Override
+    public List<MessageView> checkEmailMessages(String folderName, PageRequest pageRequest) {
+        log.debug("Checks email messages from the folder {} and page request is {}", folderName, pageRequest);
+        POP3Folder folder = this.openFolder(folderName, Folder.READ_ONLY);
+        try {
+            Message[] messages = this.getMessages(folder, pageRequest);
+            this.fetch(folder, messages, MESSAGE_VIEW_FETCH_PROFILE);
+            List<MessageView> result = Arrays.stream(messages)
+                .map(MessageViewConverter::convert)
+                .collect(Collectors.toList());
+            log.debug(result.size() + " email messages was got");
+            return result;
+        } finally {
+            this.closeFolder(folder, false);
+        }
+    }
+
+    /**
+     * It isn't supported by POP3, since POP3 has no numeric UIDs of messages.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public CursorPageResponse<MessageView> checkEmailMessages(String folderName, CursorPageRequest pageRequest) {
+        throw unsupported("Cursor page requests");
+    }
+
+    /**
+     * Return full information about messages. Use it when you "read" an email.
+     * Messages will be marked as read in the {@link POP3UidlStore}.
+     *
+     * @param folderName  the folder name in you account
+     * @param pageRequest selection size information
+     *
+     * @return list of a {@link IncomingMessage}
+     */
+    @Override
+    public List<IncomingMessage> readMessages(String folderName, PageRequest pageRequest) {
+        log.debug("Reads email messages from the folder {} and page request is {}", folderName, pageRequest);
+        POP3Folder folder = this.openFolder(folderName, Folder.READ_ONLY);
+        try {
+            List<IncomingMessage> result = this.readIncomingMessages(folder, this.getMessages(folder, pageRequest));
+            log.debug(result.size() + " email messages was got");
+            return result;
+        } finally {
+            this.closeFolder(folder, false);
+        }
+    }
+
+    /**
+     * It isn't supported by POP3, since POP3 has no numeric UIDs of messages.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public CursorPageResponse<IncomingMessage> readMessages(String folderName, CursorPageRequest pageRequest) {
+        throw unsupported("Cursor page requests");
+    }
+
+    /**
+     * Returns the iterator over all the messages of the folder. All the pages are read over one POP3 session,
+     * so message numbers don't shift while iterating. The {@link CursorPageRequest#getLastUid()} of the pages
+     * is the number of the last read message. Messages will be marked as read in the {@link POP3UidlStore}.
+     *
+     * @param folderName the folder name in you account
+     * @param pageSize   the number of messages in a page
+     *
+     * @return the iterator of {@link IncomingMessage}. It must be closed if it isn't iterated to the end.
+     */
+    @Override
+    public MessageIterator<IncomingMessage> iterator(String folderName, int pageSize) {
+        log.debug("Iterates email messages from the folder {} by pages of {} messages", folderName, pageSize);
+        POP3Folder folder = this.openFolder(folderName, Folder.READ_ONLY);
+        return new PrefetchingMessageIterator<>(
+            pageRequest -> {
+                int totalCount = this.getTotalCount(folder);
+                int start = (int) pageRequest.getLastUid() + 1;
+                int end = Math.min(totalCount, start + pageRequest.getLength() - 1);
+                Message[] messages = start > end ? new Message[0] : this.getMessages(folder, start, end);
+                int lastNumber = Math.max(end, start - 1);
+                return CursorPageResponse.of(
+                    this.readIncomingMessages(folder, messages),
+                    CursorPageRequest.of(CursorPageRequest.UNKNOWN_UID_VALIDITY, lastNumber, pageRequest.getLength()),
+                    lastNumber < totalCount
+                );
+            },
+            CursorPageRequest.of(pageSize),
+            () -> this.closeFolder(folder, false)
+        );
+    }
+
+    /**
+     * Executes one step of the incremental synchronization of the folder. The UIDLs of all the messages are requested
+     * by one UIDL command, and up to {@code batchSize} messages with UIDLs unknown to the {@link POP3UidlStore} are
+     * read. Their UIDLs are returned by the result and are added to the store only when the result is committed by
+     * the {@link #commitSync(SyncResult)} method, so the messages are read again if the result wasn't processed.
+     * The UIDLs of messages deleted from the server are removed from the store.
+     *
+     * <p>POP3 has neither UIDVALIDITY nor flags, so the checkpoint isn't used and isn't changed, and the result
+     * never contains flag changes and expunged messages.
+     *
+     * @param folderName the folder name in you account
+     * @param checkpoint it's ignored
+     * @param batchSize  the maximum number of new messages in the result
+     *
+     * @return the new messages
+     */
+    @Override
+    public SyncResult sync(String folderName, SyncCheckpoint checkpoint, int batchSize) {
+        final String name = folderName == null ? IMAPDClient.DEFAULT_INBOX_FOLDER_NAME : folderName;
+        log.debug("Synchronizes the folder {}", name);
+        POP3Folder folder = this.openFolder(name, Folder.READ_ONLY);
+        try {
+            Message[] messages = RetryableUtils.retry(
+                retryPolicy,
+                () -> folder.getMessages()
+            );
+            List<String> uidls = this.fetchUidls(folder, messages);
+            if (uidls.contains(null)) {
+                throw new FolderOperationException("The server doesn't support the UIDL command");
+            }
+            uidlStore.retainAll(uidls);
+
+            List<Message> newMessages = new ArrayList<>();
+            List<String> newUidls = new ArrayList<>();
+            int unreadCount = 0;
+            for (int i = 0; i < messages.length; i++) {
+                if (!uidlStore.contains(uidls.get(i))) {
+                    unreadCount++;
+                    if (newMessages.size() < batchSize) {
+                        newMessages.add(messages[i]);
+                        newUidls.add(uidls.get(i));
+                    }
+                }
+            }
+            List<IncomingMessage> result = this.convertToIncomingMessages(newMessages.toArray(new Message[0]));
+            uidlStore.flush();
+            log.debug(
+                "The folder {} was synchronized: {} of {} new messages were read",
+                name,
+                result.size(),
+                unreadCount
+            );
+            return new SyncResult(
+                name,
+                POP3_CHECKPOINT,
+                false,
+                result,
+                Collections.emptyMap(),
+                Collections.emptyList(),
+                unreadCount > result.size(),
+                newUidls
+            );
+        } catch (MessagingException e) {
+            throw new FolderOperationException(
+                "The synchronization of the folder " + name + " has failed: " + e.getMessage(), e);
+        } finally {
+            this.closeFolder(folder, false);
+        }
+    }
+
+    /**
+     * Marks the new messages of the processed result as read in the {@link POP3UidlStore}.
+     *
+     * @param result the processed result of the {@link #sync(String, SyncCheckpoint, int)} method
+     */
+    @Override
+    public void commitSync(SyncResult result) {
+        uidlStore.addAll(result.getNewUidls());
+        uidlStore.flush();
+    }
+
+    /**
+     * It isn't supported by POP3, since POP3 has no numeric UIDs of messages.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public IncomingMessage readMessageByUid(String folderName, long uid) {
+        throw unsupported("UIDs of messages");
+    }
+
+    /**
+     * Reads message by its ID (number message).
+     * Message will be marked as read in the {@link POP3UidlStore}.
+     *
+     * @param folderName the folder name in you account
+     * @param id         unique identifier of a message within the folder
+     *
+     * @return object of a class {@link IncomingMessage}
+     */
+    @Override
+    public IncomingMessage readMessageById(String folderName, int id) {
+        log.debug("Reads one message by id = {} and folder name = {}", id, folderName);
+        POP3Folder folder = this.openFolder(folderName, Folder.READ_ONLY);
+        try {
+            Message message = RetryableUtils.retry(
+                retryPolicy,
+                () -> folder.getMessage(id)
+            );
+            return this.readIncomingMessages(folder, new Message[]{message}).get(0);
+        } catch (MessagingException e) {
+            throw new FolderOperationException(
+                "Reading the message with id=" + id + " in the folder with name " + folderName
+                    + " finished the error: " + e.getMessage(), e);
+        } finally {
+            this.closeFolder(folder, false);
+        }
+    }
+
+    /**
+     * It isn't supported by POP3, since POP3 has no search command.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public List<Long> search(String folderName, EmailSearchQuery query) {
+        throw unsupported("The search");
+    }
+
+    /**
+     * It isn't supported by POP3, since POP3 has no search command.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public PageResponse<MessageView> searchEmailMessages(
+        String folderName,
+        EmailSearchQuery query,
+        PageRequest pageRequest
+    ) {
+        throw unsupported("The search");
+    }
+
+    /**
+     * Opens the folder for only read. Messages can't be deleted.
+     *
+     * @param folderName the folder name in you account
+     *
+     * @return an object of the class {@link Folder}
+     */
+    @Override
+    public Folder openFolderForRead(String folderName) {
+        return this.openFolder(folderName, Folder.READ_ONLY);
+    }
+
+    /**
+     * Opens the folder for read and write. Messages marked as deleted are removed when the folder is closed.
+     *
+     * @param folderName the folder name in you account
+     *
+     * @return an object of the class {@link Folder}
+     */
+    @Override
+    public Folder openFolderForWrite(String folderName) {
+        return this.openFolder(folderName, Folder.READ_WRITE);
+    }
+
+    private POP3Folder openFolder(String folderName, int mode) {
+        final String name = folderName == null ? IMAPDClient.DEFAULT_INBOX_FOLDER_NAME : folderName;
+        log.debug("Try to open folder {} with access mode is {}", name, mode);
+        try {
+            Folder folder = RetryableUtils.retry(
+                retryPolicy,
+                () -> store.getFolder(name)
+            );
+            RetryableUtils.retry(retryPolicy, () -> folder.open(mode));
+            log.debug("Folder is opened");
+            return (POP3Folder) folder;
+        } catch (MessagingException e) {
+            throw new FolderOperationException(
+                "The folder with the name " + name + " couldn't be opened because of the following error: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Closes the opened folder. If the folder was opened for read and write, then the messages marked as deleted
+     * are removed.
+     *
+     * @param folder an object of the class {@link Folder}
+     */
+    @Override
+    public void closeFolder(Folder folder) {
+        if (folder != null) {
+            this.closeFolder(folder, folder.isOpen() && folder.getMode() == Folder.READ_WRITE);
+        }
+    }
+
+    private void closeFolder(Folder folder, boolean expunge) {
+        log.debug("Try to close the folder {}", folder);
+        if (folder == null || !folder.isOpen()) {
+            return;
+        }
+        try {
+            folder.close(expunge);
+            log.debug("Folder is closed.");
+        } catch (MessagingException e) {
+            log.warn("The folder with the name " + folder.getName()
+                         + " couldn't be closed because of the following error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes a message in a folder by its ID.
+     *
+     * @param folderName the folder name in you account
+     * @param id         unique identifier of a message within the folder
+     *
+     * @return true if the message was deleted successfully, or else false
+     */
+    @Override
+    public boolean deleteMessage(String folderName, int id) {
+        log.debug("Deletes one message by id = {} and folder name = {}", id, folderName);
+        return this.deleteMessages(folderName, Collections.singletonList(id)).get(id);
+    }
+
+    /**
+     * Deletes several messages in a folder by their IDs. The messages are removed by the DELE commands
+     * when the POP3 session is closed.
+     *
+     * @param folderName the folder name in you account
+     * @param ids        unique identifiers of messages within the folder
+     *
+     * @return a map with a key is a message ID, and a value is the result of deletion (true or false).
+     */
+    @Override
+    public Map<Integer, Boolean> deleteMessages(String folderName, Collection<Integer> ids) {
+        log.debug("Deletes messages from the folder {} by the message ids = {}", folderName, ids);
+        return this.setFlags(folderName, ids, new Flags(Flags.Flag.DELETED), true);
+    }
+
+    /**
+     * It isn't supported by POP3, since POP3 has no numeric UIDs of messages.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Map<Long, Boolean> deleteMessagesByUid(String folderName, Collection<Long> uids) {
+        throw unsupported("UIDs of messages");
+    }
+
+    /**
+     * Deletes all messages in a folder.
+     *
+     * @param folderName the folder name in you account
+     *
+     * @return a map with a key is a message ID, and a value is the result of deletion (true or false).
+     */
+    @Override
+    public Map<Integer, Boolean> deleteAllMessages(String folderName) {
+        log.debug("Deletes all the messages from the folder {}", folderName);
+        POP3Folder folder = this.openFolder(folderName, Folder.READ_WRITE);
+        Map<Integer, Boolean> result = new LinkedHashMap<>();
+        boolean deleted = false;
+        try {
+            int count = this.getTotalCount(folder);
+            if (count > 0) {
+                folder.setFlags(1, count, new Flags(Flags.Flag.DELETED), true);
+                deleted = true;
+            }
+            for (int id = 1; id <= count; id++) {
+                result.put(id, deleted);
+            }
+        } catch (MessagingException e) {
+            log.warn("The messages weren't deleted because of the following error: " + e.getMessage());
+            result.replaceAll((id, value) -> false);
+        } finally {
+            this.closeFolder(folder, deleted);
+        }
+        return result;
+    }
+
+    /**
+     * Sets or clears the flags of several messages in a folder by their IDs. POP3 has no flags, so only two flags
+     * are supported:
+     * <ul>
+     *     <li>{@link Flags.Flag#SEEN} is kept in the {@link POP3UidlStore};</li>
+     *     <li>{@link Flags.Flag#DELETED} can only be set. The messages are removed when the POP3 session is closed.
+     *     </li>
+     * </ul>
+     * The operation fails for other flags.
+     *
+     * @param folderName the folder name in you account
+     * @param ids        unique identifiers of messages within the folder
+     * @param flags      the flags (For example: {@code new Flags(Flags.Flag.SEEN)})
+     * @param value      true for setting the flags, false for clearing them
+     *
+     * @return a map with a key is a message ID, and a value is the result of the operation (true or false).
+     */
+    @Override
+    public Map<Integer, Boolean> setFlags(String folderName, Collection<Integer> ids, Flags flags, boolean value) {
+        log.debug(
+            "Sets the flags {} to {} for the messages from the folder {} by ids = {}",
+            flags,
+            value,
+            folderName,
+            ids
+        );
+        Map<Integer, Boolean> result = new LinkedHashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        Flags unsupportedFlags = new Flags(flags);
+        unsupportedFlags.remove(Flags.Flag.SEEN);
+        unsupportedFlags.remove(Flags.Flag.DELETED);
+        boolean delete = flags.contains(Flags.Flag.DELETED);
+        if (unsupportedFlags.getSystemFlags().length > 0
+            || unsupportedFlags.getUserFlags().length > 0
+            || (delete && !value)) {
+            log.warn("POP3 doesn't support the flags {} with the value {}", flags, value);
+            ids.forEach(id -> result.put(id, false));
+            return result;
+        }
+
+        POP3Folder folder = this.openFolder(folderName, delete ? Folder.READ_WRITE : Folder.READ_ONLY);
+        try {
+            int count = this.getTotalCount(folder);
+            List<Message> messages = new ArrayList<>(ids.size());
+            for (Integer id : new LinkedHashSet<>(ids)) {
+                if (id == null || id < 1 || id > count) {
+                    log.warn("The message with id=" + id + " doesn't exist");
+                    result.put(id, false);
+                    continue;
+                }
+                messages.add(folder.getMessage(id));
+                result.put(id, true);
+            }
+            Message[] messageArray = messages.toArray(new Message[0]);
+            if (flags.contains(Flags.Flag.SEEN)) {
+                List<String> uidls = this.fetchUidls(folder, messageArray);
+                if (value) {
+                    uidlStore.addAll(uidls);
+                } else {
+                    uidlStore.removeAll(uidls);
+                }
+                uidlStore.flush();
+            }
+            if (delete) {
+                folder.setFlags(messageArray, new Flags(Flags.Flag.DELETED), true);
+            }
+        } catch (MessagingException e) {
+            log.warn("The flags of the messages weren't changed because of the following error: " + e.getMessage());
+            result.replaceAll((id, stored) -> false);
+            delete = false;
+        } finally {
+            this.closeFolder(folder, delete);
+        }
+        return result;
+    }
+
+    /**
+     * It isn't supported by POP3, since POP3 has no numeric UIDs of messages.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Map<Long, Boolean> setFlagsByUid(String folderName, Collection<Long> uids, Flags flags, boolean value) {
+        throw unsupported("UIDs of messages");
+    }
+
+    /**
+     * It isn't supported by POP3, since POP3 has no notifications about changes of the mailbox.
+     * Use the {@link #sync(String, SyncCheckpoint, int)} method for polling the mailbox.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public FolderSubscription subscribe(String folderName, FolderEventListener listener) {
+        throw unsupported("The subscription");
+    }
+
+    /**
+     * Closes the connection to the store.
+     */
+    @Override
+    public void close() {
+        uidlStore.flush();
+        try {
+            store.close();
+        } catch (MessagingException e) {
+            log.warn("The store couldn't be closed because of the following error: " + e.getMessage());
+        }
+    }
+
+    private Message[] getMessages(Folder folder, PageRequest pageRequest) {
+        final int totalCount = this.getTotalCount(folder);
+        final int end = Math.min(totalCount, (pageRequest.getEnd() + 1));
+        log.debug(
+            "Gets message from folder {} with page request {}. The folder has {} messages",
+            folder,
+            pageRequest,
+            totalCount
+        );
+        if (pageRequest.getStart() + 1 > end) {
+            return new Message[0];
+        }
+        return this.getMessages(folder, pageRequest.getStart() + 1, end);
+    }
+
+    private Message[] getMessages(Folder folder, int start, int end) {
+        try {
+            return RetryableUtils.retry(
+                retryPolicy,
+                () -> folder.getMessages(start, end)
+            );
+        } catch (MessagingException e) {
+            throw new FolderOperationException("The get list message operation has failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Downloads and converts the messages, and marks them as read in the {@link POP3UidlStore}.
+     * The UIDLs of all the messages of the session are requested by one UIDL command.
+     */
+    private List<IncomingMessage> readIncomingMessages(POP3Folder folder, Message[] messages) {
+        if (messages.length == 0) {
+            return new ArrayList<>();
+        }
+        List<String> uidls = this.fetchUidls(folder, messages);
+        List<IncomingMessage> result = this.convertToIncomingMessages(messages);
+        uidlStore.addAll(uidls);
+        uidlStore.flush();
+        return result;
+    }
+
+    private List<IncomingMessage> convertToIncomingMessages(Message[] messages) {
+        return Arrays.stream(messages)
+            .map(message -> BaseMessageConverter.convertToIncomingMessage(
+                message,
+                attachmentSpillThreshold,
+                attachmentSpillDirectory
+            ))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the UIDLs of the messages in the same order. The UIDL is null if the server doesn't support
+     * the UIDL command.
+     */
+    private List<String> fetchUidls(POP3Folder folder, Message[] messages) {
+        this.fetch(folder, messages, UIDL_FETCH_PROFILE);
+        List<String> uidls = new ArrayList<>(messages.length);
+        try {
+            for (Message message : messages) {
+                uidls.add(folder.getUID(message));
+            }
+        } catch (MessagingException e) {
+            throw new FolderOperationException("Getting UIDLs of messages has failed: " + e.getMessage(), e);
+        }
+        return uidls;
+    }
+
+    private void fetch(Folder folder, Message[] messages, FetchProfile profile) {
+        if (messages.length == 0) {
+            return;
+        }
+        try {
+            RetryableUtils.retry(retryPolicy, () -> folder.fetch(messages, profile));
+        } catch (MessagingException e) {
+            throw new FolderOperationException("The fetch messages operation has failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static UnsupportedOperationException unsupported(String feature) {
+        return new UnsupportedOperationException(feature + " isn't supported by the POP3 protocol");
+    }
+
+    private static FetchProfile createUidlFetchProfile() {
+        FetchProfile profile = new FetchProfile();
+        profile.add(UIDFolder.FetchProfileItem.UID);
+        return profile;
+    }
+
+    private static FetchProfile createMessageViewFetchProfile() {
+        FetchProfile profile = new FetchProfile();
+        profile.add(FetchProfile.Item.ENVELOPE);
+        profile.add(FetchProfile.Item.SIZE);
+        return profile;
+    }
+}
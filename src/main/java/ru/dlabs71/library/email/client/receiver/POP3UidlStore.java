@@ -0,0 +1,185 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.exception.SyncCheckpointException;
+
+/**
+ * The set of UIDLs of the read messages of a POP3 mailbox. POP3 servers don't keep flags of messages,
+ * so the set is the only way to know which messages were read before.
+ *
+ * <p>If the file is specified, then the set is loaded from the file. Changes are kept in the memory and are written
+ * to the file by the {@link #flush()} method, so several changes of one operation are written at once. Added UIDLs
+ * are appended to the file, and only removing of UIDLs rewrites the file atomically: the new content is written to
+ * a temporary file, which replaces the file. The file has one UIDL per line. The file must be used by one instance
+ * of the class only.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class POP3UidlStore {
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    @Getter
+    private final Path file;
+    private final Set<String> uidls = new HashSet<>();
+    /** The UIDLs added after the last flush. **/
+    private final List<String> addedUidls = new ArrayList<>();
+    /** True if UIDLs were removed after the last flush, so the file must be rewritten. **/
+    private boolean rewriteRequired = false;
+
+    /**
+     * The constructor of this class.
+     *
+     * @param file the path to the file of UIDLs or null for keeping UIDLs in the memory only.
+     *             The file is created by the first change.
+     */
+    public POP3UidlStore(Path file) {
+        this.file = file == null ? null : file.toAbsolutePath();
+        if (this.file != null && Files.exists(this.file)) {
+            try {
+                Files.readAllLines(this.file, StandardCharsets.UTF_8).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .forEach(uidls::add);
+            } catch (IOException e) {
+                throw new SyncCheckpointException(
+                    "The UIDLs couldn't be read from the file " + this.file + ": " + e.getMessage(),
+                    e
+                );
+            }
+            log.debug("{} UIDLs were loaded from the file {}", uidls.size(), this.file);
+        }
+    }
+
+    /**
+     * Returns true if the message with the UIDL was read.
+     */
+    public synchronized boolean contains(String uidl) {
+        return uidls.contains(uidl);
+    }
+
+    /**
+     * Returns the number of the kept UIDLs.
+     */
+    public synchronized int size() {
+        return uidls.size();
+    }
+
+    /**
+     * Remembers the UIDLs of the read messages. The change is written to the file by the {@link #flush()} method.
+     *
+     * @param readUidls the UIDLs. Null values are ignored.
+     */
+    public synchronized void addAll(Collection<String> readUidls) {
+        for (String uidl : readUidls) {
+            if (uidl != null && uidls.add(uidl)) {
+                addedUidls.add(uidl);
+            }
+        }
+    }
+
+    /**
+     * Forgets the UIDLs, so the messages are considered unread. The change is written to the file by
+     * the {@link #flush()} method.
+     *
+     * @param unreadUidls the UIDLs
+     */
+    public synchronized void removeAll(Collection<String> unreadUidls) {
+        if (uidls.removeAll(unreadUidls)) {
+            rewriteRequired = true;
+        }
+    }
+
+    /**
+     * Forgets the UIDLs of the messages, which aren't in the mailbox anymore. It keeps the set from growing
+     * when messages are deleted from the server.
+     *
+     * The change is written to the file by the {@link #flush()} method.
+     *
+     * @param existingUidls the UIDLs of all the messages in the mailbox
+     */
+    public synchronized void retainAll(Collection<String> existingUidls) {
+        if (uidls.retainAll(new HashSet<>(existingUidls))) {
+            rewriteRequired = true;
+        }
+    }
+
+    /**
+     * Writes the changes made after the previous call to the file. The added UIDLs are appended to the file,
+     * and the file is rewritten only if UIDLs were removed. It does nothing if there are no changes or the file
+     * isn't specified.
+     */
+    public synchronized void flush() {
+        if (file != null && rewriteRequired) {
+            this.write();
+        } else if (file != null && !addedUidls.isEmpty()) {
+            this.append();
+        }
+        addedUidls.clear();
+        rewriteRequired = false;
+    }
+
+    private void append() {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(
+                file,
+                addedUidls,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND
+            );
+        } catch (IOException e) {
+            throw new SyncCheckpointException(
+                "The UIDLs couldn't be written to the file " + file + ": " + e.getMessage(),
+                e
+            );
+        }
+    }
+
+    private void write() {
+        Path tempFile = file.resolveSibling(file.getFileName() + TEMP_FILE_SUFFIX);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                for (String uidl : uidls) {
+                    writer.write(uidl);
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new SyncCheckpointException(
+                "The UIDLs couldn't be written to the file " + file + ": " + e.getMessage(),
+                e
+            );
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.dto.pageable.CursorPageRequest;
+import ru.dlabs71.library.email.dto.pageable.CursorPageResponse;
+import ru.dlabs71.library.email.exception.FolderOperationException;
+import ru.dlabs71.library.email.util.ConcurrentUtils;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The {@link MessageIterator}, which loads pages by cursor page requests ({@link CursorPageRequest}).
+ * The next page is loaded by a background thread while the current page is iterated, so at most two pages
+ * are kept in memory: the current one and the next one.
+ *
+ * <p>The iterator isn't thread-safe. It must be used by one thread.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @param <T> a type of messages
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class PrefetchingMessageIterator<T> implements MessageIterator<T> {
+
+    private final PageLoader<T> loader;
+    private final Runnable onClose;
+    private final ExecutorService executor;
+
+    private Iterator<T> current = Collections.emptyIterator();
+    private Future<CursorPageResponse<T>> nextPage;
+    private boolean closed = false;
+
+    /**
+     * The constructor of this class. The first page starts loading at once.
+     *
+     * @param loader       the function loading a page
+     * @param firstRequest the request of the first page
+     * @param onClose      the action releasing resources of the loader (For example: an opened folder).
+     *                     It's called after loading is stopped.
+     */
+    public PrefetchingMessageIterator(PageLoader<T> loader, CursorPageRequest firstRequest, Runnable onClose) {
+        JavaCoreUtils.notNullArgument(loader, "loader");
+        JavaCoreUtils.notNullArgument(firstRequest, "firstRequest");
+        this.loader = loader;
+        this.onClose = onClose;
+        this.executor = Executors.newSingleThreadExecutor(ConcurrentUtils.namedThreadFactory("d-email-prefetch"));
+        this.nextPage = this.load(firstRequest);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (closed || nextPage == null) {
+                this.close();
+                return false;
+            }
+            CursorPageResponse<T> page = this.await(nextPage);
+            nextPage = page.isHasMore() ? this.load(page.getNextPageRequest()) : null;
+            current = page.getData().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("There are no more messages");
+        }
+        return current.next();
+    }
+
+    /**
+     * Stops loading of pages and releases the resources. If a page is being loaded, then it waits for the end
+     * of loading, since the loader may use the resources.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        current = Collections.emptyIterator();
+        if (nextPage != null) {
+            nextPage.cancel(false);
+            nextPage = null;
+        }
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.debug("Waits for the end of loading of a page");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (onClose != null) {
+            onClose.run();
+        }
+        log.debug("The message iterator is closed");
+    }
+
+    private Future<CursorPageResponse<T>> load(CursorPageRequest request) {
+        log.debug("Starts loading of the page {}", request);
+        return executor.submit(() -> loader.load(request));
+    }
+
+    private CursorPageResponse<T> await(Future<CursorPageResponse<T>> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            this.close();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FolderOperationException("Loading of a page has failed: " + e.getCause().getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.close();
+            throw new FolderOperationException("Loading of a page was interrupted", e);
+        }
+    }
+
+    /**
+     * Functional interface for loading a page of messages.
+     *
+     * @param <T> a type of messages
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+
+        CursorPageResponse<T> load(CursorPageRequest request);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.dlabs71.library.email.client.receiver;
 
+import jakarta.mail.Flags;
 import jakarta.mail.Folder;
 import java.util.Collection;
 import java.util.List;
@@ -7,7 +8,13 @@ import java.util.Map;
 import ru.dlabs71.library.email.client.DClient;
 import ru.dlabs71.library.email.dto.message.incoming.IncomingMessage;
 import ru.dlabs71.library.email.dto.message.incoming.MessageView;
+import ru.dlabs71.library.email.dto.pageable.CursorPageRequest;
+import ru.dlabs71.library.email.dto.pageable.CursorPageResponse;
 import ru.dlabs71.library.email.dto.pageable.PageRequest;
+import ru.dlabs71.library.email.dto.pageable.PageResponse;
+import ru.dlabs71.library.email.dto.search.EmailSearchQuery;
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+import ru.dlabs71.library.email.dto.sync.SyncResult;
 
 /**
  * The general interface for a receiver client (IMAP, POP3, etc.).
@@ -18,7 +25,7 @@ import ru.dlabs71.library.email.dto.pageable.PageRequest;
  * @author Ivanov Danila
  * @since 1.0.0
  */
-public interface ReceiverDClient extends DClient {
+public interface ReceiverDClient extends DClient, AutoCloseable {
 
     /**
      * Returns the total count of email messages in the folder.
@@ -40,6 +47,19 @@ public interface ReceiverDClient extends DClient {
      */
     List<MessageView> checkEmailMessages(String folderName, PageRequest pageRequest);
 
+    /**
+     * Returns short information about messages selected by UIDs. Messages won't be marked as read.
+     * Pages don't shift when messages are deleted from the folder.
+     *
+     * @param folderName  the folder name in you account
+     * @param pageRequest the cursor page request
+     *
+     * @return the page of {@link MessageView} and the request of the next page
+     *
+     * @throws ru.dlabs71.library.email.exception.UidValidityException if the UIDVALIDITY of the folder has changed
+     */
+    CursorPageResponse<MessageView> checkEmailMessages(String folderName, CursorPageRequest pageRequest);
+
     /**
      * Return full information about messages. Use it when you "read" an email.
      * Messages will be marked as read.
@@ -51,6 +71,64 @@ public interface ReceiverDClient extends DClient {
      */
     List<IncomingMessage> readMessages(String folderName, PageRequest pageRequest);
 
+    /**
+     * Return full information about messages selected by UIDs. Messages will be marked as read.
+     * Pages don't shift when messages are deleted from the folder.
+     *
+     * @param folderName  the folder name in you account
+     * @param pageRequest the cursor page request
+     *
+     * @return the page of {@link IncomingMessage} and the request of the next page
+     *
+     * @throws ru.dlabs71.library.email.exception.UidValidityException if the UIDVALIDITY of the folder has changed
+     */
+    CursorPageResponse<IncomingMessage> readMessages(String folderName, CursorPageRequest pageRequest);
+
+    /**
+     * Returns the iterator over all the messages of the folder. Messages are read by pages while iterating,
+     * so only a few pages are kept in memory. Messages will be marked as read.
+     *
+     * @param folderName the folder name in you account
+     * @param pageSize   the number of messages in a page
+     *
+     * @return the iterator of {@link IncomingMessage}. It must be closed if it isn't iterated to the end.
+     */
+    MessageIterator<IncomingMessage> iterator(String folderName, int pageSize);
+
+    /**
+     * Executes one step of the incremental synchronization of the folder: reads new messages after the checkpoint
+     * and collects changes of the messages synchronized before, if the server supports it. New messages won't be
+     * marked as read by the step itself. The result must be committed by the {@link #commitSync(SyncResult)} method
+     * after it's processed.
+     *
+     * @param folderName the folder name in you account
+     * @param checkpoint the checkpoint of the previous step or null for the first synchronization
+     * @param batchSize  the maximum number of new messages in the result
+     *
+     * @return the changes and the new checkpoint
+     */
+    SyncResult sync(String folderName, SyncCheckpoint checkpoint, int batchSize);
+
+    /**
+     * Commits the processed step of the synchronization. It's called after the result was handled successfully,
+     * so a failed step is repeated by the next synchronization. A client keeping the read state of messages locally
+     * (for example, POP3) remembers the new messages of the result here. By default, it does nothing.
+     *
+     * @param result the processed result of the {@link #sync(String, SyncCheckpoint, int)} method
+     */
+    default void commitSync(SyncResult result) {
+    }
+
+    /**
+     * Reads message by its UID. Message will be marked as read.
+     *
+     * @param folderName the folder name in you account
+     * @param uid        the UID of a message within the folder
+     *
+     * @return object of a class {@link IncomingMessage} or null if there is no message with the UID
+     */
+    IncomingMessage readMessageByUid(String folderName, long uid);
+
     /**
      * Reads message by its ID (number message).
      * Message will be marked as read.
@@ -62,6 +140,28 @@ public interface ReceiverDClient extends DClient {
      */
     IncomingMessage readMessageById(String folderName, int id);
 
+    /**
+     * Searches messages on the server. Only the UIDs of the matched messages are transferred.
+     *
+     * @param folderName the folder name in you account
+     * @param query      the search criteria. If it's null or empty, then all the messages match.
+     *
+     * @return the sorted list of UIDs of the matched messages
+     */
+    List<Long> search(String folderName, EmailSearchQuery query);
+
+    /**
+     * Searches messages on the server and returns short information about a page of the matched messages.
+     * Messages won't be marked as read.
+     *
+     * @param folderName  the folder name in you account
+     * @param query       the search criteria. If it's null or empty, then all the messages match.
+     * @param pageRequest the page of the matched messages sorted by UIDs
+     *
+     * @return the page of {@link MessageView} and the total count of the matched messages
+     */
+    PageResponse<MessageView> searchEmailMessages(String folderName, EmailSearchQuery query, PageRequest pageRequest);
+
     /**
      * Opens the folder for only read. Changes are forbidden.
      * If you even read the message, it won't be marked as read.
@@ -108,6 +208,16 @@ public interface ReceiverDClient extends DClient {
      */
     Map<Integer, Boolean> deleteMessages(String folderName, Collection<Integer> ids);
 
+    /**
+     * Deletes several messages in a folder by their UIDs.
+     *
+     * @param folderName the folder name in you account
+     * @param uids       UIDs of messages within the folder
+     *
+     * @return a map with a key is a message UID, and a value is the result of deletion (true or false).
+     */
+    Map<Long, Boolean> deleteMessagesByUid(String folderName, Collection<Long> uids);
+
     /**
      * Deletes all messages in a folder.
      *
@@ -116,4 +226,60 @@ public interface ReceiverDClient extends DClient {
      * @return a map with a key is a message ID, and a value is the result of deletion (true or false).
      */
     Map<Integer, Boolean> deleteAllMessages(String folderName);
+
+    /**
+     * Sets or clears the flags of several messages in a folder by their IDs.
+     *
+     * @param folderName the folder name in you account
+     * @param ids        unique identifiers of messages within the folder
+     * @param flags      the flags (For example: {@code new Flags(Flags.Flag.SEEN)})
+     * @param value      true for setting the flags, false for clearing them
+     *
+     * @return a map with a key is a message ID, and a value is the result of the operation (true or false).
+     */
+    Map<Integer, Boolean> setFlags(String folderName, Collection<Integer> ids, Flags flags, boolean value);
+
+    /**
+     * Sets or clears the flags of several messages in a folder by their UIDs.
+     *
+     * @param folderName the folder name in you account
+     * @param uids       UIDs of messages within the folder
+     * @param flags      the flags (For example: {@code new Flags(Flags.Flag.SEEN)})
+     * @param value      true for setting the flags, false for clearing them
+     *
+     * @return a map with a key is a message UID, and a value is the result of the operation (true or false).
+     */
+    Map<Long, Boolean> setFlagsByUid(String folderName, Collection<Long> uids, Flags flags, boolean value);
+
+    /**
+     * Marks several messages in a folder as read by their UIDs. It's useful for messages read in the peek mode.
+     * By default, it sets the {@link Flags.Flag#SEEN} flag by the {@link #setFlagsByUid} method.
+     *
+     * @param folderName the folder name in you account
+     * @param uids       UIDs of messages within the folder
+     *
+     * @return a map with a key is a message UID, and a value is the result of the operation (true or false).
+     */
+    default Map<Long, Boolean> markAsSeen(String folderName, Collection<Long> uids) {
+        return this.setFlagsByUid(folderName, uids, new Flags(Flags.Flag.SEEN), true);
+    }
+
+    /**
+     * Subscribes to events of the folder: new messages, expunged messages and changes of flags.
+     * The subscription uses a dedicated connection, which is kept open until the subscription is closed.
+     *
+     * @param folderName the folder name in you account
+     * @param listener   the callback for events of the folder
+     *
+     * @return the active subscription. It must be closed when it isn't needed anymore.
+     */
+    FolderSubscription subscribe(String folderName, FolderEventListener listener);
+
+    /**
+     * Releases all the resources (connections, opened folders, etc.) held by the client.
+     * By default, it does nothing.
+     */
+    @Override
+    default void close() {
+    }
 }
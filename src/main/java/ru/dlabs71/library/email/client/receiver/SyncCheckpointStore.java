@@ -0,0 +1,45 @@
+package ru.dlabs71.library.email.client.receiver;
+
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+
+/**
+ * The storage of checkpoints of the folder synchronization. A checkpoint is saved after every processed step
+ * of the synchronization, so the synchronization is continued from the last saved checkpoint after a restart.
+ *
+ * <p>Implementations must be thread-safe.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public interface SyncCheckpointStore {
+
+    /**
+     * Loads the checkpoint of the folder.
+     *
+     * @param account    the email address of the account
+     * @param folderName the folder name in the account
+     *
+     * @return the saved checkpoint or null if the folder wasn't synchronized
+     */
+    SyncCheckpoint load(String account, String folderName);
+
+    /**
+     * Saves the checkpoint of the folder. The previous checkpoint of the folder is replaced.
+     *
+     * @param account    the email address of the account
+     * @param folderName the folder name in the account
+     * @param checkpoint the new checkpoint
+     */
+    void save(String account, String folderName, SyncCheckpoint checkpoint);
+
+    /**
+     * Removes the checkpoint of the folder. The next synchronization of the folder starts from the beginning.
+     *
+     * @param account    the email address of the account
+     * @param folderName the folder name in the account
+     */
+    void remove(String account, String folderName);
+}
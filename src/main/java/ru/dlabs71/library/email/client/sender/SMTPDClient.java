@@ -1,14 +1,32 @@
 package ru.dlabs71.library.email.client.sender;
 
 
+import jakarta.mail.Address;
 import jakarta.mail.Authenticator;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.PasswordAuthentication;
 import jakarta.mail.Session;
 import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.converter.outgoing.EncodedAttachmentCache;
 import ru.dlabs71.library.email.converter.outgoing.JakartaMessageConverter;
 import ru.dlabs71.library.email.dto.message.common.EmailParticipant;
 import ru.dlabs71.library.email.dto.message.outgoing.OutgoingMessage;
@@ -16,10 +34,14 @@ import ru.dlabs71.library.email.exception.CreateMessageException;
 import ru.dlabs71.library.email.exception.SessionException;
 import ru.dlabs71.library.email.property.SessionPropertyCollector;
 import ru.dlabs71.library.email.property.SmtpProperties;
+import ru.dlabs71.library.email.property.SmtpRelay;
+import ru.dlabs71.library.email.type.EncryptionType;
 import ru.dlabs71.library.email.type.Protocol;
 import ru.dlabs71.library.email.type.SendingStatus;
+import ru.dlabs71.library.email.util.ConcurrentUtils;
 import ru.dlabs71.library.email.util.JavaCoreUtils;
 import ru.dlabs71.library.email.util.MessageValidator;
+import ru.dlabs71.library.email.util.RetryPolicy;
 import ru.dlabs71.library.email.util.RetryableUtils;
 
 /**
@@ -27,6 +49,32 @@ import ru.dlabs71.library.email.util.RetryableUtils;
  * It provides opportunities for sending email messages using the SMTP protocol. An SMTP connection will be
  * established by creating the class at once.
  *
+ * <p>Connected transports are kept in the bounded pool ({@link SMTPTransportPool}), so one authenticated
+ * connection carries many messages. Use the {@link SmtpProperties#getTransportPoolSize()} and
+ * {@link SmtpProperties#getTransportIdleTimeout()} properties for configuring the pool. Call the {@link #close()}
+ * method to close all the pooled connections when the client isn't needed anymore.
+ *
+ * <p>The {@link #sendAll(Iterator)} method sends a batch of messages by one connection. The next message is
+ * converted by a separate thread while the current message is being sent.
+ *
+ * <p>Sending can be paced by the rate limits of the SMTP server and recipient domains ({@link SMTPRateLimiter}).
+ * A sending thread waits instead of being rejected by the server. Use the {@link SmtpProperties#getRateLimit()},
+ * {@link SmtpProperties#getDomainRateLimit()} and {@link SmtpProperties#getDomainRateLimits()} properties for
+ * configuring the limits.
+ *
+ * <p>Messages can be sent by several SMTP relays ({@link SMTPRelayGroup}), which are set by
+ * the {@link SmtpProperties#getRelays()} property. A failed relay is ejected, and the message is sent by the next
+ * relay at once. Every relay has its own pool of transports.
+ *
+ * <p>If the {@link SmtpProperties#getAttachmentCacheSize()} property is set, then attachments are encoded once
+ * and kept in the cache ({@link EncodedAttachmentCache}), so an attachment sent by many messages isn't encoded
+ * for every message.
+ *
+ * <p>If the {@link SmtpProperties#getSpoolDirectory()} property is set, then the {@link #enqueue(OutgoingMessage)}
+ * method writes converted messages to the durable outbound spool ({@link SMTPSpool}), and they are sent by
+ * background threads with retries. The spool is recovered and the undelivered messages are sent again when
+ * the client is created.
+ *
  * <p>You should use the instance of the {@link SmtpProperties} class, for configure this class.
  * <p>
  * <div><strong>Project name:</strong> d-email</div>
@@ -43,8 +91,11 @@ public class SMTPDClient implements SenderDClient {
     private final Properties properties;
     private final PasswordAuthentication authentication;
     private final EmailParticipant principal;
-    private final int maxAttemptsOfRequest;
-    private final int attemptDelayOfRequest;
+    private final RetryPolicy retryPolicy;
+    private final SMTPRelayGroup relayGroup;
+    private final SMTPSpool spool;
+    private final SMTPRateLimiter rateLimiter;
+    private final EncodedAttachmentCache attachmentCache;
 
     /**
      * Default constructor. It creates the email client object and connects to an SMTP server.
@@ -55,8 +106,7 @@ public class SMTPDClient implements SenderDClient {
         JavaCoreUtils.notNullArgument(smtpProperties, "smtpProperties");
         this.principal = new EmailParticipant(smtpProperties.getEmail(), smtpProperties.getName());
         this.authentication = new PasswordAuthentication(smtpProperties.getEmail(), smtpProperties.getPassword());
-        this.maxAttemptsOfRequest = smtpProperties.getMaxAttemptsOfRequest();
-        this.attemptDelayOfRequest = smtpProperties.getAttemptDelayOfRequest();
+        this.retryPolicy = RetryPolicy.of(smtpProperties);
         log.debug("Principal and authentication object were created. {}", this.principal);
         try {
             this.properties = SessionPropertyCollector.createCommonProperties(smtpProperties, PROTOCOL);
@@ -67,7 +117,15 @@ public class SMTPDClient implements SenderDClient {
         }
         log.debug("Configuration properties were created");
         this.session = this.connect();
-        log.debug("Session was created. Client is ready to sending messages!");
+        log.debug("Session was created");
+        this.relayGroup = this.createRelayGroup(smtpProperties);
+        log.debug("Relays were created");
+        this.rateLimiter = createRateLimiter(smtpProperties);
+        this.attachmentCache = smtpProperties.getAttachmentCacheSize() > 0
+            ? new EncodedAttachmentCache(smtpProperties.getAttachmentCacheSize())
+            : null;
+        this.spool = this.createSpool(smtpProperties);
+        log.debug("Client is ready to sending messages!");
     }
 
     /**
@@ -79,19 +137,108 @@ public class SMTPDClient implements SenderDClient {
      */
     @Override
     public Session connect() throws SessionException {
+        return this.createSession(this.properties);
+    }
+
+    private Session createSession(Properties sessionProperties) throws SessionException {
         Authenticator auth = new Authenticator() {
             protected PasswordAuthentication getPasswordAuthentication() {
                 return authentication;
             }
         };
         try {
-            return Session.getInstance(this.properties, auth);
+            return Session.getInstance(sessionProperties, auth);
         } catch (Exception e) {
             throw new SessionException(
                 "The creation of a connection failed because of the following error: " + e.getMessage());
         }
     }
 
+    private SMTPRelayGroup createRelayGroup(SmtpProperties smtpProperties) {
+        SMTPRelayGroup group = new SMTPRelayGroup(
+            PROTOCOL.getProtocolName(),
+            smtpProperties.getRelayBalancing(),
+            smtpProperties.getRelayFailureThreshold(),
+            smtpProperties.getRelayEjectionTime(),
+            smtpProperties.getRelayMaxEjectionTime()
+        );
+        List<SmtpRelay> relays = smtpProperties.getRelays();
+        if (relays == null || relays.isEmpty()) {
+            relays = Collections.singletonList(SmtpRelay.of(smtpProperties.getHost(), smtpProperties.getPort()));
+        }
+        for (SmtpRelay relay : relays) {
+            Session relaySession = this.session;
+            if (!relay.getHost().equals(smtpProperties.getHost()) || relay.getPort() != smtpProperties.getPort()) {
+                relaySession = this.createSession(this.createRelayProperties(relay, smtpProperties));
+            }
+            group.addRelay(
+                relay.getHost(),
+                relay.getPort(),
+                relay.getWeight(),
+                relaySession,
+                createTransportPool(relaySession, smtpProperties)
+            );
+            log.debug("The relay {} was added", relay);
+        }
+        return group;
+    }
+
+    private Properties createRelayProperties(SmtpRelay relay, SmtpProperties smtpProperties) {
+        Properties relayProperties = new Properties();
+        relayProperties.putAll(this.properties);
+        relayProperties.put(SessionPropertyCollector.createProperty(PROTOCOL, "host"), relay.getHost());
+        relayProperties.put(SessionPropertyCollector.createProperty(PROTOCOL, "port"), relay.getPort());
+        if (EncryptionType.SSL.equals(smtpProperties.getEncryptionType())) {
+            String socketFactoryPort = SessionPropertyCollector.createProperty(PROTOCOL, "socketFactory.port");
+            relayProperties.put(socketFactoryPort, relay.getPort());
+        }
+        return relayProperties;
+    }
+
+    private static SMTPTransportPool createTransportPool(Session session, SmtpProperties smtpProperties) {
+        if (smtpProperties.getTransportPoolSize() <= 0) {
+            log.debug("Transport pooling is disabled");
+            return null;
+        }
+        return new SMTPTransportPool(
+            session,
+            PROTOCOL.getProtocolName(),
+            smtpProperties.getTransportPoolSize(),
+            smtpProperties.getTransportIdleTimeout(),
+            smtpProperties.getConnectionTimeout()
+        );
+    }
+
+    private static SMTPRateLimiter createRateLimiter(SmtpProperties smtpProperties) {
+        SMTPRateLimiter rateLimiter = new SMTPRateLimiter(
+            smtpProperties.getRateLimit(),
+            smtpProperties.getDomainRateLimit(),
+            smtpProperties.getDomainRateLimits(),
+            smtpProperties.getRateLimitBurst()
+        );
+        if (!rateLimiter.isEnabled()) {
+            log.debug("Rate limiting is disabled");
+            return null;
+        }
+        return rateLimiter;
+    }
+
+    private SMTPSpool createSpool(SmtpProperties smtpProperties) {
+        if (smtpProperties.getSpoolDirectory() == null) {
+            log.debug("The outbound spool is disabled");
+            return null;
+        }
+        return new SMTPSpool(
+            Paths.get(smtpProperties.getSpoolDirectory()),
+            smtpProperties.getSpoolSegmentSize(),
+            smtpProperties.getSpoolThreadPoolSize(),
+            smtpProperties.getSpoolRetryDelay(),
+            smtpProperties.getSpoolMaxRetryDelay(),
+            smtpProperties.getSpoolMaxAttempts(),
+            this::sendSpooled
+        );
+    }
+
     /**
      * Returns a using protocol name.
      */
@@ -123,12 +270,7 @@ public class SMTPDClient implements SenderDClient {
         // It's creating an envelope of the message
         Message jakartaMessage;
         try {
-            jakartaMessage = JakartaMessageConverter.convert(
-                message,
-                session,
-                this.principal.getEmail(),
-                this.principal.getName()
-            );
+            jakartaMessage = this.convert(message);
         } catch (CreateMessageException | MessagingException ex) {
             log.error(
                 "Convert outgoing message DTO to jakarta message object failed by the next reason: " + ex.getMessage(),
@@ -140,9 +282,107 @@ public class SMTPDClient implements SenderDClient {
         // It's sending the created message
         try {
             RetryableUtils.retry(
-                maxAttemptsOfRequest,
-                attemptDelayOfRequest,
-                () -> Transport.send(jakartaMessage)
+                retryPolicy,
+                () -> this.sendPaced(jakartaMessage, () -> this.sendMessage(jakartaMessage))
+            );
+        } catch (MessagingException ex) {
+            log.error("Message couldn't be sent due to the following error: " + ex.getMessage(), ex);
+            return SendingStatus.ERROR_IN_TRANSPORT;
+        }
+        return SendingStatus.SUCCESS;
+    }
+
+    /**
+     * It writes the message to the durable outbound spool, and the message is sent by a background thread.
+     * The message is converted at once, so an incorrect message is rejected by this method. If the spool is
+     * disabled, then the message is sent at once.
+     *
+     * @param message the message object
+     *
+     * @return the status {@link SendingStatus#SUCCESS} if the message was spooled or the result status
+     *     of sending if the spool is disabled
+     *
+     * @throws ru.dlabs71.library.email.exception.SpoolException if the message couldn't be written to the spool
+     */
+    @Override
+    public SendingStatus enqueue(OutgoingMessage message) {
+        if (spool == null) {
+            return this.send(message);
+        }
+        log.debug("Starts spooling message. Message is {}", message);
+        ByteArrayOutputStream rawMessage = new ByteArrayOutputStream();
+        try {
+            this.validateAndConvert(message).writeTo(rawMessage);
+        } catch (CreateMessageException | MessagingException | IOException ex) {
+            log.error(
+                "Convert outgoing message DTO to jakarta message object failed by the next reason: " + ex.getMessage(),
+                ex
+            );
+            return SendingStatus.ERROR_IN_MESSAGE;
+        }
+        spool.enqueue(rawMessage.toByteArray());
+        return SendingStatus.SUCCESS;
+    }
+
+    /**
+     * It sends all the messages by one connection. The connection is borrowed from the pool once for the whole
+     * batch (or opened once if pooling is disabled) and is replaced only if it is broken. The next message
+     * is validated and converted by a separate thread while the current message is being sent.
+     * A failed message doesn't abort sending other messages.
+     *
+     * @param messages the iterator of messages. Messages are read lazily
+     *
+     * @return the map of the messages and their statuses {@link SendingStatus} in the order of sending
+     */
+    @Override
+    public Map<OutgoingMessage, SendingStatus> sendAll(Iterator<? extends OutgoingMessage> messages) {
+        JavaCoreUtils.notNullArgument(messages, "messages");
+        Map<OutgoingMessage, SendingStatus> result = new LinkedHashMap<>();
+        if (!messages.hasNext()) {
+            return result;
+        }
+        log.debug("Starts sending the batch of messages");
+        ExecutorService converter = Executors.newSingleThreadExecutor(
+            ConcurrentUtils.namedThreadFactory("d-email-converter"));
+        try (BatchTransport transport = new BatchTransport()) {
+            OutgoingMessage message = messages.next();
+            Future<Message> converted = this.submitConversion(converter, message);
+            boolean hasNext = true;
+            while (hasNext) {
+                OutgoingMessage current = message;
+                Future<Message> currentConverted = converted;
+                hasNext = messages.hasNext();
+                if (hasNext) {
+                    // the next message is being converted while the current message is being sent
+                    message = messages.next();
+                    converted = this.submitConversion(converter, message);
+                }
+                result.put(current, this.sendConverted(current, currentConverted, transport));
+            }
+        } finally {
+            converter.shutdownNow();
+        }
+        log.debug("The batch of {} messages was sent", result.size());
+        return result;
+    }
+
+    private SendingStatus sendConverted(OutgoingMessage message, Future<Message> converted, BatchTransport transport) {
+        Message jakartaMessage;
+        try {
+            jakartaMessage = converted.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.error("Converting the message was interrupted. Message is {}", message);
+            return SendingStatus.ERROR_IN_MESSAGE;
+        } catch (ExecutionException ex) {
+            log.error("The message of the batch is incorrect by the next reason: " + ex.getCause().getMessage());
+            return SendingStatus.ERROR_IN_MESSAGE;
+        }
+
+        try {
+            RetryableUtils.retry(
+                retryPolicy,
+                () -> this.sendPaced(jakartaMessage, () -> transport.send(jakartaMessage))
             );
         } catch (MessagingException ex) {
             log.error("Message couldn't be sent due to the following error: " + ex.getMessage(), ex);
@@ -150,4 +390,166 @@ public class SMTPDClient implements SenderDClient {
         }
         return SendingStatus.SUCCESS;
     }
+
+    private Future<Message> submitConversion(ExecutorService converter, OutgoingMessage message) {
+        return converter.submit(() -> this.validateAndConvert(message));
+    }
+
+    private Message validateAndConvert(OutgoingMessage message) throws MessagingException {
+        MessageValidator.validate(message);
+        Message jakartaMessage = this.convert(message);
+        jakartaMessage.saveChanges();
+        return jakartaMessage;
+    }
+
+    private Message convert(OutgoingMessage message) throws MessagingException {
+        return JakartaMessageConverter.convert(
+            message,
+            session,
+            this.principal.getEmail(),
+            this.principal.getName(),
+            attachmentCache
+        );
+    }
+
+    /**
+     * Sends the message using a pooled transport of a relay. If pooling is disabled,
+     * then the message is sent by a new connection.
+     *
+     * @param message the converted message
+     *
+     * @throws MessagingException if the message couldn't be sent
+     */
+    private void sendMessage(Message message) throws MessagingException {
+        message.saveChanges();
+        relayGroup.execute(transport -> {
+            transport.sendMessage(message, message.getAllRecipients());
+            return null;
+        });
+    }
+
+    /**
+     * Sends the spooled raw message. The message isn't changed, so its headers (for example, Message-ID) are
+     * the same for all the attempts.
+     *
+     * @param rawMessage the raw message from the spool
+     *
+     * @throws MessagingException if the message couldn't be sent
+     */
+    private void sendSpooled(byte[] rawMessage) throws MessagingException {
+        MimeMessage message = new MimeMessage(session, new ByteArrayInputStream(rawMessage));
+        this.sendPaced(message, () -> relayGroup.execute(transport -> {
+            transport.sendMessage(message, message.getAllRecipients());
+            return null;
+        }));
+    }
+
+    /**
+     * Sends the message after waiting for the rate limiter and reports the result to the limiter.
+     * If the rate limiting is disabled, then the message is sent at once.
+     *
+     * @param message the converted message
+     * @param sending the function sending the message
+     *
+     * @throws MessagingException if the message couldn't be sent or waiting was interrupted
+     */
+    private void sendPaced(Message message, RetryableUtils.RetryableWorker sending) throws MessagingException {
+        if (rateLimiter == null) {
+            sending.work();
+            return;
+        }
+        Address[] recipients = message.getAllRecipients();
+        try {
+            rateLimiter.acquire(recipients);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Waiting for the rate limiter was interrupted", e);
+        }
+        try {
+            sending.work();
+        } catch (MessagingException ex) {
+            rateLimiter.onFailure(ex);
+            throw ex;
+        }
+        rateLimiter.onSuccess(recipients);
+    }
+
+    /**
+     * Closes the spool and all the pooled connections to the SMTP servers. The undelivered spooled messages
+     * are sent after creating a new client with the same spool directory.
+     */
+    @Override
+    public void close() {
+        if (spool != null) {
+            spool.close();
+        }
+        relayGroup.close();
+    }
+
+    /**
+     * The transport used by one batch of messages. It's acquired from a relay by the first sending and released
+     * by closing. A broken transport is released at once, and a new one will be acquired by the next sending.
+     * If the relay fails, then the message is sent by the next relay at once.
+     */
+    private final class BatchTransport implements AutoCloseable {
+
+        private SMTPRelayGroup.Relay relay;
+        private Transport transport;
+
+        void send(Message message) throws MessagingException {
+            Set<SMTPRelayGroup.Relay> failedRelays = new HashSet<>();
+            MessagingException lastError = null;
+            while (true) {
+                if (transport == null) {
+                    relay = relayGroup.select(failedRelays);
+                    if (relay == null) {
+                        throw lastError;
+                    }
+                }
+                SMTPRelayGroup.Relay current = relay;
+                try {
+                    if (transport == null) {
+                        transport = current.borrow();
+                    }
+                    transport.sendMessage(message, message.getAllRecipients());
+                    current.onSuccess();
+                    return;
+                } catch (MessagingException ex) {
+                    boolean relayFailed = relayGroup.onFailure(current, ex);
+                    if (transport != null && (relayFailed || !transport.isConnected())) {
+                        log.debug("The transport {} of the batch is released", transport);
+                        this.release(!transport.isConnected());
+                    }
+                    if (!relayFailed) {
+                        throw ex;
+                    }
+                    // the message is sent by the next relay at once
+                    failedRelays.add(current);
+                    lastError = ex;
+                } catch (RuntimeException ex) {
+                    current.onCancel();
+                    if (transport != null && !transport.isConnected()) {
+                        log.debug("The transport {} of the batch is broken", transport);
+                        this.release(true);
+                    }
+                    throw ex;
+                }
+            }
+        }
+
+        private void release(boolean broken) {
+            if (transport != null) {
+                relay.release(transport, broken);
+            }
+            transport = null;
+            relay = null;
+        }
+
+        @Override
+        public void close() {
+            if (transport != null) {
+                this.release(false);
+            }
+        }
+    }
 }
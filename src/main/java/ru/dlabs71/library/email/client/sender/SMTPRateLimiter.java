@@ -0,0 +1,224 @@
+package ru.dlabs71.library.email.client.sender;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import ru.dlabs71.library.email.util.TokenBucket;
+
+/**
+ * The rate limiter of sending messages. It has two levels of token buckets ({@link TokenBucket}): one bucket for
+ * the SMTP server and one bucket for every recipient domain. A message takes a token from the bucket of the server
+ * and a token from the bucket of every domain of its recipients. If there aren't tokens, then the sending thread
+ * waits, so bulk sending is paced instead of being rejected by the server.
+ *
+ * <p>The limiter adapts to the server. When the server throttles messages by the codes 421, 450 or 451, the rate of
+ * the bucket is halved: the bucket of the domain if a recipient was rejected by the codes 450 or 451, or the bucket
+ * of the server if the server replied by the code 421 or rejected another command. A rejected recipient of a domain
+ * without a limit doesn't change any rate. After successful sendings, the rates grow back to the configured values.
+ *
+ * <p>One limiter is used by a client, so the bucket of the server is shared by all the SMTP relays of the client
+ * ({@link SMTPRelayGroup}): the rate limit is the total rate of the client, and throttling by one relay decreases
+ * the rate of all of them.
+ *
+ * <p>The class is thread-safe.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class SMTPRateLimiter {
+
+    private static final double SECONDS_PER_MINUTE = 60;
+
+    private final TokenBucket serverBucket;
+    private final int domainRateLimit;
+    private final Map<String, Integer> domainRateLimits;
+    private final int burst;
+    private final Map<String, TokenBucket> domainBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * The constructor of this class.
+     *
+     * @param rateLimit        the maximum number of messages per minute sent to the server. Zero or a negative value
+     *                         disables the limit.
+     * @param domainRateLimit  the maximum number of messages per minute sent to every recipient domain. Zero or
+     *                         a negative value disables the limit.
+     * @param domainRateLimits the limits for particular domains, which override the previous one
+     * @param burst            the maximum number of messages sent without pacing after a pause
+     */
+    public SMTPRateLimiter(int rateLimit, int domainRateLimit, Map<String, Integer> domainRateLimits, int burst) {
+        this.burst = Math.max(burst, 1);
+        this.serverBucket = rateLimit > 0 ? new TokenBucket(rateLimit / SECONDS_PER_MINUTE, this.burst) : null;
+        this.domainRateLimit = domainRateLimit;
+        Map<String, Integer> limits = new HashMap<>();
+        if (domainRateLimits != null) {
+            domainRateLimits.forEach((domain, limit) -> limits.put(domain.toLowerCase(Locale.ROOT), limit));
+        }
+        this.domainRateLimits = Collections.unmodifiableMap(limits);
+    }
+
+    /**
+     * Returns true if any limit is set.
+     */
+    public boolean isEnabled() {
+        return serverBucket != null || domainRateLimit > 0 || !domainRateLimits.isEmpty();
+    }
+
+    /**
+     * Takes tokens for sending the message to the recipients and waits until they are available.
+     *
+     * @param recipients the recipients of the message
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public void acquire(Address[] recipients) throws InterruptedException {
+        long waitTime = serverBucket == null ? 0 : serverBucket.reserve(1);
+        for (String domain : getDomains(recipients)) {
+            TokenBucket bucket = this.getDomainBucket(domain);
+            if (bucket != null) {
+                waitTime = Math.max(waitTime, bucket.reserve(1));
+            }
+        }
+        if (waitTime > 0) {
+            log.debug("Sending is paced by the rate limiter for {} ms", TimeUnit.NANOSECONDS.toMillis(waitTime));
+            TimeUnit.NANOSECONDS.sleep(waitTime);
+        }
+    }
+
+    /**
+     * Lets the rates grow back after the message was sent successfully.
+     *
+     * @param recipients the recipients of the message
+     */
+    public void onSuccess(Address[] recipients) {
+        if (serverBucket != null) {
+            serverBucket.increaseRate();
+        }
+        for (String domain : getDomains(recipients)) {
+            TokenBucket bucket = domainBuckets.get(domain);
+            if (bucket != null) {
+                bucket.increaseRate();
+            }
+        }
+    }
+
+    /**
+     * Decreases the rates if the message was throttled by the server. A rejected recipient (the codes 450 and 451
+     * of the RCPT command) decreases the rate of its domain only, while the code 421 or a throttling reply to
+     * another command decreases the rate of the server.
+     *
+     * @param exception the error of sending
+     */
+    public void onFailure(MessagingException exception) {
+        boolean throttledServer = false;
+        Exception current = exception;
+        while (current instanceof MessagingException) {
+            if (current instanceof SMTPAddressFailedException) {
+                SMTPAddressFailedException addressFailed = (SMTPAddressFailedException) current;
+                if (addressFailed.getReturnCode() == 421) {
+                    throttledServer = true;
+                } else if (isThrottling(addressFailed.getReturnCode())) {
+                    this.throttleDomain(getDomain(addressFailed.getAddress()));
+                }
+            } else if (current instanceof SMTPSendFailedException) {
+                SMTPSendFailedException sendFailed = (SMTPSendFailedException) current;
+                throttledServer |= sendFailed.getReturnCode() == 421
+                    || (isThrottling(sendFailed.getReturnCode()) && !isRecipientCommand(sendFailed.getCommand()));
+            } else if (current instanceof SMTPSenderFailedException) {
+                throttledServer |= isThrottling(((SMTPSenderFailedException) current).getReturnCode());
+            }
+            current = ((MessagingException) current).getNextException();
+        }
+        if (throttledServer && serverBucket != null) {
+            serverBucket.decreaseRate();
+            log.warn("The server throttles messages. The rate is decreased to {} per minute",
+                serverBucket.getRate() * SECONDS_PER_MINUTE
+            );
+        }
+    }
+
+    /**
+     * Returns the current number of messages per minute sent to the server or 0 if the limit is disabled.
+     */
+    public double getRate() {
+        return serverBucket == null ? 0 : serverBucket.getRate() * SECONDS_PER_MINUTE;
+    }
+
+    /**
+     * Returns the current number of messages per minute sent to the recipient domain or 0 if the limit is disabled.
+     *
+     * @param domain the recipient domain. For example: example.com
+     */
+    public double getDomainRate(String domain) {
+        TokenBucket bucket = this.getDomainBucket(domain.toLowerCase(Locale.ROOT));
+        return bucket == null ? 0 : bucket.getRate() * SECONDS_PER_MINUTE;
+    }
+
+    /**
+     * Returns true if the SMTP reply code means that the server throttles messages.
+     */
+    public static boolean isThrottling(int returnCode) {
+        return returnCode == 421 || returnCode == 450 || returnCode == 451;
+    }
+
+    private void throttleDomain(String domain) {
+        TokenBucket bucket = domain == null ? null : domainBuckets.get(domain);
+        if (bucket != null) {
+            bucket.decreaseRate();
+            log.warn("The domain {} throttles messages. The rate is decreased to {} per minute",
+                domain,
+                bucket.getRate() * SECONDS_PER_MINUTE
+            );
+        }
+    }
+
+    private static boolean isRecipientCommand(String command) {
+        return command != null && command.trim().toUpperCase(Locale.ROOT).startsWith("RCPT");
+    }
+
+    private TokenBucket getDomainBucket(String domain) {
+        int limit = domainRateLimits.getOrDefault(domain, domainRateLimit);
+        if (limit <= 0) {
+            return null;
+        }
+        return domainBuckets.computeIfAbsent(domain, key -> new TokenBucket(limit / SECONDS_PER_MINUTE, burst));
+    }
+
+    private static Set<String> getDomains(Address[] recipients) {
+        if (recipients == null) {
+            return Collections.emptySet();
+        }
+        Set<String> domains = new LinkedHashSet<>();
+        for (Address recipient : recipients) {
+            String domain = getDomain(recipient);
+            if (domain != null) {
+                domains.add(domain);
+            }
+        }
+        return domains;
+    }
+
+    private static String getDomain(Address address) {
+        if (!(address instanceof InternetAddress)) {
+            return null;
+        }
+        String email = ((InternetAddress) address).getAddress();
+        int index = email == null ? -1 : email.lastIndexOf('@');
+        return index < 0 ? null : email.substring(index + 1).toLowerCase(Locale.ROOT);
+    }
+}
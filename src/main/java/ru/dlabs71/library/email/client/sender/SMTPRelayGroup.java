@@ -0,0 +1,473 @@
+package ru.dlabs71.library.email.client.sender;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.SSLException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.eclipse.angus.mail.util.MailConnectException;
+import ru.dlabs71.library.email.type.RelayBalancing;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+import ru.dlabs71.library.email.util.RetryableUtils;
+
+/**
+ * The group of SMTP relays, which messages are sent by. Every relay has its own session and its own pool
+ * of transports ({@link SMTPTransportPool}). A relay for a message is chosen by the balancing strategy
+ * ({@link RelayBalancing}).
+ *
+ * <p>Every relay has a circuit breaker. If the relay fails (it can't be connected, or the connection is lost,
+ * or the server replies by the code 421), then the message is sent by the next relay at once, without waiting for
+ * the retry delay. If the relay fails the given number of times in a row, then the relay is ejected. After
+ * the ejection time one message is sent by the relay to check it. If the check succeeds, then the relay gets
+ * messages again. Otherwise, the relay is ejected for twice as long, but not longer than the maximum ejection time.
+ * If all the relays are ejected, then the relay, whose ejection ends first, is used anyway.
+ *
+ * <p>Errors, which are replied by a relay about a message (for example, an invalid recipient), don't affect
+ * the health of the relay, and the message isn't sent by other relays.
+ *
+ * <p>The class is thread-safe.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class SMTPRelayGroup implements AutoCloseable {
+
+    private static final int SERVICE_NOT_AVAILABLE = 421;
+    private static final int MAX_EJECTION_SHIFT = 20;
+
+    private final String protocolName;
+    @Getter
+    private final RelayBalancing balancing;
+    private final int failureThreshold;
+    private final long ejectionTime;
+    private final long maxEjectionTime;
+    private final List<Relay> relays = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    /**
+     * The constructor of this class. The relays are added by the
+     * {@link #addRelay(String, int, int, Session, SMTPTransportPool)} method.
+     *
+     * @param protocolName     a protocol name of transports (For example: smtp)
+     * @param balancing        the strategy of choosing a relay
+     * @param failureThreshold the number of failures in a row, after which a relay is ejected
+     * @param ejectionTime     time in milliseconds for which a failed relay is ejected the first time
+     * @param maxEjectionTime  the maximum time in milliseconds for which a failed relay is ejected
+     */
+    public SMTPRelayGroup(
+        String protocolName,
+        RelayBalancing balancing,
+        int failureThreshold,
+        long ejectionTime,
+        long maxEjectionTime
+    ) {
+        JavaCoreUtils.notNullArgument(protocolName, "protocolName");
+        JavaCoreUtils.notNullArgument(balancing, "balancing");
+        this.protocolName = protocolName;
+        this.balancing = balancing;
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.ejectionTime = Math.max(ejectionTime, 0);
+        this.maxEjectionTime = Math.max(maxEjectionTime, this.ejectionTime);
+    }
+
+    /**
+     * Adds the relay to the group.
+     *
+     * @param host    a host of the relay. It's used for logging.
+     * @param port    a port of the relay. It's used for logging.
+     * @param weight  a weight of the relay. It must be greater than 0.
+     * @param session a session for creating transports connected to the relay
+     * @param pool    a pool of transports connected to the relay or null if transports aren't pooled
+     *
+     * @return the added relay
+     */
+    public Relay addRelay(String host, int port, int weight, Session session, SMTPTransportPool pool) {
+        JavaCoreUtils.notNullArgument(session, "session");
+        if (weight <= 0) {
+            throw new IllegalArgumentException("The weight of a relay must be greater than 0");
+        }
+        Relay relay = new Relay(host, port, weight, session, pool);
+        relays.add(relay);
+        return relay;
+    }
+
+    /**
+     * Returns all the relays of the group.
+     */
+    public List<Relay> getRelays() {
+        return Collections.unmodifiableList(relays);
+    }
+
+    /**
+     * Chooses a relay, borrows a transport from it and executes the callback. If the relay fails, then it's
+     * reported to its circuit breaker, and the callback is executed by the next relay at once.
+     *
+     * @param callback the function to be executed using a transport
+     * @param <R>      a type of the result
+     *
+     * @return the result of the callback
+     *
+     * @throws MessagingException if the callback failed with an error about the message,
+     *                            or all the relays have failed
+     */
+    public <R> R execute(SMTPTransportPool.TransportCallback<R> callback) throws MessagingException {
+        Set<Relay> failedRelays = new HashSet<>();
+        MessagingException lastError = null;
+        Relay relay;
+        while ((relay = this.select(failedRelays)) != null) {
+            Transport transport;
+            try {
+                transport = relay.borrow();
+            } catch (MessagingException ex) {
+                if (!this.onFailure(relay, ex)) {
+                    throw ex;
+                }
+                failedRelays.add(relay);
+                lastError = ex;
+                continue;
+            }
+            boolean broken = false;
+            try {
+                R result = callback.apply(transport);
+                relay.onSuccess();
+                return result;
+            } catch (MessagingException ex) {
+                broken = !isConnectedQuietly(transport);
+                if (!this.onFailure(relay, ex)) {
+                    throw ex;
+                }
+                failedRelays.add(relay);
+                lastError = ex;
+            } catch (RuntimeException ex) {
+                broken = !isConnectedQuietly(transport);
+                relay.onCancel();
+                throw ex;
+            } finally {
+                relay.release(transport, broken);
+            }
+        }
+        throw lastError;
+    }
+
+    /**
+     * Chooses a relay by the balancing strategy. Ejected relays aren't chosen, unless all the relays are ejected.
+     * In this case the relay, whose ejection ends first, is chosen.
+     *
+     * @param excluded the relays, which must not be chosen. For example, the relays, which have already failed
+     *                 the current message.
+     *
+     * @return the chosen relay or null if all the relays are excluded
+     */
+    public Relay select(Set<Relay> excluded) {
+        long now = System.currentTimeMillis();
+        List<Relay> candidates = new ArrayList<>();
+        Relay fallback = null;
+        for (Relay relay : relays) {
+            if (excluded.contains(relay)) {
+                continue;
+            }
+            if (relay.isAvailable(now)) {
+                candidates.add(relay);
+            } else if (fallback == null || relay.getEjectedUntil() < fallback.getEjectedUntil()) {
+                fallback = relay;
+            }
+        }
+        while (!candidates.isEmpty()) {
+            Relay chosen = balancing == RelayBalancing.LEAST_OUTSTANDING
+                ? this.chooseLeastOutstanding(candidates)
+                : this.chooseRoundRobin(candidates);
+            // a recovering relay is checked by one message at a time
+            if (chosen.tryAcquire(now)) {
+                return chosen;
+            }
+            candidates.remove(chosen);
+            if (fallback == null || chosen.getEjectedUntil() < fallback.getEjectedUntil()) {
+                fallback = chosen;
+            }
+        }
+        if (fallback != null) {
+            log.debug("All the relays are ejected. The relay {} is used", fallback);
+        }
+        return fallback;
+    }
+
+    /**
+     * Reports the error of a request through the relay. The relay is considered failed, if the connection to it has
+     * failed, or it has replied by the code 421 (see {@link #isRelayFailure(MessagingException)}). Otherwise,
+     * the relay is considered healthy.
+     *
+     * @param relay     the relay
+     * @param exception the error of the request
+     *
+     * @return true if the relay has failed, and the request should be sent by another relay
+     */
+    public boolean onFailure(Relay relay, MessagingException exception) {
+        if (!isRelayFailure(exception)) {
+            relay.onSuccess();
+            return false;
+        }
+        log.warn("The relay {} failed because of the following error: {}", relay, exception.getMessage());
+        relay.onFailure(System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Returns true if the error means that the relay is unavailable rather than the message is rejected: the relay
+     * has replied by the code 421, or the connection to the relay has failed (it couldn't be opened, or it was closed
+     * without a reply, or a socket error occurred). Other errors without a reply code, for example, an error of reading
+     * the content of the message, don't mean that the relay is unavailable.
+     */
+    public static boolean isRelayFailure(MessagingException exception) {
+        if (!RetryableUtils.isRetryable(exception)) {
+            return false;
+        }
+        int returnCode = RetryableUtils.getReturnCode(exception);
+        if (returnCode >= 0) {
+            return returnCode == SERVICE_NOT_AVAILABLE;
+        }
+        Exception current = exception;
+        while (current instanceof MessagingException) {
+            if (current instanceof MailConnectException || isUnansweredCommand(current)) {
+                return true;
+            }
+            current = ((MessagingException) current).getNextException();
+        }
+        return isConnectionError(current);
+    }
+
+    private static boolean isUnansweredCommand(Exception exception) {
+        // the exceptions of SMTP commands have the code -1, if the connection was closed before the reply
+        return exception instanceof SMTPSendFailedException
+            || exception instanceof SMTPSenderFailedException
+            || exception instanceof SMTPAddressFailedException;
+    }
+
+    private static boolean isConnectionError(Exception exception) {
+        return exception instanceof SocketException
+            || exception instanceof SocketTimeoutException
+            || exception instanceof UnknownHostException
+            || exception instanceof SSLException;
+    }
+
+    /**
+     * Closes the transport pools of all the relays.
+     */
+    @Override
+    public void close() {
+        relays.forEach(Relay::close);
+    }
+
+    private synchronized Relay chooseRoundRobin(List<Relay> candidates) {
+        // the smooth weighted round-robin: the relays with the same weights are chosen in turn,
+        // and a heavier relay isn't chosen many times in a row
+        int totalWeight = 0;
+        Relay chosen = null;
+        for (Relay relay : candidates) {
+            relay.currentWeight += relay.getWeight();
+            totalWeight += relay.getWeight();
+            if (chosen == null || relay.currentWeight > chosen.currentWeight) {
+                chosen = relay;
+            }
+        }
+        chosen.currentWeight -= totalWeight;
+        return chosen;
+    }
+
+    private Relay chooseLeastOutstanding(List<Relay> candidates) {
+        // the search starts from the next relay every time, so the relays with the same load are chosen in turn
+        int start = Math.floorMod(nextIndex.getAndIncrement(), candidates.size());
+        Relay chosen = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Relay relay = candidates.get((start + i) % candidates.size());
+            if (chosen == null
+                || (long) relay.getOutstanding() * chosen.getWeight()
+                < (long) chosen.getOutstanding() * relay.getWeight()) {
+                chosen = relay;
+            }
+        }
+        return chosen;
+    }
+
+    private static boolean isConnectedQuietly(Transport transport) {
+        try {
+            return transport.isConnected();
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * The relay of the group with its circuit breaker.
+     */
+    public final class Relay {
+
+        @Getter
+        private final String host;
+        @Getter
+        private final int port;
+        @Getter
+        private final int weight;
+        private final Session session;
+        private final SMTPTransportPool pool;
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        /** The current weight of the smooth weighted round-robin. Guarded by the group. **/
+        private int currentWeight;
+
+        /** The state of the circuit breaker. Guarded by {@code this}. **/
+        private int failures;
+        private int ejections;
+        private long ejectedUntil;
+        private boolean probing;
+
+        private Relay(String host, int port, int weight, Session session, SMTPTransportPool pool) {
+            this.host = host;
+            this.port = port;
+            this.weight = weight;
+            this.session = session;
+            this.pool = pool;
+        }
+
+        /**
+         * Borrows a connected transport from the pool of the relay or connects a new transport if pooling
+         * is disabled. Each borrowed transport must be returned by the {@link #release(Transport, boolean)} method.
+         *
+         * @return a connected transport
+         *
+         * @throws MessagingException if the transport couldn't be borrowed
+         */
+        public Transport borrow() throws MessagingException {
+            outstanding.incrementAndGet();
+            try {
+                if (pool != null) {
+                    return pool.borrow();
+                }
+                Transport transport = session.getTransport(protocolName);
+                transport.connect();
+                return transport;
+            } catch (MessagingException | RuntimeException ex) {
+                outstanding.decrementAndGet();
+                throw ex;
+            }
+        }
+
+        /**
+         * Returns the borrowed transport to the pool of the relay or closes it if pooling is disabled.
+         *
+         * @param transport the borrowed transport
+         * @param broken    true if the transport must not be used anymore
+         */
+        public void release(Transport transport, boolean broken) {
+            outstanding.decrementAndGet();
+            if (pool != null) {
+                pool.release(transport, broken);
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException | RuntimeException ex) {
+                log.warn("The transport couldn't be closed because of the following error: " + ex.getMessage());
+            }
+        }
+
+        /**
+         * Reports that the relay has replied to a request. The circuit breaker is closed.
+         */
+        public synchronized void onSuccess() {
+            if (ejectedUntil != 0) {
+                log.info("The relay {} has recovered", this);
+            }
+            failures = 0;
+            ejections = 0;
+            ejectedUntil = 0;
+            probing = false;
+        }
+
+        /**
+         * Reports that a request through the relay was aborted by an unexpected error, which says nothing about
+         * the health of the relay.
+         */
+        public synchronized void onCancel() {
+            probing = false;
+        }
+
+        /**
+         * Returns the number of transports borrowed from the relay now.
+         */
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        /**
+         * Returns true if the relay is ejected now.
+         */
+        public synchronized boolean isEjected() {
+            return ejectedUntil != 0 && System.currentTimeMillis() < ejectedUntil;
+        }
+
+        private synchronized long getEjectedUntil() {
+            return ejectedUntil;
+        }
+
+        private synchronized boolean isAvailable(long now) {
+            return ejectedUntil == 0 || (now >= ejectedUntil && !probing);
+        }
+
+        private synchronized boolean tryAcquire(long now) {
+            if (ejectedUntil == 0) {
+                return true;
+            }
+            if (now < ejectedUntil || probing) {
+                return false;
+            }
+            probing = true;
+            return true;
+        }
+
+        private synchronized void onFailure(long now) {
+            if (!probing && now < ejectedUntil) {
+                // the request was started before the ejection
+                return;
+            }
+            failures++;
+            if (!probing && ejectedUntil == 0 && failures < failureThreshold) {
+                return;
+            }
+            long time = Math.min(maxEjectionTime, ejectionTime << Math.min(ejections, MAX_EJECTION_SHIFT));
+            ejections++;
+            ejectedUntil = now + time;
+            failures = 0;
+            probing = false;
+            log.warn("The relay {} is ejected for {} ms", this, time);
+        }
+
+        private void close() {
+            if (pool != null) {
+                pool.close();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return host + ":" + port;
+        }
+    }
+}
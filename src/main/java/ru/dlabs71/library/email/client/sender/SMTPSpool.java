@@ -0,0 +1,636 @@
+package ru.dlabs71.library.email.client.sender;
+
+import jakarta.mail.MessagingException;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.exception.SpoolException;
+import ru.dlabs71.library.email.util.ConcurrentUtils;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+import ru.dlabs71.library.email.util.RetryableUtils;
+
+/**
+ * The durable outbound spool of raw (RFC 822) messages. A spooled message is written to the append-only journal
+ * and is delivered by the background threads later, so callers don't wait for the SMTP server, and messages
+ * survive outages of the server and restarts of the application.
+ *
+ * <p>The journal consists of segment files {@code <number>.journal}. A segment contains message records with
+ * raw messages and acknowledgement records, which are written when the messages were delivered. Every new
+ * segment starts with a record of the next message identifier, so identifiers aren't given out again after
+ * restart even if the segment with the greatest identifier was deleted. Every record has a CRC32 checksum, so
+ * a record partially written before a crash is detected and cut off by the recovery. The journal is synchronized
+ * with the disk by group commits: all the records appended while the disk was being synchronized are covered
+ * by the next synchronization. Acknowledgements aren't synchronized at once, because a lost acknowledgement leads
+ * to a repeated delivery only.
+ *
+ * <p>When the spool is created, the journal is replayed and all the unacknowledged messages are scheduled for
+ * delivery. So a message may be delivered twice if the application stopped between delivering and acknowledging it,
+ * but it's never lost. When the active segment exceeds the maximum size, a new segment is started. Every segment
+ * except the active one is compacted independently: a segment without undelivered messages is deleted, and
+ * a segment where undelivered messages take less than half is deleted after copying them to the active segment.
+ * So a segment pinned by a long-undelivered message doesn't prevent reclaiming the next segments. Acknowledgements
+ * of a deleted segment, which refer to messages of older segments, are copied to the active segment too.
+ *
+ * <p>A failed delivery is retried with an exponentially growing delay. A message, which wasn't delivered after
+ * the maximum number of attempts or was rejected permanently (see {@link RetryableUtils#isRetryable}), is moved
+ * to the {@code failed} subdirectory as an {@code <id>.eml} file. If the file exists, then a suffix is added
+ * to the name ({@code <id>-1.eml}), so an undelivered message never replaces another one.
+ *
+ * <p>The class is thread-safe. The directory must be used by one instance of the class only.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class SMTPSpool implements AutoCloseable {
+
+    private static final String SEGMENT_FILE_SUFFIX = ".journal";
+    private static final String FAILED_DIRECTORY = "failed";
+    private static final String MESSAGE_FILE_SUFFIX = ".eml";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final byte MESSAGE_RECORD = 1;
+    private static final byte ACKNOWLEDGEMENT_RECORD = 2;
+    private static final byte NEXT_ID_RECORD = 3;
+    private static final int RECORD_HEADER_SIZE = 1 + 8 + 4;
+    private static final int RECORD_CHECKSUM_SIZE = 4;
+    private static final byte[] EMPTY_DATA = new byte[0];
+    private static final long TERMINATION_TIMEOUT_SECONDS = 30;
+
+    @Getter
+    private final Path directory;
+    private final long maxSegmentSize;
+    private final long retryDelay;
+    private final long maxRetryDelay;
+    private final int maxAttempts;
+    private final Delivery delivery;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    // the state of the journal is guarded by the instance
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private Segment activeSegment;
+    private FileChannel channel;
+    private long nextId = 1;
+    private long appendedRecords = 0;
+    private boolean closed = false;
+
+    // the group commit is guarded by the lock
+    private final Object syncLock = new Object();
+    private long syncedRecords = 0;
+
+    /**
+     * The constructor of this class. The journal is recovered from the directory, and the undelivered messages
+     * are scheduled for delivery at once.
+     *
+     * @param directory      the directory of the journal. It's created if it doesn't exist.
+     * @param maxSegmentSize the size of a segment in bytes, after which a new segment is started
+     * @param threads        the number of threads delivering messages
+     * @param retryDelay     the delay in milliseconds before the first retry of a failed delivery.
+     *                       Every next delay is twice as long.
+     * @param maxRetryDelay  the maximum delay in milliseconds between retries
+     * @param maxAttempts    the maximum number of delivery attempts of a message. Zero or a negative value means
+     *                       that a message is retried until it's delivered.
+     * @param delivery       the function delivering a raw message
+     */
+    public SMTPSpool(
+        Path directory,
+        long maxSegmentSize,
+        int threads,
+        long retryDelay,
+        long maxRetryDelay,
+        int maxAttempts,
+        Delivery delivery
+    ) {
+        JavaCoreUtils.notNullArgument(directory, "directory");
+        JavaCoreUtils.notNullArgument(delivery, "delivery");
+        if (maxSegmentSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of a segment must be greater than 0");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be greater than 0");
+        }
+        this.directory = directory.toAbsolutePath();
+        this.maxSegmentSize = maxSegmentSize;
+        this.retryDelay = Math.max(retryDelay, 0);
+        this.maxRetryDelay = Math.max(maxRetryDelay, this.retryDelay);
+        this.maxAttempts = maxAttempts;
+        this.delivery = delivery;
+        this.scheduler = new ScheduledThreadPoolExecutor(threads, ConcurrentUtils.namedThreadFactory("d-email-spool"));
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        List<Entry> recovered;
+        synchronized (this) {
+            this.recover();
+            recovered = entries.values().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.id))
+                .collect(Collectors.toList());
+        }
+        log.debug("The spool {} was recovered. There are {} undelivered messages", this.directory, recovered.size());
+        recovered.forEach(entry -> this.schedule(entry, 0));
+    }
+
+    /**
+     * Writes the message to the journal and schedules its delivery. The message is synchronized with the disk
+     * before the method returns.
+     *
+     * @param message the raw (RFC 822) message
+     *
+     * @return the identifier of the message in the spool
+     *
+     * @throws SpoolException        if the message couldn't be written to the journal
+     * @throws IllegalStateException if the spool is closed
+     */
+    public long enqueue(byte[] message) {
+        JavaCoreUtils.notNullArgument(message, "message");
+        Entry entry;
+        long records;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The spool is closed");
+            }
+            try {
+                this.rotateIfNeeded();
+                long offset = this.append(MESSAGE_RECORD, nextId, message);
+                entry = new Entry(nextId++, activeSegment, offset, message.length);
+            } catch (IOException e) {
+                throw new SpoolException("The message couldn't be written to the spool: " + e.getMessage(), e);
+            }
+            entries.put(entry.id, entry);
+            activeSegment.addLive(entry);
+            records = appendedRecords;
+        }
+        this.sync(records);
+        this.schedule(entry, 0);
+        log.debug("The message {} was spooled", entry.id);
+        return entry.id;
+    }
+
+    /**
+     * Returns the number of undelivered messages.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of segment files of the journal.
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Closes the spool. It waits for the deliveries in progress, and the scheduled deliveries are cancelled.
+     * The undelivered messages stay in the journal and are delivered by the next instance of the spool.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("The deliveries of the spool {} weren't finished in time", directory);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                log.warn("The journal of the spool couldn't be closed because of the following error: "
+                    + e.getMessage());
+            }
+            log.debug("The spool {} was closed. There are {} undelivered messages", directory, entries.size());
+        }
+    }
+
+    private void deliver(Entry entry) {
+        byte[] data;
+        synchronized (this) {
+            if (closed || entries.get(entry.id) != entry) {
+                return;
+            }
+            try {
+                data = this.read(entry);
+            } catch (IOException e) {
+                log.error("The message " + entry.id + " couldn't be read from the spool: " + e.getMessage(), e);
+                this.retryLater(entry, null);
+                return;
+            }
+        }
+        try {
+            delivery.deliver(data);
+        } catch (MessagingException | RuntimeException ex) {
+            log.warn("The spooled message {} wasn't delivered: {}", entry.id, ex.getMessage());
+            if (ex instanceof MessagingException && !RetryableUtils.isRetryable((MessagingException) ex)) {
+                this.moveToFailed(entry, data);
+            } else {
+                this.retryLater(entry, data);
+            }
+            return;
+        }
+        this.acknowledge(entry);
+        log.debug("The spooled message {} was delivered", entry.id);
+    }
+
+    private void retryLater(Entry entry, byte[] data) {
+        int attempts;
+        synchronized (this) {
+            attempts = ++entry.attempts;
+        }
+        if (maxAttempts > 0 && attempts >= maxAttempts && data != null) {
+            this.moveToFailed(entry, data);
+            return;
+        }
+        long delay = Math.min(maxRetryDelay, retryDelay << Math.min(attempts - 1, 30));
+        log.debug("The delivery of the spooled message {} will be retried in {} ms", entry.id, delay);
+        this.schedule(entry, delay);
+    }
+
+    private void moveToFailed(Entry entry, byte[] data) {
+        Path failedDirectory = directory.resolve(FAILED_DIRECTORY);
+        Path tempFile = failedDirectory.resolve(entry.id + MESSAGE_FILE_SUFFIX + TEMP_FILE_SUFFIX);
+        Path file = null;
+        try {
+            Files.createDirectories(failedDirectory);
+            Files.write(tempFile, data);
+            // an existing file of another undelivered message is never replaced
+            for (int index = 0; file == null; index++) {
+                Path candidate = failedDirectory.resolve(
+                    (index == 0 ? String.valueOf(entry.id) : entry.id + "-" + index) + MESSAGE_FILE_SUFFIX
+                );
+                try {
+                    Files.move(tempFile, candidate);
+                    file = candidate;
+                } catch (FileAlreadyExistsException e) {
+                    log.debug("The file {} already exists. Another name will be used", candidate);
+                }
+            }
+        } catch (IOException e) {
+            log.error("The undelivered message " + entry.id + " couldn't be moved to " + failedDirectory + ": "
+                + e.getMessage());
+            this.schedule(entry, maxRetryDelay);
+            return;
+        }
+        log.error("The spooled message {} wasn't delivered. It was moved to {}", entry.id, file);
+        this.acknowledge(entry);
+    }
+
+    private synchronized void acknowledge(Entry entry) {
+        if (entries.remove(entry.id) == null) {
+            return;
+        }
+        entry.segment.removeLive(entry);
+        if (closed && !channel.isOpen()) {
+            log.warn("The spool is closed. The message {} may be delivered again after restart", entry.id);
+            return;
+        }
+        try {
+            this.rotateIfNeeded();
+            this.append(ACKNOWLEDGEMENT_RECORD, entry.id, EMPTY_DATA);
+            activeSegment.addAcknowledgement(entry.id, entry.segment);
+            this.compact();
+        } catch (IOException e) {
+            log.error(
+                "The acknowledgement of the message " + entry.id + " couldn't be written. "
+                    + "The message may be delivered again after restart: " + e.getMessage(),
+                e
+            );
+        }
+    }
+
+    private void schedule(Entry entry, long delay) {
+        try {
+            scheduler.schedule(() -> this.deliver(entry), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("The spool is closed. The message {} will be delivered after restart", entry.id);
+        }
+    }
+
+    /**
+     * Synchronizes the journal with the disk, if the record with the number wasn't synchronized yet. The threads
+     * waiting for the lock are covered by one synchronization.
+     */
+    private void sync(long records) {
+        synchronized (syncLock) {
+            if (syncedRecords >= records) {
+                return;
+            }
+            FileChannel current;
+            long target;
+            synchronized (this) {
+                current = channel;
+                target = appendedRecords;
+            }
+            try {
+                current.force(false);
+            } catch (ClosedChannelException e) {
+                // the segment was synchronized before closing
+            } catch (IOException e) {
+                throw new SpoolException("The spool couldn't be synchronized with the disk: " + e.getMessage(), e);
+            }
+            syncedRecords = target;
+        }
+    }
+
+    /**
+     * Appends the record to the active segment.
+     *
+     * @return the position of the record data in the segment
+     */
+    private long append(byte type, long id, byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + data.length + RECORD_CHECKSUM_SIZE);
+        buffer.put(type).putLong(id).putInt(data.length).put(data);
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) checksum.getValue());
+        buffer.flip();
+
+        long position = activeSegment.size;
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            // the partially written record mustn't hide the next records from the recovery
+            channel.truncate(activeSegment.size);
+            throw e;
+        }
+        long dataPosition = activeSegment.size + RECORD_HEADER_SIZE;
+        activeSegment.size = position;
+        appendedRecords++;
+        return dataPosition;
+    }
+
+    private byte[] read(Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+        try (FileChannel segmentChannel = FileChannel.open(entry.segment.file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (segmentChannel.read(buffer, entry.position + buffer.position()) < 0) {
+                    throw new EOFException("The segment " + entry.segment.file + " is truncated");
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    private void rotateIfNeeded() throws IOException {
+        if (activeSegment.size < maxSegmentSize) {
+            return;
+        }
+        channel.force(false);
+        FileChannel previousChannel = channel;
+        Segment segment = new Segment(activeSegment.number + 1, this.segmentFile(activeSegment.number + 1));
+        channel = FileChannel.open(segment.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        previousChannel.close();
+        segments.put(segment.number, segment);
+        activeSegment = segment;
+        // the compaction may delete the segment with the greatest identifier, so the next identifier is kept
+        // in every new segment and isn't given out again after restart
+        this.append(NEXT_ID_RECORD, nextId, EMPTY_DATA);
+        channel.force(false);
+        log.debug("The new segment {} of the spool was started", segment.file);
+        this.compact();
+    }
+
+    /**
+     * Deletes the segments, which don't have undelivered messages or which have a few undelivered messages.
+     * The undelivered messages are copied to the active segment before deleting. The active segment is never deleted.
+     */
+    private void compact() throws IOException {
+        List<Segment> candidates = segments.values().stream()
+            .filter(segment -> segment != activeSegment && segment.liveSize * 2 <= segment.size)
+            .collect(Collectors.toList());
+        for (Segment segment : candidates) {
+            this.compact(segment);
+        }
+    }
+
+    private void compact(Segment segment) throws IOException {
+        boolean copied = false;
+        if (segment.liveCount > 0) {
+            List<Entry> live = entries.values().stream()
+                .filter(entry -> entry.segment == segment)
+                .collect(Collectors.toList());
+            for (Entry entry : live) {
+                byte[] data = this.read(entry);
+                long position = this.append(MESSAGE_RECORD, entry.id, data);
+                segment.removeLive(entry);
+                entry.segment = activeSegment;
+                entry.position = position;
+                activeSegment.addLive(entry);
+            }
+            copied = true;
+            log.debug("{} undelivered messages were copied from the segment {}", live.size(), segment.file);
+        }
+        // the acknowledgements of messages of older segments are still needed by the recovery
+        for (Map.Entry<Long, Long> acknowledgement : segment.acknowledgements.entrySet()) {
+            Segment messageSegment = segments.get(acknowledgement.getValue());
+            if (messageSegment != null && messageSegment != segment) {
+                this.append(ACKNOWLEDGEMENT_RECORD, acknowledgement.getKey(), EMPTY_DATA);
+                activeSegment.addAcknowledgement(acknowledgement.getKey(), messageSegment);
+                copied = true;
+            }
+        }
+        if (copied) {
+            channel.force(false);
+        }
+        Files.deleteIfExists(segment.file);
+        segments.remove(segment.number);
+        log.debug("The segment {} of the spool was deleted", segment.file);
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            List<Long> numbers;
+            try (Stream<Path> files = Files.list(directory)) {
+                numbers = files
+                    .map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_FILE_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+            }
+            for (Long number : numbers) {
+                Segment segment = new Segment(number, this.segmentFile(number));
+                segments.put(number, segment);
+                this.replay(segment);
+            }
+            if (segments.isEmpty()) {
+                segments.put(1L, new Segment(1L, this.segmentFile(1L)));
+            }
+            activeSegment = segments.lastEntry().getValue();
+            channel = FileChannel.open(activeSegment.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // the damaged tail of the segment is cut off
+            channel.truncate(activeSegment.size);
+        } catch (IOException | NumberFormatException e) {
+            throw new SpoolException("The spool " + directory + " couldn't be recovered: " + e.getMessage(), e);
+        }
+    }
+
+    private void replay(Segment segment) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment.file)))) {
+            long fileSize = Files.size(segment.file);
+            long position = 0;
+            while (position < fileSize) {
+                if (fileSize - position < RECORD_HEADER_SIZE + RECORD_CHECKSUM_SIZE) {
+                    break;
+                }
+                byte type = input.readByte();
+                long id = input.readLong();
+                int length = input.readInt();
+                if (length < 0 || length > fileSize - position - RECORD_HEADER_SIZE - RECORD_CHECKSUM_SIZE) {
+                    break;
+                }
+                byte[] data = new byte[length];
+                input.readFully(data);
+                int storedChecksum = input.readInt();
+
+                ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+                header.put(type).putLong(id).putInt(length);
+                CRC32 checksum = new CRC32();
+                checksum.update(header.array());
+                checksum.update(data);
+                if ((int) checksum.getValue() != storedChecksum) {
+                    break;
+                }
+                this.apply(segment, type, id, position + RECORD_HEADER_SIZE, length);
+                position += RECORD_HEADER_SIZE + length + RECORD_CHECKSUM_SIZE;
+            }
+            segment.size = position;
+            if (position < fileSize) {
+                log.warn("The segment {} of the spool is damaged at the position {}. The rest is ignored",
+                    segment.file,
+                    position
+                );
+            }
+        }
+    }
+
+    private void apply(Segment segment, byte type, long id, long position, int length) {
+        if (type == NEXT_ID_RECORD) {
+            nextId = Math.max(nextId, id);
+            return;
+        }
+        nextId = Math.max(nextId, id + 1);
+        Entry entry = entries.get(id);
+        if (type == ACKNOWLEDGEMENT_RECORD) {
+            if (entry != null) {
+                entries.remove(id);
+                entry.segment.removeLive(entry);
+                segment.addAcknowledgement(id, entry.segment);
+            }
+            return;
+        }
+        if (entry != null) {
+            // the message was copied by the compaction
+            entry.segment.removeLive(entry);
+            entry.segment = segment;
+            entry.position = position;
+        } else {
+            entry = new Entry(id, segment, position, length);
+            entries.put(id, entry);
+        }
+        segment.addLive(entry);
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve(String.format("%020d%s", number, SEGMENT_FILE_SUFFIX));
+    }
+
+    /**
+     * Functional interface for delivering spooled messages.
+     */
+    @FunctionalInterface
+    public interface Delivery {
+
+        /**
+         * Delivers the raw (RFC 822) message.
+         *
+         * @param message the raw message
+         *
+         * @throws MessagingException if the message couldn't be delivered. The delivery will be retried.
+         */
+        void deliver(byte[] message) throws MessagingException;
+    }
+
+    private static final class Segment {
+
+        private final long number;
+        private final Path file;
+        /** The segment numbers of the message records by the identifiers of the acknowledged messages. **/
+        private final Map<Long, Long> acknowledgements = new HashMap<>();
+        private long size = 0;
+        private int liveCount = 0;
+        private long liveSize = 0;
+
+        private Segment(long number, Path file) {
+            this.number = number;
+            this.file = file;
+        }
+
+        private void addLive(Entry entry) {
+            liveCount++;
+            liveSize += entry.length;
+        }
+
+        private void removeLive(Entry entry) {
+            liveCount--;
+            liveSize -= entry.length;
+        }
+
+        private void addAcknowledgement(long id, Segment messageSegment) {
+            if (messageSegment != this) {
+                acknowledgements.put(id, messageSegment.number);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final long id;
+        private final int length;
+        private Segment segment;
+        private long position;
+        private int attempts = 0;
+
+        private Entry(long id, Segment segment, long position, int length) {
+            this.id = id;
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
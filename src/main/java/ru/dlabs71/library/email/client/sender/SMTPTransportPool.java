@@ -0,0 +1,276 @@
+package ru.dlabs71.library.email.client.sender;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The bounded pool of connected {@link Transport} instances. All the transports are created by the same
+ * {@link Session}, so one authenticated connection can carry many messages instead of opening a new connection
+ * for every message.
+ *
+ * <p>The pool works as follows:
+ * <ul>
+ *     <li>a transport is validated when it is borrowed. The validation is made by the
+ *     {@link Transport#isConnected()} method, which sends the NOOP command (or RSET if the
+ *     'mail.smtp.userset' property is set) to the server;</li>
+ *     <li>transports, which have been idle for longer than the idle timeout, are closed and evicted;</li>
+ *     <li>a broken transport is closed and a new one will be created by the next borrowing.</li>
+ * </ul>
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class SMTPTransportPool implements AutoCloseable {
+
+    private final Session session;
+    private final String protocolName;
+    @Getter
+    private final int maxSize;
+    @Getter
+    private final long idleTimeout;
+    private final long borrowTimeout;
+    private final Semaphore permits;
+
+    /** Idle transports. The most recently used transport is the first. Guarded by {@code this}. **/
+    private final Deque<PooledTransport> idleTransports = new ArrayDeque<>();
+    private volatile boolean closed = false;
+
+    /**
+     * The constructor of this class.
+     *
+     * @param session       a session for creating transports
+     * @param protocolName  a protocol name of transports (For example: smtp)
+     * @param maxSize       the maximum number of transports, which can be borrowed at the same time
+     * @param idleTimeout   time in milliseconds after which an idle transport will be closed
+     * @param borrowTimeout time in milliseconds to wait for a free transport when the pool is exhausted
+     */
+    public SMTPTransportPool(
+        Session session,
+        String protocolName,
+        int maxSize,
+        long idleTimeout,
+        long borrowTimeout
+    ) {
+        JavaCoreUtils.notNullArgument(session, "session");
+        JavaCoreUtils.notNullArgument(protocolName, "protocolName");
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The size of the transport pool must be greater than 0");
+        }
+        this.session = session;
+        this.protocolName = protocolName;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrows a connected transport from the pool. If there are no idle transports, then a new one will be created
+     * and connected. Each borrowed transport must be returned by the {@link #release(Transport, boolean)} method.
+     *
+     * @return a connected transport
+     *
+     * @throws MessagingException if the pool is exhausted for longer than the borrow timeout,
+     *                            or a new transport couldn't be connected
+     */
+    public Transport borrow() throws MessagingException {
+        if (closed) {
+            throw new MessagingException("The transport pool is closed");
+        }
+        this.acquirePermit();
+        try {
+            PooledTransport pooled;
+            while ((pooled = this.pollIdle()) != null) {
+                if (pooled.isExpired(System.currentTimeMillis(), idleTimeout)) {
+                    log.debug("The idle transport {} is expired. It'll be closed", pooled.getTransport());
+                    closeQuietly(pooled.getTransport());
+                    continue;
+                }
+                if (pooled.getTransport().isConnected()) {
+                    log.debug("The idle transport {} is borrowed", pooled.getTransport());
+                    return pooled.getTransport();
+                }
+                log.debug("The idle transport {} is broken. It'll be closed", pooled.getTransport());
+                closeQuietly(pooled.getTransport());
+            }
+            Transport transport = session.getTransport(protocolName);
+            transport.connect();
+            log.debug("A new transport {} was connected", transport);
+            return transport;
+        } catch (MessagingException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the borrowed transport to the pool.
+     *
+     * @param transport the borrowed transport
+     * @param broken    true if the transport must not be used anymore. It'll be closed.
+     */
+    public void release(Transport transport, boolean broken) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            if (broken || closed) {
+                log.debug("The transport {} is discarded", transport);
+                closeQuietly(transport);
+            } else {
+                synchronized (this) {
+                    idleTransports.addFirst(new PooledTransport(transport, System.currentTimeMillis()));
+                }
+            }
+            this.evictIdle();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Borrows a transport, executes the callback and returns the transport to the pool. If the callback fails,
+     * then the transport is validated. If it is disconnected, it'll be discarded.
+     *
+     * @param callback the function to be executed using a transport
+     * @param <R>      a type of the result
+     *
+     * @return the result of the callback
+     *
+     * @throws MessagingException if borrowing a transport or the callback has failed
+     */
+    public <R> R execute(TransportCallback<R> callback) throws MessagingException {
+        Transport transport = this.borrow();
+        boolean broken = false;
+        try {
+            return callback.apply(transport);
+        } catch (MessagingException | RuntimeException ex) {
+            broken = !isConnectedQuietly(transport);
+            throw ex;
+        } finally {
+            this.release(transport, broken);
+        }
+    }
+
+    /**
+     * Closes all the idle transports, which have been idle for longer than the idle timeout.
+     */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<Transport> expired = new ArrayList<>();
+        synchronized (this) {
+            while (!idleTransports.isEmpty() && idleTransports.peekLast().isExpired(now, idleTimeout)) {
+                expired.add(idleTransports.pollLast().getTransport());
+            }
+        }
+        expired.forEach(SMTPTransportPool::closeQuietly);
+        if (!expired.isEmpty()) {
+            log.debug("{} idle transports were evicted", expired.size());
+        }
+    }
+
+    /**
+     * Returns the number of idle transports in the pool.
+     */
+    public synchronized int getIdleCount() {
+        return idleTransports.size();
+    }
+
+    /**
+     * Returns the number of borrowed transports.
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * Closes all the idle transports. Transports, which are borrowed now, will be closed after returning.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        List<Transport> transports = new ArrayList<>();
+        synchronized (this) {
+            idleTransports.forEach(item -> transports.add(item.getTransport()));
+            idleTransports.clear();
+        }
+        transports.forEach(SMTPTransportPool::closeQuietly);
+        log.debug("The transport pool is closed");
+    }
+
+    private synchronized PooledTransport pollIdle() {
+        return idleTransports.pollFirst();
+    }
+
+    private void acquirePermit() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException(
+                    "There is no available transport in the pool. Waiting time is " + borrowTimeout + " ms");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Waiting for a transport was interrupted", ex);
+        }
+    }
+
+    private static boolean isConnectedQuietly(Transport transport) {
+        try {
+            return transport.isConnected();
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException | RuntimeException ex) {
+            log.warn("The transport couldn't be closed because of the following error: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Functional interface for using in the {@linkplain SMTPTransportPool#execute(TransportCallback)}.
+     *
+     * @param <R> returned type
+     */
+    @FunctionalInterface
+    public interface TransportCallback<R> {
+
+        R apply(Transport transport) throws MessagingException;
+    }
+
+    /**
+     * The idle transport with the time of its last using.
+     */
+    @Getter
+    private static class PooledTransport {
+
+        private final Transport transport;
+        private final long lastUsedTime;
+
+        PooledTransport(Transport transport, long lastUsedTime) {
+            this.transport = transport;
+            this.lastUsedTime = lastUsedTime;
+        }
+
+        boolean isExpired(long now, long idleTimeout) {
+            return idleTimeout > 0 && now - lastUsedTime > idleTimeout;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package ru.dlabs71.library.email.client.sender;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import ru.dlabs71.library.email.client.DClient;
 import ru.dlabs71.library.email.dto.message.outgoing.OutgoingMessage;
+import ru.dlabs71.library.email.exception.ValidationMessageException;
 import ru.dlabs71.library.email.type.SendingStatus;
 
 /**
@@ -13,7 +18,7 @@ import ru.dlabs71.library.email.type.SendingStatus;
  * @author Ivanov Danila
  * @since 1.0.0
  */
-public interface SenderDClient extends DClient {
+public interface SenderDClient extends DClient, AutoCloseable {
 
     /**
      * It sends to message.
@@ -23,4 +28,59 @@ public interface SenderDClient extends DClient {
      * @return the result status {@link SendingStatus}
      */
     SendingStatus send(OutgoingMessage message);
+
+    /**
+     * It puts the message to the queue of the client, and the message is sent later. By default, the client
+     * doesn't have a queue, and the message is sent at once.
+     *
+     * @param message the message object
+     *
+     * @return the status {@link SendingStatus#SUCCESS} if the message was queued or the result status of sending
+     */
+    default SendingStatus enqueue(OutgoingMessage message) {
+        return this.send(message);
+    }
+
+    /**
+     * It sends all the messages one by one. A failed message doesn't abort sending other messages.
+     *
+     * @param messages the collection of messages
+     *
+     * @return the map of the messages and their statuses {@link SendingStatus} in the order of sending
+     */
+    default Map<OutgoingMessage, SendingStatus> sendAll(Collection<? extends OutgoingMessage> messages) {
+        return this.sendAll(messages.iterator());
+    }
+
+    /**
+     * It sends all the messages one by one. A failed message doesn't abort sending other messages.
+     * An invalid message gets the {@link SendingStatus#ERROR_IN_MESSAGE} status.
+     *
+     * <p>The messages are the keys of the result map, so if the same instance of a message is sent twice,
+     * then the map contains the status of the last sending.
+     *
+     * @param messages the iterator of messages. Messages are read lazily
+     *
+     * @return the map of the messages and their statuses {@link SendingStatus} in the order of sending
+     */
+    default Map<OutgoingMessage, SendingStatus> sendAll(Iterator<? extends OutgoingMessage> messages) {
+        Map<OutgoingMessage, SendingStatus> result = new LinkedHashMap<>();
+        while (messages.hasNext()) {
+            OutgoingMessage message = messages.next();
+            try {
+                result.put(message, this.send(message));
+            } catch (ValidationMessageException ex) {
+                result.put(message, SendingStatus.ERROR_IN_MESSAGE);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Releases all the resources (connections, threads, etc.) held by the client.
+     * By default, it does nothing.
+     */
+    @Override
+    default void close() {
+    }
 }
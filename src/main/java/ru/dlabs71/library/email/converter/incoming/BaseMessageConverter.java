@@ -8,8 +8,10 @@ import jakarta.mail.Address;
 import jakarta.mail.Flags;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
+import java.nio.file.Path;
 import java.util.List;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
@@ -51,9 +53,60 @@ public class BaseMessageConverter {
             return null;
         }
         BaseMessage baseMessage = convertEnvelopData(message);
+        setContentAndAttachments(baseMessage, MessagePartConverter.getContent(message));
+        return baseMessage;
+    }
 
-        MessagePartConverter.ContentAndAttachments data = MessagePartConverter.getContent(message);
+    /**
+     * It converts a message to a BaseMessage instance. Attachments larger than the spill threshold are streamed
+     * to temporary files instead of the memory. The files are deleted when the message is closed.
+     *
+     * @param message        the source message
+     * @param spillThreshold the size in bytes, above which an attachment is written to a temporary file.
+     *                       Zero or a negative value disables writing to files.
+     * @param spillDirectory the directory for temporary files or null for the default temporary-file directory
+     *
+     * @return the instance of the BaseMessage class
+     */
+    public BaseMessage convert(Message message, long spillThreshold, Path spillDirectory) {
+        log.debug("Starts convert jakarta Message to BaseMessage. Jakarta Message is {}", message);
+        if (message == null) {
+            return null;
+        }
+        BaseMessage baseMessage = convertEnvelopData(message);
+        setContentAndAttachments(
+            baseMessage,
+            MessagePartConverter.getContent(message, spillThreshold, spillDirectory)
+        );
+        return baseMessage;
+    }
 
+    /**
+     * It converts a message to a BaseMessage instance without loading the contents and attachments. The attachments
+     * have the name, type and size at once, and the contents and the data of the attachments are loaded from
+     * the server when they are accessed. So the folder of the message must be open at that time.
+     *
+     * <p>Prefetch the structure of IMAP messages using the {@link jakarta.mail.FetchProfile.Item#CONTENT_INFO} item,
+     * so that all the structures are got by one request.
+     *
+     * @param message the source message
+     *
+     * @return the instance of the BaseMessage class
+     */
+    public BaseMessage convertLazily(Message message) {
+        log.debug("Starts lazy convert jakarta Message to BaseMessage. Jakarta Message is {}", message);
+        if (message == null) {
+            return null;
+        }
+        BaseMessage baseMessage = convertEnvelopData(message);
+        setContentAndAttachments(baseMessage, MessagePartConverter.getLazyContent(message));
+        return baseMessage;
+    }
+
+    private void setContentAndAttachments(
+        BaseMessage baseMessage,
+        MessagePartConverter.ContentAndAttachments data
+    ) {
         List<ContentMessage> textContents = data.getContentByType(TEXT_CONTENT_TYPE);
         List<ContentMessage> htmlContents = data.getContentByType(HTML_CONTENT_TYPE);
 
@@ -67,7 +120,6 @@ public class BaseMessageConverter {
             htmlContents.size(),
             data.getAttachments().size()
         );
-        return baseMessage;
     }
 
     /**
@@ -85,6 +137,75 @@ public class BaseMessageConverter {
         return new DefaultIncomingMessage(baseMessage);
     }
 
+    /**
+     * It converts a message to a DefaultIncomingMessage instance. See the {@link #convert(Message, long, Path)}
+     * method.
+     *
+     * @param message        the source message
+     * @param spillThreshold the size in bytes, above which an attachment is written to a temporary file.
+     *                       Zero or a negative value disables writing to files.
+     * @param spillDirectory the directory for temporary files or null for the default temporary-file directory
+     *
+     * @return the instance of the DefaultIncomingMessage class
+     */
+    public DefaultIncomingMessage convertToIncomingMessage(
+        Message message,
+        long spillThreshold,
+        Path spillDirectory
+    ) {
+        if (message == null) {
+            return null;
+        }
+        BaseMessage baseMessage = convert(message, spillThreshold, spillDirectory);
+        return new DefaultIncomingMessage(baseMessage);
+    }
+
+    /**
+     * It converts a message to a DefaultIncomingMessage instance. The envelope data (ID, UID, flags, dates, etc.)
+     * is taken from the message, and the contents and attachments are taken from the source part. For example,
+     * the source part can be a copy of the message read from a local cache.
+     *
+     * @param message        the source message of the envelope data
+     * @param source         the source part of the contents and attachments
+     * @param spillThreshold the size in bytes, above which an attachment is written to a temporary file.
+     *                       Zero or a negative value disables writing to files.
+     * @param spillDirectory the directory for temporary files or null for the default temporary-file directory
+     *
+     * @return the instance of the DefaultIncomingMessage class
+     */
+    public DefaultIncomingMessage convertToIncomingMessage(
+        Message message,
+        Part source,
+        long spillThreshold,
+        Path spillDirectory
+    ) {
+        if (message == null) {
+            return null;
+        }
+        BaseMessage baseMessage = convertEnvelopData(message);
+        setContentAndAttachments(
+            baseMessage,
+            MessagePartConverter.getContent(source, spillThreshold, spillDirectory)
+        );
+        return new DefaultIncomingMessage(baseMessage);
+    }
+
+    /**
+     * It converts a message to a DefaultIncomingMessage instance without loading the contents and attachments.
+     * See the {@link #convertLazily(Message)} method.
+     *
+     * @param message the source message
+     *
+     * @return the instance of the DefaultIncomingMessage class
+     */
+    public DefaultIncomingMessage convertToIncomingMessageLazily(Message message) {
+        if (message == null) {
+            return null;
+        }
+        BaseMessage baseMessage = convertLazily(message);
+        return new DefaultIncomingMessage(baseMessage);
+    }
+
     /**
      * It converts a message to a BaseMessage instance without the content and attachments.
      *
@@ -99,6 +220,7 @@ public class BaseMessageConverter {
         }
         BaseMessage baseMessage = new BaseMessage();
         baseMessage.setId(message.getMessageNumber());
+        baseMessage.setUid(MessagePartConverter.getUid(message));
         baseMessage.setRecipients(MessagePartConverter.getRecipients(message));
 
         try {
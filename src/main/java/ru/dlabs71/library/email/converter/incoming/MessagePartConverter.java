@@ -1,10 +1,13 @@
 package ru.dlabs71.library.email.converter.incoming;
 
+import jakarta.activation.DataSource;
 import jakarta.mail.Address;
+import jakarta.mail.Folder;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Multipart;
 import jakarta.mail.Part;
+import jakarta.mail.UIDFolder;
 import jakarta.mail.internet.ContentType;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.ParseException;
@@ -14,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -21,7 +25,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +33,7 @@ import ru.dlabs71.library.email.dto.message.common.EmailAttachment;
 import ru.dlabs71.library.email.dto.message.common.EmailParticipant;
 import ru.dlabs71.library.email.exception.CheckEmailException;
 import ru.dlabs71.library.email.exception.ReadMessageException;
+import ru.dlabs71.library.email.mime.TempFileDataSource;
 import ru.dlabs71.library.email.type.AttachmentType;
 import ru.dlabs71.library.email.util.EmailMessageUtils;
 import ru.dlabs71.library.email.util.JavaCoreUtils;
@@ -48,6 +52,34 @@ import ru.dlabs71.library.email.util.JavaCoreUtils;
 @UtilityClass
 public class MessagePartConverter {
 
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int MAX_HEAD_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Returns the UID of the message in its folder. If the folder doesn't support UIDs or the UID
+     * couldn't be got, then it returns null.
+     *
+     * @param message the message from Java API
+     *
+     * @return the UID of the message or null
+     */
+    public Long getUid(Message message) {
+        if (message == null) {
+            return null;
+        }
+        Folder folder = message.getFolder();
+        if (!(folder instanceof UIDFolder) || !folder.isOpen()) {
+            return null;
+        }
+        try {
+            long uid = ((UIDFolder) folder).getUID(message);
+            return uid < 0 ? null : uid;
+        } catch (MessagingException | RuntimeException e) {
+            log.warn("The attempt to get the UID of the message has failed: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Returns a Set of {@link EmailParticipant} from message recipients have the type
      * {@link jakarta.mail.Message.RecipientType#TO}.
@@ -90,11 +122,32 @@ public class MessagePartConverter {
      * @return an object of the class {@link EmailAttachment}
      */
     public EmailAttachment getAttachment(Part part) {
+        return getAttachment(part, 0, null);
+    }
+
+    /**
+     * Converts the part of a {@link jakarta.mail.Message} to an object of the class {@link EmailAttachment}.
+     * If the decoded content is larger than the spill threshold, then it's streamed to a temporary file
+     * instead of the memory, and the attachment is backed by a {@link TempFileDataSource}. The file is deleted
+     * when the message is closed (see {@link ru.dlabs71.library.email.dto.message.incoming.IncomingMessage#close()}).
+     *
+     * @param part           the part of a {@link jakarta.mail.Message}
+     * @param spillThreshold the size in bytes, above which the content is written to a temporary file.
+     *                       Zero or a negative value disables writing to files.
+     * @param spillDirectory the directory for temporary files or null for the default temporary-file directory
+     *
+     * @return an object of the class {@link EmailAttachment}
+     */
+    public EmailAttachment getAttachment(Part part, long spillThreshold, Path spillDirectory) {
         log.debug("Starts converting attachment from the Part {}", part);
         if (part == null) {
             return null;
         }
         try {
+            int partSize = part.getSize();
+            if (spillThreshold > 0 && (partSize < 0 || partSize > spillThreshold)) {
+                return spillAttachment(part, partSize, spillThreshold, spillDirectory);
+            }
             byte[] content = getContentDefaultAsBytes(part);
             log.debug("Content length of the part message: {}", content.length);
             return EmailAttachment.builder()
@@ -112,6 +165,164 @@ public class MessagePartConverter {
         }
     }
 
+    /**
+     * Streams the decoded content of the part to a temporary file. The content is read into the memory until
+     * the threshold is reached, so the file is created only for contents, which are really larger than the threshold.
+     * The size of the part is the size of the encoded content, so the decoded content may be smaller. In that case
+     * the already read content is returned in the memory, and the part isn't read again.
+     *
+     * @return the attachment backed by a temporary file or by the read content if it isn't larger than the threshold
+     */
+    private EmailAttachment spillAttachment(Part part, int partSize, long spillThreshold, Path spillDirectory)
+        throws MessagingException {
+        String name = EmailMessageUtils.decodeData(part.getFileName());
+        String contentType = EmailMessageUtils.decodeData(part.getContentType());
+        long headLimit = spillThreshold + 1;
+        // the buffer grows as the data arrives, so unknown and small sizes don't allocate the whole threshold
+        int initialSize = (int) Math.min(partSize > 0 ? partSize : READ_BUFFER_SIZE, headLimit);
+        try (InputStream is = part.getInputStream()) {
+            ByteArrayOutputStream head = new ByteArrayOutputStream(initialSize);
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int read;
+            while (head.size() < headLimit && head.size() < MAX_HEAD_SIZE
+                && (read = is.read(buffer, 0, (int) Math.min(buffer.length, headLimit - head.size()))) != -1) {
+                head.write(buffer, 0, read);
+            }
+            if (head.size() <= spillThreshold) {
+                log.debug("Content length of the part message: {}", head.size());
+                return EmailAttachment.builder()
+                    .name(name)
+                    .data(head.toByteArray())
+                    .type(AttachmentType.find(part.getContentType()))
+                    .contentType(contentType)
+                    .size(head.size())
+                    .build();
+            }
+            TempFileDataSource dataSource = TempFileDataSource.create(
+                head.toByteArray(),
+                is,
+                spillDirectory,
+                name,
+                contentType
+            );
+            long size = dataSource.getSize();
+            log.debug("The attachment {} with size {} was written to the file {}", name, size, dataSource.getPath());
+            return EmailAttachment.builder()
+                .name(name)
+                .dataSource(dataSource)
+                .type(AttachmentType.find(part.getContentType()))
+                .contentType(contentType)
+                .size(size > Integer.MAX_VALUE ? null : (int) size)
+                .build();
+        } catch (IOException e) {
+            throw new ReadMessageException(
+                "An error occurred in writing the attachment to a temporary file: " + e.getMessage(),
+                e
+            );
+        }
+    }
+
+    /**
+     * Converts the part of a {@link jakarta.mail.Message} to an object of the class {@link EmailAttachment}
+     * without loading its content. The name, type and size are taken from the part headers (for an IMAP message they
+     * are taken from the BODYSTRUCTURE response). The content is loaded when it's accessed.
+     *
+     * @param part the part of a {@link jakarta.mail.Message}
+     *
+     * @return an object of the class {@link EmailAttachment}
+     */
+    public EmailAttachment getLazyAttachment(Part part) {
+        log.debug("Starts converting lazy attachment from the Part {}", part);
+        if (part == null) {
+            return null;
+        }
+        try {
+            return EmailAttachment.builder()
+                .name(EmailMessageUtils.decodeData(part.getFileName()))
+                .dataSource(part.getDataHandler().getDataSource())
+                .type(AttachmentType.find(part.getContentType()))
+                .contentType(EmailMessageUtils.decodeData(part.getContentType()))
+                .size(getSize(part))
+                .build();
+        } catch (MessagingException e) {
+            throw new ReadMessageException(
+                "An error occurred in getting attachments from the message: " + e.getMessage(),
+                e
+            );
+        }
+    }
+
+    /**
+     * Returns the special class {@link ContentAndAttachments}, which contains the message's body and attachments.
+     * Unlike the {@link #getContent(Part)} method, it walks only the structure of the message. The contents and
+     * attachments are loaded when they are accessed.
+     *
+     * @param part the income message
+     *
+     * @return an object of the class {@link ContentAndAttachments}
+     */
+    public ContentAndAttachments getLazyContent(Part part) {
+        ContentAndAttachments result = new ContentAndAttachments();
+        getLazyContent(part, result);
+        return result;
+    }
+
+    /**
+     * Gets all the lazy contents and attachments from the email message and fills in the 'result' argument.
+     *
+     * @param part   an email message
+     * @param result a container for result
+     */
+    public void getLazyContent(Part part, ContentAndAttachments result) {
+        log.debug("Gets lazy content from the email part {} and with result {}", part, result);
+        if (part == null) {
+            return;
+        }
+        try {
+            if (!Part.ATTACHMENT.equals(part.getDisposition())) {
+                // the content of multipart and nested messages is built from their structure
+                if (part.isMimeType("message/rfc822")) {
+                    getLazyContent((Message) part.getContent(), result);
+                    return;
+                }
+                if (part.isMimeType("multipart/*")) {
+                    Multipart mp = (Multipart) part.getContent();
+                    int count = mp.getCount();
+                    for (int i = 0; i < count; i++) {
+                        getLazyContent(mp.getBodyPart(i), result);
+                    }
+                    return;
+                }
+                if (part.isMimeType("text/*")) {
+                    result.addContent(part.getContentType(), part.getDataHandler().getDataSource(), getSize(part));
+                    return;
+                }
+            }
+
+            if (!AttachmentType.UNKNOWN.equals(AttachmentType.find(part.getContentType()))) {
+                result.addAttachment(getLazyAttachment(part));
+                return;
+            }
+
+            log.debug("The part has an unknown content type. It'll be added as content.");
+            result.addContent(part.getContentType(), part.getDataHandler().getDataSource(), getSize(part));
+        } catch (MessagingException | IOException e) {
+            throw new ReadMessageException(
+                "An error occurred in getting content from the message: " + e.getMessage(),
+                e
+            );
+        }
+    }
+
+    /**
+     * Returns the size of the part in bytes or null if the size is unknown. The size is taken from the part headers,
+     * so it may be the size of the encoded content.
+     */
+    private Integer getSize(Part part) throws MessagingException {
+        int size = part.getSize();
+        return size < 0 ? null : size;
+    }
+
     /**
      * Returns the special class {@link ContentAndAttachments}, which contains the message's body and attachments.
      *
@@ -125,6 +336,24 @@ public class MessagePartConverter {
         return result;
     }
 
+    /**
+     * Returns the special class {@link ContentAndAttachments}, which contains the message's body and attachments.
+     * Attachments larger than the spill threshold are written to temporary files
+     * (see {@link #getAttachment(Part, long, Path)}).
+     *
+     * @param part           the income message
+     * @param spillThreshold the size in bytes, above which an attachment is written to a temporary file.
+     *                       Zero or a negative value disables writing to files.
+     * @param spillDirectory the directory for temporary files or null for the default temporary-file directory
+     *
+     * @return an object of the class {@link ContentAndAttachments}
+     */
+    public ContentAndAttachments getContent(Part part, long spillThreshold, Path spillDirectory) {
+        ContentAndAttachments result = new ContentAndAttachments(spillThreshold, spillDirectory);
+        getContent(part, result);
+        return result;
+    }
+
 
     /**
      * Gets all the contents and attachments from the email message and fills in the 'result' argument.
@@ -179,7 +408,11 @@ public class MessagePartConverter {
             log.debug("The part is attachment with content type {}", part.getContentType());
             // check if the part is attachment
             if (!AttachmentType.UNKNOWN.equals(AttachmentType.find(part.getContentType()))) {
-                EmailAttachment attachment = getAttachment(part);
+                EmailAttachment attachment = getAttachment(
+                    part,
+                    result.getSpillThreshold(),
+                    result.getSpillDirectory()
+                );
                 if (attachment != null) {
                     result.addAttachment(attachment);
                     return;
@@ -293,6 +526,27 @@ public class MessagePartConverter {
 
         private final List<Content> contents = new ArrayList<>();
         private final List<EmailAttachment> attachments = new ArrayList<>();
+        private final long spillThreshold;
+        private final Path spillDirectory;
+
+        /**
+         * The constructor of this class. Attachments are kept in the memory.
+         */
+        public ContentAndAttachments() {
+            this(0, null);
+        }
+
+        /**
+         * The constructor of this class.
+         *
+         * @param spillThreshold the size in bytes, above which an attachment is written to a temporary file.
+         *                       Zero or a negative value disables writing to files.
+         * @param spillDirectory the directory for temporary files or null for the default temporary-file directory
+         */
+        public ContentAndAttachments(long spillThreshold, Path spillDirectory) {
+            this.spillThreshold = spillThreshold;
+            this.spillDirectory = spillDirectory;
+        }
 
         /**
          * Adds content to list of contents.
@@ -304,6 +558,17 @@ public class MessagePartConverter {
             this.contents.add(new Content(contentType, data));
         }
 
+        /**
+         * Adds content, which is loaded when it's accessed, to list of contents.
+         *
+         * @param contentType a value of Content-Type header for this content
+         * @param dataSource  the source of the content
+         * @param size        the size of the content or null if it's unknown
+         */
+        public void addContent(String contentType, DataSource dataSource, Integer size) {
+            this.contents.add(new Content(contentType, dataSource, size));
+        }
+
         /**
          * Adds attachment to the corresponding list.
          *
@@ -323,10 +588,10 @@ public class MessagePartConverter {
          * @return string from contents separated by the '\n'
          */
         public List<ContentMessage> getContentByType(String contentType) {
-            return this.contents.stream().filter(item -> item.isMimeType(contentType)).map(item -> new ContentMessage(
-                item.getData(),
-                item.getContentType()
-            )).collect(Collectors.toList());
+            return this.contents.stream()
+                .filter(item -> item.isMimeType(contentType))
+                .map(Content::toContentMessage)
+                .collect(Collectors.toList());
         }
 
         /**
@@ -349,11 +614,46 @@ public class MessagePartConverter {
      * Inner class describing a content of a message.
      */
     @Getter
-    @AllArgsConstructor
     public static class Content {
 
         private String contentType;
         private String data;
+        private DataSource dataSource;
+        private Integer size;
+
+        /**
+         * The constructor of this class.
+         *
+         * @param contentType a value of Content-Type header for this content
+         * @param data        a content as string
+         */
+        public Content(String contentType, String data) {
+            this.contentType = contentType;
+            this.data = data;
+        }
+
+        /**
+         * The constructor of this class for the content, which is loaded when it's accessed.
+         *
+         * @param contentType a value of Content-Type header for this content
+         * @param dataSource  the source of the content
+         * @param size        the size of the content or null if it's unknown
+         */
+        public Content(String contentType, DataSource dataSource, Integer size) {
+            this.contentType = contentType;
+            this.dataSource = dataSource;
+            this.size = size;
+        }
+
+        /**
+         * Converts the content to an instance of the {@link ContentMessage} class.
+         */
+        public ContentMessage toContentMessage() {
+            if (dataSource != null) {
+                return new ContentMessage(dataSource, contentType, size);
+            }
+            return new ContentMessage(data, contentType);
+        }
 
         /**
          * Returns true if the content type pattern matches the content type in this class.
@@ -46,6 +46,7 @@ public class MessageViewConverter {
         }
         MessageView.MessageViewBuilder builder = MessageView.builder();
         builder.id(message.getMessageNumber());
+        builder.uid(MessagePartConverter.getUid(message));
         builder.recipients(MessagePartConverter.getRecipients(message));
         log.debug("Recipients converted successfully");
 
@@ -0,0 +1,226 @@
+package ru.dlabs71.library.email.converter.outgoing;
+
+import static ru.dlabs71.library.email.util.ProtocolUtils.CONTENT_TRANSFER_ENCODING_HDR;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetHeaders;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeUtility;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.dto.message.common.EmailAttachment;
+
+/**
+ * The cache of encoded attachments. When the same attachment (for example, terms of service) is sent by thousands
+ * of messages, it's encoded (usually by the base64 encoding) only once. The next messages get a body part backed by
+ * the encoded content, and the content is written to the server as is, without encoding it again.
+ *
+ * <p>An attachment is identified by the SHA-256 hash of its data together with its name and content type. The data
+ * is hashed for every message, so a changed or reused data array never gets the encoded content of the previous
+ * data. Attachments backed by a data source aren't cached, because they are streamed instead of being loaded
+ * into memory.
+ *
+ * <p>The cache is bounded by the total size of the encoded contents. The least recently used attachments
+ * are evicted, when the size is exceeded.
+ *
+ * <p>The class is thread-safe.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class EncodedAttachmentCache {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final long maxSize;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /** The encoded attachments in the order of access. Guarded by {@code this}. **/
+    private final LinkedHashMap<String, EncodedAttachment> attachments = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+
+    /**
+     * The constructor of this class.
+     *
+     * @param maxSize the maximum total size in bytes of the encoded contents. It must be greater than 0.
+     */
+    public EncodedAttachmentCache(long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The size of the attachment cache must be greater than 0");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns true if the attachment can be cached. Only attachments with the data in memory are cached.
+     */
+    public static boolean isCacheable(EmailAttachment attachment) {
+        return attachment != null && attachment.getDataSource() == null && !attachment.isEmpty();
+    }
+
+    /**
+     * Returns a new body part of the attachment backed by the encoded content from the cache. If the attachment
+     * isn't cached, then the body part is created by the factory, and its content is encoded and cached.
+     * Every call returns a new body part, so it can be changed and added to one message only.
+     *
+     * @param attachment the attachment with the data in memory
+     * @param factory    the function creating a body part of the attachment
+     *
+     * @return the body part with the encoded content
+     *
+     * @throws MessagingException if encoding the body part failed
+     */
+    public MimeBodyPart getPart(EmailAttachment attachment, Supplier<MimeBodyPart> factory)
+        throws MessagingException {
+        if (!isCacheable(attachment)) {
+            throw new IllegalArgumentException("The attachment " + attachment + " can't be cached");
+        }
+        String key = getKey(attachment);
+        EncodedAttachment encoded;
+        synchronized (this) {
+            encoded = attachments.get(key);
+        }
+        if (encoded != null) {
+            hitCount.incrementAndGet();
+            return encoded.createPart();
+        }
+        missCount.incrementAndGet();
+        // concurrent misses of the same attachment encode it several times, but it's cached once
+        encoded = encode(factory.get());
+        this.put(key, encoded);
+        return encoded.createPart();
+    }
+
+    /**
+     * Returns the number of attachments in the cache.
+     */
+    public synchronized int getCount() {
+        return attachments.size();
+    }
+
+    /**
+     * Returns the total size in bytes of the encoded contents in the cache.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of attachments taken from the cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of attachments encoded because they weren't in the cache.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Removes all the attachments from the cache.
+     */
+    public synchronized void clear() {
+        attachments.clear();
+        size = 0;
+    }
+
+    private synchronized void put(String key, EncodedAttachment encoded) {
+        if (encoded.getSize() > maxSize) {
+            log.debug("The encoded attachment is too large for caching: {} bytes", encoded.getSize());
+            return;
+        }
+        EncodedAttachment previous = attachments.put(key, encoded);
+        if (previous != null) {
+            size -= previous.getSize();
+        }
+        size += encoded.getSize();
+        Iterator<EncodedAttachment> eldest = attachments.values().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            size -= eldest.next().getSize();
+            eldest.remove();
+        }
+    }
+
+    private static String getKey(EmailAttachment attachment) {
+        // the data is hashed every time, because an array can be changed or reused by the caller
+        String dataDigest = digest(attachment.getData());
+        // the headers are a part of the key, so the same data with different names are different attachments
+        return dataDigest + '\n' + attachment.getContentType() + '\n' + attachment.getName();
+    }
+
+    private static String digest(byte[] data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            return Base64.getEncoder().encodeToString(digest.digest(data));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("The digest algorithm " + DIGEST_ALGORITHM + " isn't supported", ex);
+        }
+    }
+
+    private static EncodedAttachment encode(MimeBodyPart part) throws MessagingException {
+        String encoding = part.getEncoding();
+        if (encoding == null) {
+            encoding = MimeUtility.getEncoding(part.getDataHandler());
+            part.setHeader(CONTENT_TRANSFER_ENCODING_HDR, encoding);
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try {
+            OutputStream encoder = MimeUtility.encode(content, encoding);
+            part.getDataHandler().writeTo(encoder);
+            encoder.flush();
+        } catch (IOException ex) {
+            throw new MessagingException("The attachment couldn't be encoded. " + ex.getMessage(), ex);
+        }
+        List<String> headerLines = new ArrayList<>();
+        Enumeration<String> lines = part.getAllHeaderLines();
+        while (lines.hasMoreElements()) {
+            headerLines.add(lines.nextElement());
+        }
+        return new EncodedAttachment(headerLines, content.toByteArray());
+    }
+
+    /**
+     * The headers and the encoded content of an attachment.
+     */
+    private static final class EncodedAttachment {
+
+        private final List<String> headerLines;
+        private final byte[] content;
+
+        EncodedAttachment(List<String> headerLines, byte[] content) {
+            this.headerLines = headerLines;
+            this.content = content;
+        }
+
+        long getSize() {
+            return content.length;
+        }
+
+        MimeBodyPart createPart() throws MessagingException {
+            InternetHeaders headers = new InternetHeaders();
+            headerLines.forEach(headers::addHeaderLine);
+            // the body part created by the encoded content writes it as is
+            return new MimeBodyPart(headers, content);
+        }
+    }
+}
@@ -51,6 +51,32 @@ public class JakartaMessageConverter {
         Session session,
         String emailFrom,
         String nameFrom
+    )
+        throws CreateMessageException, MessagingException {
+        return convert(message, session, emailFrom, nameFrom, null);
+    }
+
+    /**
+     * It converts an instance of the {@link OutgoingMessage} to the {@link Message}. The attachments are encoded
+     * once and taken from the cache by the next calls.
+     *
+     * @param message         an instance of the {@link OutgoingMessage}
+     * @param session         an instance of connection to email server. Needs to construct {@link MimeMessage}
+     * @param emailFrom       an email address a sender
+     * @param nameFrom        a real name of a sender
+     * @param attachmentCache the cache of encoded attachments or null if attachments aren't cached
+     *
+     * @return instance of the {@link Message}
+     *
+     * @throws CreateMessageException if the message's envelope creation failed
+     * @throws MessagingException     if any error while message creating
+     */
+    public Message convert(
+        OutgoingMessage message,
+        Session session,
+        String emailFrom,
+        String nameFrom,
+        EncodedAttachmentCache attachmentCache
     )
         throws CreateMessageException, MessagingException {
         if (message == null) {
@@ -74,7 +100,10 @@ public class JakartaMessageConverter {
         log.debug("Converts message contents successfully. Size is {}", parts.size());
 
         // It's creating and adding attachments of the message
-        List<BodyPart> attachments = JakartaMessagePartConverter.convertAttachmentParts(message);
+        List<BodyPart> attachments = JakartaMessagePartConverter.convertAttachmentParts(
+            message,
+            attachmentCache
+        );
         if (attachments != null) {
             for (BodyPart attachment : attachments) {
                 multipart.addBodyPart(attachment);
@@ -83,18 +83,36 @@ public class JakartaMessagePartConverter {
      * @throws CreateMessageException If creating a {@code BodyPart} instance failed
      */
     public List<BodyPart> convertAttachmentParts(OutgoingMessage message) throws CreateMessageException {
+        return convertAttachmentParts(message, null);
+    }
+
+    /**
+     * Converts all the attachments in the {@link OutgoingMessage} to a list of {@link BodyPart}. The attachments
+     * are encoded once and taken from the cache by the next calls.
+     *
+     * @param message an instance of the {@link OutgoingMessage}
+     * @param cache   the cache of encoded attachments or null if attachments aren't cached
+     *
+     * @return an instance of the {@link BodyPart} to uses in the {@link jakarta.mail.Message}.
+     *
+     * @throws CreateMessageException If creating a {@code BodyPart} instance failed
+     */
+    public List<BodyPart> convertAttachmentParts(OutgoingMessage message, EncodedAttachmentCache cache)
+        throws CreateMessageException {
         if (message == null || message.getAttachments() == null || message.getAttachments().isEmpty()) {
             return Collections.emptyList();
         }
         return message.getAttachments()
             .stream()
-            .map(JakartaMessagePartConverter::convertAttachmentPart)
+            .map(attachment -> convertAttachmentPart(attachment, cache))
             .filter(Objects::nonNull)
             .collect(Collectors.toList());
     }
 
     /**
-     * Converts an email attachment to a {@link BodyPart} instances.
+     * Converts an email attachment to a {@link BodyPart} instances. If the attachment is backed by
+     * a {@link DataSource}, then its content isn't loaded into memory. It'll be read from the data source while
+     * the message is being written.
      *
      * @param attachment an instance of the {@link EmailAttachment} class.
      *
@@ -103,12 +121,46 @@ public class JakartaMessagePartConverter {
      * @throws CreateMessageException If creating a {@code BodyPart} instance failed
      */
     public BodyPart convertAttachmentPart(EmailAttachment attachment) throws CreateMessageException {
-        if (attachment == null || attachment.getData() == null || attachment.getData().length == 0) {
+        if (attachment == null || attachment.isEmpty()) {
             return null;
         }
+        return createAttachmentPart(attachment);
+    }
+
+    /**
+     * Converts an email attachment to a {@link BodyPart} instances. If the attachment has the data in memory
+     * and the cache is set, then the attachment is encoded once, and the next calls return body parts backed by
+     * the encoded content from the cache. Such body parts are written to a server without encoding.
+     *
+     * @param attachment an instance of the {@link EmailAttachment} class.
+     * @param cache      the cache of encoded attachments or null if attachments aren't cached
+     *
+     * @return an instance of {@link BodyPart} for using in the {@link jakarta.mail.Message} class or its inheritors.
+     *
+     * @throws CreateMessageException If creating a {@code BodyPart} instance failed
+     */
+    public BodyPart convertAttachmentPart(EmailAttachment attachment, EncodedAttachmentCache cache)
+        throws CreateMessageException {
+        if (cache == null || !EncodedAttachmentCache.isCacheable(attachment)) {
+            return convertAttachmentPart(attachment);
+        }
+        try {
+            return cache.getPart(attachment, () -> createAttachmentPart(attachment));
+        } catch (MessagingException e) {
+            throw new CreateMessageException(
+                "Body part couldn't be created due to the following error: " + e.getMessage(),
+                e
+            );
+        }
+    }
+
+    private MimeBodyPart createAttachmentPart(EmailAttachment attachment) throws CreateMessageException {
         try {
             MimeBodyPart attachmentPart = new MimeBodyPart();
-            DataSource dataSource = new ByteArrayDataSource(attachment.getData(), attachment.getContentType());
+            DataSource dataSource = attachment.getDataSource();
+            if (dataSource == null) {
+                dataSource = new ByteArrayDataSource(attachment.getData(), attachment.getContentType());
+            }
             attachmentPart.setDataHandler(new DataHandler(dataSource));
             attachmentPart.setFileName(attachment.getName());
             attachmentPart.setHeader(CONTENT_TYPE_HDR, attachment.getContentType());
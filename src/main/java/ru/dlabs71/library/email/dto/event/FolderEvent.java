@@ -0,0 +1,31 @@
+package ru.dlabs71.library.email.dto.event;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.dlabs71.library.email.dto.message.incoming.MessageView;
+import ru.dlabs71.library.email.type.FolderEventType;
+
+/**
+ * The event of a mail folder. It's delivered to a {@link ru.dlabs71.library.email.client.receiver.FolderEventListener}
+ * by a folder subscription.
+ *
+ * <p>For the {@link FolderEventType#MESSAGES_REMOVED} events the messages contain only IDs and UIDs (if they are
+ * known), since the data of expunged messages isn't available anymore.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class FolderEvent {
+
+    private final FolderEventType type;
+    private final String folderName;
+    private final List<MessageView> messages;
+}
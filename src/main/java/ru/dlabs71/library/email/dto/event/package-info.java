@@ -0,0 +1,11 @@
+/**
+ * This package contains DTOs of events of mail folders.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+
+package ru.dlabs71.library.email.dto.event;
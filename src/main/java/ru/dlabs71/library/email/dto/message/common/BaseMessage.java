@@ -45,6 +45,8 @@ public class BaseMessage implements Message {
     private LocalDateTime sentDate;
     private LocalDateTime receivedDate;
 
+    private Long uid;
+
     /**
      * Add new content to the list contents.
      */
@@ -1,9 +1,14 @@
 package ru.dlabs71.library.email.dto.message.common;
 
+import jakarta.activation.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
 import lombok.Getter;
+import ru.dlabs71.library.email.exception.ReadMessageException;
 import ru.dlabs71.library.email.type.ContentMessageType;
 import ru.dlabs71.library.email.util.AttachmentUtils;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
 import ru.dlabs71.library.email.util.ProtocolUtils;
 
 /**
@@ -11,6 +16,9 @@ import ru.dlabs71.library.email.util.ProtocolUtils;
  *
  * <p>For simplifying attachment creation, use the {@link AttachmentUtils} utility class.
  *
+ * <p>The content of an incoming message can be backed by a {@link DataSource} ({@code dataSource}). Such content
+ * is loaded from the server only when the {@link #getData()} method is called for the first time.
+ *
  * <p>
  * <div><strong>Project name:</strong> d-email</div>
  * <div><strong>Creation date:</strong> 2023-10-16</div>
@@ -21,7 +29,8 @@ import ru.dlabs71.library.email.util.ProtocolUtils;
 @Getter
 public class ContentMessage {
 
-    private final String data;
+    private volatile String data;
+    private final DataSource dataSource;
     private final Charset charset;
     private final ContentMessageType type;
     private final Integer size;
@@ -37,6 +46,7 @@ public class ContentMessage {
      */
     public ContentMessage(String data, String contentType) {
         this.data = data;
+        this.dataSource = null;
         this.contentType = contentType;
         this.type = ContentMessageType.forContentType(contentType);
         String charset = ProtocolUtils.defineCharsetFromHeaderValue(contentType);
@@ -57,6 +67,7 @@ public class ContentMessage {
      */
     public ContentMessage(String data, String contentType, Charset charset) {
         this.data = data;
+        this.dataSource = null;
 
         if (charset != null) {
             this.contentType = ProtocolUtils.contentTypeWithCharset(contentType, charset);
@@ -75,6 +86,49 @@ public class ContentMessage {
         this.size = data.getBytes(this.charset).length;
     }
 
+    /**
+     * The constructor of this class for the content, which is loaded when it's accessed.
+     *
+     * <p>It tries to get charset from corresponding directive in a Content-Type header.
+     *
+     * @param dataSource  the source of the decoded content
+     * @param contentType a value of a Content-Type header
+     * @param size        the size of the content, which is known before loading, or null
+     */
+    public ContentMessage(DataSource dataSource, String contentType, Integer size) {
+        this.dataSource = dataSource;
+        this.contentType = contentType;
+        this.type = ContentMessageType.forContentType(contentType);
+        String charset = ProtocolUtils.defineCharsetFromHeaderValue(contentType);
+        if (charset != null) {
+            this.charset = Charset.forName(charset);
+        } else {
+            this.charset = Charset.defaultCharset();
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns the content. If the content is backed by a data source, then it's read once and kept in memory.
+     *
+     * @return the content
+     *
+     * @throws ReadMessageException if reading the data source failed
+     */
+    public String getData() {
+        String result = data;
+        if (result != null || dataSource == null) {
+            return result;
+        }
+        try (InputStream inputStream = dataSource.getInputStream()) {
+            result = new String(JavaCoreUtils.toByteArray(inputStream), charset);
+        } catch (IOException ex) {
+            throw new ReadMessageException("Reading the content of the message failed. " + ex.getMessage(), ex);
+        }
+        data = result;
+        return result;
+    }
+
     @Override
     public String toString() {
         return "ContentMessage{"
@@ -1,15 +1,24 @@
 package ru.dlabs71.library.email.dto.message.common;
 
+import jakarta.activation.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
 import lombok.Builder;
 import lombok.Getter;
+import ru.dlabs71.library.email.exception.AttachmentException;
 import ru.dlabs71.library.email.type.AttachmentType;
 import ru.dlabs71.library.email.util.AttachmentUtils;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
 
 /**
  * This class describes an email message attachment.
  *
  * <p>For simplifying attachment creation, use the {@link AttachmentUtils} utility class.
  *
+ * <p>The content of an attachment is kept either in memory ({@code data}) or in a {@link DataSource}
+ * ({@code dataSource}). An attachment backed by a data source (for example, by a file) isn't loaded into memory.
+ * Its content is streamed straight into the MIME encoder when the message is being sent.
+ *
  * <p>
  * <div><strong>Project name:</strong> d-email</div>
  * <div><strong>Creation date:</strong> 2023-09-01</div>
@@ -23,10 +32,40 @@ public class EmailAttachment {
 
     private final String name;
     private final byte[] data;
+    private final DataSource dataSource;
     private final AttachmentType type;
     private final String contentType;
     private final Integer size;
 
+    /**
+     * Returns the content of the attachment. If the attachment is backed by a data source, then the whole content
+     * is read into memory by every call. Use the {@link #getDataSource()} method for streaming the content.
+     *
+     * @return the content of the attachment
+     *
+     * @throws AttachmentException if reading the data source failed
+     */
+    public byte[] getData() {
+        if (data != null || dataSource == null) {
+            return data;
+        }
+        try (InputStream inputStream = dataSource.getInputStream()) {
+            return JavaCoreUtils.toByteArray(inputStream);
+        } catch (IOException ex) {
+            throw new AttachmentException("Reading the attachment " + name + " failed. " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Returns true if the attachment has no content.
+     */
+    public boolean isEmpty() {
+        if (dataSource != null) {
+            return size != null && size == 0;
+        }
+        return data == null || data.length == 0;
+    }
+
     @Override
     public String toString() {
         return "EmailAttachment{"
@@ -36,7 +36,8 @@ public class DefaultIncomingMessage extends BaseMessage implements IncomingMessa
             baseMessage.getSize(),
             baseMessage.isSeen(),
             baseMessage.getSentDate(),
-            baseMessage.getReceivedDate()
+            baseMessage.getReceivedDate(),
+            baseMessage.getUid()
         );
     }
 
@@ -2,7 +2,9 @@ package ru.dlabs71.library.email.dto.message.incoming;
 
 import java.util.List;
 import ru.dlabs71.library.email.dto.message.common.ContentMessage;
+import ru.dlabs71.library.email.dto.message.common.EmailAttachment;
 import ru.dlabs71.library.email.dto.message.common.Message;
+import ru.dlabs71.library.email.mime.TempFileDataSource;
 
 /**
  * This interface defines any incoming email message. Extends by the {@link Message} interface.
@@ -13,7 +15,13 @@ import ru.dlabs71.library.email.dto.message.common.Message;
  * @author Ivanov Danila
  * @since 1.0.0
  */
-public interface IncomingMessage extends Message {
+public interface IncomingMessage extends Message, AutoCloseable {
+
+    /**
+     * Returns the UID of a message in its folder, or null if the folder doesn't support UIDs.
+     * Unlike the message number ({@link #getId()}), the UID isn't changed when other messages are deleted.
+     */
+    Long getUid();
 
     /**
      * Returns all the html contents.
@@ -44,4 +52,21 @@ public interface IncomingMessage extends Message {
      * Returns all the html contents as one string, separated by a delimiter, which is set up in the parameter.
      */
     String getHtmlContentsAsString(String delimiter);
+
+    /**
+     * Releases the resources of the message. The temporary files of large attachments are deleted,
+     * so their content isn't available after closing. Other attachments aren't affected.
+     */
+    @Override
+    default void close() {
+        List<EmailAttachment> attachments = this.getAttachments();
+        if (attachments == null) {
+            return;
+        }
+        for (EmailAttachment attachment : attachments) {
+            if (attachment != null && attachment.getDataSource() instanceof TempFileDataSource) {
+                ((TempFileDataSource) attachment.getDataSource()).close();
+            }
+        }
+    }
 }
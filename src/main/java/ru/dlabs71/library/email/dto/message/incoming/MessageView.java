@@ -35,6 +35,7 @@ public class MessageView implements IncomingMessage {
     private final String subject;
 
     private Integer id;
+    private Long uid;
     private Long size;
     private TransferEncoder transferEncoder;
     private boolean seen;
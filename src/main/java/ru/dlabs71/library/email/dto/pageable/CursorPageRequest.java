@@ -0,0 +1,81 @@
+package ru.dlabs71.library.email.dto.pageable;
+
+import lombok.Getter;
+
+/**
+ * The cursor page request. Unlike the {@link PageRequest}, which uses message numbers, this class uses UIDs
+ * of messages. A UID of a message doesn't change when other messages are deleted, so pages don't shift
+ * while the folder is being modified.
+ *
+ * <p>The request selects messages with the UIDs greater than the {@code lastUid} value. The {@code uidValidity}
+ * value is checked against the UIDVALIDITY value of the folder. If they are different, then the saved UIDs aren't
+ * valid anymore and the {@link ru.dlabs71.library.email.exception.UidValidityException} is thrown.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+public class CursorPageRequest {
+
+    /** The value of the UIDVALIDITY, which means that the value is unknown and isn't checked. **/
+    public static final long UNKNOWN_UID_VALIDITY = -1;
+
+    /**
+     * The UIDVALIDITY value of the folder.
+     */
+    private final long uidValidity;
+
+    /**
+     * The last seen UID. The selection starts from the next UID.
+     */
+    private final long lastUid;
+
+    /**
+     * Length of a data selection.
+     */
+    private final int length;
+
+    private CursorPageRequest(long uidValidity, long lastUid, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("The length of a page must be greater than 0");
+        }
+        this.uidValidity = uidValidity;
+        this.lastUid = Math.max(0, lastUid);
+        this.length = length;
+    }
+
+    /**
+     * Returns the request of the first page.
+     *
+     * @param length length of a data selection
+     */
+    public static CursorPageRequest of(int length) {
+        return new CursorPageRequest(UNKNOWN_UID_VALIDITY, 0, length);
+    }
+
+    /**
+     * Returns the request of the page after the message with the UID equal to the {@code lastUid}.
+     *
+     * @param uidValidity the UIDVALIDITY value of the folder
+     * @param lastUid     the last seen UID
+     * @param length      length of a data selection
+     */
+    public static CursorPageRequest of(long uidValidity, long lastUid, int length) {
+        return new CursorPageRequest(uidValidity, lastUid, length);
+    }
+
+    /**
+     * Returns true if the UIDVALIDITY value is known and has to be checked.
+     */
+    public boolean isUidValidityKnown() {
+        return uidValidity != UNKNOWN_UID_VALIDITY;
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPage<" + uidValidity + ", " + lastUid + ", " + length + ">";
+    }
+}
@@ -0,0 +1,81 @@
+package ru.dlabs71.library.email.dto.pageable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * The response of the cursor page request ({@link CursorPageRequest}). It doesn't contain a total count of objects.
+ * Use the {@link #getNextPageRequest()} method to get the request of the next page.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+public class CursorPageResponse<T> {
+
+    /**
+     * Result of a selection.
+     */
+    private final List<T> data;
+
+    /**
+     * The request of the next page. It contains the UIDVALIDITY value of the folder and the last UID of this page.
+     */
+    private final CursorPageRequest nextPageRequest;
+
+    /**
+     * True if there may be more objects after this page.
+     */
+    private final boolean hasMore;
+
+    /**
+     * Extra information about results or query.
+     */
+    private final Map<String, Object> metadata;
+
+    /**
+     * Constructor of this class.
+     *
+     * @param data            Result of a selection.
+     * @param nextPageRequest The request of the next page.
+     * @param hasMore         True if there may be more objects after this page.
+     * @param metadata        Extra information about results or query.
+     */
+    public CursorPageResponse(
+        List<T> data,
+        CursorPageRequest nextPageRequest,
+        boolean hasMore,
+        Map<String, Object> metadata
+    ) {
+        this.data = data;
+        this.nextPageRequest = nextPageRequest;
+        this.hasMore = hasMore;
+        this.metadata = metadata == null ? Collections.emptyMap() : metadata;
+    }
+
+    /**
+     * Returns a new instance of {@link CursorPageResponse}. Metadata is empty Map.
+     *
+     * @param data            list with objects
+     * @param nextPageRequest the request of the next page
+     * @param hasMore         true if there may be more objects after this page
+     * @param <T>             a type of data in the list
+     */
+    public static <T> CursorPageResponse<T> of(List<T> data, CursorPageRequest nextPageRequest, boolean hasMore) {
+        return new CursorPageResponse<>(data, nextPageRequest, hasMore, null);
+    }
+
+    /**
+     * Returns a copy of this response with the metadata.
+     *
+     * @param metadata extra information about results or query
+     */
+    public CursorPageResponse<T> withMetadata(Map<String, Object> metadata) {
+        return new CursorPageResponse<>(data, nextPageRequest, hasMore, metadata);
+    }
+}
@@ -0,0 +1,187 @@
+package ru.dlabs71.library.email.dto.search;
+
+import jakarta.mail.Flags;
+import jakarta.mail.Message;
+import jakarta.mail.search.AndTerm;
+import jakarta.mail.search.BodyTerm;
+import jakarta.mail.search.ComparisonTerm;
+import jakarta.mail.search.FlagTerm;
+import jakarta.mail.search.FromStringTerm;
+import jakarta.mail.search.HeaderTerm;
+import jakarta.mail.search.ReceivedDateTerm;
+import jakarta.mail.search.RecipientStringTerm;
+import jakarta.mail.search.SearchTerm;
+import jakarta.mail.search.SentDateTerm;
+import jakarta.mail.search.SizeTerm;
+import jakarta.mail.search.SubjectTerm;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.ToString;
+
+/**
+ * The query for searching messages on the server. All the specified criteria must be matched by a message
+ * (they are joined by AND). The string criteria are matched as case-insensitive substrings. The date criteria
+ * are matched by dates only: the time and the time zone are ignored by servers.
+ *
+ * <p>An empty query matches all the messages of a folder.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+@Builder
+@ToString
+public class EmailSearchQuery {
+
+    /**
+     * A part of the sender address or name.
+     */
+    private final String from;
+
+    /**
+     * A part of the address or name of a recipient (the TO header).
+     */
+    private final String to;
+
+    /**
+     * A part of the subject.
+     */
+    private final String subject;
+
+    /**
+     * A part of the text of the message body.
+     */
+    private final String text;
+
+    /**
+     * Parts of header values by header names. For example: {@code X-Mailer -> d-email}.
+     */
+    @Singular
+    private final Map<String, String> headers;
+
+    /**
+     * Messages sent on or after the date.
+     */
+    private final LocalDate sentSince;
+
+    /**
+     * Messages sent before the date.
+     */
+    private final LocalDate sentBefore;
+
+    /**
+     * Messages received on or after the date.
+     */
+    private final LocalDate receivedSince;
+
+    /**
+     * Messages received before the date.
+     */
+    private final LocalDate receivedBefore;
+
+    /**
+     * Flags, which must be set. For example: {@link Flags.Flag#SEEN} for read messages.
+     */
+    @Singular("withFlag")
+    private final Set<Flags.Flag> withFlags;
+
+    /**
+     * Flags, which must not be set. For example: {@link Flags.Flag#SEEN} for unread messages.
+     */
+    @Singular("withoutFlag")
+    private final Set<Flags.Flag> withoutFlags;
+
+    /**
+     * Messages larger than the size in bytes.
+     */
+    private final Integer largerThan;
+
+    /**
+     * Messages smaller than the size in bytes.
+     */
+    private final Integer smallerThan;
+
+    /**
+     * Returns true if the query has no criteria.
+     */
+    public boolean isEmpty() {
+        return this.toSearchTerm() == null;
+    }
+
+    /**
+     * Converts the query to a {@link SearchTerm}. The term is translated to the IMAP SEARCH command
+     * by the IMAP client, and it also can be matched with a message locally by the {@link SearchTerm#match(Message)}
+     * method.
+     *
+     * @return the search term or null if the query has no criteria
+     */
+    public SearchTerm toSearchTerm() {
+        List<SearchTerm> terms = new ArrayList<>();
+        if (from != null) {
+            terms.add(new FromStringTerm(from));
+        }
+        if (to != null) {
+            terms.add(new RecipientStringTerm(Message.RecipientType.TO, to));
+        }
+        if (subject != null) {
+            terms.add(new SubjectTerm(subject));
+        }
+        if (text != null) {
+            terms.add(new BodyTerm(text));
+        }
+        headers.forEach((name, value) -> terms.add(new HeaderTerm(name, value)));
+        if (sentSince != null) {
+            terms.add(new SentDateTerm(ComparisonTerm.GE, toDate(sentSince)));
+        }
+        if (sentBefore != null) {
+            terms.add(new SentDateTerm(ComparisonTerm.LT, toDate(sentBefore)));
+        }
+        if (receivedSince != null) {
+            terms.add(new ReceivedDateTerm(ComparisonTerm.GE, toDate(receivedSince)));
+        }
+        if (receivedBefore != null) {
+            terms.add(new ReceivedDateTerm(ComparisonTerm.LT, toDate(receivedBefore)));
+        }
+        if (!withFlags.isEmpty()) {
+            terms.add(new FlagTerm(toFlags(withFlags), true));
+        }
+        if (!withoutFlags.isEmpty()) {
+            terms.add(new FlagTerm(toFlags(withoutFlags), false));
+        }
+        if (largerThan != null) {
+            terms.add(new SizeTerm(ComparisonTerm.GT, largerThan));
+        }
+        if (smallerThan != null) {
+            terms.add(new SizeTerm(ComparisonTerm.LT, smallerThan));
+        }
+
+        if (terms.isEmpty()) {
+            return null;
+        }
+        if (terms.size() == 1) {
+            return terms.get(0);
+        }
+        return new AndTerm(terms.toArray(new SearchTerm[0]));
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Flags toFlags(Set<Flags.Flag> flagSet) {
+        Flags flags = new Flags();
+        flagSet.forEach(flags::add);
+        return flags;
+    }
+}
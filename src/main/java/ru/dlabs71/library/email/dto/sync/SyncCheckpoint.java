@@ -0,0 +1,66 @@
+package ru.dlabs71.library.email.dto.sync;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The state of a folder after the last synchronization. The next synchronization requests only messages with UIDs
+ * greater than the {@code lastUid} value and only flag changes made after the {@code highestModSeq} value.
+ *
+ * <p>The saved UIDs are valid only while the UIDVALIDITY of the folder is equal to the {@code uidValidity} value.
+ * If it has changed, then the folder is synchronized from the beginning.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class SyncCheckpoint {
+
+    /** The value of the HIGHESTMODSEQ, which means that the server doesn't support the CONDSTORE extension. **/
+    public static final long UNKNOWN_MOD_SEQ = 0;
+
+    /**
+     * The UIDVALIDITY value of the folder.
+     */
+    private final long uidValidity;
+
+    /**
+     * The UID of the last synchronized message.
+     */
+    private final long lastUid;
+
+    /**
+     * The HIGHESTMODSEQ value of the folder (RFC 7162) at the last synchronization.
+     */
+    private final long highestModSeq;
+
+    private SyncCheckpoint(long uidValidity, long lastUid, long highestModSeq) {
+        this.uidValidity = uidValidity;
+        this.lastUid = Math.max(0, lastUid);
+        this.highestModSeq = Math.max(UNKNOWN_MOD_SEQ, highestModSeq);
+    }
+
+    /**
+     * Creates the checkpoint.
+     *
+     * @param uidValidity   the UIDVALIDITY value of the folder
+     * @param lastUid       the UID of the last synchronized message
+     * @param highestModSeq the HIGHESTMODSEQ value of the folder or {@link #UNKNOWN_MOD_SEQ}
+     */
+    public static SyncCheckpoint of(long uidValidity, long lastUid, long highestModSeq) {
+        return new SyncCheckpoint(uidValidity, lastUid, highestModSeq);
+    }
+
+    /**
+     * Returns true if the HIGHESTMODSEQ value is known, and flag changes can be requested.
+     */
+    public boolean isModSeqKnown() {
+        return highestModSeq != UNKNOWN_MOD_SEQ;
+    }
+}
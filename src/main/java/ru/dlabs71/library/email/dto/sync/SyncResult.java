@@ -0,0 +1,90 @@
+package ru.dlabs71.library.email.dto.sync;
+
+import jakarta.mail.Flags;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.dlabs71.library.email.dto.message.incoming.IncomingMessage;
+
+/**
+ * The result of one step of the incremental synchronization of a folder.
+ *
+ * <p>Flag changes are reported only if the server supports the CONDSTORE extension, and UIDs of expunged messages
+ * are reported only if the server supports the QRESYNC extension (RFC 7162). Both of them contain only messages
+ * synchronized before (with UIDs not greater than the last UID of the previous checkpoint).
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class SyncResult {
+
+    /**
+     * The name of the synchronized folder.
+     */
+    private final String folderName;
+
+    /**
+     * The checkpoint, which must be saved after processing of the result.
+     */
+    private final SyncCheckpoint checkpoint;
+
+    /**
+     * True if the UIDVALIDITY of the folder has changed, and the previous checkpoint isn't valid anymore.
+     * In this case, the folder is synchronized from the beginning, and all the local data of the folder
+     * should be discarded.
+     */
+    private final boolean reset;
+
+    /**
+     * The new messages sorted by UIDs. They aren't marked as read by the synchronization.
+     */
+    @ToString.Exclude
+    private final List<IncomingMessage> newMessages;
+
+    /**
+     * The current flags of the changed messages by their UIDs.
+     */
+    private final Map<Long, Flags> changedFlags;
+
+    /**
+     * The UIDs of the expunged messages.
+     */
+    private final List<Long> vanishedUids;
+
+    /**
+     * True if there are more new messages, and the synchronization must be continued from the new checkpoint.
+     */
+    private final boolean hasMore;
+
+    /**
+     * The UIDLs of the new messages of a POP3 mailbox. They are remembered as read only when the result is committed
+     * (see {@link ru.dlabs71.library.email.client.receiver.ReceiverDClient#commitSync(SyncResult)}), so the messages
+     * are read again if the result wasn't processed. It's empty for IMAP.
+     */
+    @ToString.Exclude
+    private final List<String> newUidls;
+
+    /**
+     * The constructor of the result without UIDLs of new messages.
+     */
+    public SyncResult(
+        String folderName,
+        SyncCheckpoint checkpoint,
+        boolean reset,
+        List<IncomingMessage> newMessages,
+        Map<Long, Flags> changedFlags,
+        List<Long> vanishedUids,
+        boolean hasMore
+    ) {
+        this(folderName, checkpoint, reset, newMessages, changedFlags, vanishedUids, hasMore, Collections.emptyList());
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * This package contains DTOs for incremental synchronization of email folders.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+
+package ru.dlabs71.library.email.dto.sync;
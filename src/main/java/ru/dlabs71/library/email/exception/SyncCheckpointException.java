@@ -0,0 +1,32 @@
+package ru.dlabs71.library.email.exception;
+
+/**
+ * The exception is caused by troubles with loading or saving checkpoints of the folder synchronization.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public final class SyncCheckpointException extends RuntimeException {
+
+    /**
+     * The constructor of this class.
+     *
+     * @param message a user message for a stacktrace
+     */
+    public SyncCheckpointException(String message) {
+        super(message);
+    }
+
+    /**
+     * The constructor of this class.
+     *
+     * @param message a user message for a stacktrace
+     * @param cause   a base exception
+     */
+    public SyncCheckpointException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.dlabs71.library.email.exception;
+
+import lombok.Getter;
+
+/**
+ * The exception is caused by the changed UIDVALIDITY value of a folder. It means that the UIDs known to the client
+ * don't point to the same messages anymore. The client has to forget all the saved UIDs of the folder
+ * and start reading the folder from the beginning.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+public final class UidValidityException extends RuntimeException {
+
+    /** The UIDVALIDITY value known to the client. **/
+    private final long expectedUidValidity;
+
+    /** The current UIDVALIDITY value of the folder. **/
+    private final long actualUidValidity;
+
+    /**
+     * The constructor of this class.
+     *
+     * @param folderName          the name of the folder
+     * @param expectedUidValidity the UIDVALIDITY value known to the client
+     * @param actualUidValidity   the current UIDVALIDITY value of the folder
+     */
+    public UidValidityException(String folderName, long expectedUidValidity, long actualUidValidity) {
+        super("The UIDVALIDITY of the folder " + folderName + " has changed from " + expectedUidValidity
+                  + " to " + actualUidValidity);
+        this.expectedUidValidity = expectedUidValidity;
+        this.actualUidValidity = actualUidValidity;
+    }
+}
@@ -0,0 +1,107 @@
+package ru.dlabs71.library.email.mime;
+
+import jakarta.activation.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The read-only {@link DataSource} backed by a {@link FileChannel}. The channel is read by the positional reads
+ * from the beginning every time the {@link #getInputStream()} method is called. So the position of the channel
+ * isn't changed, and the content can be read many times (for example, by retries of sending).
+ *
+ * <p>The channel isn't closed by this class. You have to close it after sending the message.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public class FileChannelDataSource implements DataSource {
+
+    private final FileChannel channel;
+    private final String name;
+    private final String contentType;
+
+    /**
+     * The constructor of this class.
+     *
+     * @param channel     an opened file channel
+     * @param name        a name of the file
+     * @param contentType a value of the Content-Type header
+     */
+    public FileChannelDataSource(FileChannel channel, String name, String contentType) {
+        JavaCoreUtils.notNullArgument(channel, "channel");
+        this.channel = channel;
+        this.name = name;
+        this.contentType = contentType == null ? DefaultFileParametersDetector.DEFAULT_CONTENT_TYPE : contentType;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ChannelInputStream(channel);
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        throw new IOException("The data source is read-only");
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The input stream reading the channel from the beginning by the positional reads.
+     */
+    private static class ChannelInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position = 0;
+
+        ChannelInputStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int count = this.read(single, 0, 1);
+            return count == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int count = channel.read(ByteBuffer.wrap(buffer, offset, length), position);
+            if (count > 0) {
+                position += count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = Math.max(0, Math.min(count, channel.size() - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(0, channel.size() - position));
+        }
+    }
+}
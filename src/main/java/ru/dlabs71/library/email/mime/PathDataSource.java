@@ -0,0 +1,58 @@
+package ru.dlabs71.library.email.mime;
+
+import jakarta.activation.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The read-only {@link DataSource} backed by a file. Every call of the {@link #getInputStream()} method opens
+ * a new stream to the file, so the content is read from the disk directly into the MIME encoder
+ * and is never kept in memory.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public class PathDataSource implements DataSource {
+
+    private final Path path;
+    private final String contentType;
+
+    /**
+     * The constructor of this class.
+     *
+     * @param path        a path to the file
+     * @param contentType a value of the Content-Type header
+     */
+    public PathDataSource(Path path, String contentType) {
+        JavaCoreUtils.notNullArgument(path, "path");
+        this.path = path;
+        this.contentType = contentType == null ? DefaultFileParametersDetector.DEFAULT_CONTENT_TYPE : contentType;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        throw new IOException("The data source is read-only");
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getName() {
+        return path.getFileName().toString();
+    }
+}
@@ -0,0 +1,192 @@
+package ru.dlabs71.library.email.mime;
+
+import jakarta.activation.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The read-only {@link DataSource} backed by a temporary file. It's used for large attachments of incoming messages,
+ * which are written to the disk instead of being kept in memory.
+ *
+ * <p>The file is deleted by the {@link #close()} method. If the data source wasn't closed, then the file is deleted
+ * after the data source is collected by the garbage collector: collected data sources are checked every time
+ * a new temporary file is created.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+public class TempFileDataSource implements DataSource, AutoCloseable {
+
+    private static final String FILE_PREFIX = "d-email-";
+    private static final String FILE_SUFFIX = ".tmp";
+
+    /** The queue of collected data sources, whose files haven't been deleted yet. **/
+    private static final ReferenceQueue<TempFileDataSource> COLLECTED = new ReferenceQueue<>();
+
+    /** The references must be reachable until their data sources are collected. **/
+    private static final Set<FileReference> REFERENCES = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private final Path path;
+    private final String name;
+    private final String contentType;
+    private final FileReference reference;
+
+    /**
+     * The constructor of this class. The data source takes ownership of the file.
+     *
+     * @param path        a path to the temporary file
+     * @param name        a name of the content (For example: a name of an attachment)
+     * @param contentType a value of the Content-Type header
+     */
+    public TempFileDataSource(Path path, String name, String contentType) {
+        JavaCoreUtils.notNullArgument(path, "path");
+        this.path = path;
+        this.name = name;
+        this.contentType = contentType == null ? DefaultFileParametersDetector.DEFAULT_CONTENT_TYPE : contentType;
+        this.reference = new FileReference(this, path);
+        REFERENCES.add(reference);
+    }
+
+    /**
+     * Creates a temporary file and writes the content to it. The content consists of the already read head
+     * and the rest of the stream. The stream is copied through a file channel without buffering the whole content
+     * in memory.
+     *
+     * @param head        the already read beginning of the content
+     * @param rest        the stream with the rest of the content. It isn't closed by this method.
+     * @param directory   a directory for the temporary file or null for the default temporary-file directory
+     * @param name        a name of the content
+     * @param contentType a value of the Content-Type header
+     *
+     * @return the data source backed by the created file
+     *
+     * @throws IOException if the file couldn't be created or written
+     */
+    public static TempFileDataSource create(
+        byte[] head,
+        InputStream rest,
+        Path directory,
+        String name,
+        String contentType
+    ) throws IOException {
+        deleteCollectedFiles();
+        Path file = directory == null
+            ? Files.createTempFile(FILE_PREFIX, FILE_SUFFIX)
+            : Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(head);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            ReadableByteChannel source = Channels.newChannel(rest);
+            long position = channel.position();
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, Long.MAX_VALUE)) > 0) {
+                position += transferred;
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+        log.debug("The content {} was written to the temporary file {}", name, file);
+        return new TempFileDataSource(file, name, contentType);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        throw new IOException("The data source is read-only");
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the path to the temporary file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the size of the temporary file in bytes or -1 if the file doesn't exist.
+     */
+    public long getSize() {
+        try {
+            return Files.size(path);
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Deletes the temporary file. The content isn't available after closing.
+     */
+    @Override
+    public void close() {
+        reference.delete();
+    }
+
+    private static void deleteCollectedFiles() {
+        Reference<? extends TempFileDataSource> collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            ((FileReference) collected).delete();
+        }
+    }
+
+    /**
+     * The reference, which deletes the file after its data source was collected.
+     */
+    private static final class FileReference extends PhantomReference<TempFileDataSource> {
+
+        private final Path path;
+
+        FileReference(TempFileDataSource dataSource, Path path) {
+            super(dataSource, COLLECTED);
+            this.path = path;
+        }
+
+        void delete() {
+            if (!REFERENCES.remove(this)) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(path);
+                log.debug("The temporary file {} was deleted", path);
+            } catch (IOException ex) {
+                log.warn("The temporary file {} couldn't be deleted: {}", path, ex.getMessage());
+            }
+        }
+    }
+}
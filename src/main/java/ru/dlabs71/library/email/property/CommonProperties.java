@@ -3,7 +3,6 @@ package ru.dlabs71.library.email.property;
 import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.Map;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -22,7 +21,6 @@ import ru.dlabs71.library.email.type.EncryptionType;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public abstract class CommonProperties {
 
     /**
@@ -111,6 +109,64 @@ public abstract class CommonProperties {
 
     /**
      * Use this parameter to set a delay between attempts at the requests. Milliseconds.
+     *
+     * <p>It's the initial delay of the exponential backoff: every next delay is twice as long, but not longer than
+     * {@linkplain #maxAttemptDelayOfRequest}. If {@linkplain #retryJitter} is true, then a random delay from zero
+     * to the calculated value is used (full jitter), so the retries of many threads aren't synchronized.
      */
     private int attemptDelayOfRequest = 0;
+
+    /**
+     * The maximum delay between attempts at the requests. Milliseconds. Default is 10000 (10 seconds).
+     */
+    private int maxAttemptDelayOfRequest = 10000;
+
+    /**
+     * The maximum time of all the attempts at a request. Milliseconds. A request isn't retried if the next attempt
+     * would start later. Zero or a negative value means that the time isn't limited. Default is 0.
+     */
+    private int maxElapsedTimeOfRequest = 0;
+
+    /**
+     * Whether a random delay from zero to the calculated delay is used between attempts at the requests
+     * (full jitter). It spreads the retries of many threads over time instead of hitting a recovering server at once.
+     * Default is false.
+     */
+    private boolean retryJitter = false;
+
+    /**
+     * The retry budget of a client: the maximum ratio of retries to requests. For example, the value 0.2 allows
+     * one retry per five requests in addition to a small reserve. It doesn't let retries multiply the load on
+     * a server, which is already failing. Zero or a negative value disables the budget. Default is 0 (disabled).
+     */
+    private double retryBudgetRatio = 0;
+
+    /**
+     * The constructor of this class. The other properties have default values.
+     */
+    public CommonProperties(
+        String host,
+        int port,
+        EncryptionType encryptionType,
+        int readTimeout,
+        int connectionTimeout,
+        int writeTimeout,
+        boolean debug,
+        Charset charset,
+        Map<String, Object> extraProperties,
+        int maxAttemptsOfRequest,
+        int attemptDelayOfRequest
+    ) {
+        this.host = host;
+        this.port = port;
+        this.encryptionType = encryptionType;
+        this.readTimeout = readTimeout;
+        this.connectionTimeout = connectionTimeout;
+        this.writeTimeout = writeTimeout;
+        this.debug = debug;
+        this.charset = charset;
+        this.extraProperties = extraProperties;
+        this.maxAttemptsOfRequest = maxAttemptsOfRequest;
+        this.attemptDelayOfRequest = attemptDelayOfRequest;
+    }
 }
@@ -83,6 +83,100 @@ public class ImapProperties extends CommonProperties {
      */
     private int connectionPoolTimeout = 45000;
 
+    /**
+     * The maximum number of opened folders, which are kept open between operations. Repeated operations with
+     * the same folder reuse the opened folder instead of opening (selecting) it again. Every opened folder holds
+     * a connection to the server. Zero or a negative value disables caching. Default is 4.
+     */
+    private int folderCacheSize = 4;
+
+    /**
+     * Time in milliseconds after which an idle opened folder will be closed. Zero or a negative value means
+     * idle folders are never evicted by the client. Default is 60000 (1 minute).
+     */
+    private int folderCacheIdleTimeout = 60000;
+
+    /**
+     * Controls whether contents and attachments of read messages are loaded only when they are accessed.
+     * If it's true, then reading fetches only the structure (BODYSTRUCTURE) of messages, and the name, type and size
+     * of attachments are available at once. The content is loaded from the server by the first access, so the folder
+     * must be open at that time: the folder is pinned in the folder cache for {@link #folderCacheIdleTimeout}
+     * milliseconds after reading (until the client is closed if the timeout is disabled). Other operations,
+     * including writes, don't close or reopen a pinned folder. That's why it's ignored, and contents are loaded
+     * at once, if the folder cache is disabled ({@link #folderCacheSize} is 0). Default is false.
+     */
+    private boolean lazyMessageContent = false;
+
+    /**
+     * The size in bytes, above which the decoded content of an attachment is streamed to a temporary file instead
+     * of the memory. The file is deleted when the incoming message is closed.
+     * Zero or a negative value disables writing to files. Default is 5242880 (5 MB).
+     */
+    private int attachmentSpillThreshold = 5242880;
+
+    /**
+     * The directory for temporary files of attachments. If it's null, then the default temporary-file directory
+     * is used. Default is null.
+     */
+    private String attachmentSpillDirectory;
+
+    /**
+     * Controls whether a page of read messages is fetched and converted by several threads. The page is split into
+     * parts, and every part is read by its own thread over its own opened folder (connection) from the folder cache,
+     * so the number of threads is the least of the {@link #connectionPoolSize} and the {@link #folderCacheSize}.
+     * The order of messages is kept. It isn't applied if {@link #lazyMessageContent} is true, since nothing is decoded
+     * by reading, or if the folder cache is disabled. Default is false.
+     */
+    private boolean parallelRead = false;
+
+    /**
+     * The directory of the persistent cache of read messages. Raw messages are kept in files by folders,
+     * UIDVALIDITY values and UIDs, so repeated reading of a message doesn't download it again. If it's null,
+     * then the cache is disabled. It isn't used if {@link #lazyMessageContent} is true. Default is null.
+     */
+    private String messageCacheDirectory;
+
+    /**
+     * The maximum total size in bytes of the messages in the persistent cache. The least recently used messages
+     * are deleted when the size is exceeded. Default is 268435456 (256 MB).
+     */
+    private long messageCacheMaxSize = 268435456;
+
+    /**
+     * Controls whether messages are read in the peek mode. If it's true, then reading opens folders only for read
+     * (the EXAMINE command) and fetches contents by the BODY.PEEK command, so reading doesn't change the mailbox
+     * and doesn't mark messages as read. Readers in the peek mode don't contend with other clients changing
+     * the folder. Read messages can be marked as read explicitly by one command
+     * (see {@link ru.dlabs71.library.email.client.receiver.ReceiverDClient#markAsSeen(String, java.util.Collection)}).
+     * Default is false.
+     *
+     * <p>Corresponds the next jakarta mail properties: mail.imap.peek
+     */
+    private boolean peekRead = false;
+
+    /**
+     * Time in milliseconds after which the IDLE command of a folder subscription is re-issued. Servers may drop
+     * an IDLE connection after 30 minutes of inactivity, so the value should be less. Default is 600000 (10 minutes).
+     */
+    private int idleRefreshInterval = 600000;
+
+    /**
+     * Time in milliseconds between NOOP commands of a folder subscription if the server doesn't support
+     * the IDLE command. Default is 60000 (1 minute).
+     */
+    private int idlePollInterval = 60000;
+
+    /**
+     * Initial delay in milliseconds before reconnecting of a folder subscription after the connection was lost.
+     * The delay is doubled after every failed attempt up to the {@link #idleMaxReconnectDelay}. Default is 1000.
+     */
+    private int idleReconnectDelay = 1000;
+
+    /**
+     * Maximum delay in milliseconds before reconnecting of a folder subscription. Default is 60000 (1 minute).
+     */
+    private int idleMaxReconnectDelay = 60000;
+
     /**
      * The constructor of this class.
      */
@@ -165,12 +259,29 @@ public class ImapProperties extends CommonProperties {
         private Map<String, Object> extraProperties = new HashMap<>();
         private int maxAttemptsOfRequest = 3;
         private int attemptDelayOfRequest = 0;
+        private int maxAttemptDelayOfRequest = 10000;
+        private int maxElapsedTimeOfRequest = 0;
+        private boolean retryJitter = false;
+        private double retryBudgetRatio = 0;
+        private int folderCacheSize = 4;
+        private int folderCacheIdleTimeout = 60000;
+        private boolean lazyMessageContent = false;
+        private int attachmentSpillThreshold = 5242880;
+        private String attachmentSpillDirectory;
+        private boolean parallelRead = false;
+        private String messageCacheDirectory;
+        private long messageCacheMaxSize = 268435456;
+        private boolean peekRead = false;
+        private int idleRefreshInterval = 600000;
+        private int idlePollInterval = 60000;
+        private int idleReconnectDelay = 1000;
+        private int idleMaxReconnectDelay = 60000;
 
         /**
          * Builds and returns a new instance of {@link ImapProperties}.
          */
         public ImapProperties build() {
-            return new ImapProperties(
+            ImapProperties properties = new ImapProperties(
                 email,
                 password,
                 partialFetch,
@@ -191,6 +302,24 @@ public class ImapProperties extends CommonProperties {
                 maxAttemptsOfRequest,
                 attemptDelayOfRequest
             );
+            properties.setFolderCacheSize(folderCacheSize);
+            properties.setFolderCacheIdleTimeout(folderCacheIdleTimeout);
+            properties.setLazyMessageContent(lazyMessageContent);
+            properties.setAttachmentSpillThreshold(attachmentSpillThreshold);
+            properties.setAttachmentSpillDirectory(attachmentSpillDirectory);
+            properties.setParallelRead(parallelRead);
+            properties.setMessageCacheDirectory(messageCacheDirectory);
+            properties.setMessageCacheMaxSize(messageCacheMaxSize);
+            properties.setPeekRead(peekRead);
+            properties.setIdleRefreshInterval(idleRefreshInterval);
+            properties.setIdlePollInterval(idlePollInterval);
+            properties.setIdleReconnectDelay(idleReconnectDelay);
+            properties.setIdleMaxReconnectDelay(idleMaxReconnectDelay);
+            properties.setMaxAttemptDelayOfRequest(maxAttemptDelayOfRequest);
+            properties.setMaxElapsedTimeOfRequest(maxElapsedTimeOfRequest);
+            properties.setRetryJitter(retryJitter);
+            properties.setRetryBudgetRatio(retryBudgetRatio);
+            return properties;
         }
     }
 }
@@ -0,0 +1,122 @@
+package ru.dlabs71.library.email.property;
+
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import ru.dlabs71.library.email.type.EncryptionType;
+
+/**
+ * The properties for connecting to an email server by the POP3 protocol.
+ *
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class Pop3Properties extends CommonProperties {
+
+    /**
+     * Email address of a mailbox to witch to connect.
+     */
+    private String email;
+
+    /**
+     * Password of a mailbox to witch to connect.
+     */
+    private String password;
+
+    /**
+     * The path to the file, which keeps UIDLs of the read messages between restarts. POP3 has no flags of messages,
+     * so the client remembers the read messages itself, and the incremental synchronization reads only the messages
+     * with unknown UIDLs. Default is null, which means that UIDLs are kept in the memory only.
+     */
+    private String uidlStoreFile;
+
+    /**
+     * The size in bytes, above which an attachment of a read message is written to a temporary file instead of
+     * the memory. Default is 5242880 (5 MB). Zero or a negative value disables writing to files.
+     */
+    private int attachmentSpillThreshold = 5242880;
+
+    /**
+     * The directory for temporary files of attachments. Default is null, which means the default temporary-file
+     * directory.
+     */
+    private String attachmentSpillDirectory;
+
+    /**
+     * Returns builder for this class.
+     */
+    public static Pop3Properties.Pop3PropertiesBuilder builder() {
+        return new Pop3Properties.Pop3PropertiesBuilder();
+    }
+
+    /**
+     * Builder class for make {@link Pop3Properties} class instance.
+     */
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @Accessors(chain = true, fluent = true)
+    public static class Pop3PropertiesBuilder {
+
+        private String email;
+        private String password;
+        private String host;
+        private int port;
+        private EncryptionType encryptionType = EncryptionType.NONE;
+        private int readTimeout = 30000;
+        private int connectionTimeout = 30000;
+        private int writeTimeout = 30000;
+        private boolean debug = false;
+        private Charset charset = Charset.defaultCharset();
+        private Map<String, Object> extraProperties = new HashMap<>();
+        private int maxAttemptsOfRequest = 3;
+        private int attemptDelayOfRequest = 0;
+        private int maxAttemptDelayOfRequest = 10000;
+        private int maxElapsedTimeOfRequest = 0;
+        private boolean retryJitter = false;
+        private double retryBudgetRatio = 0;
+        private String uidlStoreFile;
+        private int attachmentSpillThreshold = 5242880;
+        private String attachmentSpillDirectory;
+
+        /**
+         * Builds and returns a new instance of {@link Pop3Properties}.
+         */
+        public Pop3Properties build() {
+            Pop3Properties properties = new Pop3Properties();
+            properties.setEmail(email);
+            properties.setPassword(password);
+            properties.setHost(host);
+            properties.setPort(port);
+            properties.setEncryptionType(encryptionType);
+            properties.setReadTimeout(readTimeout);
+            properties.setConnectionTimeout(connectionTimeout);
+            properties.setWriteTimeout(writeTimeout);
+            properties.setDebug(debug);
+            properties.setCharset(charset);
+            properties.setExtraProperties(extraProperties);
+            properties.setMaxAttemptsOfRequest(maxAttemptsOfRequest);
+            properties.setAttemptDelayOfRequest(attemptDelayOfRequest);
+            properties.setUidlStoreFile(uidlStoreFile);
+            properties.setAttachmentSpillThreshold(attachmentSpillThreshold);
+            properties.setAttachmentSpillDirectory(attachmentSpillDirectory);
+            properties.setMaxAttemptDelayOfRequest(maxAttemptDelayOfRequest);
+            properties.setMaxElapsedTimeOfRequest(maxElapsedTimeOfRequest);
+            properties.setRetryJitter(retryJitter);
+            properties.setRetryBudgetRatio(retryBudgetRatio);
+            return properties;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.dlabs71.library.email.property;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * The properties of the {@link ru.dlabs71.library.email.DEmailReceiverManager}, which polls many mailboxes
+ * by a shared pool of threads.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ReceiverManagerProperties {
+
+    /**
+     * The number of threads polling all the mailboxes. Default is 4.
+     */
+    private int threadPoolSize = 4;
+
+    /**
+     * The poll interval in milliseconds of a mailbox with new messages or changes. Default is 30000 (30 seconds).
+     */
+    private int minPollInterval = 30000;
+
+    /**
+     * The maximum poll interval in milliseconds. The interval of a mailbox without changes is doubled after every
+     * poll up to the value. Default is 900000 (15 minutes).
+     */
+    private int maxPollInterval = 900000;
+
+    /**
+     * The maximum number of mailboxes of one host, which are connected at the same time. Other mailboxes
+     * of the host wait for their turn. Default is 10.
+     */
+    private int maxConnectionsPerHost = 10;
+
+    /**
+     * The mailbox stays connected between polls only if its next poll is earlier than the value in milliseconds.
+     * Otherwise, the connection is closed after the poll and opened again by the next one. Default is 120000
+     * (2 minutes).
+     */
+    private int keepConnectedInterval = 120000;
+
+    /**
+     * The maximum number of new messages in one step of synchronization of a mailbox. Default is 50.
+     */
+    private int batchSize = 50;
+
+    /**
+     * Returns the builder of this class.
+     */
+    public static ReceiverManagerPropertiesBuilder builder() {
+        return new ReceiverManagerPropertiesBuilder();
+    }
+
+    /**
+     * Builder class for {@link ReceiverManagerProperties}.
+     */
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @Accessors(chain = true, fluent = true)
+    public static class ReceiverManagerPropertiesBuilder {
+
+        private int threadPoolSize = 4;
+        private int minPollInterval = 30000;
+        private int maxPollInterval = 900000;
+        private int maxConnectionsPerHost = 10;
+        private int keepConnectedInterval = 120000;
+        private int batchSize = 50;
+
+        /**
+         * Builds and returns a new instance of {@link ReceiverManagerProperties}.
+         */
+        public ReceiverManagerProperties build() {
+            ReceiverManagerProperties properties = new ReceiverManagerProperties();
+            properties.setThreadPoolSize(threadPoolSize);
+            properties.setMinPollInterval(minPollInterval);
+            properties.setMaxPollInterval(maxPollInterval);
+            properties.setMaxConnectionsPerHost(maxConnectionsPerHost);
+            properties.setKeepConnectedInterval(keepConnectedInterval);
+            properties.setBatchSize(batchSize);
+            return properties;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package ru.dlabs71.library.email.property;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,6 +11,7 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
 import ru.dlabs71.library.email.type.EncryptionType;
+import ru.dlabs71.library.email.type.RelayBalancing;
 
 /**
  * The properties for connecting to an email server by the SMTP protocol.
@@ -40,6 +43,131 @@ public class SmtpProperties extends CommonProperties {
      */
     private String name;
 
+    /**
+     * Maximum number of connected transports, which are kept by the client. One connection is used for sending
+     * many messages instead of opening a new connection for every message. Zero disables pooling, so every message
+     * will be sent by a new connection.
+     */
+    private int transportPoolSize = 4;
+
+    /**
+     * Time in milliseconds after which an idle connected transport will be closed. Zero or a negative value means
+     * idle transports are never evicted by the client. Default is 60000 (1 minute).
+     */
+    private int transportIdleTimeout = 60000;
+
+    /**
+     * The number of threads, which send messages asynchronously. It's used by the async methods
+     * of the {@link ru.dlabs71.library.email.DEmailSender} class, if a custom executor isn't set. Default is 4.
+     */
+    private int asyncThreadPoolSize = 4;
+
+    /**
+     * The maximum number of messages waiting for asynchronous sending. When the queue is full, a message is sent
+     * by the calling thread, so the caller is slowed down instead of growing the queue. Default is 1000.
+     */
+    private int asyncQueueCapacity = 1000;
+
+    /**
+     * The directory of the durable outbound spool. If it's set, then messages enqueued by the {@code enqueue}
+     * method of the {@link ru.dlabs71.library.email.DEmailSender} class are written to the journal in the directory
+     * and are sent by background threads, so they aren't lost when the SMTP server is unavailable or the application
+     * is restarted. Default is null, which means that the spool is disabled and enqueued messages are sent at once.
+     */
+    private String spoolDirectory;
+
+    /**
+     * The size in bytes of a segment file of the spool journal, after which a new segment is started.
+     * Default is 16777216 (16 MB).
+     */
+    private int spoolSegmentSize = 16777216;
+
+    /**
+     * The number of threads, which send spooled messages. Default is 2.
+     */
+    private int spoolThreadPoolSize = 2;
+
+    /**
+     * Time in milliseconds before the first retry of sending a spooled message. Every next delay is twice as long.
+     * Default is 5000 (5 seconds).
+     */
+    private int spoolRetryDelay = 5000;
+
+    /**
+     * The maximum time in milliseconds between retries of sending a spooled message.
+     * Default is 600000 (10 minutes).
+     */
+    private int spoolMaxRetryDelay = 600000;
+
+    /**
+     * The maximum number of attempts to send a spooled message. After that the message is moved to the
+     * {@code failed} subdirectory of the spool directory. Zero or a negative value means that a message is retried
+     * until it's sent. Default is 50.
+     */
+    private int spoolMaxAttempts = 50;
+
+    /**
+     * The maximum number of messages per minute sent to the SMTP server. When the limit is reached, sending threads
+     * wait instead of being rejected by the server. The rate is decreased automatically when the server throttles
+     * messages (the codes 421, 450, 451), and it grows back after successful sendings. If several {@link #relays}
+     * are set, then it's the total rate of all the relays. Zero or a negative value disables the limit. Default is 0.
+     */
+    private int rateLimit = 0;
+
+    /**
+     * The maximum number of messages per minute sent to every recipient domain. It works like
+     * the {@link #rateLimit} property, but separately for every domain of recipients. Zero or a negative value
+     * disables the limit. Default is 0.
+     */
+    private int domainRateLimit = 0;
+
+    /**
+     * The maximum numbers of messages per minute for particular recipient domains (for example, "gmail.com"),
+     * which override the {@link #domainRateLimit} property.
+     */
+    private Map<String, Integer> domainRateLimits = new HashMap<>();
+
+    /**
+     * The maximum number of messages, which are sent without pacing after a pause. Default is 10.
+     */
+    private int rateLimitBurst = 10;
+
+    /**
+     * The SMTP relays, which messages are sent by. Messages are spread over the relays by
+     * the {@link #relayBalancing} strategy, and a failed relay is ejected, so messages are sent by other relays
+     * until it recovers. If the list is empty, then messages are sent by the host and port of these properties.
+     */
+    private List<SmtpRelay> relays = new ArrayList<>();
+
+    /**
+     * The strategy of choosing a relay from the {@link #relays} list. Default is
+     * {@link RelayBalancing#ROUND_ROBIN}.
+     */
+    private RelayBalancing relayBalancing = RelayBalancing.ROUND_ROBIN;
+
+    /**
+     * The number of consecutive connection failures of a relay, after which the relay is ejected. Default is 3.
+     */
+    private int relayFailureThreshold = 3;
+
+    /**
+     * Time in milliseconds for which a failed relay is ejected. After that one message is sent by the relay
+     * to check it. If the check fails, then the relay is ejected for twice as long. Default is 30000 (30 seconds).
+     */
+    private int relayEjectionTime = 30000;
+
+    /**
+     * The maximum time in milliseconds for which a failed relay is ejected. Default is 300000 (5 minutes).
+     */
+    private int relayMaxEjectionTime = 300000;
+
+    /**
+     * The maximum total size in bytes of encoded attachments, which are kept by the client. An attachment sent by
+     * many messages (for example, terms of service) is encoded once, and the next messages are written with
+     * the encoded content from the cache. Zero or a negative value disables the cache. Default is 0.
+     */
+    private int attachmentCacheSize = 0;
+
     /**
      * The constructor of this class.
      */
@@ -107,17 +235,43 @@ public class SmtpProperties extends CommonProperties {
         private Map<String, Object> extraProperties = new HashMap<>();
         private int maxAttemptsOfRequest = 3;
         private int attemptDelayOfRequest = 0;
+        private int maxAttemptDelayOfRequest = 10000;
+        private int maxElapsedTimeOfRequest = 0;
+        private boolean retryJitter = false;
+        private double retryBudgetRatio = 0;
+        private int transportPoolSize = 4;
+        private int transportIdleTimeout = 60000;
+        private int asyncThreadPoolSize = 4;
+        private int asyncQueueCapacity = 1000;
+        private String spoolDirectory;
+        private int spoolSegmentSize = 16777216;
+        private int spoolThreadPoolSize = 2;
+        private int spoolRetryDelay = 5000;
+        private int spoolMaxRetryDelay = 600000;
+        private int spoolMaxAttempts = 50;
+        private int rateLimit = 0;
+        private int domainRateLimit = 0;
+        private Map<String, Integer> domainRateLimits = new HashMap<>();
+        private int rateLimitBurst = 10;
+        private List<SmtpRelay> relays = new ArrayList<>();
+        private RelayBalancing relayBalancing = RelayBalancing.ROUND_ROBIN;
+        private int relayFailureThreshold = 3;
+        private int relayEjectionTime = 30000;
+        private int relayMaxEjectionTime = 300000;
+        private int attachmentCacheSize = 0;
 
         /**
-         * Builds and returns a new instance of {@link SmtpProperties}.
+         * Builds and returns a new instance of {@link SmtpProperties}. If the host isn't set, but the relays are set,
+         * then the host and port of the first relay are used.
          */
         public SmtpProperties build() {
-            return new SmtpProperties(
+            boolean hostOfRelay = host == null && relays != null && !relays.isEmpty();
+            SmtpProperties properties = new SmtpProperties(
                 email,
                 password,
                 name,
-                host,
-                port,
+                hostOfRelay ? relays.get(0).getHost() : host,
+                hostOfRelay ? relays.get(0).getPort() : port,
                 encryptionType,
                 readTimeout,
                 connectionTimeout,
@@ -128,6 +282,31 @@ public class SmtpProperties extends CommonProperties {
                 maxAttemptsOfRequest,
                 attemptDelayOfRequest
             );
+            properties.setTransportPoolSize(transportPoolSize);
+            properties.setTransportIdleTimeout(transportIdleTimeout);
+            properties.setAsyncThreadPoolSize(asyncThreadPoolSize);
+            properties.setAsyncQueueCapacity(asyncQueueCapacity);
+            properties.setSpoolDirectory(spoolDirectory);
+            properties.setSpoolSegmentSize(spoolSegmentSize);
+            properties.setSpoolThreadPoolSize(spoolThreadPoolSize);
+            properties.setSpoolRetryDelay(spoolRetryDelay);
+            properties.setSpoolMaxRetryDelay(spoolMaxRetryDelay);
+            properties.setSpoolMaxAttempts(spoolMaxAttempts);
+            properties.setRateLimit(rateLimit);
+            properties.setDomainRateLimit(domainRateLimit);
+            properties.setDomainRateLimits(domainRateLimits);
+            properties.setRateLimitBurst(rateLimitBurst);
+            properties.setRelays(relays);
+            properties.setRelayBalancing(relayBalancing);
+            properties.setRelayFailureThreshold(relayFailureThreshold);
+            properties.setRelayEjectionTime(relayEjectionTime);
+            properties.setRelayMaxEjectionTime(relayMaxEjectionTime);
+            properties.setAttachmentCacheSize(attachmentCacheSize);
+            properties.setMaxAttemptDelayOfRequest(maxAttemptDelayOfRequest);
+            properties.setMaxElapsedTimeOfRequest(maxElapsedTimeOfRequest);
+            properties.setRetryJitter(retryJitter);
+            properties.setRetryBudgetRatio(retryBudgetRatio);
+            return properties;
         }
     }
 }
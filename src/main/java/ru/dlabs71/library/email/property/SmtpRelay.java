@@ -0,0 +1,72 @@
+package ru.dlabs71.library.email.property;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The address of an SMTP relay and its weight. It's used by the {@link SmtpProperties#getRelays()} property.
+ *
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class SmtpRelay {
+
+    private final String host;
+    private final int port;
+
+    /**
+     * The share of messages sent by the relay relative to other relays.
+     */
+    private final int weight;
+
+    /**
+     * The constructor of this class.
+     *
+     * @param host   a host of the relay. It must not be null.
+     * @param port   a port of the relay
+     * @param weight a weight of the relay. It must be greater than 0.
+     */
+    public SmtpRelay(String host, int port, int weight) {
+        JavaCoreUtils.notNullArgument(host, "host");
+        if (weight <= 0) {
+            throw new IllegalArgumentException("The weight of a relay must be greater than 0");
+        }
+        this.host = host;
+        this.port = port;
+        this.weight = weight;
+    }
+
+    /**
+     * Creates the relay with the weight 1.
+     *
+     * @param host a host of the relay. It must not be null.
+     * @param port a port of the relay
+     *
+     * @return the new relay
+     */
+    public static SmtpRelay of(String host, int port) {
+        return new SmtpRelay(host, port, 1);
+    }
+
+    /**
+     * Creates the relay.
+     *
+     * @param host   a host of the relay. It must not be null.
+     * @param port   a port of the relay
+     * @param weight a weight of the relay. It must be greater than 0.
+     *
+     * @return the new relay
+     */
+    public static SmtpRelay of(String host, int port, int weight) {
+        return new SmtpRelay(host, port, weight);
+    }
+}
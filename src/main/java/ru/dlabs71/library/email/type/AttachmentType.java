@@ -1,6 +1,7 @@
 package ru.dlabs71.library.email.type;
 
 import java.util.Arrays;
+import java.util.Locale;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,7 +40,8 @@ public enum AttachmentType {
     }
 
     /**
-     * Finds the attachment type by the string of a MIME type using the Regex mechanism.
+     * Finds the attachment type by the string of a MIME type using the Regex mechanism. MIME types are
+     * case-insensitive, so IMAP body structures (For example: APPLICATION/PDF) are matched as well.
      *
      * @param mimeType the string of a MIME type
      *
@@ -47,8 +49,9 @@ public enum AttachmentType {
      */
     public static AttachmentType find(String mimeType) {
         log.debug("Tries to look up the mime type in the AttachmentType. Mime type is {}", mimeType);
+        String lowerCaseMimeType = mimeType.toLowerCase(Locale.ROOT);
         return Arrays.stream(AttachmentType.values())
-            .filter(item -> !item.equals(UNKNOWN) && mimeType.matches(item.getMimeTypePattern()))
+            .filter(item -> !item.equals(UNKNOWN) && lowerCaseMimeType.matches(item.getMimeTypePattern()))
             .findFirst()
             .orElse(UNKNOWN);
     }
@@ -0,0 +1,29 @@
+package ru.dlabs71.library.email.type;
+
+/**
+ * Types of events of a mail folder delivered by a folder subscription.
+ *
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public enum FolderEventType {
+
+    /**
+     * New messages were added to the folder.
+     */
+    MESSAGES_ADDED,
+
+    /**
+     * Messages were expunged from the folder.
+     */
+    MESSAGES_REMOVED,
+
+    /**
+     * Flags of messages were changed (For example: a message was marked as read).
+     */
+    FLAGS_CHANGED
+}
@@ -0,0 +1,24 @@
+package ru.dlabs71.library.email.type;
+
+/**
+ * Strategies of choosing an SMTP relay for sending a message, if several relays are set.
+ *
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public enum RelayBalancing {
+
+    /**
+     * Relays are chosen in turn. A relay with the weight 2 gets twice as many messages as a relay with the weight 1.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * The relay with the least number of messages being sent now (per a unit of its weight) is chosen.
+     */
+    LEAST_OUTSTANDING
+}
@@ -1,19 +1,23 @@
 package ru.dlabs71.library.email.util;
 
+import jakarta.activation.DataSource;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import ru.dlabs71.library.email.dto.message.common.EmailAttachment;
 import ru.dlabs71.library.email.exception.AttachmentException;
 import ru.dlabs71.library.email.mime.DefaultFileParametersDetector;
+import ru.dlabs71.library.email.mime.FileChannelDataSource;
 import ru.dlabs71.library.email.mime.FileParametersDetector;
+import ru.dlabs71.library.email.mime.PathDataSource;
 import ru.dlabs71.library.email.type.AttachmentType;
 
 /**
@@ -90,35 +94,106 @@ public class AttachmentUtils {
      * The path to file must start with the following prefixes: "file://", "classpath:" or a path separator.
      * Relatives paths is not supported.
      *
+     * <p>The file isn't read into memory. Its content is streamed when the message is being sent.
+     *
      * @param pathToFile the path to file
      *
      * @return an object of the {@link EmailAttachment} class
      *
      * @throws AttachmentException exception may occur when the file path doesn't satisfy conditions or doesn't parse.
-     *                             Also, an exception may occur while reading the file.
      */
     public EmailAttachment create(String pathToFile, FileParametersDetector detector) throws AttachmentException {
         File file = createFile(pathToFile);
+        return create(file.toPath(), detector);
+    }
+
+    /**
+     * Creates an object of the {@link EmailAttachment} class by the path to file.
+     *
+     * @see AttachmentUtils#create(Path, FileParametersDetector)
+     */
+    public EmailAttachment create(Path path) throws AttachmentException {
+        return create(path, DefaultFileParametersDetector.getInstance());
+    }
+
+    /**
+     * Creates an object of the {@link EmailAttachment} class backed by the file. The file isn't read into memory.
+     * Its content is streamed when the message is being sent, so the file must exist until then.
+     *
+     * @param path     the path to file
+     * @param detector {@linkplain FileParametersDetector} detector for getting different file parameters
+     *
+     * @return an object of the {@link EmailAttachment} class
+     *
+     * @throws AttachmentException exception may occur when the file doesn't exist or is too large
+     */
+    public EmailAttachment create(Path path, FileParametersDetector detector) throws AttachmentException {
+        File file = path.toFile();
         log.debug("Creates attachment from the file {}", file);
+        if (!file.isFile()) {
+            throw new AttachmentException("File doesn't exist. The path = " + path);
+        }
         if (file.length() > Integer.MAX_VALUE) {
             throw new AttachmentException(
                 "The file is too large. A file cannot be larger than "
                     + Integer.MAX_VALUE + ". Filename = "
-                    + pathToFile);
+                    + path);
         }
         String contentType = createContentTypeForAttachment(file, detector);
         log.debug("Content type for file is {}", contentType);
-        byte[] content;
+        return EmailAttachment.builder()
+            .name(file.getName())
+            .dataSource(new PathDataSource(path, contentType))
+            .size((int) file.length())
+            .contentType(contentType)
+            .type(AttachmentType.find(contentType))
+            .build();
+    }
+
+    /**
+     * Creates an object of the {@link EmailAttachment} class backed by the opened file channel.
+     * The channel is read from the beginning when the message is being sent. The channel isn't closed.
+     *
+     * @param channel     the opened file channel
+     * @param name        the name of the attachment
+     * @param contentType the value of the Content-Type header
+     *
+     * @return an object of the {@link EmailAttachment} class
+     *
+     * @throws AttachmentException exception may occur when the size of the channel couldn't be read
+     *                             or the channel is too large
+     */
+    public EmailAttachment create(FileChannel channel, String name, String contentType) throws AttachmentException {
+        JavaCoreUtils.notNullArgument(channel, "channel");
+        long size;
         try {
-            InputStream inputStream = Files.newInputStream(file.toPath());
-            content = JavaCoreUtils.toByteArray(inputStream);
+            size = channel.size();
         } catch (IOException ex) {
-            throw new AttachmentException("Read the file was failed. " + ex.getMessage());
+            throw new AttachmentException("Getting the size of the channel failed. " + ex.getMessage(), ex);
         }
+        if (size > Integer.MAX_VALUE) {
+            throw new AttachmentException(
+                "The file is too large. A file cannot be larger than " + Integer.MAX_VALUE + ". Filename = " + name);
+        }
+        return create(new FileChannelDataSource(channel, name, contentType), (int) size);
+    }
+
+    /**
+     * Creates an object of the {@link EmailAttachment} class backed by the data source. The name and the content type
+     * of the attachment are taken from the data source. The content is read when the message is being sent.
+     *
+     * @param dataSource the data source
+     * @param size       the size of the content in bytes or null if it's unknown
+     *
+     * @return an object of the {@link EmailAttachment} class
+     */
+    public EmailAttachment create(DataSource dataSource, Integer size) {
+        JavaCoreUtils.notNullArgument(dataSource, "dataSource");
+        String contentType = dataSource.getContentType();
         return EmailAttachment.builder()
-            .name(file.getName())
-            .data(content)
-            .size((int) file.length())
+            .name(dataSource.getName())
+            .dataSource(dataSource)
+            .size(size)
             .contentType(contentType)
             .type(AttachmentType.find(contentType))
             .build();
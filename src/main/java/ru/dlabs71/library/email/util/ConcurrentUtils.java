@@ -0,0 +1,88 @@
+package ru.dlabs71.library.email.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The utility class contains helpful methods for creating executors and threads used by the library.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Slf4j
+@UtilityClass
+public class ConcurrentUtils {
+
+    /**
+     * Creates a thread factory, which creates daemon threads with names like 'prefix-1', 'prefix-2', etc.
+     *
+     * @param prefix a prefix of thread names
+     *
+     * @return an instance of {@link ThreadFactory}
+     */
+    public ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates the executor with a fixed number of threads and a bounded queue of tasks.
+     * When the queue is full, a submitted task is executed by the submitting thread. It slows down the producer
+     * of tasks (backpressure) instead of growing the queue without limit. When the executor is shut down,
+     * then submitted tasks are rejected with a {@link RejectedExecutionException}.
+     *
+     * @param prefix        a prefix of thread names
+     * @param threads       the number of threads
+     * @param queueCapacity the maximum number of tasks waiting for execution
+     *
+     * @return an instance of {@link ThreadPoolExecutor}
+     */
+    public ThreadPoolExecutor newBoundedExecutor(String prefix, int threads, int queueCapacity) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be greater than 0");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("The queue capacity must be greater than 0");
+        }
+        return new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            namedThreadFactory(prefix),
+            new CallerRunsUnlessShutdownPolicy()
+        );
+    }
+
+    /**
+     * The rejection policy, which runs a task in the submitting thread if the executor is alive,
+     * and throws {@link RejectedExecutionException} if the executor is shut down.
+     * Unlike {@link ThreadPoolExecutor.CallerRunsPolicy}, it never discards tasks silently.
+     */
+    private static class CallerRunsUnlessShutdownPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("The executor has been shut down");
+            }
+            log.debug("The queue of the executor is full. The task is executed by the submitting thread");
+            runnable.run();
+        }
+    }
+}
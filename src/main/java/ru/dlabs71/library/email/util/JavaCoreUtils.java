@@ -34,7 +34,7 @@ public class JavaCoreUtils {
     public static byte[] toByteArray(InputStream in) throws IOException {
         ByteArrayOutputStream os = new ByteArrayOutputStream();
 
-        byte[] buffer = new byte[1024];
+        byte[] buffer = new byte[8192];
         int len;
         while ((len = in.read(buffer)) != -1) {
             os.write(buffer, 0, len);
@@ -0,0 +1,69 @@
+package ru.dlabs71.library.email.util;
+
+/**
+ * The retry budget limits the ratio of retries to requests of a client. Every request deposits the ratio to
+ * the balance, and every retry withdraws one from it. The balance is limited by the capacity, which is the reserve
+ * of retries for a client that hasn't sent many requests yet.
+ *
+ * <p>When a server fails, all the requests fail, and the balance runs out quickly. Then requests aren't retried,
+ * and the load on the server grows by the ratio at most instead of multiplying by the number of attempts.
+ *
+ * <p>The class is thread-safe.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double capacity;
+    private double balance;
+
+    /**
+     * The constructor of this class. The budget is full at the start.
+     *
+     * @param ratio    the maximum ratio of retries to requests. It must be greater than 0.
+     * @param capacity the maximum number of retries, which can be saved up. It must be at least 1.
+     */
+    public RetryBudget(double ratio, int capacity) {
+        if (ratio <= 0) {
+            throw new IllegalArgumentException("The ratio of the retry budget must be greater than 0");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the retry budget must be at least 1");
+        }
+        this.ratio = ratio;
+        this.capacity = capacity;
+        this.balance = capacity;
+    }
+
+    /**
+     * Deposits the ratio to the balance. It's called once for every request.
+     */
+    public synchronized void deposit() {
+        balance = Math.min(capacity, balance + ratio);
+    }
+
+    /**
+     * Withdraws one retry from the balance.
+     *
+     * @return true if the retry is allowed, or false if the budget is exhausted
+     */
+    public synchronized boolean tryWithdraw() {
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    /**
+     * Returns the current number of available retries.
+     */
+    public synchronized double getBalance() {
+        return balance;
+    }
+}
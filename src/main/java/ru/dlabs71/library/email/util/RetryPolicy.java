@@ -0,0 +1,185 @@
+package ru.dlabs71.library.email.util;
+
+import jakarta.mail.MessagingException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import ru.dlabs71.library.email.property.CommonProperties;
+
+/**
+ * The policy of retrying failed requests to an email server. It's used by the
+ * {@link RetryableUtils#retry(RetryPolicy, RetryableUtils.RetryableSupplier)} method.
+ *
+ * <p>The delay before a retry grows exponentially from the initial delay up to the maximum delay. If the jitter
+ * is enabled, then a random delay from zero to the calculated value is used (full jitter), so the retries of many
+ * threads are spread over time instead of hitting a recovering server at once. A request isn't retried if the error
+ * isn't retryable (see {@link RetryableUtils#isRetryable(MessagingException)}), if the maximum elapsed time would be
+ * exceeded, or if the retry budget ({@link RetryBudget}) is exhausted.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Getter
+public final class RetryPolicy {
+
+    /**
+     * The number of retries, which can be saved up in the retry budget of a client.
+     */
+    public static final int DEFAULT_BUDGET_CAPACITY = 10;
+
+    /**
+     * The maximum number of retries after the first attempt.
+     */
+    private final int maxRetries;
+
+    /**
+     * The delay in milliseconds before the first retry.
+     */
+    private final long initialDelay;
+
+    /**
+     * The maximum delay in milliseconds between attempts.
+     */
+    private final long maxDelay;
+
+    /**
+     * The multiplier of the delay for every next retry.
+     */
+    private final double multiplier;
+
+    /**
+     * Whether a random delay from zero to the calculated value is used.
+     */
+    private final boolean jitter;
+
+    /**
+     * The maximum time in milliseconds of all the attempts. Zero or a negative value means that the time
+     * isn't limited.
+     */
+    private final long maxElapsedTime;
+
+    /**
+     * The retry budget or null if retries aren't limited by a budget.
+     */
+    private final RetryBudget budget;
+
+    @Getter(AccessLevel.NONE)
+    private final Predicate<MessagingException> retryableErrors;
+
+    private RetryPolicy(RetryPolicyBuilder builder) {
+        this.maxRetries = Math.max(builder.maxRetries, 0);
+        this.initialDelay = Math.max(builder.initialDelay, 0);
+        this.maxDelay = Math.max(builder.maxDelay, this.initialDelay);
+        this.multiplier = Math.max(builder.multiplier, 1);
+        this.jitter = builder.jitter;
+        this.maxElapsedTime = builder.maxElapsedTime;
+        this.budget = builder.budget;
+        this.retryableErrors = builder.retryableErrors == null
+            ? RetryableUtils::isRetryable
+            : builder.retryableErrors;
+    }
+
+    /**
+     * Creates the policy by the properties of a client. Every call creates a new retry budget,
+     * so the policy should be created once for a client.
+     *
+     * @param properties the properties of a client
+     *
+     * @return the new policy
+     */
+    public static RetryPolicy of(CommonProperties properties) {
+        JavaCoreUtils.notNullArgument(properties, "properties");
+        return RetryPolicy.builder()
+            .maxRetries(properties.getMaxAttemptsOfRequest())
+            .initialDelay(properties.getAttemptDelayOfRequest())
+            .maxDelay(properties.getMaxAttemptDelayOfRequest())
+            .maxElapsedTime(properties.getMaxElapsedTimeOfRequest())
+            .jitter(properties.isRetryJitter())
+            .budget(properties.getRetryBudgetRatio() > 0
+                ? new RetryBudget(properties.getRetryBudgetRatio(), DEFAULT_BUDGET_CAPACITY)
+                : null)
+            .build();
+    }
+
+    /**
+     * Creates the policy with the fixed delay between attempts. All the errors are retried, and the retries
+     * aren't limited by a budget.
+     *
+     * @param maxRetries the maximum number of retries after the first attempt
+     * @param delay      the delay in milliseconds between attempts
+     *
+     * @return the new policy
+     */
+    public static RetryPolicy fixed(int maxRetries, long delay) {
+        return RetryPolicy.builder()
+            .maxRetries(maxRetries)
+            .initialDelay(delay)
+            .maxDelay(delay)
+            .multiplier(1)
+            .jitter(false)
+            .retryableErrors(ex -> true)
+            .build();
+    }
+
+    /**
+     * Returns true if the request failed with the error should be retried.
+     */
+    public boolean isRetryable(MessagingException exception) {
+        return retryableErrors.test(exception);
+    }
+
+    /**
+     * Returns the delay in milliseconds before the retry.
+     *
+     * @param retry the number of the retry starting from 0
+     */
+    public long getDelay(int retry) {
+        double delay = initialDelay * Math.pow(multiplier, retry);
+        long cappedDelay = (long) Math.min(maxDelay, delay);
+        if (!jitter || cappedDelay == 0) {
+            return cappedDelay;
+        }
+        return ThreadLocalRandom.current().nextLong(cappedDelay + 1);
+    }
+
+    /**
+     * Returns builder for this class.
+     */
+    public static RetryPolicyBuilder builder() {
+        return new RetryPolicyBuilder();
+    }
+
+    /**
+     * Builder class for make {@link RetryPolicy} class instance.
+     */
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @Accessors(chain = true, fluent = true)
+    public static class RetryPolicyBuilder {
+
+        private int maxRetries = 3;
+        private long initialDelay = 0;
+        private long maxDelay = 10000;
+        private double multiplier = 2;
+        private boolean jitter = false;
+        private long maxElapsedTime = 0;
+        private RetryBudget budget;
+        private Predicate<MessagingException> retryableErrors;
+
+        /**
+         * Builds and returns a new instance of {@link RetryPolicy}.
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
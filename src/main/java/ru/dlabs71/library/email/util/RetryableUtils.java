@@ -1,8 +1,25 @@
 package ru.dlabs71.library.email.util;
 
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.FolderNotFoundException;
+import jakarta.mail.IllegalWriteException;
+import jakarta.mail.MessageRemovedException;
 import jakarta.mail.MessagingException;
+import jakarta.mail.MethodNotSupportedException;
+import jakarta.mail.ReadOnlyFolderException;
+import jakarta.mail.SendFailedException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.iap.BadCommandException;
+import org.eclipse.angus.mail.iap.CommandFailedException;
+import org.eclipse.angus.mail.iap.Response;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
 
 /**
  * The Utility class with helper methods for create retryable mechanizes.
@@ -18,7 +35,12 @@ import lombok.extern.slf4j.Slf4j;
 public class RetryableUtils {
 
     /**
-     * Retry mechanism for handler in the 'supplier' argument.
+     * The response codes of IMAP NO responses (RFC 5530), which mean that the command may succeed later.
+     */
+    private static final List<String> TRANSIENT_IMAP_RESPONSE_CODES = Arrays.asList("UNAVAILABLE", "INUSE", "LIMIT");
+
+    /**
+     * Retry mechanism for handler in the 'supplier' argument. It retries all the errors with the fixed delay.
      *
      * @param count     max number of the attempts
      * @param delayInMs delay in milliseconds between attempts
@@ -28,45 +50,190 @@ public class RetryableUtils {
      * @return result of the 'supplier' if it successfully executes
      *
      * @throws MessagingException error while 'supplier' is executing
+     * @see #retry(RetryPolicy, RetryableSupplier)
      */
     public <R> R retry(int count, long delayInMs, RetryableSupplier<R> supplier) throws MessagingException {
-        MessagingException messagingException;
-        do {
+        return RetryableUtils.retry(RetryPolicy.fixed(count, delayInMs), supplier);
+    }
+
+    /**
+     * Retry mechanism for handler in the 'worker' argument. It retries all the errors with the fixed delay.
+     *
+     * @param count     max number of the attempts
+     * @param delayInMs delay in milliseconds between attempts
+     * @param worker    handler function implements the {@link RetryableWorker} interface
+     *
+     * @throws MessagingException error while 'worker' is executing
+     * @see #retry(RetryPolicy, RetryableWorker)
+     */
+    public void retry(int count, long delayInMs, RetryableWorker worker) throws MessagingException {
+        RetryableUtils.retry(RetryPolicy.fixed(count, delayInMs), worker);
+    }
+
+    /**
+     * Retry mechanism for handler in the 'supplier' argument. The request isn't retried if the error isn't
+     * retryable, the maximum elapsed time of the policy would be exceeded or the retry budget is exhausted.
+     * If the thread is interrupted while waiting, then the last error is thrown at once.
+     *
+     * @param policy   the retry policy
+     * @param supplier handler function implements the {@link RetryableSupplier} interface
+     * @param <R>
+     *
+     * @return result of the 'supplier' if it successfully executes
+     *
+     * @throws MessagingException the last error while 'supplier' is executing
+     */
+    public <R> R retry(RetryPolicy policy, RetryableSupplier<R> supplier) throws MessagingException {
+        JavaCoreUtils.notNullArgument(policy, "policy");
+        RetryBudget budget = policy.getBudget();
+        if (budget != null) {
+            budget.deposit();
+        }
+        long startTime = System.currentTimeMillis();
+        int retry = 0;
+        while (true) {
             try {
                 return supplier.get();
             } catch (MessagingException ex) {
-                messagingException = ex;
-                log.warn(ex.getMessage());
-                if (delayInMs != 0) {
-                    log.info("Start delay");
+                if (retry >= policy.getMaxRetries()) {
+                    throw ex;
+                }
+                if (!policy.isRetryable(ex)) {
+                    log.debug("The error isn't retryable: " + ex.getMessage());
+                    throw ex;
+                }
+                long delay = policy.getDelay(retry);
+                long elapsedTime = System.currentTimeMillis() - startTime;
+                if (policy.getMaxElapsedTime() > 0 && elapsedTime + delay > policy.getMaxElapsedTime()) {
+                    log.warn("The maximum time of the request was exceeded: " + ex.getMessage());
+                    throw ex;
+                }
+                if (budget != null && !budget.tryWithdraw()) {
+                    log.warn("The retry budget is exhausted: " + ex.getMessage());
+                    throw ex;
+                }
+                retry++;
+                log.warn("Repeat request in " + delay + " ms. Retry = " + retry + ". Error: " + ex.getMessage());
+                if (delay > 0) {
                     try {
-                        Thread.sleep(delayInMs);
+                        Thread.sleep(delay);
                     } catch (InterruptedException e) {
-                        log.error("Error in delay: " + e.getMessage());
+                        Thread.currentThread().interrupt();
+                        throw ex;
                     }
                 }
-                log.info("Repeat request. Count = " + count);
             }
-        } while (count-- != 0);
-        throw messagingException;
+        }
     }
 
     /**
      * Retry mechanism for handler in the 'worker' argument.
      *
-     * @param count     max number of the attempts
-     * @param delayInMs delay in milliseconds between attempts
-     * @param worker    handler function implements the {@link RetryableWorker} interface
+     * @param policy the retry policy
+     * @param worker handler function implements the {@link RetryableWorker} interface
      *
-     * @throws MessagingException error while 'worker' is executing
+     * @throws MessagingException the last error while 'worker' is executing
+     * @see #retry(RetryPolicy, RetryableSupplier)
      */
-    public void retry(int count, long delayInMs, RetryableWorker worker) throws MessagingException {
-        RetryableUtils.retry(count, delayInMs, () -> {
+    public void retry(RetryPolicy policy, RetryableWorker worker) throws MessagingException {
+        RetryableUtils.retry(policy, () -> {
             worker.work();
             return null;
         });
     }
 
+    /**
+     * Classifies the error of a request to an email server. The next errors aren't retryable, because a repeated
+     * request fails in the same way:
+     * <ul>
+     *     <li>authentication failures, not found or read-only folders, removed messages, unsupported methods;</li>
+     *     <li>SMTP replies with permanent (5xx) codes, for example, rejected recipients;</li>
+     *     <li>a message with invalid recipients only;</li>
+     *     <li>IMAP BAD responses and NO responses except the ones with transient response codes.</li>
+     * </ul>
+     * Other errors, for example, broken connections, timeouts, SMTP replies with transient (4xx) codes and IMAP NO
+     * responses with the [UNAVAILABLE], [INUSE] or [LIMIT] response codes, are retryable.
+     *
+     * @param exception the error of a request
+     *
+     * @return true if the request should be retried
+     */
+    public boolean isRetryable(MessagingException exception) {
+        if (exception instanceof AuthenticationFailedException
+            || exception instanceof FolderNotFoundException
+            || exception instanceof ReadOnlyFolderException
+            || exception instanceof MessageRemovedException
+            || exception instanceof MethodNotSupportedException
+            || exception instanceof IllegalWriteException) {
+            return false;
+        }
+        int returnCode = RetryableUtils.getReturnCode(exception);
+        if (returnCode >= 500) {
+            return false;
+        }
+        if (returnCode >= 400) {
+            return true;
+        }
+        if (exception instanceof SendFailedException) {
+            SendFailedException sendFailedException = (SendFailedException) exception;
+            if (isNotEmpty(sendFailedException.getInvalidAddresses())
+                && !isNotEmpty(sendFailedException.getValidUnsentAddresses())) {
+                return false;
+            }
+        }
+        Throwable cause = exception.getCause();
+        if (cause instanceof CommandFailedException) {
+            return RetryableUtils.isTransientImapResponse(((CommandFailedException) cause).getResponse());
+        }
+        return !(cause instanceof BadCommandException);
+    }
+
+    /**
+     * Returns true if the IMAP NO response has a response code of a transient error,
+     * for example: {@code A1 NO [UNAVAILABLE] The server is busy}.
+     */
+    private static boolean isTransientImapResponse(Response response) {
+        if (response == null) {
+            return false;
+        }
+        String text = response.toString();
+        int start = text.indexOf('[');
+        int end = start < 0 ? -1 : text.indexOf(']', start);
+        if (end < 0) {
+            return false;
+        }
+        String code = text.substring(start + 1, end).trim().split(" ", 2)[0].toUpperCase(Locale.ROOT);
+        return TRANSIENT_IMAP_RESPONSE_CODES.contains(code);
+    }
+
+    /**
+     * Returns the reply code of the SMTP server from the error or its chain of next errors.
+     *
+     * @param exception the error of a request
+     *
+     * @return the reply code or -1 if the error doesn't contain it
+     */
+    public int getReturnCode(MessagingException exception) {
+        Exception current = exception;
+        while (current instanceof MessagingException) {
+            if (current instanceof SMTPSendFailedException) {
+                return ((SMTPSendFailedException) current).getReturnCode();
+            }
+            if (current instanceof SMTPAddressFailedException) {
+                return ((SMTPAddressFailedException) current).getReturnCode();
+            }
+            if (current instanceof SMTPSenderFailedException) {
+                return ((SMTPSenderFailedException) current).getReturnCode();
+            }
+            current = ((MessagingException) current).getNextException();
+        }
+        return -1;
+    }
+
+    private static boolean isNotEmpty(Address[] addresses) {
+        return addresses != null && addresses.length > 0;
+    }
+
     /**
      * Functional interface for using in the {@linkplain RetryableUtils#retry(int, long, RetryableSupplier)}.
      *
@@ -5,9 +5,13 @@ import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.velocity.Template;
@@ -24,6 +28,12 @@ import ru.dlabs71.library.email.exception.TemplateCreationException;
  *
  * <p>For more information about the velocity template engine, use the link:
  * <a href="https://velocity.apache.org/engine/1.7/user-guide.html#what-is-velocity">Apache Velocity Project</a>
+ *
+ * <p>Velocity engines are created once per resource loader (and per directory or jar file for the file and jar
+ * loaders) and reused. Parsed templates are kept in the LRU cache, so rendering a known template costs only
+ * the merge. Use the {@link #setTemplateCacheSize(int)} method to change the size of the cache (0 disables it).
+ * Templates from the file system aren't reloaded when their files change, until you enable the modification check
+ * by the {@link #setModificationCheckEnabled(boolean)} method.
  * <p>
  * <div><strong>Project name:</strong> d-email</div>
  * <div><strong>Creation date:</strong> 2023-08-27</div>
@@ -35,6 +45,61 @@ import ru.dlabs71.library.email.exception.TemplateCreationException;
 @UtilityClass
 public class TemplateUtils {
 
+    private static final int DEFAULT_TEMPLATE_CACHE_SIZE = 256;
+    private static final String CLASSPATH_LOADER = "classpath";
+    private static final String FILE_LOADER = "file";
+    private static final String JAR_LOADER = "jar";
+
+    /** Initialized engines. The key is a loader name and a path of the loader. **/
+    private static final Map<String, VelocityEngine> ENGINES = new ConcurrentHashMap<>();
+    /** Parsed templates. Guarded by itself. **/
+    private static final TemplateCache TEMPLATE_CACHE = new TemplateCache(DEFAULT_TEMPLATE_CACHE_SIZE);
+    private static volatile boolean modificationCheckEnabled = false;
+
+    /**
+     * Sets the maximum number of parsed templates kept in the cache. The least recently used templates are evicted
+     * when the cache is full. The value 0 disables caching. The default value is 256.
+     *
+     * @param size the maximum number of cached templates
+     */
+    public void setTemplateCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of the template cache cannot be negative");
+        }
+        synchronized (TEMPLATE_CACHE) {
+            TEMPLATE_CACHE.setMaxSize(size);
+        }
+    }
+
+    /**
+     * Returns the maximum number of parsed templates kept in the cache.
+     */
+    public int getTemplateCacheSize() {
+        synchronized (TEMPLATE_CACHE) {
+            return TEMPLATE_CACHE.getMaxSize();
+        }
+    }
+
+    /**
+     * Enables or disables checking the modification time of cached templates loaded from the file system
+     * ('file://'). If it is enabled, then a cached template is parsed again when its file has been changed.
+     * It is disabled by default.
+     *
+     * @param enabled true for enabling the check
+     */
+    public void setModificationCheckEnabled(boolean enabled) {
+        modificationCheckEnabled = enabled;
+    }
+
+    /**
+     * Removes all the parsed templates from the cache.
+     */
+    public void clearTemplateCache() {
+        synchronized (TEMPLATE_CACHE) {
+            TEMPLATE_CACHE.clear();
+        }
+    }
+
     /**
      * It returns the string constructed from the template and its parameters.
      *
@@ -66,7 +131,8 @@ public class TemplateUtils {
     }
 
     /**
-     * This method creates a template object by using a path to the template.
+     * This method returns a template object by using a path to the template. The template is taken from the cache
+     * if it has been already parsed.
      *
      * @param pathToTemplate a path to the template. This parameter must start with one
      *                       of these substrings: 'file://', 'classpath:', 'jar:file:'.
@@ -76,18 +142,60 @@ public class TemplateUtils {
      * @throws TemplateCreationException this exception will occur if the path to the template isn't valid
      */
     public Template createTemplate(String pathToTemplate) throws TemplateCreationException {
+        String loader = getLoaderName(pathToTemplate);
+        TemplateKey key = new TemplateKey(loader, normalizeTemplatePath(pathToTemplate));
+        Template template;
+        synchronized (TEMPLATE_CACHE) {
+            template = TEMPLATE_CACHE.get(key);
+        }
+        if (template != null && !isModified(loader, template)) {
+            return template;
+        }
+
+        template = parseTemplate(loader, pathToTemplate);
+        synchronized (TEMPLATE_CACHE) {
+            if (TEMPLATE_CACHE.getMaxSize() > 0) {
+                TEMPLATE_CACHE.put(key, template);
+            }
+        }
+        return template;
+    }
+
+    private static boolean isModified(String loader, Template template) {
+        if (!modificationCheckEnabled || !FILE_LOADER.equals(loader)) {
+            return false;
+        }
+        boolean modified = template.isSourceModified();
+        if (modified) {
+            log.debug("The template {} was modified. It'll be parsed again", template.getName());
+        }
+        return modified;
+    }
+
+    private static String getLoaderName(String pathToTemplate) throws TemplateCreationException {
         if (pathToTemplate.startsWith("file://")) {
-            return createFileTemplate(pathToTemplate);
+            return FILE_LOADER;
         } else if (pathToTemplate.startsWith("classpath:")) {
-            return createClasspathTemplate(pathToTemplate);
+            return CLASSPATH_LOADER;
         } else if (pathToTemplate.startsWith("jar:file:")) {
-            return createJarFileTemplate(pathToTemplate);
+            return JAR_LOADER;
         }
         throw new TemplateCreationException(
             "Template path must starts with 'file://', 'classpath:' or 'jar:file:'. It's using template path: "
                 + pathToTemplate);
     }
 
+    private static Template parseTemplate(String loader, String pathToTemplate) {
+        switch (loader) {
+            case FILE_LOADER:
+                return createFileTemplate(pathToTemplate);
+            case JAR_LOADER:
+                return createJarFileTemplate(pathToTemplate);
+            default:
+                return createClasspathTemplate(pathToTemplate);
+        }
+    }
+
     /**
      * This method creates a template object from classpath resource.
      *
@@ -97,11 +205,7 @@ public class TemplateUtils {
      */
     public Template createClasspathTemplate(String pathTemplate) {
         log.debug("A template will create from classpath source using the path equal to {}", pathTemplate);
-        VelocityEngine velocityEngine = new VelocityEngine();
-        velocityEngine.setProperty(RuntimeConstants.RESOURCE_LOADERS, "classpath");
-        velocityEngine.setProperty("resource.loader.classpath.class", ClasspathResourceLoader.class.getName());
-        velocityEngine.init();
-
+        VelocityEngine velocityEngine = getEngine(CLASSPATH_LOADER, "", ClasspathResourceLoader.class.getName());
         TemplatePath templatePath = normalizeTemplatePath(pathTemplate);
         return velocityEngine.getTemplate(
             templatePath.getFullPath(),
@@ -118,14 +222,12 @@ public class TemplateUtils {
      */
     public Template createFileTemplate(String pathTemplate) {
         log.debug("A template will create from file system source using the path equal to {}", pathTemplate);
-        VelocityEngine velocityEngine = new VelocityEngine();
         TemplatePath templatePath = normalizeTemplatePath(pathTemplate);
-        velocityEngine.setProperty(RuntimeConstants.RESOURCE_LOADERS, "file");
-        velocityEngine.setProperty("resource.loader.file.class", FileResourceLoader.class.getName());
-        velocityEngine.setProperty("resource.loader.file.path", templatePath.getPathToDir());
-        velocityEngine.setProperty("resource.loader.file.cache", false);
-        velocityEngine.setProperty("resource.loader.file.modification_check_interval", 0);
-        velocityEngine.init();
+        VelocityEngine velocityEngine = getEngine(
+            FILE_LOADER,
+            templatePath.getPathToDir(),
+            FileResourceLoader.class.getName()
+        );
         return velocityEngine.getTemplate(templatePath.getTemplateName(), StandardCharsets.UTF_8.name());
     }
 
@@ -138,15 +240,41 @@ public class TemplateUtils {
      */
     public Template createJarFileTemplate(String pathTemplate) {
         log.debug("A template will create from jar using the path equal to {}", pathTemplate);
-        VelocityEngine velocityEngine = new VelocityEngine();
         TemplatePath templatePath = normalizeTemplatePath(pathTemplate);
-        velocityEngine.setProperty(RuntimeConstants.RESOURCE_LOADERS, "jar");
-        velocityEngine.setProperty("resource.loader.jar.class", JarResourceLoader.class.getName());
-        velocityEngine.setProperty("resource.loader.jar.path", templatePath.getPathToDir());
-        velocityEngine.init();
+        VelocityEngine velocityEngine = getEngine(
+            JAR_LOADER,
+            templatePath.getPathToDir(),
+            JarResourceLoader.class.getName()
+        );
         return velocityEngine.getTemplate(templatePath.getTemplateName(), StandardCharsets.UTF_8.name());
     }
 
+    /**
+     * Returns the initialized engine for the loader and the path of the loader. The engine is created once.
+     * The internal cache of the loader is disabled, because parsed templates are cached by this class.
+     *
+     * @param loader      a name of the resource loader
+     * @param loaderPath  a path for the resource loader (a directory or a jar file). It's empty for the classpath
+     * @param loaderClass a class name of the resource loader
+     *
+     * @return the initialized engine
+     */
+    private static VelocityEngine getEngine(String loader, String loaderPath, String loaderClass) {
+        return ENGINES.computeIfAbsent(loader + ":" + loaderPath, key -> {
+            log.debug("A new velocity engine will be created for the {} loader with the path {}", loader, loaderPath);
+            VelocityEngine velocityEngine = new VelocityEngine();
+            velocityEngine.setProperty(RuntimeConstants.RESOURCE_LOADERS, loader);
+            velocityEngine.setProperty("resource.loader." + loader + ".class", loaderClass);
+            if (!CLASSPATH_LOADER.equals(loader)) {
+                velocityEngine.setProperty("resource.loader." + loader + ".path", loaderPath);
+            }
+            velocityEngine.setProperty("resource.loader." + loader + ".cache", false);
+            velocityEngine.setProperty("resource.loader." + loader + ".modification_check_interval", 0);
+            velocityEngine.init();
+            return velocityEngine;
+        });
+    }
+
     /**
      * This method normalizes a template path. It'll remove different prefixes and split the incoming string
      * into a path to a directory and the name of a file in this directory.
@@ -201,6 +329,8 @@ public class TemplateUtils {
      * The class describes a path to template.
      */
     @Getter
+    @ToString
+    @EqualsAndHashCode
     @RequiredArgsConstructor
     public static class TemplatePath {
 
@@ -214,4 +344,42 @@ public class TemplateUtils {
             return pathToDir + File.separator + templateName;
         }
     }
+
+    /**
+     * The key of the template cache. The same path may be used by different loaders.
+     */
+    @ToString
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class TemplateKey {
+
+        private final String loader;
+        private final TemplatePath path;
+    }
+
+    /**
+     * The LRU cache of parsed templates.
+     */
+    private static final class TemplateCache extends LinkedHashMap<TemplateKey, Template> {
+
+        @Getter
+        private int maxSize;
+
+        TemplateCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+            while (this.size() > maxSize) {
+                this.remove(this.keySet().iterator().next());
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TemplateKey, Template> eldest) {
+            return this.size() > maxSize;
+        }
+    }
 }
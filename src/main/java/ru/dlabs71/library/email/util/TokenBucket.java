@@ -0,0 +1,118 @@
+package ru.dlabs71.library.email.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The token bucket limiting the rate of operations. The bucket is refilled with the rate, and an operation takes
+ * tokens from the bucket. If the bucket doesn't have enough tokens, then the operation waits. The waiting operations
+ * are served in the order of their arrival, because every operation reserves tokens in advance.
+ *
+ * <p>The rate is adaptive: it's halved when the server throttles requests ({@link #decreaseRate()}) and grows back
+ * by small steps after successful requests ({@link #increaseRate()}), but it never exceeds the configured rate
+ * and never falls below a tenth of it.
+ *
+ * <p>The class is thread-safe.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double MIN_RATE_RATIO = 0.1;
+    private static final double RATE_INCREASE_RATIO = 0.05;
+
+    private final double maxRate;
+    private final double minRate;
+    private final double capacity;
+    private double rate;
+    private double tokens;
+    private long lastRefillTime;
+
+    /**
+     * The constructor of this class. The bucket is full at the start.
+     *
+     * @param rate     the number of tokens per second. It must be greater than 0.
+     * @param capacity the maximum number of tokens, which can be taken without waiting. It must be at least 1.
+     */
+    public TokenBucket(double rate, double capacity) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("The rate must be greater than 0");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1");
+        }
+        this.maxRate = rate;
+        this.minRate = rate * MIN_RATE_RATIO;
+        this.capacity = capacity;
+        this.rate = rate;
+        this.tokens = capacity;
+        this.lastRefillTime = System.nanoTime();
+    }
+
+    /**
+     * Reserves the tokens. The tokens are taken at once, even if the bucket doesn't have them,
+     * and the caller must wait for the returned time before the operation.
+     *
+     * @param permits the number of tokens
+     *
+     * @return the time in nanoseconds to wait
+     */
+    public synchronized long reserve(int permits) {
+        this.refill();
+        tokens -= permits;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(-tokens / rate * NANOS_PER_SECOND);
+    }
+
+    /**
+     * Takes the tokens and waits until the bucket has them.
+     *
+     * @param permits the number of tokens
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public void acquire(int permits) throws InterruptedException {
+        long waitTime = this.reserve(permits);
+        if (waitTime > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitTime);
+        }
+    }
+
+    /**
+     * Halves the rate and drops the saved tokens. It's called when the server throttles requests.
+     */
+    public synchronized void decreaseRate() {
+        this.refill();
+        rate = Math.max(minRate, rate / 2);
+        tokens = Math.min(tokens, 0);
+    }
+
+    /**
+     * Increases the rate by a twentieth of the configured rate. It's called after a successful request.
+     */
+    public synchronized void increaseRate() {
+        if (rate < maxRate) {
+            this.refill();
+            rate = Math.min(maxRate, rate + maxRate * RATE_INCREASE_RATIO);
+        }
+    }
+
+    /**
+     * Returns the current number of tokens per second.
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillTime) * rate / NANOS_PER_SECOND);
+        lastRefillTime = now;
+    }
+}
@@ -0,0 +1,160 @@
+package ru.dlabs71.library.email.support;
+
+import jakarta.mail.Flags;
+import jakarta.mail.Folder;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.NoSuchProviderException;
+import jakarta.mail.Session;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The folder, which doesn't connect to any server. It only counts openings and closings.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public class StubFolder extends Folder {
+
+    public static final AtomicInteger OPENINGS = new AtomicInteger();
+    public static final AtomicInteger CLOSINGS = new AtomicInteger();
+
+    private final String name;
+    private boolean opened = false;
+
+    public StubFolder(String name) throws NoSuchProviderException {
+        super(Session.getInstance(new Properties()).getStore("imap"));
+        this.name = name;
+    }
+
+    /**
+     * Creates and opens a new folder.
+     */
+    public static Folder open(String name, int mode) {
+        try {
+            StubFolder folder = new StubFolder(name);
+            folder.open(mode);
+            return folder;
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void reset() {
+        OPENINGS.set(0);
+        CLOSINGS.set(0);
+    }
+
+    /**
+     * Simulates a broken connection.
+     */
+    public void breakConnection() {
+        opened = false;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getFullName() {
+        return name;
+    }
+
+    @Override
+    public Folder getParent() {
+        return null;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public Folder[] list(String pattern) {
+        return new Folder[0];
+    }
+
+    @Override
+    public char getSeparator() {
+        return '/';
+    }
+
+    @Override
+    public int getType() {
+        return HOLDS_MESSAGES;
+    }
+
+    @Override
+    public boolean create(int type) {
+        return false;
+    }
+
+    @Override
+    public boolean hasNewMessages() {
+        return false;
+    }
+
+    @Override
+    public Folder getFolder(String name) {
+        return null;
+    }
+
+    @Override
+    public boolean delete(boolean recurse) {
+        return false;
+    }
+
+    @Override
+    public boolean renameTo(Folder folder) {
+        return false;
+    }
+
+    @Override
+    public void open(int mode) {
+        this.mode = mode;
+        this.opened = true;
+        OPENINGS.incrementAndGet();
+    }
+
+    @Override
+    public void close(boolean expunge) {
+        this.opened = false;
+        CLOSINGS.incrementAndGet();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return opened;
+    }
+
+    @Override
+    public Flags getPermanentFlags() {
+        return new Flags();
+    }
+
+    @Override
+    public int getMessageCount() {
+        return 0;
+    }
+
+    @Override
+    public Message getMessage(int msgnum) {
+        return null;
+    }
+
+    @Override
+    public void appendMessages(Message[] msgs) {
+    }
+
+    @Override
+    public Message[] expunge() {
+        return new Message[0];
+    }
+}
@@ -0,0 +1,917 @@
+package ru.dlabs71.library.email.support;
+
+import jakarta.activation.DataHandler;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.Session;
+import jakarta.mail.internet.ContentDisposition;
+import jakarta.mail.internet.ContentType;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import jakarta.mail.internet.ParameterList;
+import jakarta.mail.util.ByteArrayDataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import ru.dlabs71.library.email.property.ImapProperties;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * The IMAP server, which keeps one folder (INBOX) in memory. It supports the commands used by the IMAP client
+ * of the library: SELECT and EXAMINE (with CONDSTORE and QRESYNC), FETCH, STORE, SEARCH, EXPUNGE and their UID
+ * forms. Reading a body section without PEEK from a folder selected for read and write sets the \Seen flag,
+ * like a real server does.
+ *
+ * <p>Changes made by one connection aren't announced to the other connections. All the received commands
+ * are collected without tags (see {@link #getCommands()}).
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public class StubImapServer implements AutoCloseable {
+
+    public static final String FOLDER_NAME = "INBOX";
+    public static final long UID_VALIDITY = 1;
+
+    private static final String CRLF = "\r\n";
+    private static final String SEEN_FLAG = "\\Seen";
+    private static final String DELETED_FLAG = "\\Deleted";
+
+    private final ServerSocket serverSocket;
+    private final String capabilities;
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private final List<String> commands = new CopyOnWriteArrayList<>();
+
+    /** The messages of the folder in the order of their sequence numbers. Guarded by {@code this}. **/
+    private final List<StubMessage> messages = new ArrayList<>();
+    /** The expunged UIDs with the modification sequences of the expunging. Guarded by {@code this}. **/
+    private final Map<Long, Long> expungedUids = new TreeMap<>();
+    private long nextUid = 1;
+    private long highestModSeq = 1;
+    private volatile String searchResponse;
+    private volatile boolean closed = false;
+
+    /**
+     * Starts the server on a free port of the local host.
+     *
+     * @param capabilities the capabilities besides IMAP4rev1. For example: CONDSTORE, QRESYNC, ESEARCH.
+     *                     QRESYNC adds CONDSTORE.
+     */
+    public StubImapServer(String... capabilities) throws IOException {
+        Set<String> allCapabilities = new LinkedHashSet<>(Arrays.asList("IMAP4rev1", "UIDPLUS"));
+        allCapabilities.addAll(Arrays.asList(capabilities));
+        if (allCapabilities.contains("QRESYNC")) {
+            // QRESYNC implies CONDSTORE (RFC 7162), and real servers advertise both
+            allCapabilities.add("CONDSTORE");
+        }
+        if (allCapabilities.contains("CONDSTORE")) {
+            allCapabilities.add("ENABLE");
+        }
+        this.capabilities = String.join(" ", allCapabilities);
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "stub-imap-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Returns the builder of the properties for connecting to this server.
+     */
+    public ImapProperties.ImapPropertiesBuilder imapPropertiesBuilder() {
+        return ImapProperties.builder()
+            .host(serverSocket.getInetAddress().getHostAddress())
+            .port(serverSocket.getLocalPort())
+            .email("recipient@example.com")
+            .password("password")
+            .maxAttemptsOfRequest(0);
+    }
+
+    /**
+     * Creates a raw message with the text content and, if the name isn't null, the attachment.
+     */
+    public static byte[] createMessage(String subject, String text, String attachmentName, byte[] attachmentData) {
+        try {
+            MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+            message.setFrom(new InternetAddress("sender@example.com", "Sender"));
+            message.setRecipient(Message.RecipientType.TO, new InternetAddress("recipient@example.com"));
+            message.setSubject(subject);
+            message.setSentDate(new Date());
+            if (attachmentName == null) {
+                message.setText(text, StandardCharsets.UTF_8.name());
+            } else {
+                MimeBodyPart textPart = new MimeBodyPart();
+                textPart.setText(text, StandardCharsets.UTF_8.name());
+                MimeBodyPart attachmentPart = new MimeBodyPart();
+                attachmentPart.setDataHandler(new DataHandler(
+                    new ByteArrayDataSource(attachmentData, "application/pdf")
+                ));
+                attachmentPart.setFileName(attachmentName);
+                attachmentPart.setDisposition(Part.ATTACHMENT);
+                message.setContent(new MimeMultipart(textPart, attachmentPart));
+            }
+            message.saveChanges();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            message.writeTo(output);
+            return output.toByteArray();
+        } catch (MessagingException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds the message to the folder.
+     *
+     * @return the UID of the message
+     */
+    public synchronized long addMessage(byte[] raw) {
+        StubMessage message = new StubMessage(nextUid++, raw, ++highestModSeq);
+        messages.add(message);
+        return message.uid;
+    }
+
+    /**
+     * Returns the flags of the message or null if there is no message with the UID.
+     */
+    public synchronized Set<String> getFlags(long uid) {
+        StubMessage message = this.findByUid(uid);
+        return message == null ? null : new LinkedHashSet<>(message.flags);
+    }
+
+    /**
+     * Sets the flag of the message like another client does.
+     */
+    public synchronized void setFlag(long uid, String flag) {
+        StubMessage message = this.findByUid(uid);
+        if (message != null && message.flags.add(flag)) {
+            message.modSeq = ++highestModSeq;
+        }
+    }
+
+    /**
+     * Expunges the message like another client does.
+     */
+    public synchronized void expunge(long uid) {
+        StubMessage message = this.findByUid(uid);
+        if (message != null) {
+            messages.remove(message);
+            expungedUids.put(uid, ++highestModSeq);
+        }
+    }
+
+    /**
+     * Sets the untagged response to the SEARCH commands instead of the list of all the messages. The {@code {tag}}
+     * placeholder is replaced by the tag of the command. For example: {@code * ESEARCH (TAG "{tag}") UID ALL 1:3}.
+     */
+    public void setSearchResponse(String searchResponse) {
+        this.searchResponse = searchResponse;
+    }
+
+    /**
+     * Returns the received commands without tags. For example: {@code UID FETCH 1:* (UID)}.
+     */
+    public List<String> getCommands() {
+        return new ArrayList<>(commands);
+    }
+
+    public void clearCommands() {
+        commands.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                Thread handler = new Thread(new Connection(socket), "stub-imap-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private StubMessage findByUid(long uid) {
+        return messages.stream().filter(message -> message.uid == uid).findFirst().orElse(null);
+    }
+
+    private long getMaxUid() {
+        return messages.isEmpty() ? 0 : messages.get(messages.size() - 1).uid;
+    }
+
+    /**
+     * Splits the arguments by spaces, which aren't inside quotes, parentheses or brackets.
+     */
+    private static List<String> split(String arguments) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        int depth = 0;
+        boolean quoted = false;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (quoted) {
+                token.append(c);
+                if (c == '\\' && i + 1 < arguments.length()) {
+                    token.append(arguments.charAt(++i));
+                } else if (c == '"') {
+                    quoted = false;
+                }
+                continue;
+            }
+            if (c == ' ' && depth == 0) {
+                if (token.length() > 0) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+                continue;
+            }
+            if (c == '"') {
+                quoted = true;
+            } else if (c == '(' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == ']') {
+                depth--;
+            }
+            token.append(c);
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static List<String> splitList(String list) {
+        if (list.startsWith("(") && list.endsWith(")")) {
+            return split(list.substring(1, list.length() - 1));
+        }
+        return Collections.singletonList(list);
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+        }
+        return value;
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "NIL";
+        }
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String flagList(Set<String> flags) {
+        return "(" + String.join(" ", flags) + ")";
+    }
+
+    /**
+     * Parses the sequence set of numbers or UIDs. For example: {@code 1:3,5,7:*}.
+     */
+    private static boolean inSet(String set, long value, long max) {
+        for (String item : set.split(",")) {
+            int delimiter = item.indexOf(':');
+            String first = delimiter < 0 ? item : item.substring(0, delimiter);
+            String last = delimiter < 0 ? item : item.substring(delimiter + 1);
+            long start = "*".equals(first) ? max : Long.parseLong(first);
+            long end = "*".equals(last) ? max : Long.parseLong(last);
+            if (value >= Math.min(start, end) && value <= Math.max(start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The message of the folder.
+     */
+    private static final class StubMessage {
+
+        private final long uid;
+        private final byte[] raw;
+        private final MimeMessage parsed;
+        private final Date internalDate = new Date();
+        private final Set<String> flags = new LinkedHashSet<>();
+        private long modSeq;
+
+        StubMessage(long uid, byte[] raw, long modSeq) {
+            this.uid = uid;
+            this.raw = raw;
+            this.modSeq = modSeq;
+            try {
+                this.parsed = new MimeMessage(Session.getInstance(new Properties()), new ByteArrayInputStream(raw));
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int getHeaderLength() {
+            for (int i = 0; i + 3 < raw.length; i++) {
+                if (raw[i] == '\r' && raw[i + 1] == '\n' && raw[i + 2] == '\r' && raw[i + 3] == '\n') {
+                    return i + 4;
+                }
+            }
+            return raw.length;
+        }
+
+        byte[] getSection(String section) throws MessagingException, IOException {
+            int headerLength = this.getHeaderLength();
+            if (section.isEmpty()) {
+                return raw;
+            }
+            if ("HEADER".equals(section)) {
+                return Arrays.copyOfRange(raw, 0, headerLength);
+            }
+            if ("TEXT".equals(section)) {
+                return Arrays.copyOfRange(raw, headerLength, raw.length);
+            }
+            if (section.startsWith("HEADER.FIELDS (")) {
+                Set<String> names = splitList(section.substring("HEADER.FIELDS ".length())).stream()
+                    .map(name -> unquote(name).toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+                StringBuilder result = new StringBuilder();
+                Enumeration<String> lines = parsed.getAllHeaderLines();
+                while (lines.hasMoreElements()) {
+                    String line = lines.nextElement();
+                    int colon = line.indexOf(':');
+                    if (colon > 0 && names.contains(line.substring(0, colon).trim().toLowerCase(Locale.ROOT))) {
+                        result.append(line).append(CRLF);
+                    }
+                }
+                return result.append(CRLF).toString().getBytes(StandardCharsets.UTF_8);
+            }
+            String[] items = section.split("\\.");
+            Part part = parsed;
+            int index = 0;
+            for (; index < items.length && items[index].matches("\\d+"); index++) {
+                Object content = part.getContent();
+                if (content instanceof Multipart) {
+                    part = ((Multipart) content).getBodyPart(Integer.parseInt(items[index]) - 1);
+                }
+            }
+            if (index < items.length && "MIME".equals(items[index])) {
+                StringBuilder result = new StringBuilder();
+                Enumeration<String> lines = ((MimeBodyPart) part).getAllHeaderLines();
+                while (lines.hasMoreElements()) {
+                    result.append(lines.nextElement()).append(CRLF);
+                }
+                return result.append(CRLF).toString().getBytes(StandardCharsets.UTF_8);
+            }
+            if (part instanceof MimeMessage) {
+                return Arrays.copyOfRange(raw, headerLength, raw.length);
+            }
+            return JavaCoreUtils.toByteArray(((MimeBodyPart) part).getRawInputStream());
+        }
+
+        String getEnvelope() throws MessagingException {
+            String from = addressList(parsed.getFrom());
+            return "(" + quote(parsed.getHeader("Date", null))
+                + " " + quote(parsed.getHeader("Subject", null))
+                + " " + from
+                + " " + from
+                + " " + from
+                + " " + addressList(parsed.getRecipients(Message.RecipientType.TO))
+                + " " + addressList(parsed.getRecipients(Message.RecipientType.CC))
+                + " " + addressList(parsed.getRecipients(Message.RecipientType.BCC))
+                + " NIL"
+                + " " + quote(parsed.getMessageID())
+                + ")";
+        }
+
+        String getBodyStructure() throws MessagingException, IOException {
+            return bodyStructure(parsed);
+        }
+
+        private static String bodyStructure(Part part) throws MessagingException, IOException {
+            ContentType contentType = new ContentType(part.getContentType());
+            if (part.isMimeType("multipart/*")) {
+                Multipart multipart = (Multipart) part.getContent();
+                StringBuilder result = new StringBuilder("(");
+                for (int i = 0; i < multipart.getCount(); i++) {
+                    result.append(bodyStructure(multipart.getBodyPart(i)));
+                }
+                return result.append(" ").append(quote(contentType.getSubType().toUpperCase(Locale.ROOT)))
+                    .append(")")
+                    .toString();
+            }
+            byte[] content = part instanceof MimeMessage
+                ? JavaCoreUtils.toByteArray(((MimeMessage) part).getRawInputStream())
+                : JavaCoreUtils.toByteArray(((MimeBodyPart) part).getRawInputStream());
+            String encoding = ((jakarta.mail.internet.MimePart) part).getEncoding();
+            StringBuilder result = new StringBuilder("(")
+                .append(quote(contentType.getPrimaryType().toUpperCase(Locale.ROOT)))
+                .append(" ").append(quote(contentType.getSubType().toUpperCase(Locale.ROOT)))
+                .append(" ").append(parameterList(contentType.getParameterList()))
+                .append(" NIL NIL ")
+                .append(quote(encoding == null ? "7BIT" : encoding.toUpperCase(Locale.ROOT)))
+                .append(" ").append(content.length);
+            if (part.isMimeType("text/*")) {
+                long lines = new String(content, StandardCharsets.ISO_8859_1).chars().filter(c -> c == '\n').count();
+                result.append(" ").append(lines);
+            }
+            String[] disposition = part.getHeader("Content-Disposition");
+            if (disposition == null) {
+                result.append(" NIL NIL");
+            } else {
+                ContentDisposition contentDisposition = new ContentDisposition(disposition[0]);
+                result.append(" NIL (")
+                    .append(quote(contentDisposition.getDisposition().toUpperCase(Locale.ROOT)))
+                    .append(" ").append(parameterList(contentDisposition.getParameterList()))
+                    .append(")");
+            }
+            return result.append(")").toString();
+        }
+
+        private static String parameterList(ParameterList parameters) {
+            if (parameters == null || parameters.size() == 0) {
+                return "NIL";
+            }
+            List<String> items = new ArrayList<>();
+            Enumeration<String> names = parameters.getNames();
+            while (names.hasMoreElements()) {
+                String name = names.nextElement();
+                items.add(quote(name.toUpperCase(Locale.ROOT)));
+                items.add(quote(parameters.get(name)));
+            }
+            return "(" + String.join(" ", items) + ")";
+        }
+
+        private static String addressList(Address[] addresses) {
+            if (addresses == null || addresses.length == 0) {
+                return "NIL";
+            }
+            StringBuilder result = new StringBuilder("(");
+            for (Address address : addresses) {
+                InternetAddress internetAddress = (InternetAddress) address;
+                String[] parts = internetAddress.getAddress().split("@", 2);
+                result.append("(").append(quote(internetAddress.getPersonal()))
+                    .append(" NIL ").append(quote(parts[0]))
+                    .append(" ").append(quote(parts.length > 1 ? parts[1] : null))
+                    .append(")");
+            }
+            return result.append(")").toString();
+        }
+    }
+
+    /**
+     * The connection of a client.
+     */
+    private final class Connection implements Runnable {
+
+        private final Socket socket;
+        private InputStream input;
+        private OutputStream output;
+        private boolean selected = false;
+        private boolean readOnly = true;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try {
+                input = socket.getInputStream();
+                output = socket.getOutputStream();
+                this.write("* OK [CAPABILITY " + capabilities + "] The stub server is ready");
+                String line;
+                while ((line = this.readCommand()) != null) {
+                    List<String> tokens = split(line);
+                    if (tokens.size() < 2) {
+                        this.write("* BAD Invalid command");
+                        continue;
+                    }
+                    String tag = tokens.get(0);
+                    String command = line.substring(tag.length() + 1);
+                    commands.add(command);
+                    if (!this.handle(tag, command)) {
+                        break;
+                    }
+                }
+            } catch (IOException | MessagingException | RuntimeException e) {
+                // the connection is closed
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // the connection is closed already
+                }
+            }
+        }
+
+        /**
+         * Reads the command line with literals. Returns null at the end of the stream.
+         */
+        private String readCommand() throws IOException {
+            StringBuilder command = new StringBuilder();
+            while (true) {
+                String line = this.readLine();
+                if (line == null) {
+                    return null;
+                }
+                command.append(line);
+                if (!line.endsWith("}")) {
+                    return command.toString();
+                }
+                int start = line.lastIndexOf('{');
+                String size = line.substring(start + 1, line.length() - 1);
+                boolean nonSynchronizing = size.endsWith("+");
+                if (nonSynchronizing) {
+                    size = size.substring(0, size.length() - 1);
+                } else {
+                    this.write("+ Ready for literal data");
+                }
+                byte[] literal = new byte[Integer.parseInt(size)];
+                int read = 0;
+                while (read < literal.length) {
+                    int count = input.read(literal, read, literal.length - read);
+                    if (count < 0) {
+                        return null;
+                    }
+                    read += count;
+                }
+                command.append(new String(literal, StandardCharsets.UTF_8));
+            }
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = input.read()) != -1) {
+                if (b == '\n') {
+                    byte[] bytes = line.toByteArray();
+                    int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                    return new String(bytes, 0, length, StandardCharsets.UTF_8);
+                }
+                line.write(b);
+            }
+            return null;
+        }
+
+        private void write(String line) throws IOException {
+            output.write((line + CRLF).getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        }
+
+        private boolean handle(String tag, String command) throws IOException, MessagingException {
+            List<String> tokens = split(command);
+            String name = tokens.get(0).toUpperCase(Locale.ROOT);
+            boolean uid = "UID".equals(name);
+            if (uid) {
+                name = tokens.get(1).toUpperCase(Locale.ROOT);
+                tokens = tokens.subList(1, tokens.size());
+            }
+            List<String> arguments = tokens.subList(1, tokens.size());
+            switch (name) {
+                case "CAPABILITY":
+                    this.write("* CAPABILITY " + capabilities);
+                    break;
+                case "LOGIN":
+                case "NOOP":
+                case "CHECK":
+                case "ID":
+                    break;
+                case "ENABLE":
+                    this.write("* ENABLED " + String.join(" ", arguments));
+                    break;
+                case "NAMESPACE":
+                    this.write("* NAMESPACE ((\"\" \"/\")) NIL NIL");
+                    break;
+                case "LIST":
+                case "LSUB":
+                    this.write("* " + name + " () \"/\" " + FOLDER_NAME);
+                    break;
+                case "STATUS":
+                    this.status(arguments);
+                    break;
+                case "SELECT":
+                case "EXAMINE":
+                    this.select(tag, "EXAMINE".equals(name), arguments);
+                    return true;
+                case "FETCH":
+                    this.fetch(uid, arguments);
+                    break;
+                case "STORE":
+                    if (readOnly) {
+                        this.write(tag + " NO The folder is read-only");
+                        return true;
+                    }
+                    this.store(uid, arguments);
+                    break;
+                case "SEARCH":
+                    this.search(tag, uid);
+                    break;
+                case "EXPUNGE":
+                    this.expunge(uid ? arguments.get(0) : null);
+                    break;
+                case "CLOSE":
+                    if (!readOnly) {
+                        synchronized (StubImapServer.this) {
+                            for (StubMessage message : new ArrayList<>(messages)) {
+                                if (message.flags.contains(DELETED_FLAG)) {
+                                    StubImapServer.this.expunge(message.uid);
+                                }
+                            }
+                        }
+                    }
+                    selected = false;
+                    break;
+                case "UNSELECT":
+                    selected = false;
+                    break;
+                case "LOGOUT":
+                    this.write("* BYE The stub server says goodbye");
+                    this.write(tag + " OK LOGOUT completed");
+                    return false;
+                default:
+                    this.write(tag + " BAD Unknown command " + name);
+                    return true;
+            }
+            this.write(tag + " OK " + name + " completed");
+            return true;
+        }
+
+        private void status(List<String> arguments) throws IOException {
+            List<String> items = new ArrayList<>();
+            synchronized (StubImapServer.this) {
+                for (String item : splitList(arguments.get(1))) {
+                    String key = item.toUpperCase(Locale.ROOT);
+                    long value;
+                    if ("MESSAGES".equals(key)) {
+                        value = messages.size();
+                    } else if ("UIDNEXT".equals(key)) {
+                        value = nextUid;
+                    } else if ("UIDVALIDITY".equals(key)) {
+                        value = UID_VALIDITY;
+                    } else if ("HIGHESTMODSEQ".equals(key)) {
+                        value = highestModSeq;
+                    } else if ("UNSEEN".equals(key)) {
+                        value = messages.stream().filter(message -> !message.flags.contains(SEEN_FLAG)).count();
+                    } else {
+                        value = 0;
+                    }
+                    items.add(key + " " + value);
+                }
+            }
+            this.write("* STATUS " + FOLDER_NAME + " (" + String.join(" ", items) + ")");
+        }
+
+        private void select(String tag, boolean examine, List<String> arguments) throws IOException {
+            if (!FOLDER_NAME.equalsIgnoreCase(unquote(arguments.get(0)))) {
+                this.write(tag + " NO The folder doesn't exist");
+                return;
+            }
+            selected = true;
+            readOnly = examine;
+            Long resyncModSeq = null;
+            if (arguments.size() > 1) {
+                List<String> parameters = splitList(arguments.get(1));
+                if ("QRESYNC".equalsIgnoreCase(parameters.get(0))) {
+                    resyncModSeq = Long.parseLong(splitList(parameters.get(1)).get(1));
+                }
+            }
+            List<String> lines = new ArrayList<>();
+            synchronized (StubImapServer.this) {
+                lines.add("* FLAGS (\\Answered \\Flagged \\Deleted \\Seen \\Draft)");
+                lines.add("* OK [PERMANENTFLAGS (\\Answered \\Flagged \\Deleted \\Seen \\Draft \\*)] Flags permitted");
+                lines.add("* " + messages.size() + " EXISTS");
+                lines.add("* 0 RECENT");
+                lines.add("* OK [UIDVALIDITY " + UID_VALIDITY + "] UIDs valid");
+                lines.add("* OK [UIDNEXT " + nextUid + "] Predicted next UID");
+                if (capabilities.contains("CONDSTORE")) {
+                    lines.add("* OK [HIGHESTMODSEQ " + highestModSeq + "] Highest");
+                }
+                if (resyncModSeq != null) {
+                    long modSeq = resyncModSeq;
+                    String vanished = expungedUids.entrySet().stream()
+                        .filter(entry -> entry.getValue() > modSeq)
+                        .map(entry -> String.valueOf(entry.getKey()))
+                        .collect(Collectors.joining(","));
+                    if (!vanished.isEmpty()) {
+                        lines.add("* VANISHED (EARLIER) " + vanished);
+                    }
+                    for (int i = 0; i < messages.size(); i++) {
+                        StubMessage message = messages.get(i);
+                        if (message.modSeq > modSeq) {
+                            lines.add("* " + (i + 1) + " FETCH (UID " + message.uid + " FLAGS "
+                                + flagList(message.flags) + " MODSEQ (" + message.modSeq + "))");
+                        }
+                    }
+                }
+            }
+            for (String line : lines) {
+                this.write(line);
+            }
+            this.write(tag + " OK [" + (examine ? "READ-ONLY" : "READ-WRITE") + "] Completed");
+        }
+
+        private void fetch(boolean uid, List<String> arguments) throws IOException, MessagingException {
+            String set = arguments.get(0);
+            List<String> items = new ArrayList<>(splitList(arguments.get(1)));
+            Long changedSince = null;
+            if (arguments.size() > 2) {
+                List<String> modifiers = splitList(arguments.get(2));
+                if ("CHANGEDSINCE".equalsIgnoreCase(modifiers.get(0))) {
+                    changedSince = Long.parseLong(modifiers.get(1));
+                    items.add("MODSEQ");
+                }
+            }
+            if (uid && items.stream().noneMatch("UID"::equalsIgnoreCase)) {
+                items.add(0, "UID");
+            }
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            synchronized (StubImapServer.this) {
+                long max = uid ? getMaxUid() : messages.size();
+                for (int i = 0; i < messages.size(); i++) {
+                    StubMessage message = messages.get(i);
+                    if (!inSet(set, uid ? message.uid : i + 1, max)) {
+                        continue;
+                    }
+                    if (changedSince != null && message.modSeq <= changedSince) {
+                        continue;
+                    }
+                    this.writeFetchResponse(response, i + 1, message, items);
+                }
+            }
+            output.write(response.toByteArray());
+            output.flush();
+        }
+
+        private void writeFetchResponse(ByteArrayOutputStream response, int number, StubMessage message,
+            List<String> items) throws IOException, MessagingException {
+            List<byte[]> parts = new ArrayList<>();
+            boolean flagsChanged = false;
+            for (String item : items) {
+                String key = item.toUpperCase(Locale.ROOT);
+                if ("UID".equals(key)) {
+                    parts.add(("UID " + message.uid).getBytes(StandardCharsets.UTF_8));
+                } else if ("FLAGS".equals(key)) {
+                    parts.add(("FLAGS " + flagList(message.flags)).getBytes(StandardCharsets.UTF_8));
+                } else if ("INTERNALDATE".equals(key)) {
+                    String date = new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss Z", Locale.US)
+                        .format(message.internalDate);
+                    parts.add(("INTERNALDATE \"" + date + "\"").getBytes(StandardCharsets.UTF_8));
+                } else if ("RFC822.SIZE".equals(key)) {
+                    parts.add(("RFC822.SIZE " + message.raw.length).getBytes(StandardCharsets.UTF_8));
+                } else if ("ENVELOPE".equals(key)) {
+                    parts.add(("ENVELOPE " + message.getEnvelope()).getBytes(StandardCharsets.UTF_8));
+                } else if ("BODYSTRUCTURE".equals(key) || "BODY".equals(key)) {
+                    parts.add((key + " " + message.getBodyStructure()).getBytes(StandardCharsets.UTF_8));
+                } else if ("MODSEQ".equals(key)) {
+                    parts.add(("MODSEQ (" + message.modSeq + ")").getBytes(StandardCharsets.UTF_8));
+                } else if ("RFC822.HEADER".equals(key)) {
+                    parts.add(literal("RFC822.HEADER", message.getSection("HEADER")));
+                } else if (key.startsWith("BODY[") || key.startsWith("BODY.PEEK[")) {
+                    int start = item.indexOf('[');
+                    int end = item.lastIndexOf(']');
+                    String section = item.substring(start + 1, end);
+                    byte[] data = message.getSection(section);
+                    String origin = "";
+                    String partial = item.substring(end + 1);
+                    if (partial.startsWith("<")) {
+                        String[] range = partial.substring(1, partial.length() - 1).split("\\.");
+                        int offset = Math.min(Integer.parseInt(range[0]), data.length);
+                        int count = Math.min(Integer.parseInt(range[1]), data.length - offset);
+                        data = Arrays.copyOfRange(data, offset, offset + count);
+                        origin = "<" + offset + ">";
+                    }
+                    parts.add(literal("BODY[" + section + "]" + origin, data));
+                    if (!key.startsWith("BODY.PEEK[") && !readOnly && message.flags.add(SEEN_FLAG)) {
+                        message.modSeq = ++highestModSeq;
+                        flagsChanged = true;
+                    }
+                }
+            }
+            if (flagsChanged && items.stream().noneMatch("FLAGS"::equalsIgnoreCase)) {
+                parts.add(("FLAGS " + flagList(message.flags)).getBytes(StandardCharsets.UTF_8));
+            }
+            response.write(("* " + number + " FETCH (").getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < parts.size(); i++) {
+                if (i > 0) {
+                    response.write(' ');
+                }
+                response.write(parts.get(i));
+            }
+            response.write((")" + CRLF).getBytes(StandardCharsets.UTF_8));
+        }
+
+        private byte[] literal(String name, byte[] data) throws IOException {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            result.write((name + " {" + data.length + "}" + CRLF).getBytes(StandardCharsets.UTF_8));
+            result.write(data);
+            return result.toByteArray();
+        }
+
+        private void store(boolean uid, List<String> arguments) throws IOException {
+            String set = arguments.get(0);
+            int index = 1;
+            if (arguments.get(index).startsWith("(")) {
+                // the UNCHANGEDSINCE modifier is ignored
+                index++;
+            }
+            String operation = arguments.get(index).toUpperCase(Locale.ROOT);
+            List<String> flags = splitList(String.join(" ", arguments.subList(index + 1, arguments.size())));
+            boolean silent = operation.endsWith(".SILENT");
+            List<String> lines = new ArrayList<>();
+            synchronized (StubImapServer.this) {
+                long max = uid ? getMaxUid() : messages.size();
+                for (int i = 0; i < messages.size(); i++) {
+                    StubMessage message = messages.get(i);
+                    if (!inSet(set, uid ? message.uid : i + 1, max)) {
+                        continue;
+                    }
+                    Set<String> before = new LinkedHashSet<>(message.flags);
+                    if (operation.startsWith("+")) {
+                        message.flags.addAll(flags);
+                    } else if (operation.startsWith("-")) {
+                        message.flags.removeAll(flags);
+                    } else {
+                        message.flags.clear();
+                        message.flags.addAll(flags);
+                    }
+                    if (!before.equals(message.flags)) {
+                        message.modSeq = ++highestModSeq;
+                    }
+                    if (!silent) {
+                        lines.add("* " + (i + 1) + " FETCH (" + (uid ? "UID " + message.uid + " " : "")
+                            + "FLAGS " + flagList(message.flags) + ")");
+                    }
+                }
+            }
+            for (String line : lines) {
+                this.write(line);
+            }
+        }
+
+        private void search(String tag, boolean uid) throws IOException {
+            String response = searchResponse;
+            if (response != null) {
+                this.write(response.replace("{tag}", tag));
+                return;
+            }
+            List<String> numbers = new ArrayList<>();
+            synchronized (StubImapServer.this) {
+                for (int i = 0; i < messages.size(); i++) {
+                    numbers.add(String.valueOf(uid ? messages.get(i).uid : i + 1));
+                }
+            }
+            this.write(("* SEARCH " + String.join(" ", numbers)).trim());
+        }
+
+        private void expunge(String uidSet) throws IOException {
+            List<String> lines = new ArrayList<>();
+            synchronized (StubImapServer.this) {
+                long max = getMaxUid();
+                for (int i = messages.size() - 1; i >= 0; i--) {
+                    StubMessage message = messages.get(i);
+                    if (message.flags.contains(DELETED_FLAG) && (uidSet == null || inSet(uidSet, message.uid, max))) {
+                        StubImapServer.this.expunge(message.uid);
+                        lines.add("* " + (i + 1) + " EXPUNGE");
+                    }
+                }
+            }
+            for (String line : lines) {
+                this.write(line);
+            }
+        }
+    }
+}
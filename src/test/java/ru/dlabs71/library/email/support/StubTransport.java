@@ -0,0 +1,110 @@
+package ru.dlabs71.library.email.support;
+
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Provider;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import ru.dlabs71.library.email.property.SmtpProperties;
+
+/**
+ * The transport, which doesn't connect to any server. It only counts connections and sent messages.
+ * The hosts from the {@link #FAILED_HOSTS} set behave like unavailable servers.
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+public class StubTransport extends Transport {
+
+    public static final String PROTOCOL = "stub";
+    public static final AtomicInteger CONNECTIONS = new AtomicInteger();
+    public static final AtomicInteger SENT_MESSAGES = new AtomicInteger();
+    public static final Map<String, AtomicInteger> SENT_MESSAGES_BY_HOST = new ConcurrentHashMap<>();
+    public static final Set<String> FAILED_HOSTS = ConcurrentHashMap.newKeySet();
+    public static volatile boolean failSending = false;
+
+    private boolean alive = false;
+    private String host;
+
+    public StubTransport(Session session, URLName urlname) {
+        super(session, urlname);
+    }
+
+    public static Session createSession() {
+        Session session = Session.getInstance(new Properties());
+        session.addProvider(new Provider(
+            Provider.Type.TRANSPORT,
+            PROTOCOL,
+            StubTransport.class.getName(),
+            "d-labs",
+            "1.0.0"
+        ));
+        return session;
+    }
+
+    /**
+     * Returns the builder of SMTP properties, which makes the SMTP client use this transport.
+     */
+    public static SmtpProperties.SmtpPropertiesBuilder smtpPropertiesBuilder() {
+        Map<String, Object> extraProperties = new HashMap<>();
+        extraProperties.put("mail.smtp.class", StubTransport.class.getName());
+        return SmtpProperties.builder()
+            .host("localhost")
+            .port(25)
+            .email("sender@example.com")
+            .password("password")
+            .name("Sender")
+            .maxAttemptsOfRequest(0)
+            .extraProperties(extraProperties);
+    }
+
+    public static void reset() {
+        CONNECTIONS.set(0);
+        SENT_MESSAGES.set(0);
+        SENT_MESSAGES_BY_HOST.clear();
+        FAILED_HOSTS.clear();
+        failSending = false;
+    }
+
+    @Override
+    protected boolean protocolConnect(String host, int port, String user, String password)
+        throws MessagingException {
+        if (host != null && FAILED_HOSTS.contains(host)) {
+            throw new MessagingException("Connection refused: " + host, new ConnectException("Connection refused"));
+        }
+        CONNECTIONS.incrementAndGet();
+        this.host = host;
+        alive = true;
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isConnected() {
+        return alive && super.isConnected();
+    }
+
+    @Override
+    public void sendMessage(Message msg, Address[] addresses) throws MessagingException {
+        if (failSending || (host != null && FAILED_HOSTS.contains(host))) {
+            alive = false;
+            throw new MessagingException("Connection is broken", new SocketException("Connection reset"));
+        }
+        SENT_MESSAGES.incrementAndGet();
+        if (host != null) {
+            SENT_MESSAGES_BY_HOST.computeIfAbsent(host, key -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.Flags;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.DEmailReceiverManager;
+import ru.dlabs71.library.email.client.receiver.ReceiverDClient;
+import ru.dlabs71.library.email.dto.message.common.BaseMessage;
+import ru.dlabs71.library.email.dto.message.common.EmailParticipant;
+import ru.dlabs71.library.email.dto.message.incoming.DefaultIncomingMessage;
+import ru.dlabs71.library.email.dto.message.incoming.IncomingMessage;
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+import ru.dlabs71.library.email.dto.sync.SyncResult;
+import ru.dlabs71.library.email.property.ImapProperties;
+import ru.dlabs71.library.email.property.ReceiverManagerProperties;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(432)
+public class DEmailReceiverManagerTest {
+
+    private static final String ACTIVE_EMAIL = "active@example.com";
+    private static final String QUIET_EMAIL = "quiet@example.com";
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger maxConnections = new AtomicInteger();
+    private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiverManager#register(ImapProperties, String, java.util.function.Consumer)}</li>
+     * </ul>
+     * <p>
+     * Mailboxes are polled by the shared threads, the connections of a host are limited,
+     * and poll intervals adapt to new messages of mailboxes, but not to flag changes
+     */
+    @Test
+    @SneakyThrows
+    public void pollTest() {
+        ReceiverManagerProperties properties = ReceiverManagerProperties.builder()
+            .threadPoolSize(3)
+            .minPollInterval(20)
+            .maxPollInterval(160)
+            .maxConnectionsPerHost(1)
+            .keepConnectedInterval(0)
+            .build();
+        CountDownLatch polled = new CountDownLatch(10);
+        try (DEmailReceiverManager manager = new DEmailReceiverManager(properties, this::createClient)) {
+            DEmailReceiverManager.Registration active = manager.register(
+                imapProperties(ACTIVE_EMAIL),
+                "INBOX",
+                result -> polled.countDown()
+            );
+            DEmailReceiverManager.Registration quiet = manager.register(
+                imapProperties(QUIET_EMAIL),
+                "INBOX",
+                result -> polled.countDown()
+            );
+            assertEquals(2, manager.getRegistrationCount());
+            assertTrue(polled.await(10, TimeUnit.SECONDS));
+
+            assertEquals(1, maxConnections.get());
+            assertEquals(properties.getMinPollInterval(), active.getPollInterval());
+            assertTrue(quiet.getPollInterval() > properties.getMinPollInterval());
+
+            quiet.close();
+            assertFalse(quiet.isActive());
+            assertEquals(1, manager.getRegistrationCount());
+        }
+        assertEquals(0, connections.get());
+    }
+
+    private ReceiverDClient createClient(ImapProperties imapProperties) {
+        String email = imapProperties.getEmail();
+        int current = connections.incrementAndGet();
+        maxConnections.accumulateAndGet(current, Math::max);
+        return (ReceiverDClient) Proxy.newProxyInstance(
+            ReceiverDClient.class.getClassLoader(),
+            new Class<?>[]{ReceiverDClient.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getPrincipal":
+                        return EmailParticipant.of(email);
+                    case "sync":
+                        return sync(email, (SyncCheckpoint) args[1]);
+                    case "commitSync":
+                        return null;
+                    case "close":
+                        connections.decrementAndGet();
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            }
+        );
+    }
+
+    private SyncResult sync(String email, SyncCheckpoint checkpoint) {
+        int poll = polls.computeIfAbsent(email, key -> new AtomicInteger()).incrementAndGet();
+        long lastUid = checkpoint == null ? 0 : checkpoint.getLastUid();
+        // the active mailbox gets a new message by every poll, and the quiet one has only flag changes
+        boolean active = ACTIVE_EMAIL.equals(email);
+        Map<Long, Flags> changedFlags = active
+            ? Collections.emptyMap()
+            : Collections.singletonMap((long) poll, new Flags(Flags.Flag.SEEN));
+        List<IncomingMessage> newMessages = active
+            ? Collections.singletonList(new DefaultIncomingMessage(new BaseMessage()))
+            : Collections.emptyList();
+        return new SyncResult(
+            "INBOX",
+            SyncCheckpoint.of(1, active ? lastUid + 1 : lastUid, poll),
+            false,
+            newMessages,
+            changedFlags,
+            Collections.emptyList(),
+            false
+        );
+    }
+
+    private static ImapProperties imapProperties(String email) {
+        return ImapProperties.builder()
+            .email(email)
+            .host("imap.example.com")
+            .port(993)
+            .build();
+    }
+}
@@ -0,0 +1,78 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.dlabs71.library.email.client.receiver.FileSyncCheckpointStore;
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(430)
+public class FileSyncCheckpointStoreTest {
+
+    private static final String ACCOUNT = "user@example.com";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link FileSyncCheckpointStore#save(String, String, SyncCheckpoint)}</li>
+     *     <li>{@link FileSyncCheckpointStore#load(String, String)}</li>
+     * </ul>
+     * <p>
+     * Checkpoints are kept by folders and are available after restart
+     */
+    @Test
+    @SneakyThrows
+    public void saveAndLoadTest() {
+        Path file = directory.resolve("sync").resolve("checkpoints.properties");
+        FileSyncCheckpointStore store = new FileSyncCheckpointStore(file);
+        assertNull(store.load(ACCOUNT, "INBOX"));
+
+        store.save(ACCOUNT, "INBOX", SyncCheckpoint.of(100, 25, 7000));
+        store.save(ACCOUNT, "Sent Items", SyncCheckpoint.of(200, 3, SyncCheckpoint.UNKNOWN_MOD_SEQ));
+        store.save(ACCOUNT, "INBOX", SyncCheckpoint.of(100, 30, 7010));
+        assertTrue(Files.exists(file));
+
+        FileSyncCheckpointStore reloaded = new FileSyncCheckpointStore(file);
+        assertEquals(SyncCheckpoint.of(100, 30, 7010), reloaded.load(ACCOUNT, "INBOX"));
+        SyncCheckpoint sent = reloaded.load(ACCOUNT, "Sent Items");
+        assertEquals(SyncCheckpoint.of(200, 3, SyncCheckpoint.UNKNOWN_MOD_SEQ), sent);
+        assertFalse(sent.isModSeqKnown());
+        assertNull(reloaded.load("other@example.com", "INBOX"));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link FileSyncCheckpointStore#remove(String, String)}</li>
+     * </ul>
+     */
+    @Test
+    public void removeTest() {
+        Path file = directory.resolve("checkpoints.properties");
+        FileSyncCheckpointStore store = new FileSyncCheckpointStore(file);
+        store.save(ACCOUNT, "INBOX", SyncCheckpoint.of(100, 25, 7000));
+        store.remove(ACCOUNT, "INBOX");
+
+        assertNull(store.load(ACCOUNT, "INBOX"));
+        assertNull(new FileSyncCheckpointStore(file).load(ACCOUNT, "INBOX"));
+    }
+}
@@ -1,9 +1,12 @@
 package ru.dlabs71.library.email.tests.client.receiver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import jakarta.mail.Flags;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -107,11 +110,63 @@ public class IMAPClientDeleteTests extends AbstractTestsClass {
     /**
      * The test for:
      * <ul>
-     *     <li>{@link DEmailReceiver#clearCurrentFolder()}</li>
+     *     <li>{@link DEmailReceiver#deleteMessages(Collection)}</li>
      * </ul>
+     * <p>
+     * Nonexistent messages don't prevent deleting the others
      */
     @Test
     @Order(3)
+    public void deleteSeveralMessagesWithMissing() {
+        PageResponse<MessageView> response = this.emailReceiver.checkEmail();
+        int total = response.getTotalCount();
+
+        int existingId = response.getData().get(0).getId();
+        int missingId = total + 100;
+        Map<Integer, Boolean> result = this.emailReceiver.deleteMessages(Arrays.asList(existingId, missingId));
+        assertEquals(2, result.size());
+        assertTrue(result.get(existingId));
+        assertFalse(result.get(missingId));
+
+        response = this.emailReceiver.checkEmail();
+        assertEquals(1, total - response.getTotalCount());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#setFlagsByUid(Collection, Flags, boolean)}</li>
+     * </ul>
+     */
+    @Test
+    @Order(4)
+    public void setFlagsByUid() {
+        PageResponse<MessageView> response = this.emailReceiver.checkEmail();
+        List<Long> uids = new ArrayList<>();
+        uids.add(response.getData().get(0).getUid());
+        uids.add(response.getData().get(1).getUid());
+
+        Map<Long, Boolean> result = this.emailReceiver.setFlagsByUid(uids, new Flags(Flags.Flag.SEEN), true);
+        assertEquals(2, result.size());
+        result.forEach((key, value) -> assertTrue(value));
+        this.emailReceiver.checkEmail().getData().stream()
+            .filter(message -> uids.contains(message.getUid()))
+            .forEach(message -> assertTrue(message.isSeen()));
+
+        this.emailReceiver.setFlagsByUid(uids, new Flags(Flags.Flag.SEEN), false);
+        this.emailReceiver.checkEmail().getData().stream()
+            .filter(message -> uids.contains(message.getUid()))
+            .forEach(message -> assertFalse(message.isSeen()));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#clearCurrentFolder()}</li>
+     * </ul>
+     */
+    @Test
+    @Order(5)
     public void deleteAllMessages() {
         PageResponse<MessageView> response = this.emailReceiver.checkEmail();
         int total = response.getTotalCount();
@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
+import java.util.stream.Collectors;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -171,6 +173,68 @@ public class IMAPClientEmailReadTests extends AbstractTestsClass {
         assertTrue(messageView2.isSeen());
     }
 
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#readEmail()}</li>
+     * </ul>
+     * <p>
+     *  Reading by several threads keeps the order of messages
+     */
+    @Test
+    @Order(5)
+    public void readEmailInParallelTest() {
+        List<Integer> expectedIds;
+        try (DEmailReceiver receiver = DEmailReceiver.of(this.simpleImapProperties)) {
+            expectedIds = receiver.checkEmail()
+                .getData()
+                .stream()
+                .map(MessageView::getId)
+                .collect(Collectors.toList());
+        }
+
+        ImapProperties parallelProperties = ReceiveTestUtils.loadProperties()[2];
+        parallelProperties.setParallelRead(true);
+        parallelProperties.setConnectionPoolSize(COUNT_OF_MESSAGES);
+        try (DEmailReceiver receiver = DEmailReceiver.of(parallelProperties)) {
+            PageResponse<IncomingMessage> response = receiver.readEmail();
+            assertEquals(COUNT_OF_MESSAGES, response.getData().size());
+            assertEquals(
+                expectedIds,
+                response.getData().stream().map(IncomingMessage::getId).collect(Collectors.toList())
+            );
+            response.getData().forEach(item -> assertMessage((DefaultIncomingMessage) item));
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#readEmail()}</li>
+     *     <li>{@link DEmailReceiver#markAsSeen(java.util.Collection)}</li>
+     * </ul>
+     * <p>
+     *  Reading in the peek mode doesn't mark messages as read
+     */
+    @Test
+    @Order(6)
+    public void readEmailInPeekModeTest() {
+        ImapProperties peekProperties = ReceiveTestUtils.loadProperties()[2];
+        peekProperties.setPeekRead(true);
+        DEmailReceiver client = DEmailReceiver.of(peekProperties);
+
+        PageResponse<IncomingMessage> response = client.readEmail();
+        assertEquals(COUNT_OF_MESSAGES, response.getData().size());
+        response.getData().forEach(item -> assertMessage((DefaultIncomingMessage) item));
+        assertTrue(client.checkEmail().getData().stream().noneMatch(MessageView::isSeen));
+
+        List<Long> uids = client.checkEmail().getData().stream()
+            .map(MessageView::getUid)
+            .collect(Collectors.toList());
+        assertTrue(client.markAsSeen(uids).values().stream().allMatch(Boolean::booleanValue));
+        assertTrue(client.checkEmail().getData().stream().allMatch(MessageView::isSeen));
+    }
+
     private void assertMessage(DefaultIncomingMessage incomingMessage) {
         assertNotNull(incomingMessage.getSender());
         assertNotNull(incomingMessage.getTransferEncoder());
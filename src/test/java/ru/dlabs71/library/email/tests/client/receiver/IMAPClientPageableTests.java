@@ -2,7 +2,10 @@ package ru.dlabs71.library.email.tests.client.receiver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.SneakyThrows;
@@ -17,8 +20,11 @@ import org.junit.jupiter.api.TestMethodOrder;
 import ru.dlabs71.library.email.DEmailReceiver;
 import ru.dlabs71.library.email.DEmailSender;
 import ru.dlabs71.library.email.dto.message.incoming.MessageView;
+import ru.dlabs71.library.email.dto.pageable.CursorPageRequest;
+import ru.dlabs71.library.email.dto.pageable.CursorPageResponse;
 import ru.dlabs71.library.email.dto.pageable.PageRequest;
 import ru.dlabs71.library.email.dto.pageable.PageResponse;
+import ru.dlabs71.library.email.exception.UidValidityException;
 import ru.dlabs71.library.email.property.ImapProperties;
 import ru.dlabs71.library.email.support.AbstractTestsClass;
 import ru.dlabs71.library.email.tests.client.receiver.utils.ReceiveTestUtils;
@@ -120,4 +126,46 @@ public class IMAPClientPageableTests extends AbstractTestsClass {
         assertEquals(countMessages, response2.getTotalCount());
         assertEquals(newPageSize, response2.getData().size());
     }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#checkEmail(CursorPageRequest)}</li>
+     *     <li>{@link DEmailReceiver#deleteMessagesByUid(java.util.Collection)}</li>
+     * </ul>
+     * <p>
+     * Pages don't shift when messages are deleted between requests
+     */
+    @Test
+    public void cursorPageableTest() {
+        CursorPageResponse<MessageView> response1 = this.emailReceiver.checkEmail(CursorPageRequest.of(pageSize));
+        assertEquals(pageSize, response1.getData().size());
+        assertTrue(response1.isHasMore());
+
+        List<Long> deletedUids = new ArrayList<>();
+        deletedUids.add(response1.getData().get(0).getUid());
+        deletedUids.add(response1.getData().get(1).getUid());
+        this.emailReceiver.deleteMessagesByUid(deletedUids).values().forEach(result -> assertTrue(result));
+
+        List<String> subjects = response1.getData().stream()
+            .map(MessageView::getSubject)
+            .collect(Collectors.toList());
+        CursorPageResponse<MessageView> response = response1;
+        while (response.isHasMore()) {
+            response = this.emailReceiver.checkEmail(response.getNextPageRequest());
+            response.getData().forEach(message -> {
+                assertTrue(message.getUid() > response1.getNextPageRequest().getLastUid());
+                assertFalse(subjects.contains(message.getSubject()));
+                subjects.add(message.getSubject());
+            });
+        }
+        assertEquals(countMessages, subjects.size());
+
+        CursorPageRequest wrongRequest = CursorPageRequest.of(
+            response1.getNextPageRequest().getUidValidity() + 1,
+            0,
+            pageSize
+        );
+        assertThrows(UidValidityException.class, () -> this.emailReceiver.checkEmail(wrongRequest));
+    }
 }
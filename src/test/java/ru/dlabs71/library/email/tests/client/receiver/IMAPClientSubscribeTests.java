@@ -0,0 +1,107 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import ru.dlabs71.library.email.DEmailReceiver;
+import ru.dlabs71.library.email.DEmailSender;
+import ru.dlabs71.library.email.client.receiver.FolderEventListener;
+import ru.dlabs71.library.email.client.receiver.FolderSubscription;
+import ru.dlabs71.library.email.dto.event.FolderEvent;
+import ru.dlabs71.library.email.dto.message.incoming.MessageView;
+import ru.dlabs71.library.email.property.ImapProperties;
+import ru.dlabs71.library.email.support.AbstractTestsClass;
+import ru.dlabs71.library.email.tests.client.receiver.utils.ReceiveTestUtils;
+import ru.dlabs71.library.email.tests.client.sender.utils.SenderTestUtils;
+import ru.dlabs71.library.email.type.FolderEventType;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(427)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class IMAPClientSubscribeTests extends AbstractTestsClass {
+
+    private DEmailSender emailSender;
+    private DEmailReceiver emailReceiver;
+    private ImapProperties sslImapProperties;
+
+    @BeforeAll
+    public void loadConfig() {
+        ImapProperties[] properties = ReceiveTestUtils.loadProperties();
+        this.sslImapProperties = properties[0];
+        this.emailSender = SenderTestUtils.createSender();
+        this.emailReceiver = DEmailReceiver.of(sslImapProperties);
+    }
+
+    @AfterEach
+    public void afterTests() {
+        this.emailReceiver.clearCurrentFolder();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#subscribe(FolderEventListener)}</li>
+     * </ul>
+     */
+    @Test
+    @Order(1)
+    @SneakyThrows
+    public void subscribeTest() {
+        String email = ReceiveTestUtils.getDefaultEmail(sslImapProperties);
+        BlockingQueue<FolderEvent> events = new LinkedBlockingQueue<>();
+        FolderSubscription subscription = this.emailReceiver.subscribe(events::add);
+        assertTrue(subscription.isActive());
+        assertEquals(this.emailReceiver.getCurrentFolder(), subscription.getFolderName());
+        Thread.sleep(sendDelayAfter);
+
+        this.emailSender.sendText(email, "Тестовое сообщение 1", "Содержание тестового сообщения 1");
+        FolderEvent event = waitEvent(events, FolderEventType.MESSAGES_ADDED);
+        assertNotNull(event);
+        MessageView message = event.getMessages().get(0);
+        assertEquals("Тестовое сообщение 1", message.getSubject());
+        assertNotNull(message.getUid());
+
+        this.emailReceiver.readMessageByUid(message.getUid());
+        assertNotNull(waitEvent(events, FolderEventType.FLAGS_CHANGED));
+
+        this.emailReceiver.clearCurrentFolder();
+        event = waitEvent(events, FolderEventType.MESSAGES_REMOVED);
+        assertNotNull(event);
+        assertEquals(message.getUid(), event.getMessages().get(0).getUid());
+
+        subscription.close();
+        assertFalse(subscription.isActive());
+    }
+
+    @SneakyThrows
+    private FolderEvent waitEvent(BlockingQueue<FolderEvent> events, FolderEventType type) {
+        FolderEvent event;
+        while ((event = events.poll(2L * sendDelayAfter, TimeUnit.MILLISECONDS)) != null) {
+            if (event.getType() == type) {
+                return event;
+            }
+        }
+        return null;
+    }
+}
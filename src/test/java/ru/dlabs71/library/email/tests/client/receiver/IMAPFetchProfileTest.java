@@ -0,0 +1,67 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.DEmailReceiver;
+import ru.dlabs71.library.email.dto.message.incoming.MessageView;
+import ru.dlabs71.library.email.dto.pageable.PageRequest;
+import ru.dlabs71.library.email.support.StubImapServer;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(439)
+public class IMAPFetchProfileTest {
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#checkEmail(PageRequest)}</li>
+     * </ul>
+     * <p>
+     * A page is loaded by one FETCH command without requests per message
+     */
+    @Test
+    @SneakyThrows
+    public void checkEmailPrefetchTest() {
+        try (StubImapServer server = new StubImapServer()) {
+            for (int i = 0; i < 5; i++) {
+                server.addMessage(StubImapServer.createMessage("Subject " + i, "Text " + i, null, null));
+            }
+            try (DEmailReceiver receiver = DEmailReceiver.of(server.imapPropertiesBuilder().build())) {
+                receiver.checkEmail(PageRequest.of(0, 1));
+                server.clearCommands();
+
+                List<MessageView> messages = receiver.checkEmail(PageRequest.of(0, 5)).getData();
+                assertEquals(5, messages.size());
+                messages.forEach(message -> {
+                    assertTrue(message.getSubject().startsWith("Subject "));
+                    assertEquals("sender@example.com", message.getSender().getEmail());
+                    assertTrue(message.getSize() > 0);
+                });
+
+                List<String> fetches = server.getCommands().stream()
+                    .filter(command -> command.toUpperCase().contains("FETCH"))
+                    .collect(Collectors.toList());
+                assertEquals(1, fetches.size(), fetches.toString());
+                String fetch = fetches.get(0).toUpperCase();
+                assertTrue(fetch.contains("ENVELOPE"), fetch);
+                assertTrue(fetch.contains("FLAGS"), fetch);
+                assertTrue(fetch.contains("RFC822.SIZE"), fetch);
+                assertTrue(fetch.contains("INTERNALDATE"), fetch);
+                assertTrue(fetch.contains("BODY.PEEK[HEADER.FIELDS (CONTENT-TRANSFER-ENCODING)]"), fetch);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.Folder;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.client.receiver.IMAPFolderCache;
+import ru.dlabs71.library.email.support.StubFolder;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(428)
+public class IMAPFolderCacheTest {
+
+    @BeforeEach
+    public void reset() {
+        StubFolder.reset();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link IMAPFolderCache#acquire(String, int)}</li>
+     *     <li>{@link IMAPFolderCache#release(String, Folder)}</li>
+     * </ul>
+     */
+    @Test
+    public void reuseFolderTest() {
+        IMAPFolderCache cache = new IMAPFolderCache(StubFolder::open, 2, 0);
+        Folder folder = cache.acquire("INBOX", Folder.READ_ONLY);
+        cache.release("INBOX", folder);
+        for (int i = 0; i < 10; i++) {
+            Folder reused = cache.acquire("INBOX", Folder.READ_ONLY);
+            assertSame(folder, reused);
+            cache.release("INBOX", reused);
+        }
+        assertEquals(1, StubFolder.OPENINGS.get());
+
+        // The folder used by one operation isn't shared
+        Folder folder1 = cache.acquire("INBOX", Folder.READ_ONLY);
+        Folder folder2 = cache.acquire("INBOX", Folder.READ_ONLY);
+        assertNotSame(folder1, folder2);
+        Folder other = cache.acquire("OUTBOX", Folder.READ_ONLY);
+        cache.release("INBOX", folder1);
+        cache.release("INBOX", folder2);
+        cache.release("OUTBOX", other);
+        assertEquals(2, cache.getIdleCount());
+        assertEquals(1, StubFolder.CLOSINGS.get());
+
+        cache.close();
+        assertEquals(0, cache.getIdleCount());
+        assertEquals(3, StubFolder.CLOSINGS.get());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link IMAPFolderCache#acquire(String, int)}</li>
+     * </ul>
+     * <p>
+     * Mode upgrade and broken folders
+     */
+    @Test
+    public void upgradeAndValidationTest() {
+        IMAPFolderCache cache = new IMAPFolderCache(StubFolder::open, 2, 0);
+        Folder readOnly = cache.acquire("INBOX", Folder.READ_ONLY);
+        cache.release("INBOX", readOnly);
+
+        Folder readWrite = cache.acquire("INBOX", Folder.READ_WRITE);
+        assertNotSame(readOnly, readWrite);
+        assertFalse(readOnly.isOpen());
+        assertEquals(Folder.READ_WRITE, readWrite.getMode());
+        cache.release("INBOX", readWrite);
+
+        // The folder opened for read and write is used for reading as well
+        assertSame(readWrite, cache.acquire("INBOX", Folder.READ_ONLY));
+        ((StubFolder) readWrite).breakConnection();
+        cache.release("INBOX", readWrite);
+        assertEquals(0, cache.getIdleCount());
+
+        Folder folder = cache.acquire("INBOX", Folder.READ_ONLY);
+        cache.release("INBOX", folder);
+        ((StubFolder) folder).breakConnection();
+        assertNotSame(folder, cache.acquire("INBOX", Folder.READ_ONLY));
+        assertEquals(4, StubFolder.OPENINGS.get());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link IMAPFolderCache#acquire(String, int, boolean)}</li>
+     * </ul>
+     * <p>
+     * The folder opened for read and write isn't used if exactly the read-only mode is required
+     */
+    @Test
+    public void exactModeTest() {
+        IMAPFolderCache cache = new IMAPFolderCache(StubFolder::open, 2, 0);
+        Folder readWrite = cache.acquire("INBOX", Folder.READ_WRITE);
+        cache.release("INBOX", readWrite);
+
+        Folder readOnly = cache.acquire("INBOX", Folder.READ_ONLY, true);
+        assertNotSame(readWrite, readOnly);
+        assertEquals(Folder.READ_ONLY, readOnly.getMode());
+        assertEquals(1, cache.getIdleCount());
+        cache.release("INBOX", readOnly);
+
+        assertSame(readOnly, cache.acquire("INBOX", Folder.READ_ONLY, true));
+        assertSame(readWrite, cache.acquire("INBOX", Folder.READ_WRITE, true));
+        assertEquals(2, StubFolder.OPENINGS.get());
+        assertEquals(0, StubFolder.CLOSINGS.get());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link IMAPFolderCache#pin(Folder)}</li>
+     * </ul>
+     * <p>
+     * A pinned folder is neither reopened for read and write nor evicted because of the size of the cache
+     */
+    @Test
+    @SneakyThrows
+    public void pinTest() {
+        IMAPFolderCache cache = new IMAPFolderCache(StubFolder::open, 1, 50);
+        Folder pinned = cache.acquire("INBOX", Folder.READ_ONLY);
+        cache.pin(pinned);
+        cache.release("INBOX", pinned);
+
+        Folder readWrite = cache.acquire("INBOX", Folder.READ_WRITE);
+        assertNotSame(pinned, readWrite);
+        assertTrue(pinned.isOpen());
+        cache.release("INBOX", readWrite);
+        assertTrue(pinned.isOpen());
+        assertFalse(readWrite.isOpen());
+        assertEquals(1, cache.getIdleCount());
+
+        // The pinned folder is still reused for reading
+        assertSame(pinned, cache.acquire("INBOX", Folder.READ_ONLY));
+        cache.release("INBOX", pinned);
+
+        // The pin expires after the idle timeout
+        Thread.sleep(100);
+        Folder upgraded = cache.acquire("INBOX", Folder.READ_WRITE);
+        assertNotSame(pinned, upgraded);
+        assertFalse(pinned.isOpen());
+        cache.release("INBOX", upgraded);
+
+        // Without the idle timeout the folder is pinned until the cache is closed
+        IMAPFolderCache cacheWithoutTimeout = new IMAPFolderCache(StubFolder::open, 1, 0);
+        Folder folder = cacheWithoutTimeout.acquire("INBOX", Folder.READ_ONLY);
+        cacheWithoutTimeout.pin(folder);
+        cacheWithoutTimeout.release("INBOX", folder);
+        cacheWithoutTimeout.release("INBOX", cacheWithoutTimeout.acquire("INBOX", Folder.READ_WRITE));
+        assertTrue(folder.isOpen());
+        cacheWithoutTimeout.close();
+        assertFalse(folder.isOpen());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link IMAPFolderCache#evictIdle()}</li>
+     * </ul>
+     */
+    @Test
+    @SneakyThrows
+    public void idleTimeoutTest() {
+        IMAPFolderCache cache = new IMAPFolderCache(StubFolder::open, 2, 50);
+        Folder folder = cache.acquire("INBOX", Folder.READ_ONLY);
+        cache.release("INBOX", folder);
+        Thread.sleep(100);
+        cache.evictIdle();
+        assertEquals(0, cache.getIdleCount());
+        assertFalse(folder.isOpen());
+    }
+}
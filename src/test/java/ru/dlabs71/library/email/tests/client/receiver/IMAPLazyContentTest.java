@@ -0,0 +1,83 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.Flags;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.client.receiver.IMAPDClient;
+import ru.dlabs71.library.email.dto.message.common.EmailAttachment;
+import ru.dlabs71.library.email.dto.message.incoming.IncomingMessage;
+import ru.dlabs71.library.email.dto.pageable.PageRequest;
+import ru.dlabs71.library.email.support.StubImapServer;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(442)
+public class IMAPLazyContentTest {
+
+    private static final byte[] ATTACHMENT_DATA = "The content of the attachment".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link IMAPDClient#readMessages(String, PageRequest)}</li>
+     *     <li>{@link IMAPDClient#setFlagsByUid(String, java.util.Collection, Flags, boolean)}</li>
+     * </ul>
+     * <p>
+     * Write operations after lazy reading in the peek mode don't close the folder, which the lazy contents refer to
+     */
+    @Test
+    @SneakyThrows
+    public void writeAfterLazyReadTest() {
+        try (StubImapServer server = new StubImapServer()) {
+            long uid = server.addMessage(
+                StubImapServer.createMessage("Report", "The text of the message", "report.pdf", ATTACHMENT_DATA)
+            );
+            try (IMAPDClient client = new IMAPDClient(
+                server.imapPropertiesBuilder()
+                    .lazyMessageContent(true)
+                    .peekRead(true)
+                    .folderCacheSize(1)
+                    .build()
+            )) {
+                List<IncomingMessage> messages = client.readMessages(StubImapServer.FOLDER_NAME, PageRequest.of(0, 10));
+                assertEquals(1, messages.size());
+                IncomingMessage message = messages.get(0);
+                assertFalse(server.getFlags(uid).contains("\\Seen"));
+
+                client.setFlagsByUid(
+                    StubImapServer.FOLDER_NAME,
+                    Collections.singleton(uid),
+                    new Flags(Flags.Flag.FLAGGED),
+                    true
+                );
+                client.setFlagsByUid(
+                    StubImapServer.FOLDER_NAME,
+                    Collections.singleton(uid),
+                    new Flags(Flags.Flag.SEEN),
+                    true
+                );
+                assertTrue(server.getFlags(uid).contains("\\Flagged"));
+
+                assertEquals("The text of the message", message.getContents().get(0).getData().trim());
+                EmailAttachment attachment = message.getAttachments().get(0);
+                assertEquals("report.pdf", attachment.getName());
+                assertArrayEquals(ATTACHMENT_DATA, attachment.getData());
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.DEmailReceiver;
+import ru.dlabs71.library.email.dto.search.EmailSearchQuery;
+import ru.dlabs71.library.email.support.StubImapServer;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(440)
+public class IMAPSearchCommandTest {
+
+    private static final EmailSearchQuery QUERY = EmailSearchQuery.builder().subject("Report").build();
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#search(EmailSearchQuery)}</li>
+     * </ul>
+     * <p>
+     * The compact result of the ESEARCH extension with a reversed range
+     */
+    @Test
+    @SneakyThrows
+    public void esearchTest() {
+        try (StubImapServer server = new StubImapServer("ESEARCH")) {
+            server.setSearchResponse("* ESEARCH (TAG \"{tag}\") UID ALL 5:3,8");
+            try (DEmailReceiver receiver = DEmailReceiver.of(server.imapPropertiesBuilder().build())) {
+                assertEquals(Arrays.asList(3L, 4L, 5L, 8L), receiver.search(QUERY));
+
+                String command = getSearchCommand(server);
+                assertTrue(command.startsWith("UID SEARCH RETURN (ALL) "), command);
+                assertFalse(command.contains("CHARSET"), command);
+            }
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#search(EmailSearchQuery)}</li>
+     * </ul>
+     * <p>
+     * The ESEARCH response without the ALL item, which means that no messages match
+     */
+    @Test
+    @SneakyThrows
+    public void emptyEsearchTest() {
+        try (StubImapServer server = new StubImapServer("ESEARCH")) {
+            server.setSearchResponse("* ESEARCH (TAG \"{tag}\") UID");
+            try (DEmailReceiver receiver = DEmailReceiver.of(server.imapPropertiesBuilder().build())) {
+                assertEquals(Collections.emptyList(), receiver.search(QUERY));
+            }
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#search(EmailSearchQuery)}</li>
+     * </ul>
+     * <p>
+     * The plain SEARCH response of a server without the ESEARCH extension
+     */
+    @Test
+    @SneakyThrows
+    public void searchTest() {
+        try (StubImapServer server = new StubImapServer()) {
+            server.setSearchResponse("* SEARCH 7 2 5");
+            try (DEmailReceiver receiver = DEmailReceiver.of(server.imapPropertiesBuilder().build())) {
+                assertEquals(Arrays.asList(2L, 5L, 7L), receiver.search(QUERY));
+
+                String command = getSearchCommand(server);
+                assertFalse(command.contains("RETURN"), command);
+            }
+
+            server.setSearchResponse("* SEARCH");
+            try (DEmailReceiver receiver = DEmailReceiver.of(server.imapPropertiesBuilder().build())) {
+                assertEquals(Collections.emptyList(), receiver.search(QUERY));
+            }
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailReceiver#search(EmailSearchQuery)}</li>
+     * </ul>
+     * <p>
+     * The criteria with non-ASCII characters are sent in UTF-8
+     */
+    @Test
+    @SneakyThrows
+    public void charsetTest() {
+        try (StubImapServer server = new StubImapServer("ESEARCH")) {
+            server.setSearchResponse("* ESEARCH (TAG \"{tag}\") UID ALL 1");
+            try (DEmailReceiver receiver = DEmailReceiver.of(server.imapPropertiesBuilder().build())) {
+                EmailSearchQuery query = EmailSearchQuery.builder().subject("Отчёт").build();
+                assertEquals(Collections.singletonList(1L), receiver.search(query));
+
+                String command = getSearchCommand(server);
+                assertTrue(command.startsWith("UID SEARCH RETURN (ALL) CHARSET UTF-8 "), command);
+                assertTrue(command.contains("Отчёт"), command);
+            }
+        }
+    }
+
+    private static String getSearchCommand(StubImapServer server) {
+        List<String> commands = server.getCommands();
+        return commands.stream()
+            .filter(command -> command.startsWith("UID SEARCH"))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No search command in " + commands));
+    }
+}
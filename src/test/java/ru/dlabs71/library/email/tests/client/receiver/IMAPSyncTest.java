@@ -0,0 +1,161 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.Flags;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.client.receiver.IMAPDClient;
+import ru.dlabs71.library.email.dto.message.incoming.IncomingMessage;
+import ru.dlabs71.library.email.dto.pageable.PageRequest;
+import ru.dlabs71.library.email.dto.sync.SyncCheckpoint;
+import ru.dlabs71.library.email.dto.sync.SyncResult;
+import ru.dlabs71.library.email.support.StubImapServer;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(441)
+public class IMAPSyncTest {
+
+    private static final String SEEN = "\\Seen";
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link IMAPDClient#sync(String, SyncCheckpoint, int)}</li>
+     * </ul>
+     * <p>
+     * Flag changes and expunged messages are returned by the SELECT command of a server with the QRESYNC extension
+     */
+    @Test
+    @SneakyThrows
+    public void qresyncTest() {
+        try (StubImapServer server = new StubImapServer("QRESYNC")) {
+            addMessages(server, 3);
+            try (IMAPDClient client = new IMAPDClient(server.imapPropertiesBuilder().build())) {
+                SyncCheckpoint checkpoint = this.assertFirstSync(server, client);
+
+                server.setFlag(2, "\\Flagged");
+                server.expunge(3);
+                addMessages(server, 1);
+                server.clearCommands();
+                SyncResult result = client.sync(StubImapServer.FOLDER_NAME, checkpoint, 10);
+
+                assertEquals(Collections.singletonList(4L), getUids(result.getNewMessages()));
+                assertEquals(Collections.singleton(2L), result.getChangedFlags().keySet());
+                assertTrue(result.getChangedFlags().get(2L).contains(Flags.Flag.FLAGGED));
+                assertEquals(Collections.singletonList(3L), result.getVanishedUids());
+                assertEquals(4, result.getCheckpoint().getLastUid());
+                assertTrue(server.getCommands().stream().anyMatch(command -> command.contains("QRESYNC")));
+                assertFalse(server.getFlags(4).contains(SEEN));
+            }
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link IMAPDClient#sync(String, SyncCheckpoint, int)}</li>
+     * </ul>
+     * <p>
+     * Flag changes are requested by the CHANGEDSINCE modifier from a server with the CONDSTORE extension only
+     */
+    @Test
+    @SneakyThrows
+    public void condstoreTest() {
+        try (StubImapServer server = new StubImapServer("CONDSTORE")) {
+            addMessages(server, 3);
+            try (IMAPDClient client = new IMAPDClient(server.imapPropertiesBuilder().build())) {
+                SyncCheckpoint checkpoint = this.assertFirstSync(server, client);
+
+                server.setFlag(2, "\\Flagged");
+                addMessages(server, 1);
+                server.clearCommands();
+                SyncResult result = client.sync(StubImapServer.FOLDER_NAME, checkpoint, 10);
+
+                assertEquals(Collections.singletonList(4L), getUids(result.getNewMessages()));
+                assertEquals(Collections.singleton(2L), result.getChangedFlags().keySet());
+                assertTrue(result.getChangedFlags().get(2L).contains(Flags.Flag.FLAGGED));
+                assertTrue(result.getVanishedUids().isEmpty());
+                assertTrue(server.getCommands().stream().anyMatch(command -> command.contains("CHANGEDSINCE")));
+                assertFalse(server.getFlags(4).contains(SEEN));
+            }
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link IMAPDClient#sync(String, SyncCheckpoint, int)}</li>
+     *     <li>{@link IMAPDClient#readMessages(String, PageRequest)}</li>
+     * </ul>
+     * <p>
+     * Without CONDSTORE the folder is taken from the folder cache. A cached folder opened for read and write
+     * by a previous operation doesn't make the synchronization mark the new messages as read, and the messages
+     * read after the synchronization are marked as read as usual.
+     */
+    @Test
+    @SneakyThrows
+    public void folderCacheTest() {
+        try (StubImapServer server = new StubImapServer()) {
+            addMessages(server, 2);
+            try (IMAPDClient client = new IMAPDClient(server.imapPropertiesBuilder().build())) {
+                client.setFlagsByUid(
+                    StubImapServer.FOLDER_NAME,
+                    Collections.singleton(1L),
+                    new Flags(Flags.Flag.FLAGGED),
+                    true
+                );
+
+                SyncResult result = client.sync(StubImapServer.FOLDER_NAME, null, 10);
+                assertEquals(Arrays.asList(1L, 2L), getUids(result.getNewMessages()));
+                assertEquals(SyncCheckpoint.UNKNOWN_MOD_SEQ, result.getCheckpoint().getHighestModSeq());
+                assertFalse(server.getFlags(1).contains(SEEN));
+                assertFalse(server.getFlags(2).contains(SEEN));
+
+                List<IncomingMessage> messages = client.readMessages(StubImapServer.FOLDER_NAME, PageRequest.of(0, 10));
+                assertEquals(2, messages.size());
+                assertTrue(server.getFlags(1).contains(SEEN));
+                assertTrue(server.getFlags(2).contains(SEEN));
+            }
+        }
+    }
+
+    @SneakyThrows
+    private SyncCheckpoint assertFirstSync(StubImapServer server, IMAPDClient client) {
+        SyncResult result = client.sync(StubImapServer.FOLDER_NAME, null, 10);
+        assertEquals(Arrays.asList(1L, 2L, 3L), getUids(result.getNewMessages()));
+        assertTrue(result.getChangedFlags().isEmpty());
+        assertTrue(result.getVanishedUids().isEmpty());
+        assertEquals(StubImapServer.UID_VALIDITY, result.getCheckpoint().getUidValidity());
+        assertEquals(3, result.getCheckpoint().getLastUid());
+        assertTrue(result.getCheckpoint().isModSeqKnown());
+        for (long uid = 1; uid <= 3; uid++) {
+            assertFalse(server.getFlags(uid).contains(SEEN));
+        }
+        return result.getCheckpoint();
+    }
+
+    private static void addMessages(StubImapServer server, int count) {
+        for (int i = 0; i < count; i++) {
+            server.addMessage(StubImapServer.createMessage("Subject " + i, "Text " + i, null, null));
+        }
+    }
+
+    private static List<Long> getUids(List<IncomingMessage> messages) {
+        return messages.stream().map(IncomingMessage::getUid).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,107 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.dlabs71.library.email.client.receiver.MessageDiskCache;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(431)
+public class MessageDiskCacheTest {
+
+    private static final String FOLDER = "INBOX/Работа";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link MessageDiskCache#put(String, long, long, MessageDiskCache.MessageWriter)}</li>
+     *     <li>{@link MessageDiskCache#get(String, long, long)}</li>
+     * </ul>
+     * <p>
+     * Cached messages are available after restart
+     */
+    @Test
+    @SneakyThrows
+    public void putAndGetTest() {
+        MessageDiskCache cache = new MessageDiskCache(directory, 1000);
+        assertNull(cache.get(FOLDER, 1, 10));
+
+        Path file = cache.put(FOLDER, 1, 10, outputStream -> outputStream.write(message(10)));
+        assertNotNull(file);
+        assertArrayEquals(message(10), Files.readAllBytes(file));
+        assertEquals(file, cache.get(FOLDER, 1, 10));
+        assertNull(cache.get(FOLDER, 2, 10));
+
+        MessageDiskCache reloaded = new MessageDiskCache(directory, 1000);
+        assertEquals(1, reloaded.getCount());
+        assertEquals(message(10).length, reloaded.getSize());
+        assertEquals(file, reloaded.get(FOLDER, 1, 10));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link MessageDiskCache#put(String, long, long, MessageDiskCache.MessageWriter)}</li>
+     * </ul>
+     * <p>
+     * The least recently used message is evicted when the cache is full
+     */
+    @Test
+    public void evictTest() {
+        int messageSize = message(1).length;
+        MessageDiskCache cache = new MessageDiskCache(directory, messageSize * 2L);
+        cache.put(FOLDER, 1, 1, outputStream -> outputStream.write(message(1)));
+        cache.put(FOLDER, 1, 2, outputStream -> outputStream.write(message(2)));
+        cache.get(FOLDER, 1, 1);
+        cache.put(FOLDER, 1, 3, outputStream -> outputStream.write(message(3)));
+
+        assertEquals(2, cache.getCount());
+        assertNotNull(cache.get(FOLDER, 1, 1));
+        assertNull(cache.get(FOLDER, 1, 2));
+        assertNotNull(cache.get(FOLDER, 1, 3));
+        assertNull(cache.put(FOLDER, 1, 4, outputStream -> outputStream.write(new byte[messageSize * 3])));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link MessageDiskCache#invalidate(String, long)}</li>
+     * </ul>
+     */
+    @Test
+    public void invalidateTest() {
+        MessageDiskCache cache = new MessageDiskCache(directory, 1000);
+        cache.put(FOLDER, 1, 1, outputStream -> outputStream.write(message(1)));
+        cache.put("Sent", 1, 1, outputStream -> outputStream.write(message(1)));
+
+        cache.invalidate(FOLDER, 1);
+        assertEquals(2, cache.getCount());
+        cache.invalidate(FOLDER, 2);
+        assertEquals(1, cache.getCount());
+        assertNull(cache.get(FOLDER, 1, 1));
+        assertNotNull(cache.get("Sent", 1, 1));
+    }
+
+    private static byte[] message(long uid) {
+        return ("Subject: Message " + uid + "\r\n\r\nBody\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.dlabs71.library.email.client.receiver.POP3UidlStore;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(433)
+public class POP3UidlStoreTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link POP3UidlStore#addAll(java.util.Collection)}</li>
+     *     <li>{@link POP3UidlStore#contains(String)}</li>
+     *     <li>{@link POP3UidlStore#flush()}</li>
+     * </ul>
+     * <p>
+     * UIDLs of read messages are written by the flush and are available after restart
+     */
+    @Test
+    public void addAndReloadTest() {
+        Path file = directory.resolve("pop3").resolve("uidls.txt");
+        POP3UidlStore store = new POP3UidlStore(file);
+        assertFalse(store.contains("uidl-1"));
+
+        store.addAll(Arrays.asList("uidl-1", "uidl-2", null));
+        assertTrue(store.contains("uidl-1"));
+        assertFalse(Files.exists(file));
+        store.flush();
+        assertTrue(Files.exists(file));
+
+        // the added UIDLs are appended to the file
+        store.addAll(Collections.singletonList("uidl-3"));
+        store.flush();
+
+        POP3UidlStore reloaded = new POP3UidlStore(file);
+        assertEquals(3, reloaded.size());
+        assertTrue(reloaded.contains("uidl-1"));
+        assertTrue(reloaded.contains("uidl-2"));
+        assertTrue(reloaded.contains("uidl-3"));
+        assertFalse(reloaded.contains("uidl-4"));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link POP3UidlStore#retainAll(java.util.Collection)}</li>
+     *     <li>{@link POP3UidlStore#removeAll(java.util.Collection)}</li>
+     * </ul>
+     * <p>
+     * UIDLs of messages deleted from the server are forgotten
+     */
+    @Test
+    public void retainAndRemoveTest() {
+        Path file = directory.resolve("uidls.txt");
+        POP3UidlStore store = new POP3UidlStore(file);
+        store.addAll(Arrays.asList("uidl-1", "uidl-2", "uidl-3"));
+        store.flush();
+
+        store.retainAll(Arrays.asList("uidl-2", "uidl-3", "uidl-4"));
+        store.removeAll(Collections.singletonList("uidl-3"));
+        store.flush();
+
+        POP3UidlStore reloaded = new POP3UidlStore(file);
+        assertEquals(1, reloaded.size());
+        assertTrue(reloaded.contains("uidl-2"));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link POP3UidlStore#POP3UidlStore(Path)}</li>
+     * </ul>
+     * <p>
+     * UIDLs are kept in the memory if the file isn't specified
+     */
+    @Test
+    public void memoryTest() {
+        POP3UidlStore store = new POP3UidlStore(null);
+        store.addAll(Collections.singletonList("uidl-1"));
+        assertTrue(store.contains("uidl-1"));
+        assertEquals(1, store.size());
+    }
+}
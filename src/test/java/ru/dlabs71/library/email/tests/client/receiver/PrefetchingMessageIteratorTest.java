@@ -0,0 +1,146 @@
+package ru.dlabs71.library.email.tests.client.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.client.receiver.MessageIterator;
+import ru.dlabs71.library.email.client.receiver.PrefetchingMessageIterator;
+import ru.dlabs71.library.email.dto.pageable.CursorPageRequest;
+import ru.dlabs71.library.email.dto.pageable.CursorPageResponse;
+import ru.dlabs71.library.email.exception.FolderOperationException;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(429)
+public class PrefetchingMessageIteratorTest {
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link PrefetchingMessageIterator#hasNext()}</li>
+     *     <li>{@link PrefetchingMessageIterator#next()}</li>
+     * </ul>
+     * <p>
+     * The next page is loaded while the current one is iterated, and the iterator is closed at the end
+     */
+    @Test
+    @SneakyThrows
+    public void iterateTest() {
+        AtomicInteger closings = new AtomicInteger();
+        List<Long> requestedUids = new ArrayList<>();
+        CountDownLatch secondPageLoaded = new CountDownLatch(1);
+        MessageIterator<Long> iterator = new PrefetchingMessageIterator<>(
+            request -> {
+                requestedUids.add(request.getLastUid());
+                if (request.getLastUid() == 3) {
+                    secondPageLoaded.countDown();
+                }
+                return loadPage(request, 10);
+            },
+            CursorPageRequest.of(3),
+            closings::incrementAndGet
+        );
+
+        assertEquals(1L, iterator.next());
+        assertTrue(secondPageLoaded.await(5, TimeUnit.SECONDS));
+        List<Long> result = new ArrayList<>();
+        result.add(1L);
+        iterator.forEachRemaining(result::add);
+
+        assertEquals(10, result.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, result.get(i));
+        }
+        assertEquals(4, requestedUids.size());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertEquals(1, closings.get());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link MessageIterator#stream()}</li>
+     *     <li>{@link PrefetchingMessageIterator#close()}</li>
+     * </ul>
+     */
+    @Test
+    public void streamTest() {
+        AtomicInteger closings = new AtomicInteger();
+        List<Long> result;
+        try (Stream<Long> stream = new PrefetchingMessageIterator<>(
+            request -> loadPage(request, 100),
+            CursorPageRequest.of(10),
+            closings::incrementAndGet
+        ).stream()) {
+            result = stream.limit(15).collect(Collectors.toList());
+        }
+        assertEquals(15, result.size());
+        assertEquals(1, closings.get());
+
+        MessageIterator<Long> empty = new PrefetchingMessageIterator<>(
+            request -> loadPage(request, 0),
+            CursorPageRequest.of(10),
+            closings::incrementAndGet
+        );
+        assertFalse(empty.hasNext());
+        assertEquals(2, closings.get());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link PrefetchingMessageIterator#hasNext()}</li>
+     * </ul>
+     * <p>
+     * An error of loading is thrown to the caller, and the iterator is closed
+     */
+    @Test
+    public void loadingErrorTest() {
+        AtomicInteger closings = new AtomicInteger();
+        MessageIterator<Long> iterator = new PrefetchingMessageIterator<>(
+            request -> {
+                if (request.getLastUid() > 0) {
+                    throw new FolderOperationException("The connection is lost");
+                }
+                return loadPage(request, 100);
+            },
+            CursorPageRequest.of(10),
+            closings::incrementAndGet
+        );
+        for (int i = 0; i < 10; i++) {
+            iterator.next();
+        }
+        assertThrows(FolderOperationException.class, iterator::hasNext);
+        assertEquals(1, closings.get());
+        assertFalse(iterator.hasNext());
+    }
+
+    private static CursorPageResponse<Long> loadPage(CursorPageRequest request, long total) {
+        List<Long> data = new ArrayList<>();
+        long uid = request.getLastUid() + 1;
+        while (uid <= total && data.size() < request.getLength()) {
+            data.add(uid++);
+        }
+        return CursorPageResponse.of(data, CursorPageRequest.of(1, uid - 1, request.getLength()), uid <= total);
+    }
+}
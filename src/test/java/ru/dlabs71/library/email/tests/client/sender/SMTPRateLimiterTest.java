@@ -0,0 +1,144 @@
+package ru.dlabs71.library.email.tests.client.sender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.Address;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.DEmailSender;
+import ru.dlabs71.library.email.client.sender.SMTPRateLimiter;
+import ru.dlabs71.library.email.support.StubTransport;
+import ru.dlabs71.library.email.type.SendingStatus;
+import ru.dlabs71.library.email.util.TokenBucket;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(436)
+public class SMTPRateLimiterTest {
+
+    @BeforeEach
+    public void reset() {
+        StubTransport.reset();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link TokenBucket#acquire(int)}</li>
+     * </ul>
+     */
+    @Test
+    @SneakyThrows
+    public void tokenBucketTest() {
+        TokenBucket bucket = new TokenBucket(20, 1);
+        long startTime = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            bucket.acquire(1);
+        }
+        long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        assertTrue(elapsedTime >= 190, "The operations weren't paced: " + elapsedTime + " ms");
+
+        bucket.decreaseRate();
+        assertEquals(10, bucket.getRate(), 0.001);
+        bucket.increaseRate();
+        assertEquals(11, bucket.getRate(), 0.001);
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPRateLimiter#onFailure(jakarta.mail.MessagingException)}</li>
+     *     <li>{@link SMTPRateLimiter#onSuccess(Address[])}</li>
+     * </ul>
+     * <p>
+     * Throttling of a domain decreases the rate of the domain, throttling of the server decreases the rate of
+     * the server
+     */
+    @Test
+    @SneakyThrows
+    public void adaptationTest() {
+        SMTPRateLimiter limiter = new SMTPRateLimiter(
+            600,
+            120,
+            Collections.singletonMap("Example.org", 60),
+            10
+        );
+        InternetAddress address = new InternetAddress("recipient@example.com");
+        Address[] recipients = new Address[]{address};
+        limiter.acquire(recipients);
+        assertEquals(60, limiter.getDomainRate("example.org"), 0.001);
+
+        limiter.onFailure(new SMTPAddressFailedException(address, "RCPT TO", 451, "Try again later"));
+        assertEquals(60, limiter.getDomainRate("example.com"), 0.001);
+        assertEquals(600, limiter.getRate(), 0.001);
+
+        limiter.onFailure(new SMTPSendFailedException("DATA", 421, "Too many messages", null, null, null, null));
+        assertEquals(300, limiter.getRate(), 0.001);
+
+        limiter.onSuccess(recipients);
+        assertEquals(330, limiter.getRate(), 0.001);
+        assertEquals(66, limiter.getDomainRate("example.com"), 0.001);
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPRateLimiter#onFailure(jakarta.mail.MessagingException)}</li>
+     * </ul>
+     * <p>
+     * A rejected recipient doesn't decrease the rate of the server, even if its domain has no limit
+     */
+    @Test
+    @SneakyThrows
+    public void recipientThrottlingTest() {
+        SMTPRateLimiter limiter = new SMTPRateLimiter(600, 0, Collections.emptyMap(), 10);
+        InternetAddress address = new InternetAddress("recipient@example.com");
+        SendFailedException exception = new SendFailedException("Invalid Addresses");
+        exception.setNextException(new SMTPAddressFailedException(address, "RCPT TO", 450, "Mailbox busy"));
+        limiter.onFailure(exception);
+        limiter.onFailure(new SMTPSendFailedException("RCPT TO", 451, "Try again later", null, null, null, null));
+        assertEquals(600, limiter.getRate(), 0.001);
+
+        limiter.onFailure(new SMTPAddressFailedException(address, "RCPT TO", 421, "Service not available"));
+        assertEquals(300, limiter.getRate(), 0.001);
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailSender#sendText(String, String, String)}</li>
+     * </ul>
+     * <p>
+     * Messages are paced by the rate limit of the server
+     */
+    @Test
+    public void sendPacedTest() {
+        long startTime = System.nanoTime();
+        try (DEmailSender sender = DEmailSender.of(StubTransport.smtpPropertiesBuilder()
+            .rateLimit(600)
+            .rateLimitBurst(1)
+            .build())) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals(SendingStatus.SUCCESS, sender.sendText("recipient@example.com", "Subject", "Content"));
+            }
+        }
+        long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        assertEquals(4, StubTransport.SENT_MESSAGES.get());
+        assertTrue(elapsedTime >= 290, "The messages weren't paced: " + elapsedTime + " ms");
+    }
+}
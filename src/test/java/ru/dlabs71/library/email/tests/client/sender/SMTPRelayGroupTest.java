@@ -0,0 +1,198 @@
+package ru.dlabs71.library.email.tests.client.sender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.DEmailSender;
+import ru.dlabs71.library.email.client.sender.SMTPRelayGroup;
+import ru.dlabs71.library.email.client.sender.SMTPTransportPool;
+import ru.dlabs71.library.email.property.SmtpRelay;
+import ru.dlabs71.library.email.support.StubTransport;
+import ru.dlabs71.library.email.type.RelayBalancing;
+import ru.dlabs71.library.email.type.SendingStatus;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(437)
+public class SMTPRelayGroupTest {
+
+    @BeforeEach
+    public void reset() {
+        StubTransport.reset();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailSender#sendText(String, String, String)}</li>
+     * </ul>
+     * <p>
+     * Messages are sent by the healthy relay without retries, if the other relay is unavailable
+     */
+    @Test
+    public void failoverTest() {
+        StubTransport.FAILED_HOSTS.add("relay1");
+        try (DEmailSender sender = DEmailSender.of(StubTransport.smtpPropertiesBuilder()
+            .relays(Arrays.asList(SmtpRelay.of("relay1", 25), SmtpRelay.of("relay2", 25)))
+            .build())) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals(SendingStatus.SUCCESS, sender.sendText("recipient@example.com", "Subject", "Content"));
+            }
+        }
+        assertEquals(4, StubTransport.SENT_MESSAGES_BY_HOST.get("relay2").get());
+        assertNull(StubTransport.SENT_MESSAGES_BY_HOST.get("relay1"));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPRelayGroup#execute(SMTPTransportPool.TransportCallback)}</li>
+     * </ul>
+     * <p>
+     * Messages are spread over the relays by their weights
+     */
+    @Test
+    @SneakyThrows
+    public void weightedRoundRobinTest() {
+        try (SMTPRelayGroup group = new SMTPRelayGroup("smtp", RelayBalancing.ROUND_ROBIN, 1, 1000, 1000)) {
+            group.addRelay("relay1", 25, 2, createSession("relay1"), null);
+            group.addRelay("relay2", 25, 1, createSession("relay2"), null);
+            for (int i = 0; i < 6; i++) {
+                sendMessage(group);
+            }
+        }
+        assertEquals(4, StubTransport.SENT_MESSAGES_BY_HOST.get("relay1").get());
+        assertEquals(2, StubTransport.SENT_MESSAGES_BY_HOST.get("relay2").get());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPRelayGroup#select(java.util.Set)}</li>
+     * </ul>
+     * <p>
+     * The relay with the least number of borrowed transports is chosen
+     */
+    @Test
+    @SneakyThrows
+    public void leastOutstandingTest() {
+        try (SMTPRelayGroup group = new SMTPRelayGroup("smtp", RelayBalancing.LEAST_OUTSTANDING, 1, 1000, 1000)) {
+            group.addRelay("relay1", 25, 1, createSession("relay1"), null);
+            group.addRelay("relay2", 25, 1, createSession("relay2"), null);
+            SMTPRelayGroup.Relay busyRelay = group.select(Collections.emptySet());
+            Transport transport = busyRelay.borrow();
+            for (int i = 0; i < 3; i++) {
+                assertNotEquals(busyRelay, group.select(Collections.emptySet()));
+            }
+            busyRelay.release(transport, false);
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPRelayGroup.Relay#isEjected()}</li>
+     * </ul>
+     * <p>
+     * The failed relay is ejected and gets messages again after the successful check
+     */
+    @Test
+    @SneakyThrows
+    public void ejectionTest() {
+        try (SMTPRelayGroup group = new SMTPRelayGroup("smtp", RelayBalancing.ROUND_ROBIN, 1, 100, 1000)) {
+            SMTPRelayGroup.Relay relay1 = group.addRelay("relay1", 25, 1, createSession("relay1"), null);
+            SMTPRelayGroup.Relay relay2 = group.addRelay("relay2", 25, 1, createSession("relay2"), null);
+            StubTransport.FAILED_HOSTS.add("relay1");
+            for (int i = 0; i < 4; i++) {
+                sendMessage(group);
+            }
+            assertTrue(relay1.isEjected());
+            assertEquals(4, StubTransport.SENT_MESSAGES_BY_HOST.get("relay2").get());
+
+            StubTransport.FAILED_HOSTS.remove("relay1");
+            TimeUnit.MILLISECONDS.sleep(150);
+            for (int i = 0; i < 4; i++) {
+                sendMessage(group);
+            }
+            assertFalse(relay1.isEjected());
+            assertEquals(2, StubTransport.SENT_MESSAGES_BY_HOST.get("relay1").get());
+
+            // all the relays are unavailable
+            StubTransport.FAILED_HOSTS.addAll(Arrays.asList("relay1", "relay2"));
+            assertThrows(MessagingException.class, () -> sendMessage(group));
+            assertTrue(relay1.isEjected());
+            assertTrue(relay2.isEjected());
+
+            // the ejected relay is used anyway, if all the relays are ejected
+            StubTransport.FAILED_HOSTS.clear();
+            sendMessage(group);
+            assertTrue(relay1.isEjected() != relay2.isEjected());
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPRelayGroup#isRelayFailure(MessagingException)}</li>
+     * </ul>
+     * <p>
+     * Only connection errors and the code 421 are failures of a relay
+     */
+    @Test
+    public void relayFailureTest() {
+        assertTrue(SMTPRelayGroup.isRelayFailure(
+            new MessagingException("Couldn't connect to host", new ConnectException("Connection refused"))
+        ));
+        assertTrue(SMTPRelayGroup.isRelayFailure(
+            new MessagingException("IOException while sending message", new SocketException("Connection reset"))
+        ));
+        assertTrue(SMTPRelayGroup.isRelayFailure(
+            new SMTPSendFailedException("DATA", 421, "Service not available", null, null, null, null)
+        ));
+        assertFalse(SMTPRelayGroup.isRelayFailure(
+            new MessagingException("IOException while sending message", new IOException("The file can't be read"))
+        ));
+        assertFalse(SMTPRelayGroup.isRelayFailure(
+            new SMTPSendFailedException("DATA", 451, "Try again later", null, null, null, null)
+        ));
+    }
+
+    private static void sendMessage(SMTPRelayGroup group) throws MessagingException {
+        group.execute(transport -> {
+            transport.sendMessage(null, null);
+            return null;
+        });
+    }
+
+    private static Session createSession(String host) {
+        Properties properties = new Properties();
+        properties.put("mail.smtp.class", StubTransport.class.getName());
+        properties.put("mail.smtp.host", host);
+        return Session.getInstance(properties);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.dlabs71.library.email.tests.client.sender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.DEmailSender;
+import ru.dlabs71.library.email.client.sender.SMTPDClient;
+import ru.dlabs71.library.email.dto.message.common.EmailParticipant;
+import ru.dlabs71.library.email.dto.message.outgoing.DefaultOutgoingMessage;
+import ru.dlabs71.library.email.dto.message.outgoing.OutgoingMessage;
+import ru.dlabs71.library.email.support.StubTransport;
+import ru.dlabs71.library.email.type.ContentMessageType;
+import ru.dlabs71.library.email.type.SendingStatus;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(417)
+public class SMTPSendAllTests {
+
+    @BeforeEach
+    public void reset() {
+        StubTransport.reset();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailSender#sendAll(java.util.Collection)}</li>
+     * </ul>
+     * <p>
+     * An invalid message doesn't abort the batch, and all the messages are sent by one connection.
+     */
+    @Test
+    public void sendAllTest() {
+        List<OutgoingMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(createMessage("Subject " + i));
+        }
+        OutgoingMessage invalid = createMessage(null);
+        messages.add(5, invalid);
+
+        try (DEmailSender sender = DEmailSender.of(StubTransport.smtpPropertiesBuilder().build())) {
+            Map<OutgoingMessage, SendingStatus> result = sender.sendAll(messages);
+
+            assertEquals(11, result.size());
+            assertEquals(messages, new ArrayList<>(result.keySet()));
+            assertEquals(SendingStatus.ERROR_IN_MESSAGE, result.get(invalid));
+            result.forEach((message, status) -> {
+                if (message != invalid) {
+                    assertEquals(SendingStatus.SUCCESS, status);
+                }
+            });
+        }
+        assertEquals(10, StubTransport.SENT_MESSAGES.get());
+        assertEquals(1, StubTransport.CONNECTIONS.get());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPDClient#sendAll(java.util.Iterator)}</li>
+     * </ul>
+     * <p>
+     * Transport errors and disabled pooling
+     */
+    @Test
+    public void sendAllTransportErrorTest() {
+        SMTPDClient client = new SMTPDClient(StubTransport.smtpPropertiesBuilder().transportPoolSize(0).build());
+        StubTransport.failSending = true;
+        List<OutgoingMessage> messages = Arrays.asList(createMessage("Subject 1"), createMessage("Subject 2"));
+        Map<OutgoingMessage, SendingStatus> result = client.sendAll(messages.iterator());
+
+        assertEquals(2, result.size());
+        result.values().forEach(status -> assertEquals(SendingStatus.ERROR_IN_TRANSPORT, status));
+        assertEquals(2, StubTransport.CONNECTIONS.get());
+
+        StubTransport.failSending = false;
+        assertEquals(Collections.emptyMap(), client.sendAll(Collections.emptyIterator()));
+        result = client.sendAll(messages.iterator());
+        result.values().forEach(status -> assertEquals(SendingStatus.SUCCESS, status));
+        assertEquals(3, StubTransport.CONNECTIONS.get());
+        client.close();
+    }
+
+    private static OutgoingMessage createMessage(String subject) {
+        return DefaultOutgoingMessage.outgoingMessageBuilder()
+            .subject(subject)
+            .content("Content")
+            .contentType(ContentMessageType.TEXT)
+            .recipientEmail(Collections.singleton(new EmailParticipant("recipient@example.com")))
+            .build();
+    }
+}
@@ -0,0 +1,96 @@
+package ru.dlabs71.library.email.tests.client.sender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.DEmailSender;
+import ru.dlabs71.library.email.dto.message.outgoing.OutgoingMessage;
+import ru.dlabs71.library.email.exception.ValidationMessageException;
+import ru.dlabs71.library.email.support.StubTransport;
+import ru.dlabs71.library.email.type.SendingStatus;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(416)
+public class SMTPSendAsyncTests {
+
+    @BeforeEach
+    public void reset() {
+        StubTransport.reset();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailSender#sendTextAsync(String, String, String)}</li>
+     *     <li>{@link DEmailSender#close()}</li>
+     * </ul>
+     */
+    @Test
+    @SneakyThrows
+    public void sendTextAsyncTest() {
+        List<CompletableFuture<SendingStatus>> futures = new ArrayList<>();
+        DEmailSender sender = DEmailSender.of(StubTransport.smtpPropertiesBuilder()
+                                                  .asyncThreadPoolSize(2)
+                                                  .asyncQueueCapacity(1)
+                                                  .build());
+        for (int i = 0; i < 20; i++) {
+            futures.add(sender.sendTextAsync("recipient@example.com", "Subject " + i, "Content"));
+        }
+        sender.close();
+
+        for (CompletableFuture<SendingStatus> future : futures) {
+            assertTrue(future.isDone());
+            assertEquals(SendingStatus.SUCCESS, future.get());
+        }
+        assertEquals(20, StubTransport.SENT_MESSAGES.get());
+        assertTrue(StubTransport.CONNECTIONS.get() <= 2);
+
+        CompletableFuture<SendingStatus> rejected = sender.sendTextAsync("recipient@example.com", "Subject", "Text");
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailSender#sendAsync(OutgoingMessage)}</li>
+     * </ul>
+     * <p>
+     * A custom executor and an invalid message
+     */
+    @Test
+    @SneakyThrows
+    public void sendAsyncCustomExecutorTest() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        DEmailSender sender = DEmailSender.of(StubTransport.smtpPropertiesBuilder().build(), executor);
+
+        CompletableFuture<SendingStatus> future = sender.sendAsync((OutgoingMessage) null);
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(ValidationMessageException.class, exception.getCause());
+
+        CompletableFuture<SendingStatus> result = sender.sendHtmlAsync("recipient@example.com", "Subject", "<p/>");
+        assertEquals(SendingStatus.SUCCESS, result.get());
+        sender.close();
+        assertTrue(!executor.isShutdown());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,250 @@
+package ru.dlabs71.library.email.tests.client.sender;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.MessagingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.SneakyThrows;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.dlabs71.library.email.DEmailSender;
+import ru.dlabs71.library.email.client.sender.SMTPSpool;
+import ru.dlabs71.library.email.dto.message.common.EmailParticipant;
+import ru.dlabs71.library.email.dto.message.outgoing.DefaultOutgoingMessage;
+import ru.dlabs71.library.email.dto.message.outgoing.OutgoingMessage;
+import ru.dlabs71.library.email.support.StubTransport;
+import ru.dlabs71.library.email.type.ContentMessageType;
+import ru.dlabs71.library.email.type.SendingStatus;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(434)
+public class SMTPSpoolTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void reset() {
+        StubTransport.reset();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPSpool#enqueue(byte[])}</li>
+     *     <li>{@link SMTPSpool#SMTPSpool(Path, long, int, long, long, int, SMTPSpool.Delivery)}</li>
+     * </ul>
+     * <p>
+     * Undelivered messages are delivered after restart, and a damaged tail of the journal is cut off
+     */
+    @Test
+    @SneakyThrows
+    public void recoveryTest() {
+        try (SMTPSpool spool = createSpool(1024 * 1024, message -> {
+            throw new MessagingException("Connection refused");
+        })) {
+            for (int i = 0; i < 3; i++) {
+                spool.enqueue(("Message " + i).getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(3, spool.size());
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".journal")).findFirst().get();
+        }
+        Files.write(segment, new byte[]{1, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        List<byte[]> delivered = new CopyOnWriteArrayList<>();
+        try (SMTPSpool spool = createSpool(1024 * 1024, delivered::add)) {
+            await(() -> spool.size() == 0);
+            List<String> messages = delivered.stream()
+                .map(message -> new String(message, StandardCharsets.UTF_8))
+                .sorted()
+                .collect(Collectors.toList());
+            assertEquals(3, messages.size());
+            assertEquals("Message 0", messages.get(0));
+            assertEquals("Message 2", messages.get(2));
+        }
+        try (SMTPSpool spool = createSpool(1024 * 1024, delivered::add)) {
+            assertEquals(0, spool.size());
+        }
+        assertEquals(3, delivered.size());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPSpool#getSegmentCount()}</li>
+     * </ul>
+     * <p>
+     * Segments are rotated, and the segments of the delivered messages are deleted
+     */
+    @Test
+    @SneakyThrows
+    public void compactionTest() {
+        List<byte[]> delivered = new CopyOnWriteArrayList<>();
+        byte[] message = new byte[64];
+        try (SMTPSpool spool = createSpool(256, delivered::add)) {
+            for (int i = 0; i < 20; i++) {
+                spool.enqueue(message);
+            }
+            await(() -> spool.size() == 0);
+            await(() -> spool.getSegmentCount() == 1);
+            assertEquals(20, delivered.size());
+            assertArrayEquals(message, delivered.get(0));
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPSpool#getSegmentCount()}</li>
+     * </ul>
+     * <p>
+     * The segment pinned by an undelivered message doesn't prevent deleting the next segments,
+     * and the acknowledged messages of the pinned segment aren't delivered again after restart
+     */
+    @Test
+    @SneakyThrows
+    public void pinnedSegmentCompactionTest() {
+        byte[] pinnedMessage = new byte[200];
+        byte[] message = new byte[64];
+        try (SMTPSpool spool = createSpool(256, data -> {
+            if (data.length == pinnedMessage.length) {
+                throw new MessagingException("Connection refused");
+            }
+        })) {
+            spool.enqueue(pinnedMessage);
+            for (int i = 0; i < 20; i++) {
+                spool.enqueue(message);
+            }
+            await(() -> spool.size() == 1);
+            await(() -> spool.getSegmentCount() == 2);
+        }
+
+        List<byte[]> delivered = new CopyOnWriteArrayList<>();
+        try (SMTPSpool spool = createSpool(256, delivered::add)) {
+            await(() -> spool.size() == 0);
+        }
+        assertEquals(1, delivered.size());
+        assertArrayEquals(pinnedMessage, delivered.get(0));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPSpool#enqueue(byte[])}</li>
+     * </ul>
+     * <p>
+     * The identifier of a message isn't given out again after restart, even if the segment with the greatest
+     * identifier was deleted, and the file of an undelivered message doesn't replace an existing one
+     */
+    @Test
+    @SneakyThrows
+    public void identifierTest() {
+        byte[] firstMessage = new byte[200];
+        byte[] secondMessage = new byte[20];
+        AtomicReference<SMTPSpool> spoolHolder = new AtomicReference<>();
+        try (SMTPSpool spool = createSpool(256, data -> {
+            // the first message is acknowledged after the second one, and its acknowledgement starts a new segment
+            if (data.length == firstMessage.length && spoolHolder.get().size() > 1) {
+                throw new MessagingException("Connection refused");
+            }
+        })) {
+            spoolHolder.set(spool);
+            assertEquals(1, spool.enqueue(firstMessage));
+            assertEquals(2, spool.enqueue(secondMessage));
+            await(() -> spool.size() == 0);
+            await(() -> spool.getSegmentCount() == 1);
+        }
+
+        Path failedDirectory = Files.createDirectories(directory.resolve("failed"));
+        Files.write(failedDirectory.resolve("3.eml"), "Old message".getBytes(StandardCharsets.UTF_8));
+        try (SMTPSpool spool = createSpool(256, data -> {
+            throw new SMTPSendFailedException("DATA", 550, "Rejected", null, null, null, null);
+        })) {
+            assertEquals(3, spool.enqueue(secondMessage));
+            await(() -> spool.size() == 0);
+        }
+        byte[] oldMessage = Files.readAllBytes(failedDirectory.resolve("3.eml"));
+        assertEquals("Old message", new String(oldMessage, StandardCharsets.UTF_8));
+        assertArrayEquals(secondMessage, Files.readAllBytes(failedDirectory.resolve("3-1.eml")));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link DEmailSender#enqueue(OutgoingMessage)}</li>
+     * </ul>
+     * <p>
+     * The message is accepted when the server is unavailable and is sent after restart of the sender
+     */
+    @Test
+    @SneakyThrows
+    public void enqueueTest() {
+        StubTransport.failSending = true;
+        try (DEmailSender sender = createSender()) {
+            assertEquals(SendingStatus.SUCCESS, sender.enqueue(createMessage()));
+        }
+        assertEquals(0, StubTransport.SENT_MESSAGES.get());
+
+        StubTransport.failSending = false;
+        try (DEmailSender sender = createSender()) {
+            await(() -> StubTransport.SENT_MESSAGES.get() == 1);
+        }
+    }
+
+    private SMTPSpool createSpool(long maxSegmentSize, SMTPSpool.Delivery delivery) {
+        return new SMTPSpool(directory, maxSegmentSize, 2, 10, 100, 0, delivery);
+    }
+
+    private DEmailSender createSender() {
+        return DEmailSender.of(StubTransport.smtpPropertiesBuilder()
+            .spoolDirectory(directory.toString())
+            .spoolRetryDelay(10)
+            .spoolMaxRetryDelay(100)
+            .build());
+    }
+
+    private static OutgoingMessage createMessage() {
+        return DefaultOutgoingMessage.outgoingMessageBuilder()
+            .subject("Spooled message")
+            .content("Content")
+            .contentType(ContentMessageType.TEXT)
+            .recipientEmail(Collections.singleton(new EmailParticipant("recipient@example.com")))
+            .build();
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "The condition wasn't met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ru.dlabs71.library.email.tests.client.sender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.client.sender.SMTPTransportPool;
+import ru.dlabs71.library.email.support.StubTransport;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(415)
+public class SMTPTransportPoolTest {
+
+    @BeforeEach
+    public void reset() {
+        StubTransport.reset();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPTransportPool#execute(SMTPTransportPool.TransportCallback)}</li>
+     * </ul>
+     */
+    @Test
+    @SneakyThrows
+    public void reuseConnectionTest() {
+        SMTPTransportPool pool = new SMTPTransportPool(
+            StubTransport.createSession(),
+            StubTransport.PROTOCOL,
+            2, 0, 100
+        );
+        for (int i = 0; i < 10; i++) {
+            pool.execute(transport -> {
+                transport.sendMessage(null, null);
+                return null;
+            });
+        }
+        assertEquals(1, StubTransport.CONNECTIONS.get());
+        assertEquals(10, StubTransport.SENT_MESSAGES.get());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+        pool.close();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPTransportPool#borrow()}</li>
+     *     <li>{@link SMTPTransportPool#release(Transport, boolean)}</li>
+     * </ul>
+     */
+    @Test
+    @SneakyThrows
+    public void boundedPoolTest() {
+        SMTPTransportPool pool = new SMTPTransportPool(
+            StubTransport.createSession(),
+            StubTransport.PROTOCOL,
+            2, 0, 50
+        );
+        Transport transport1 = pool.borrow();
+        Transport transport2 = pool.borrow();
+        assertNotSame(transport1, transport2);
+        assertEquals(2, pool.getActiveCount());
+        assertThrows(MessagingException.class, pool::borrow);
+
+        pool.release(transport1, false);
+        assertSame(transport1, pool.borrow());
+        pool.release(transport1, false);
+        pool.release(transport2, false);
+        assertEquals(2, pool.getIdleCount());
+        assertEquals(2, StubTransport.CONNECTIONS.get());
+        pool.close();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPTransportPool#execute(SMTPTransportPool.TransportCallback)}</li>
+     * </ul>
+     * <p>
+     * The broken connection is discarded and a new one is created.
+     */
+    @Test
+    @SneakyThrows
+    public void brokenConnectionTest() {
+        SMTPTransportPool pool = new SMTPTransportPool(
+            StubTransport.createSession(),
+            StubTransport.PROTOCOL,
+            1, 0, 100
+        );
+        StubTransport.failSending = true;
+        assertThrows(MessagingException.class, () -> pool.execute(transport -> {
+            transport.sendMessage(null, null);
+            return null;
+        }));
+        assertEquals(0, pool.getIdleCount());
+
+        StubTransport.failSending = false;
+        pool.execute(transport -> {
+            transport.sendMessage(null, null);
+            return null;
+        });
+        assertEquals(2, StubTransport.CONNECTIONS.get());
+        assertEquals(1, StubTransport.SENT_MESSAGES.get());
+        pool.close();
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link SMTPTransportPool#evictIdle()}</li>
+     * </ul>
+     */
+    @Test
+    @SneakyThrows
+    public void evictIdleTest() {
+        SMTPTransportPool pool = new SMTPTransportPool(
+            StubTransport.createSession(),
+            StubTransport.PROTOCOL,
+            2, 20, 100
+        );
+        Transport transport = pool.borrow();
+        pool.release(transport, false);
+        assertEquals(1, pool.getIdleCount());
+        Thread.sleep(50);
+        pool.evictIdle();
+        assertEquals(0, pool.getIdleCount());
+
+        pool.borrow();
+        assertEquals(2, StubTransport.CONNECTIONS.get());
+    }
+}
@@ -1,9 +1,17 @@
 package ru.dlabs71.library.email.tests.converter.incoming;
 
 import jakarta.mail.Message;
+import jakarta.mail.Session;
 import jakarta.mail.internet.MimeMessage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Properties;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -11,6 +19,11 @@ import ru.dlabs71.library.email.converter.incoming.BaseMessageConverter;
 import ru.dlabs71.library.email.tests.converter.incoming.utils.MessageAsserts;
 import ru.dlabs71.library.email.tests.converter.incoming.utils.TestConverterUtils;
 import ru.dlabs71.library.email.dto.message.common.BaseMessage;
+import ru.dlabs71.library.email.dto.message.common.EmailAttachment;
+import ru.dlabs71.library.email.dto.message.incoming.DefaultIncomingMessage;
+import ru.dlabs71.library.email.dto.message.incoming.IncomingMessage;
+import ru.dlabs71.library.email.mime.TempFileDataSource;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
 
 /**
  * <p>
@@ -194,4 +207,133 @@ public class BaseMessageConverterTest {
         );
         MessageAsserts.assertEmptyAttachmentsMessage(baseMessage);
     }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link BaseMessageConverter#convertLazily(Message)}</li>
+     * </ul>
+     */
+    @Test
+    @SneakyThrows
+    public void convertLazilyTest() {
+        String subject = "Captain Flint's Map";
+        String content = "Treasure Island";
+        String contentHtml = "<div>Treasure Island</div>";
+        MimeMessage message = TestConverterUtils.createMessageWithHtml(subject, content, contentHtml);
+        BaseMessage baseMessage = BaseMessageConverter.convertLazily(message);
+
+        MessageAsserts.assertMessageEnvelop(baseMessage, message, subject);
+        Assertions.assertNotNull(baseMessage.getContents().get(0).getDataSource());
+        MessageAsserts.assertContentMessage(baseMessage, Arrays.asList(content, contentHtml));
+        MessageAsserts.assertEmptyAttachmentsMessage(baseMessage);
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link BaseMessageConverter#convertLazily(Message)}</li>
+     * </ul>
+     * <p>
+     * Attachments of a received message are loaded when they are accessed. Binary attachments are used,
+     * since line breaks of text attachments are converted by MIME encoding.
+     */
+    @Test
+    @SneakyThrows
+    public void convertLazilyTest_attachments() {
+        String subject = "Captain Flint's Map";
+        String content = "Treasure Island";
+        List<String> attachments = Arrays.asList(
+            "classpath:attachments/file.jpg",
+            "classpath:attachments/file.docx",
+            "classpath:attachments/file.zip"
+        );
+        MimeMessage source = TestConverterUtils.createMessageWithAttachments(subject, content, attachments);
+        source.saveChanges();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        source.writeTo(outputStream);
+        MimeMessage message = new MimeMessage(
+            Session.getInstance(new Properties()),
+            new ByteArrayInputStream(outputStream.toByteArray())
+        );
+
+        BaseMessage expected = BaseMessageConverter.convert(message);
+        BaseMessage baseMessage = BaseMessageConverter.convertLazily(message);
+
+        MessageAsserts.assertContentMessage(baseMessage, content);
+        Assertions.assertEquals(attachments.size(), baseMessage.getAttachments().size());
+        for (int i = 0; i < attachments.size(); i++) {
+            EmailAttachment expectedAttachment = expected.getAttachments().get(i);
+            EmailAttachment attachment = baseMessage.getAttachments().get(i);
+            Assertions.assertNotNull(attachment.getDataSource());
+            Assertions.assertNotNull(attachment.getSize());
+            Assertions.assertEquals(expectedAttachment.getName(), attachment.getName());
+            Assertions.assertEquals(expectedAttachment.getType(), attachment.getType());
+            byte[] fileContent = JavaCoreUtils.toByteArray(
+                getClass().getClassLoader().getResourceAsStream("attachments/" + attachment.getName())
+            );
+            Assertions.assertArrayEquals(fileContent, attachment.getData());
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link BaseMessageConverter#convertToIncomingMessage(Message, long, Path)}</li>
+     *     <li>{@link IncomingMessage#close()}</li>
+     * </ul>
+     * <p>
+     * Attachments larger than the threshold are written to temporary files, which are deleted by closing.
+     */
+    @Test
+    @SneakyThrows
+    public void convertToIncomingMessageTest_spill() {
+        String subject = "Captain Flint's Map";
+        String content = "Treasure Island";
+        List<String> attachments = Arrays.asList(
+            "classpath:attachments/file.jpg",
+            "classpath:attachments/file.png",
+            "classpath:attachments/file.zip"
+        );
+        MimeMessage source = TestConverterUtils.createMessageWithAttachments(subject, content, attachments);
+        source.saveChanges();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        source.writeTo(outputStream);
+        MimeMessage message = new MimeMessage(
+            Session.getInstance(new Properties()),
+            new ByteArrayInputStream(outputStream.toByteArray())
+        );
+        Path directory = Files.createTempDirectory("d-email-test");
+
+        DefaultIncomingMessage incomingMessage = BaseMessageConverter.convertToIncomingMessage(
+            message,
+            20000,
+            directory
+        );
+
+        MessageAsserts.assertContentMessage(incomingMessage, content);
+        Assertions.assertEquals(attachments.size(), incomingMessage.getAttachments().size());
+        List<Path> files = new ArrayList<>();
+        for (EmailAttachment attachment : incomingMessage.getAttachments()) {
+            byte[] fileContent = JavaCoreUtils.toByteArray(
+                getClass().getClassLoader().getResourceAsStream("attachments/" + attachment.getName())
+            );
+            Assertions.assertArrayEquals(fileContent, attachment.getData());
+            Assertions.assertEquals(fileContent.length, attachment.getSize());
+            if (fileContent.length > 20000) {
+                Assertions.assertTrue(attachment.getDataSource() instanceof TempFileDataSource);
+                Path file = ((TempFileDataSource) attachment.getDataSource()).getPath();
+                Assertions.assertEquals(directory, file.getParent());
+                Assertions.assertTrue(Files.exists(file));
+                files.add(file);
+            } else {
+                Assertions.assertNull(attachment.getDataSource());
+            }
+        }
+        Assertions.assertEquals(2, files.size());
+
+        incomingMessage.close();
+        files.forEach(file -> Assertions.assertFalse(Files.exists(file)));
+        Files.delete(directory);
+    }
 }
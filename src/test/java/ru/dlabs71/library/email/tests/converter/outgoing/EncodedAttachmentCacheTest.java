@@ -0,0 +1,160 @@
+package ru.dlabs71.library.email.tests.converter.outgoing;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.BodyPart;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Random;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.converter.outgoing.EncodedAttachmentCache;
+import ru.dlabs71.library.email.converter.outgoing.JakartaMessageConverter;
+import ru.dlabs71.library.email.converter.outgoing.JakartaMessagePartConverter;
+import ru.dlabs71.library.email.dto.message.common.EmailAttachment;
+import ru.dlabs71.library.email.dto.message.common.EmailParticipant;
+import ru.dlabs71.library.email.dto.message.outgoing.DefaultOutgoingMessage;
+import ru.dlabs71.library.email.dto.message.outgoing.OutgoingMessage;
+import ru.dlabs71.library.email.util.JavaCoreUtils;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(438)
+public class EncodedAttachmentCacheTest {
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link JakartaMessagePartConverter#convertAttachmentPart(EmailAttachment, EncodedAttachmentCache)}</li>
+     * </ul>
+     * <p>
+     * The attachment is encoded once, and the next body parts have the encoded content
+     */
+    @Test
+    @SneakyThrows
+    public void convertAttachmentPartTest() {
+        EncodedAttachmentCache cache = new EncodedAttachmentCache(1024 * 1024);
+        byte[] data = createData(10000);
+        EmailAttachment attachment = createAttachment("terms.pdf", data);
+
+        JakartaMessagePartConverter.convertAttachmentPart(attachment, cache);
+        MimeBodyPart part = (MimeBodyPart) JakartaMessagePartConverter.convertAttachmentPart(attachment, cache);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals("base64", part.getEncoding());
+        assertEquals("terms.pdf", part.getFileName());
+        byte[] rawContent = JavaCoreUtils.toByteArray(part.getRawInputStream());
+        assertArrayEquals(data, Base64.getMimeDecoder().decode(rawContent));
+        assertArrayEquals(data, JavaCoreUtils.toByteArray(part.getInputStream()));
+
+        // the same data with another name is another attachment
+        JakartaMessagePartConverter.convertAttachmentPart(createAttachment("invoice.pdf", data), cache);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getCount());
+
+        // the changed array is another attachment
+        data[0]++;
+        part = (MimeBodyPart) JakartaMessagePartConverter.convertAttachmentPart(attachment, cache);
+        assertEquals(3, cache.getMissCount());
+        assertArrayEquals(data, JavaCoreUtils.toByteArray(part.getInputStream()));
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link JakartaMessageConverter#convert(OutgoingMessage, Session, String, String, EncodedAttachmentCache)}
+     *     </li>
+     * </ul>
+     * <p>
+     * The message with the cached attachment is written and read correctly
+     */
+    @Test
+    @SneakyThrows
+    public void convertTest() {
+        EncodedAttachmentCache cache = new EncodedAttachmentCache(1024 * 1024);
+        byte[] data = createData(5000);
+        OutgoingMessage outgoingMessage = new DefaultOutgoingMessage(
+            "Subject",
+            "Content",
+            Collections.singleton(new EmailParticipant("recipient@example.com")),
+            Collections.singletonList(createAttachment("terms.pdf", data))
+        );
+        Session session = Session.getInstance(new Properties());
+        for (int i = 0; i < 3; i++) {
+            Message message = JakartaMessageConverter.convert(
+                outgoingMessage,
+                session,
+                "sender@example.com",
+                "Sender",
+                cache
+            );
+            message.saveChanges();
+            ByteArrayOutputStream rawMessage = new ByteArrayOutputStream();
+            message.writeTo(rawMessage);
+
+            MimeMessage readMessage = new MimeMessage(session, new ByteArrayInputStream(rawMessage.toByteArray()));
+            MimeMultipart multipart = (MimeMultipart) readMessage.getContent();
+            BodyPart attachmentPart = multipart.getBodyPart(1);
+            assertEquals("terms.pdf", attachmentPart.getFileName());
+            assertArrayEquals(data, JavaCoreUtils.toByteArray(attachmentPart.getInputStream()));
+        }
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link EncodedAttachmentCache#getSize()}</li>
+     * </ul>
+     * <p>
+     * The least recently used attachments are evicted, when the size of the cache is exceeded
+     */
+    @Test
+    public void evictionTest() {
+        EncodedAttachmentCache cache = new EncodedAttachmentCache(25000);
+        EmailAttachment first = createAttachment("first.pdf", createData(8000));
+        JakartaMessagePartConverter.convertAttachmentPart(first, cache);
+        JakartaMessagePartConverter.convertAttachmentPart(createAttachment("second.pdf", createData(8000)), cache);
+        JakartaMessagePartConverter.convertAttachmentPart(first, cache);
+        JakartaMessagePartConverter.convertAttachmentPart(createAttachment("third.pdf", createData(8000)), cache);
+        assertEquals(2, cache.getCount());
+        assertTrue(cache.getSize() <= 25000);
+
+        // the first attachment was used recently, so it's still cached
+        JakartaMessagePartConverter.convertAttachmentPart(first, cache);
+        assertEquals(2, cache.getHitCount());
+    }
+
+    private static EmailAttachment createAttachment(String name, byte[] data) {
+        return EmailAttachment.builder()
+            .name(name)
+            .data(data)
+            .contentType("application/pdf")
+            .size(data.length)
+            .build();
+    }
+
+    private static byte[] createData(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+}
@@ -1,9 +1,13 @@
 package ru.dlabs71.library.email.tests.pageable;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.dto.pageable.CursorPageRequest;
 import ru.dlabs71.library.email.dto.pageable.PageRequest;
 
 /**
@@ -42,4 +46,27 @@ public class PageRequestTest {
         assertEquals(20, PageRequest.of(10, 10).incrementStart().getStart());
         assertEquals(9, PageRequest.of(2, 7).incrementStart().getStart());
     }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link CursorPageRequest#of(int)}</li>
+     *     <li>{@link CursorPageRequest#of(long, long, int)}</li>
+     * </ul>
+     */
+    @Test
+    public void cursorPageRequestTest() {
+        CursorPageRequest first = CursorPageRequest.of(10);
+        assertFalse(first.isUidValidityKnown());
+        assertEquals(0, first.getLastUid());
+        assertEquals(10, first.getLength());
+
+        CursorPageRequest next = CursorPageRequest.of(12345, 42, 10);
+        assertTrue(next.isUidValidityKnown());
+        assertEquals(12345, next.getUidValidity());
+        assertEquals(42, next.getLastUid());
+
+        assertEquals(0, CursorPageRequest.of(1, -5, 1).getLastUid());
+        assertThrows(IllegalArgumentException.class, () -> CursorPageRequest.of(0));
+    }
 }
@@ -0,0 +1,122 @@
+package ru.dlabs71.library.email.tests.search;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.Flags;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.search.SearchTerm;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Properties;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.dto.search.EmailSearchQuery;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(210)
+public class EmailSearchQueryTest {
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link EmailSearchQuery#toSearchTerm()}</li>
+     *     <li>{@link EmailSearchQuery#isEmpty()}</li>
+     * </ul>
+     */
+    @Test
+    public void emptyQueryTest() {
+        EmailSearchQuery query = EmailSearchQuery.builder().build();
+        assertNull(query.toSearchTerm());
+        assertTrue(query.isEmpty());
+        assertFalse(EmailSearchQuery.builder().subject("Map").build().isEmpty());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link EmailSearchQuery#toSearchTerm()}</li>
+     * </ul>
+     * <p>
+     * All the criteria must be matched
+     */
+    @Test
+    @SneakyThrows
+    public void toSearchTermTest() {
+        MimeMessage message = createMessage();
+
+        assertTrue(matches(EmailSearchQuery.builder().from("flint").build(), message));
+        assertTrue(matches(EmailSearchQuery.builder().to("jim@example.com").build(), message));
+        assertTrue(matches(EmailSearchQuery.builder().subject("flint's map").build(), message));
+        assertTrue(matches(EmailSearchQuery.builder().text("Treasure").build(), message));
+        assertTrue(matches(EmailSearchQuery.builder().header("X-Mailer", "d-email").build(), message));
+        assertTrue(matches(EmailSearchQuery.builder().withFlag(Flags.Flag.SEEN).build(), message));
+        assertTrue(matches(EmailSearchQuery.builder().withoutFlag(Flags.Flag.DELETED).build(), message));
+        assertTrue(matches(EmailSearchQuery.builder().smallerThan(100000).build(), message));
+        assertTrue(matches(
+            EmailSearchQuery.builder()
+                .sentSince(LocalDate.of(1750, 1, 1))
+                .sentBefore(LocalDate.of(1750, 1, 2))
+                .build(),
+            message
+        ));
+        assertTrue(matches(
+            EmailSearchQuery.builder()
+                .from("flint")
+                .subject("Map")
+                .withFlag(Flags.Flag.SEEN)
+                .withoutFlag(Flags.Flag.ANSWERED)
+                .build(),
+            message
+        ));
+
+        assertFalse(matches(EmailSearchQuery.builder().from("silver").build(), message));
+        assertFalse(matches(EmailSearchQuery.builder().withoutFlag(Flags.Flag.SEEN).build(), message));
+        assertFalse(matches(EmailSearchQuery.builder().sentSince(LocalDate.of(1750, 1, 2)).build(), message));
+        assertFalse(matches(EmailSearchQuery.builder().largerThan(100000).build(), message));
+        assertFalse(matches(EmailSearchQuery.builder().from("flint").subject("Island").build(), message));
+    }
+
+    private static boolean matches(EmailSearchQuery query, Message message) {
+        SearchTerm term = query.toSearchTerm();
+        return term.match(message);
+    }
+
+    @SneakyThrows
+    private static MimeMessage createMessage() {
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setFrom(new InternetAddress("flint@example.com", "Captain Flint"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("jim@example.com"));
+        message.setSubject("Captain Flint's Map");
+        message.setText("Treasure Island");
+        message.setHeader("X-Mailer", "d-email");
+        message.setSentDate(Date.from(LocalDate.of(1750, 1, 1).atTime(12, 0).atZone(ZoneId.systemDefault())
+                                          .toInstant()));
+        message.saveChanges();
+
+        // the size of a message is known only for a parsed message
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        message.writeTo(outputStream);
+        MimeMessage parsedMessage = new MimeMessage(
+            Session.getInstance(new Properties()),
+            new ByteArrayInputStream(outputStream.toByteArray())
+        );
+        parsedMessage.setFlag(Flags.Flag.SEEN, true);
+        return parsedMessage;
+    }
+}
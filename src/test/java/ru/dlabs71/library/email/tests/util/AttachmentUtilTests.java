@@ -1,7 +1,9 @@
 package ru.dlabs71.library.email.tests.util;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -9,7 +11,10 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -120,6 +125,41 @@ public class AttachmentUtilTests {
         assertEquals(sourceFile2.length(), result4.getData().length);
     }
 
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link AttachmentUtils#create(java.nio.file.Path)}</li>
+     *     <li>{@link AttachmentUtils#create(FileChannel, String, String)}</li>
+     * </ul>
+     */
+    @Test
+    public void createStreamedAttachmentTest() throws URISyntaxException, IOException {
+        URL url = AttachmentUtilTests.class.getClassLoader().getResource("attachments/file.jpg");
+        File sourceFile = new File(url.toURI());
+        byte[] content = Files.readAllBytes(sourceFile.toPath());
+
+        EmailAttachment result1 = AttachmentUtils.create(sourceFile.toPath());
+        assertNotNull(result1.getDataSource());
+        assertEquals(content.length, result1.getSize());
+        assertEquals(AttachmentType.IMAGE, result1.getType());
+        assertArrayEquals(content, result1.getData());
+
+        try (FileChannel channel = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ)) {
+            EmailAttachment result2 = AttachmentUtils.create(channel, "file.jpg", "image/jpeg");
+            assertEquals(content.length, result2.getSize());
+            assertEquals("file.jpg", result2.getName());
+            assertEquals(AttachmentType.IMAGE, result2.getType());
+            assertArrayEquals(content, result2.getData());
+            assertArrayEquals(content, result2.getData());
+            assertEquals(0, channel.position());
+        }
+
+        assertThrows(
+            AttachmentException.class,
+            () -> AttachmentUtils.create(Paths.get(System.getProperty("java.io.tmpdir"), "random-name-file.txt"))
+        );
+    }
+
     /**
      * The test for:
      * <ul>
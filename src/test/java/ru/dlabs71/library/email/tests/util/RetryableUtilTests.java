@@ -0,0 +1,170 @@
+package ru.dlabs71.library.email.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.eclipse.angus.mail.iap.CommandFailedException;
+import org.eclipse.angus.mail.iap.Response;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import ru.dlabs71.library.email.util.RetryBudget;
+import ru.dlabs71.library.email.util.RetryPolicy;
+import ru.dlabs71.library.email.util.RetryableUtils;
+
+/**
+ * <p>
+ * <div><strong>Project name:</strong> d-email</div>
+ * <div><strong>Creation date:</strong> 2026-10-18</div>
+ *
+ * @author Ivanov Danila
+ * @since 1.0.0
+ */
+@Order(435)
+public class RetryableUtilTests {
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link RetryableUtils#isRetryable(MessagingException)}</li>
+     *     <li>{@link RetryableUtils#getReturnCode(MessagingException)}</li>
+     * </ul>
+     */
+    @Test
+    @SneakyThrows
+    public void isRetryableTest() {
+        InternetAddress address = new InternetAddress("recipient@example.com");
+        SMTPAddressFailedException rejected = new SMTPAddressFailedException(address, "RCPT TO", 550, "No such user");
+        SMTPSendFailedException throttled = new SMTPSendFailedException(
+            "DATA",
+            451,
+            "Try again later",
+            null,
+            null,
+            null,
+            null
+        );
+        SendFailedException invalidAddresses = new SendFailedException(
+            "Invalid Addresses",
+            rejected,
+            new Address[0],
+            new Address[0],
+            new Address[]{address}
+        );
+
+        assertEquals(550, RetryableUtils.getReturnCode(invalidAddresses));
+        assertEquals(-1, RetryableUtils.getReturnCode(new MessagingException("Connection reset")));
+        assertFalse(RetryableUtils.isRetryable(rejected));
+        assertFalse(RetryableUtils.isRetryable(invalidAddresses));
+        assertFalse(RetryableUtils.isRetryable(new AuthenticationFailedException("Invalid credentials")));
+        assertTrue(RetryableUtils.isRetryable(throttled));
+        assertTrue(RetryableUtils.isRetryable(new MessagingException("Connection reset")));
+
+        // IMAP NO responses are retried only with transient response codes
+        assertTrue(RetryableUtils.isRetryable(imapError("A1 NO [UNAVAILABLE] Backend is down")));
+        assertTrue(RetryableUtils.isRetryable(imapError("A1 NO [INUSE] Mailbox is locked")));
+        assertTrue(RetryableUtils.isRetryable(imapError("A1 NO [LIMIT] Too many connections")));
+        assertFalse(RetryableUtils.isRetryable(imapError("A1 NO [NONEXISTENT] No such mailbox")));
+        assertFalse(RetryableUtils.isRetryable(imapError("A1 NO Permission denied")));
+    }
+
+    private static MessagingException imapError(String response) {
+        CommandFailedException cause = new CommandFailedException(new Response(response));
+        return new MessagingException(cause.getMessage(), cause);
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link RetryableUtils#retry(RetryPolicy, RetryableUtils.RetryableSupplier)}</li>
+     * </ul>
+     * <p>
+     * Transient errors are retried, permanent errors aren't
+     */
+    @Test
+    @SneakyThrows
+    public void retryTest() {
+        RetryPolicy policy = RetryPolicy.builder().maxRetries(3).initialDelay(1).maxDelay(4).build();
+        AtomicInteger attempts = new AtomicInteger();
+        String result = RetryableUtils.retry(policy, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new MessagingException("Connection reset");
+            }
+            return "OK";
+        });
+        assertEquals("OK", result);
+        assertEquals(3, attempts.get());
+
+        attempts.set(0);
+        assertThrows(AuthenticationFailedException.class, () -> RetryableUtils.retry(policy, () -> {
+            attempts.incrementAndGet();
+            throw new AuthenticationFailedException("Invalid credentials");
+        }));
+        assertEquals(1, attempts.get());
+
+        attempts.set(0);
+        assertThrows(MessagingException.class, () -> RetryableUtils.retry(policy, () -> {
+            attempts.incrementAndGet();
+            throw new MessagingException("Connection reset");
+        }));
+        assertEquals(4, attempts.get());
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link RetryPolicy#getDelay(int)}</li>
+     * </ul>
+     */
+    @Test
+    public void getDelayTest() {
+        RetryPolicy fixed = RetryPolicy.fixed(3, 100);
+        assertEquals(100, fixed.getDelay(0));
+        assertEquals(100, fixed.getDelay(5));
+
+        RetryPolicy exponential = RetryPolicy.builder().initialDelay(100).maxDelay(1000).jitter(false).build();
+        assertEquals(100, exponential.getDelay(0));
+        assertEquals(400, exponential.getDelay(2));
+        assertEquals(1000, exponential.getDelay(10));
+
+        RetryPolicy jittered = RetryPolicy.builder().initialDelay(100).maxDelay(1000).jitter(true).build();
+        for (int i = 0; i < 100; i++) {
+            long delay = jittered.getDelay(3);
+            assertTrue(delay >= 0 && delay <= 800);
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link RetryBudget}</li>
+     * </ul>
+     * <p>
+     * Retries aren't made when the budget is exhausted
+     */
+    @Test
+    public void retryBudgetTest() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        RetryPolicy policy = RetryPolicy.builder().maxRetries(3).budget(budget).build();
+        AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            assertThrows(MessagingException.class, () -> RetryableUtils.retry(policy, () -> {
+                attempts.incrementAndGet();
+                throw new MessagingException("Connection reset");
+            }));
+        }
+        // the reserve of 2 retries and 0.5 retry per request: 4 requests and 3 retries
+        assertEquals(7, attempts.get());
+        assertEquals(0.5, budget.getBalance());
+    }
+}
@@ -2,13 +2,19 @@ package ru.dlabs71.library.email.tests.util;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.commons.io.IOUtils;
@@ -173,4 +179,55 @@ public class TemplateUtilsTests {
         assertEquals("jar:file:/template/archive.jar", templatePath.getPathToDir());
         assertEquals("/dir/file.txt", templatePath.getTemplateName());
     }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link TemplateUtils#createTemplate(String)}</li>
+     *     <li>{@link TemplateUtils#setTemplateCacheSize(int)}</li>
+     * </ul>
+     */
+    @Test
+    public void templateCacheTest() throws TemplateCreationException {
+        String path = "classpath:template-test/template-in-folder.txt";
+        TemplateUtils.clearTemplateCache();
+        Template template = TemplateUtils.createTemplate(path);
+        assertSame(template, TemplateUtils.createTemplate(path));
+
+        TemplateUtils.setTemplateCacheSize(0);
+        try {
+            assertNotSame(TemplateUtils.createTemplate(path), TemplateUtils.createTemplate(path));
+        } finally {
+            TemplateUtils.setTemplateCacheSize(256);
+        }
+    }
+
+    /**
+     * The test for:
+     * <ul>
+     *     <li>{@link TemplateUtils#setModificationCheckEnabled(boolean)}</li>
+     * </ul>
+     */
+    @Test
+    public void templateModificationCheckTest() throws IOException, TemplateCreationException {
+        Path file = Files.createTempFile("d-email-template", ".txt");
+        file.toFile().deleteOnExit();
+        String path = "file://" + file.toAbsolutePath();
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", "World");
+
+        Files.write(file, "Hello, $name!".getBytes(StandardCharsets.UTF_8));
+        assertEquals("Hello, World!", TemplateUtils.construct(path, params));
+
+        Files.write(file, "Bye, $name!".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        assertEquals("Hello, World!", TemplateUtils.construct(path, params));
+
+        TemplateUtils.setModificationCheckEnabled(true);
+        try {
+            assertEquals("Bye, World!", TemplateUtils.construct(path, params));
+        } finally {
+            TemplateUtils.setModificationCheckEnabled(false);
+        }
+    }
 }